@@ -0,0 +1,59 @@
+/*
+ * 文件名：BackendStartupBenchmark.java
+ * 创建日期：2026年10月18日
+ * 作者：YoutubePlanner Team
+ *
+ * 文件描述：
+ * 应用启动时间基准测试：比较 prod（Flyway + 表结构校验）和 prod,fast-start 两种启动方式。
+ * 每次测量在新的 JVM 中启动完整的应用上下文，JVM 参数与 Dockerfile 一致；
+ * 数据库连接和 JWT 密钥通过与生产环境相同的环境变量提供，例如：
+ * SPRING_DATASOURCE_URL=jdbc:postgresql://localhost:5432/youtubeplanner SPRING_DATASOURCE_USERNAME=... \
+ * SPRING_DATASOURCE_PASSWORD=... JWT_SECRET=... mvn -Pbenchmark compile exec:exec -Djmh.args="BackendStartupBenchmark"
+ *
+ * 修改历史：
+ * 2026年10月18日 - 初始版本
+ *
+ * 版权所有 (c) 2026 YoutubePlanner
+ */
+
+package com.youtubeplanner.backend;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(value = 5, jvmArgsAppend = {"-Xmx512m", "-Xms256m", "-XX:+UseG1GC"})
+@State(Scope.Benchmark)
+public class BackendStartupBenchmark {
+
+    @Param({"prod", "prod,fast-start"})
+    private String profiles;
+
+    private ConfigurableApplicationContext context;
+
+    @Benchmark
+    public ConfigurableApplicationContext startup() {
+        context = new SpringApplicationBuilder(BackendApplication.class)
+                .profiles(profiles.split(","))
+                .properties(
+                        "server.port=0",
+                        // 调试日志会明显拉长启动时间，测量时关闭
+                        "logging.level.com.youtubeplanner.backend=WARN",
+                        "logging.level.org.hibernate=WARN")
+                .run();
+        return context;
+    }
+
+    @TearDown(Level.Iteration)
+    public void close() {
+        if (context != null) {
+            context.close();
+        }
+    }
+}
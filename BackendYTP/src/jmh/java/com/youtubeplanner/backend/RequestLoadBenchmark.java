@@ -0,0 +1,115 @@
+/*
+ * 文件名：RequestLoadBenchmark.java
+ * 创建日期：2026年10月18日
+ * 作者：YoutubePlanner Team
+ *
+ * 文件描述：
+ * 接口负载测试：500 个并发用户持续请求脚本列表，比较平台线程和虚拟线程（spring.threads.virtual.enabled）
+ * 两种请求处理方式的吞吐量（Throughput）和延迟分位数（SampleTime 的 p0.99）。
+ * 每种方式在新的 JVM 中以 prod 配置启动完整应用，客户端与应用在同一进程内通过本机 HTTP 访问；
+ * 虚拟线程需要以 Java 21 运行基准测试。返回 503（连接池饱和被拒绝）的请求单独计数，在每轮结束时输出。
+ * 数据库连接、JWT 密钥和测试账号通过环境变量提供，例如：
+ * SPRING_DATASOURCE_URL=jdbc:postgresql://localhost:5432/youtubeplanner SPRING_DATASOURCE_USERNAME=... \
+ * SPRING_DATASOURCE_PASSWORD=... JWT_SECRET=... LOAD_TEST_USERNAME=... LOAD_TEST_PASSWORD=... \
+ * mvn -Pbenchmark compile exec:exec -Djmh.args="RequestLoadBenchmark"
+ *
+ * 修改历史：
+ * 2026年10月18日 - 初始版本
+ *
+ * 版权所有 (c) 2026 YoutubePlanner
+ */
+
+package com.youtubeplanner.backend;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 3, time = 10)
+@Threads(500)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx1g", "-XX:+UseG1GC"})
+@State(Scope.Benchmark)
+public class RequestLoadBenchmark {
+
+    @Param({"false", "true"})
+    private boolean virtualThreads;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private String baseUrl;
+    private String authorization;
+    private final LongAdder ok = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        if (virtualThreads && Runtime.version().feature() < 21) {
+            throw new IllegalStateException("虚拟线程需要 Java 21，当前 Java " + Runtime.version().feature());
+        }
+        context = new SpringApplicationBuilder(BackendApplication.class)
+                .profiles("prod")
+                .properties(
+                        "server.port=0",
+                        "spring.threads.virtual.enabled=" + virtualThreads,
+                        "logging.level.com.youtubeplanner.backend=WARN",
+                        "logging.level.org.hibernate=WARN",
+                        // 被拒绝的请求每次都会记录警告日志，测量时关闭
+                        "logging.level.com.youtubeplanner.backend.config.ConnectionPoolAdmissionFilter=ERROR")
+                .run();
+        baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        String body = objectMapper.writeValueAsString(Map.of(
+                "username", System.getenv("LOAD_TEST_USERNAME"),
+                "password", System.getenv("LOAD_TEST_PASSWORD")));
+        HttpResponse<String> login = client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/v1/auth/login"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(body))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+        authorization = "Bearer " + objectMapper.readTree(login.body()).path("data").path("accessToken").asText();
+    }
+
+    @TearDown(Level.Iteration)
+    public void report() {
+        System.out.printf("%n成功 %d，503 %d%n", ok.sumThenReset(), rejected.sumThenReset());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int listScripts() throws Exception {
+        int page = ThreadLocalRandom.current().nextInt(1, 51);
+        HttpResponse<byte[]> response = client.send(
+                HttpRequest.newBuilder(URI.create(baseUrl + "/api/v1/scripts?page=" + page + "&limit=20"))
+                        .header("Authorization", authorization)
+                        .GET()
+                        .build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() == 200) {
+            ok.increment();
+        } else if (response.statusCode() == 503) {
+            rejected.increment();
+        } else {
+            throw new IllegalStateException("请求失败: " + response.statusCode());
+        }
+        return response.statusCode();
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * 文件名：ScriptMappingBenchmark.java
+ * 创建日期：2026年10月18日
+ * 作者：YoutubePlanner Team
+ * 
+ * 文件描述：
+ * ScriptServiceImpl 实体/投影到响应DTO转换的基准测试。
+ * 
+ * 修改历史：
+ * 2026年10月18日 - 初始版本
+ * 
+ * 版权所有 (c) 2026 YoutubePlanner
+ */
+
+package com.youtubeplanner.backend.script;
+
+import com.youtubeplanner.backend.script.dto.ScriptListItemResponse;
+import com.youtubeplanner.backend.script.dto.ScriptListItemRow;
+import com.youtubeplanner.backend.script.dto.ScriptResponse;
+import com.youtubeplanner.backend.script.entity.Script;
+import com.youtubeplanner.backend.script.entity.ScriptChapter;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ScriptMappingBenchmark {
+    // 转换方法是私有的，通过 MethodHandle 调用，static final 便于 JIT 内联
+    private static final MethodHandle CONVERT_TO_RESPONSE;
+    private static final MethodHandle CONVERT_TO_LIST_ITEM_RESPONSE;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(ScriptServiceImpl.class, MethodHandles.lookup());
+            CONVERT_TO_RESPONSE = lookup.findVirtual(ScriptServiceImpl.class, "convertToResponse",
+                    MethodType.methodType(ScriptResponse.class, Script.class));
+            CONVERT_TO_LIST_ITEM_RESPONSE = lookup.findVirtual(ScriptServiceImpl.class, "convertToListItemResponse",
+                    MethodType.methodType(ScriptListItemResponse.class, ScriptListItemRow.class));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private ScriptServiceImpl scriptService;
+    private ScriptListItemRow row;
+
+    @Setup
+    public void setup() {
+        // 转换方法不依赖仓库和频道服务
+        scriptService = new ScriptServiceImpl(null, null, null, null, null);
+
+        Instant now = Instant.now();
+        row = new ScriptListItemRow(1L, "Benchmark script", "Description", "draft", 3, LocalDate.now(),
+                now, now, 1L, "Channel", 1L, "Category", 5L);
+    }
+
+    // 脚本详情数据单独放在一个状态中，章节数量参数只作用于详情转换
+    @State(Scope.Benchmark)
+    public static class DetailState {
+        @Param({"1", "10", "50"})
+        private int chapters;
+
+        private Script script;
+
+        @Setup
+        public void setup() {
+            Instant now = Instant.now();
+            script = new Script()
+                    .setScriptId(1L)
+                    .setTitle("Benchmark script")
+                    .setAlternativeTitle1("Alternative title")
+                    .setDescription("A script used for benchmarking the response mapping")
+                    .setDifficulty(3)
+                    .setStatus("draft")
+                    .setReleaseDate(LocalDate.now())
+                    .setUserId(1L)
+                    .setChannelId(1L)
+                    .setCategoryId(1L)
+                    .setCreatedAt(now)
+                    .setUpdatedAt(now);
+            List<ScriptChapter> chapterList = new ArrayList<>();
+            // 倒序加入，让转换时的排序有实际工作量
+            for (int i = chapters; i >= 1; i--) {
+                chapterList.add(new ScriptChapter()
+                        .setChapterId((long) i)
+                        .setScript(script)
+                        .setChapterNumber(i)
+                        .setTitle("Chapter " + i)
+                        .setContent("Chapter content " + i)
+                        .setCreatedAt(now)
+                        .setUpdatedAt(now));
+            }
+            script.setChapters(chapterList);
+        }
+    }
+
+    @Benchmark
+    public ScriptResponse convertToResponse(DetailState state) throws Throwable {
+        return (ScriptResponse) CONVERT_TO_RESPONSE.invokeExact(scriptService, state.script);
+    }
+
+    @Benchmark
+    public ScriptListItemResponse convertToListItemResponse() throws Throwable {
+        return (ScriptListItemResponse) CONVERT_TO_LIST_ITEM_RESPONSE.invokeExact(scriptService, row);
+    }
+}
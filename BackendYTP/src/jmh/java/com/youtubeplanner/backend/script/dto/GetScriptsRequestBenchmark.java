@@ -0,0 +1,51 @@
+/*
+ * 文件名：GetScriptsRequestBenchmark.java
+ * 创建日期：2026年10月18日
+ * 作者：YoutubePlanner Team
+ * 
+ * 文件描述：
+ * GetScriptsRequest 查询参数解析的基准测试。
+ * 
+ * 修改历史：
+ * 2026年10月18日 - 初始版本
+ * 
+ * 版权所有 (c) 2026 YoutubePlanner
+ */
+
+package com.youtubeplanner.backend.script.dto;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GetScriptsRequestBenchmark {
+    private GetScriptsRequest request;
+
+    @Setup
+    public void setup() {
+        request = new GetScriptsRequest();
+        request.setPage(3);
+        request.setSize(20);
+        request.setSort_by("release_date");
+        request.setOrder("asc");
+        request.setInclude("category, channel");
+    }
+
+    @Benchmark
+    public Set<String> getIncludeFields() {
+        return request.getIncludeFields();
+    }
+
+    @Benchmark
+    public PageRequest toPageRequest() {
+        return request.toPageRequest();
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * 文件名：ScriptListSerializationBenchmark.java
+ * 创建日期：2026年10月18日
+ * 作者：YoutubePlanner Team
+ * 
+ * 文件描述：
+ * 脚本列表响应 ApiResponse<PageResponse<ScriptListItemResponse>> 的 Jackson 序列化基准测试。
+ * 
+ * 修改历史：
+ * 2026年10月18日 - 初始版本
+ * 
+ * 版权所有 (c) 2026 YoutubePlanner
+ */
+
+package com.youtubeplanner.backend.script.dto;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.youtubeplanner.backend.common.ApiResponse;
+import com.youtubeplanner.backend.common.PageResponse;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ScriptListSerializationBenchmark {
+    @Param({"10", "100", "1000"})
+    private int items;
+
+    private ObjectMapper objectMapper;
+    private ApiResponse<PageResponse<ScriptListItemResponse>> response;
+
+    @Setup
+    public void setup() {
+        // 与 Spring Boot 默认配置一致：注册 JavaTimeModule，日期序列化为 ISO 字符串
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+
+        Instant now = Instant.now();
+        List<ScriptListItemResponse> content = new ArrayList<>(items);
+        for (int i = 1; i <= items; i++) {
+            content.add(new ScriptListItemResponse()
+                    .setScriptId((long) i)
+                    .setTitle("Benchmark script " + i)
+                    .setDescription("Description of benchmark script " + i)
+                    .setStatus("draft")
+                    .setDifficulty(i % 5 + 1)
+                    .setReleaseDate(LocalDate.now())
+                    .setChannel(new ScriptListItemResponse.ChannelInfo()
+                            .setChannelId(1L)
+                            .setChannelName("Channel"))
+                    .setCategory(new ScriptListItemResponse.CategoryInfo()
+                            .setCategoryId(1L)
+                            .setCategoryName("Category"))
+                    .setChaptersCount(5)
+                    .setCreatedAt(now)
+                    .setUpdatedAt(now));
+        }
+        response = ApiResponse.success(PageResponse.of(
+                new PageImpl<>(content, PageRequest.of(0, items), items * 10L)));
+    }
+
+    @Benchmark
+    public byte[] serialize() throws Exception {
+        return objectMapper.writeValueAsBytes(response);
+    }
+}
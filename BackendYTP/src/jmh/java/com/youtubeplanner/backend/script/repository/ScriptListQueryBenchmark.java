@@ -0,0 +1,170 @@
+/*
+ * 文件名：ScriptListQueryBenchmark.java
+ * 创建日期：2026年10月18日
+ * 作者：YoutubePlanner Team
+ *
+ * 文件描述：
+ * 比较预处理语句模式（database.prepared-statements 的 client 和 server）下常用查询的耗时：
+ * 脚本列表页（ScriptRepository.findListItemsByUserIdAndFilters 生成的列表查询和计数查询）
+ * 以及每个请求认证时按用户名查询用户。SQL 与 Hibernate 生成的一致，直接通过 JDBC 执行，
+ * 使用脚本数量最多的用户的数据。
+ * 数据库连接通过与生产环境相同的环境变量提供，例如：
+ * SPRING_DATASOURCE_URL=jdbc:postgresql://localhost:5432/youtubeplanner SPRING_DATASOURCE_USERNAME=... \
+ * SPRING_DATASOURCE_PASSWORD=... mvn -Pbenchmark compile exec:exec -Djmh.args="ScriptListQueryBenchmark"
+ *
+ * 修改历史：
+ * 2026年10月18日 - 初始版本
+ *
+ * 版权所有 (c) 2026 YoutubePlanner
+ */
+
+package com.youtubeplanner.backend.script.repository;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.Properties;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ScriptListQueryBenchmark {
+    private static final int PAGE_SIZE = 20;
+
+    private static final String FILTERS = "where s1_0.user_id=? and (? is null or s1_0.channel_id=?) " +
+            "and (? is null or s1_0.category_id=?) and (? is null or ?='' or s1_0.status=?) " +
+            "and (? is null or s1_0.difficulty=?) and (? is null or s1_0.release_date>=?) " +
+            "and (? is null or s1_0.release_date<=?) and (? is null or ?='' or " +
+            "lower(cast(s1_0.title as text)) like lower(('%'||cast(? as text)||'%')) escape '' or " +
+            "lower(cast(s1_0.description as text)) like lower(('%'||cast(? as text)||'%')) escape '') ";
+
+    private static final String LIST_SQL = "select s1_0.script_id,s1_0.title,s1_0.description,s1_0.status," +
+            "s1_0.difficulty,s1_0.release_date,s1_0.created_at,s1_0.updated_at,c1_0.channel_id,c1_0.channel_name," +
+            "c2_0.category_id,c2_0.category_name," +
+            "(select count(sc1_0.chapter_id) from script_chapters sc1_0 where sc1_0.script_id=s1_0.script_id) " +
+            "from scripts s1_0 " +
+            "left join channels c1_0 on (c1_0.deleted = false) and c1_0.channel_id=s1_0.channel_id " +
+            "and c1_0.user_id=s1_0.user_id and c1_0.deleted=false " +
+            "left join categories c2_0 on c2_0.category_id=s1_0.category_id and c2_0.user_id=s1_0.user_id " +
+            FILTERS + "order by s1_0.created_at desc offset ? rows fetch first ? rows only";
+
+    private static final String COUNT_SQL = "select count(s1_0.script_id) from scripts s1_0 " + FILTERS;
+
+    private static final String USER_SQL = "select u1_0.user_id,u1_0.api_base_url,u1_0.api_key,u1_0.api_model," +
+            "u1_0.api_provider,u1_0.avatar_url,u1_0.created_at,u1_0.display_name,u1_0.email,u1_0.password_hash," +
+            "u1_0.role,u1_0.updated_at,u1_0.username from users u1_0 where u1_0.username=?";
+
+    /**
+     * client：prepareThreshold=0，不缓存语句（连接池兼容）；
+     * server：服务端预处理语句 + plan_cache_mode=force_custom_plan（与应用的 server 模式一致）；
+     * server-generic：服务端预处理语句，由数据库决定是否改用通用执行计划（用于对比）
+     */
+    @Param({"client", "server", "server-generic"})
+    private String mode;
+
+    private Connection connection;
+    private long userId;
+    private String username;
+    private int pages;
+
+    @Setup
+    public void setup() throws SQLException {
+        Properties info = new Properties();
+        info.put("user", System.getenv("SPRING_DATASOURCE_USERNAME"));
+        info.put("password", System.getenv("SPRING_DATASOURCE_PASSWORD"));
+        boolean serverSide = mode.startsWith("server");
+        info.put("prepareThreshold", serverSide ? "5" : "0");
+        info.put("preparedStatementCacheQueries", serverSide ? "256" : "0");
+        info.put("preparedStatementCacheSizeMiB", serverSide ? "5" : "0");
+        if ("server".equals(mode)) {
+            info.put("options", "-c plan_cache_mode=force_custom_plan");
+        }
+        connection = DriverManager.getConnection(System.getenv("SPRING_DATASOURCE_URL"), info);
+
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(
+                     "SELECT u.user_id, u.username, COUNT(*) FROM scripts s JOIN users u ON u.user_id = s.user_id " +
+                     "GROUP BY u.user_id, u.username ORDER BY COUNT(*) DESC LIMIT 1")) {
+            if (!resultSet.next()) {
+                throw new IllegalStateException("数据库中没有脚本数据");
+            }
+            userId = resultSet.getLong(1);
+            username = resultSet.getString(2);
+            pages = (int) Math.max(1, Math.min(50, resultSet.getLong(3) / PAGE_SIZE));
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Benchmark
+    public void listPage(Blackhole blackhole) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(LIST_SQL)) {
+            int index = bindFilters(statement);
+            statement.setInt(index++, ThreadLocalRandom.current().nextInt(pages) * PAGE_SIZE);
+            statement.setInt(index, PAGE_SIZE);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    blackhole.consume(resultSet.getLong(1));
+                    blackhole.consume(resultSet.getString(2));
+                }
+            }
+        }
+        try (PreparedStatement statement = connection.prepareStatement(COUNT_SQL)) {
+            bindFilters(statement);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                resultSet.next();
+                blackhole.consume(resultSet.getLong(1));
+            }
+        }
+    }
+
+    @Benchmark
+    public void findUserByUsername(Blackhole blackhole) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(USER_SQL)) {
+            statement.setString(1, username);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                resultSet.next();
+                blackhole.consume(resultSet.getLong(1));
+            }
+        }
+    }
+
+    /**
+     * 绑定列表过滤参数：只按用户过滤，其他条件为空（列表页默认请求）
+     */
+    private int bindFilters(PreparedStatement statement) throws SQLException {
+        int index = 1;
+        statement.setLong(index++, userId);
+        for (int i = 0; i < 4; i++) {
+            statement.setNull(index++, Types.BIGINT);
+        }
+        for (int i = 0; i < 3; i++) {
+            statement.setNull(index++, Types.VARCHAR);
+        }
+        for (int i = 0; i < 2; i++) {
+            statement.setNull(index++, Types.INTEGER);
+        }
+        for (int i = 0; i < 4; i++) {
+            statement.setNull(index++, Types.DATE);
+        }
+        for (int i = 0; i < 4; i++) {
+            statement.setNull(index++, Types.VARCHAR);
+        }
+        return index;
+    }
+}
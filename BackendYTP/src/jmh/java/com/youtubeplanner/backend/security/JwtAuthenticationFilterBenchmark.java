@@ -0,0 +1,268 @@
+/*
+ * 文件名：JwtAuthenticationFilterBenchmark.java
+ * 创建日期：2026年10月18日
+ * 作者：YoutubePlanner Team
+ *
+ * 文件描述：
+ * JWT 认证过滤器基准测试：比较每个带令牌请求在过滤器中的耗时。
+ * - legacyFilter：原来的流程，先 getUsernameFromToken 再 validateToken，每次调用都重新构建密钥和解析器并验签，
+ *   每个请求都按用户名加载用户；
+ * - currentFilter：JwtAuthenticationFilter，parseAndValidate 验签一次，用户信息从已预热的 PrincipalCache 获取。
+ * 设置了 SPRING_DATASOURCE_URL 时按用户名查询 users 表加载用户（使用表中第一个用户），与应用中每次加载的开销一致；
+ * 未设置时从内存返回用户，只比较验签部分。例如：
+ * SPRING_DATASOURCE_URL=jdbc:postgresql://localhost:5432/youtubeplanner SPRING_DATASOURCE_USERNAME=... \
+ * SPRING_DATASOURCE_PASSWORD=... mvn -Pbenchmark compile exec:exec -Djmh.args="JwtAuthenticationFilterBenchmark"
+ *
+ * 修改历史：
+ * 2026年10月18日 - 初始版本
+ *
+ * 版权所有 (c) 2026 YoutubePlanner
+ */
+
+package com.youtubeplanner.backend.security;
+
+import com.youtubeplanner.backend.user.entity.Role;
+import com.youtubeplanner.backend.user.entity.User;
+import com.youtubeplanner.backend.user.service.impl.JwtServiceImpl;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.security.Key;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class JwtAuthenticationFilterBenchmark {
+    private static final String SECRET = "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970";
+
+    private static final String USER_SQL = "select u1_0.user_id,u1_0.api_base_url,u1_0.api_key,u1_0.api_model," +
+            "u1_0.api_provider,u1_0.avatar_url,u1_0.created_at,u1_0.display_name,u1_0.email,u1_0.password_hash," +
+            "u1_0.role,u1_0.updated_at,u1_0.username from users u1_0 where u1_0.username=?";
+
+    private static final FilterChain NO_OP_CHAIN = (request, response) -> {
+    };
+
+    private Connection connection;
+    private User user;
+    private HttpServletRequest request;
+    private HttpServletResponse response;
+    private LegacyJwtAuthenticationFilter legacyFilter;
+    private JwtAuthenticationFilter currentFilter;
+
+    @Setup
+    public void setup() throws SQLException {
+        String url = System.getenv("SPRING_DATASOURCE_URL");
+        if (url != null) {
+            connection = DriverManager.getConnection(url,
+                    System.getenv("SPRING_DATASOURCE_USERNAME"), System.getenv("SPRING_DATASOURCE_PASSWORD"));
+            try (Statement statement = connection.createStatement();
+                 ResultSet resultSet = statement.executeQuery(
+                         "SELECT username FROM users ORDER BY user_id LIMIT 1")) {
+                if (!resultSet.next()) {
+                    throw new IllegalStateException("数据库中没有用户数据");
+                }
+                user = loadUser(resultSet.getString(1));
+            }
+        } else {
+            user = User.builder()
+                    .userId(1L)
+                    .username("benchmark")
+                    .passwordHash("x")
+                    .role(Role.USER)
+                    .build();
+        }
+
+        JwtServiceImpl jwtService = new JwtServiceImpl();
+        setField(jwtService, "secret", SECRET);
+        setField(jwtService, "accessTokenExpiration", 3600L);
+        setField(jwtService, "refreshTokenExpiration", 604800L);
+        Method init = ReflectionUtils.findMethod(JwtServiceImpl.class, "init");
+        ReflectionUtils.makeAccessible(init);
+        ReflectionUtils.invokeMethod(init, jwtService);
+        String authorization = "Bearer " + jwtService.generateAccessToken(user);
+
+        UserDetailsService userDetailsService = this::loadUser;
+        PrincipalCache principalCache = new PrincipalCache(Duration.ofHours(1), 10_000, new SimpleMeterRegistry());
+        legacyFilter = new LegacyJwtAuthenticationFilter(SECRET, userDetailsService);
+        currentFilter = new JwtAuthenticationFilter(jwtService, userDetailsService, principalCache);
+        request = request(authorization);
+        response = (HttpServletResponse) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{HttpServletResponse.class}, (proxy, method, args) -> null);
+
+        // 预热用户缓存，测量缓存命中时的路径
+        principalCache.get(user.getUsername(), userDetailsService::loadUserByUsername);
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        if (connection != null) {
+            connection.close();
+        }
+    }
+
+    @Benchmark
+    public Authentication legacyFilter() throws Exception {
+        return authenticate(() -> legacyFilter.doFilterInternal(request, response, NO_OP_CHAIN));
+    }
+
+    @Benchmark
+    public Authentication currentFilter() throws Exception {
+        return authenticate(() -> currentFilter.doFilterInternal(request, response, NO_OP_CHAIN));
+    }
+
+    /**
+     * 执行过滤器并返回设置的认证信息；过滤器只在当前线程未认证时处理令牌，每次执行后清空
+     */
+    private static Authentication authenticate(FilterCall call) throws Exception {
+        try {
+            call.run();
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            if (authentication == null) {
+                throw new IllegalStateException("请求未通过认证");
+            }
+            return authentication;
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    private User loadUser(String username) {
+        if (connection == null) {
+            return user;
+        }
+        try (PreparedStatement statement = connection.prepareStatement(USER_SQL)) {
+            statement.setString(1, username);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                if (!resultSet.next()) {
+                    throw new UsernameNotFoundException("User not found: " + username);
+                }
+                return User.builder()
+                        .userId(resultSet.getLong("user_id"))
+                        .username(resultSet.getString("username"))
+                        .passwordHash(resultSet.getString("password_hash"))
+                        .email(resultSet.getString("email"))
+                        .role(Role.valueOf(resultSet.getString("role")))
+                        .build();
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 带 Authorization 头的 GET 请求，只实现过滤器和 WebAuthenticationDetailsSource 用到的方法
+     */
+    private HttpServletRequest request(String authorization) {
+        return (HttpServletRequest) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{HttpServletRequest.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "getHeader" -> "Authorization".equalsIgnoreCase((String) args[0]) ? authorization : null;
+                    case "getMethod" -> "GET";
+                    case "getRequestURI" -> "/api/v1/scripts";
+                    case "getRemoteAddr" -> "127.0.0.1";
+                    default -> null;
+                });
+    }
+
+    private static void setField(Object target, String name, Object value) {
+        Field field = ReflectionUtils.findField(target.getClass(), name);
+        ReflectionUtils.makeAccessible(field);
+        ReflectionUtils.setField(field, target, value);
+    }
+
+    @FunctionalInterface
+    private interface FilterCall {
+        void run() throws Exception;
+    }
+
+    /**
+     * 原来的过滤流程：解析两次令牌，每次都重新构建密钥和解析器；每个请求都加载用户
+     */
+    private static class LegacyJwtAuthenticationFilter {
+        private final String secret;
+        private final UserDetailsService userDetailsService;
+
+        LegacyJwtAuthenticationFilter(String secret, UserDetailsService userDetailsService) {
+            this.secret = secret;
+            this.userDetailsService = userDetailsService;
+        }
+
+        void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+                throws Exception {
+            String authHeader = request.getHeader("Authorization");
+            if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+                filterChain.doFilter(request, response);
+                return;
+            }
+
+            String jwt = authHeader.substring(7);
+            String username = getUsernameFromToken(jwt);
+            if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+                if (validateToken(jwt)) {
+                    UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                            userDetails, null, userDetails.getAuthorities());
+                    authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                    SecurityContextHolder.getContext().setAuthentication(authToken);
+                }
+            }
+            filterChain.doFilter(request, response);
+        }
+
+        private Key getSigningKey() {
+            return Keys.hmacShaKeyFor(secret.getBytes());
+        }
+
+        private Claims parse(String token) {
+            return Jwts.parserBuilder()
+                    .setSigningKey(getSigningKey())
+                    .build()
+                    .parseClaimsJws(token)
+                    .getBody();
+        }
+
+        private boolean validateToken(String token) {
+            try {
+                return !parse(token).getExpiration().before(new Date());
+            } catch (Exception e) {
+                return false;
+            }
+        }
+
+        private String getUsernameFromToken(String token) {
+            try {
+                return parse(token).get("username", String.class);
+            } catch (Exception e) {
+                return null;
+            }
+        }
+    }
+}
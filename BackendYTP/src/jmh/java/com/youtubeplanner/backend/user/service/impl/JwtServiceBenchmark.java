@@ -0,0 +1,73 @@
+/*
+ * 文件名：JwtServiceBenchmark.java
+ * 创建日期：2026年10月18日
+ * 作者：YoutubePlanner Team
+ * 
+ * 文件描述：
+ * JwtServiceImpl 基准测试：访问令牌生成和验证。
+ * 
+ * 修改历史：
+ * 2026年10月18日 - 初始版本
+ * 
+ * 版权所有 (c) 2026 YoutubePlanner
+ */
+
+package com.youtubeplanner.backend.user.service.impl;
+
+import com.youtubeplanner.backend.user.dto.JwtClaims;
+import com.youtubeplanner.backend.user.entity.User;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Field;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtServiceBenchmark {
+    private static final String SECRET = "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970";
+
+    private JwtServiceImpl jwtService;
+    private User user;
+    private String token;
+
+    @Setup
+    public void setup() {
+        jwtService = new JwtServiceImpl();
+        setField("secret", SECRET);
+        setField("accessTokenExpiration", 3600L);
+        setField("refreshTokenExpiration", 604800L);
+        jwtService.init();
+
+        user = User.builder()
+                .userId(1L)
+                .username("benchmark")
+                .build();
+        token = jwtService.generateAccessToken(user);
+    }
+
+    @Benchmark
+    public String generateAccessToken() {
+        return jwtService.generateAccessToken(user);
+    }
+
+    @Benchmark
+    public JwtClaims parseAndValidate() {
+        return jwtService.parseAndValidate(token);
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return jwtService.validateToken(token);
+    }
+
+    private void setField(String name, Object value) {
+        Field field = ReflectionUtils.findField(JwtServiceImpl.class, name);
+        ReflectionUtils.makeAccessible(field);
+        ReflectionUtils.setField(field, jwtService, value);
+    }
+}
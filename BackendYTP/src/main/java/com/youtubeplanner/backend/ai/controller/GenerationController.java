@@ -0,0 +1,46 @@
+/*
+ * 文件名：GenerationController.java
+ * 创建日期：2026年10月18日
+ * 作者：YoutubePlanner Team
+ *
+ * 文件描述：
+ * AI 生成控制器，以 SSE 流式返回生成内容。
+ *
+ * 修改历史：
+ * 2026年10月18日 - 初始版本
+ *
+ * 版权所有 (c) 2026 YoutubePlanner
+ */
+
+package com.youtubeplanner.backend.ai.controller;
+
+import com.youtubeplanner.backend.ai.dto.GenerateRequest;
+import com.youtubeplanner.backend.ai.service.GenerationService;
+import com.youtubeplanner.backend.user.entity.User;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/v1/ai")
+@RequiredArgsConstructor
+public class GenerationController {
+
+    private final GenerationService generationService;
+
+    // 不声明 produces，生成开始前的错误（参数、配置、并发限制）仍以 JSON 返回
+    @PostMapping("/generate")
+    public SseEmitter generate(
+            @AuthenticationPrincipal User user,
+            @Valid @RequestBody GenerateRequest request) {
+        log.debug("AI生成请求，用户ID: {}", user.getUserId());
+        return generationService.streamGeneration(user, request);
+    }
+}
@@ -0,0 +1,40 @@
+/*
+ * 文件名：GenerateRequest.java
+ * 创建日期：2026年10月18日
+ * 作者：YoutubePlanner Team
+ *
+ * 文件描述：
+ * AI 生成请求DTO。使用当前用户配置的大模型接口生成内容。
+ *
+ * 修改历史：
+ * 2026年10月18日 - 初始版本
+ *
+ * 版权所有 (c) 2026 YoutubePlanner
+ */
+
+package com.youtubeplanner.backend.ai.dto;
+
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+@Data
+public class GenerateRequest {
+    @NotBlank(message = "提示词不能为空")
+    @Size(max = 20000, message = "提示词长度不能超过20000个字符")
+    private String prompt;
+
+    @Min(value = 1, message = "最大生成长度必须大于0")
+    @Max(value = 8000, message = "最大生成长度不能超过8000")
+    private Integer maxTokens; // 默认2000
+
+    @DecimalMin(value = "0.0", message = "temperature 不能小于0")
+    @DecimalMax(value = "2.0", message = "temperature 不能大于2")
+    private Double temperature; // 默认0.7，仅 OpenAI 兼容接口使用
+
+    private Boolean noCache; // true 时跳过生成缓存重新生成，默认 false
+}
@@ -0,0 +1,27 @@
+/*
+ * 文件名：GenerationService.java
+ * 创建日期：2026年10月18日
+ * 作者：YoutubePlanner Team
+ *
+ * 文件描述：
+ * AI 生成服务接口，代理调用用户配置的大模型接口并流式返回生成内容。
+ *
+ * 修改历史：
+ * 2026年10月18日 - 初始版本
+ *
+ * 版权所有 (c) 2026 YoutubePlanner
+ */
+
+package com.youtubeplanner.backend.ai.service;
+
+import com.youtubeplanner.backend.ai.dto.GenerateRequest;
+import com.youtubeplanner.backend.user.entity.User;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+public interface GenerationService {
+    /**
+     * 使用用户配置的大模型接口流式生成内容
+     * 未配置接口时抛出 RuntimeException，超出并发限制时抛出 TooManyRequestsException
+     */
+    SseEmitter streamGeneration(User user, GenerateRequest request);
+}
@@ -0,0 +1,162 @@
+/*
+ * 文件名：GenerationCache.java
+ * 创建日期：2026年10月18日
+ * 作者：YoutubePlanner Team
+ *
+ * 文件描述：
+ * AI 生成结果缓存。
+ * 以 "提供商 + 接口地址 + 模型 + 参数 + 提示词" 的 SHA-256 作为键，相同请求直接回放已生成的内容，
+ * 不再调用上游接口。内存层按条目数和写入后过期时间淘汰；
+ * 配置 ai.generation.cache.dir 后启用磁盘层，内存淘汰或重启后仍可命中，磁盘层按过期时间淘汰。
+ * 命中/未命中统计注册到 Micrometer（cache.gets{cache=generation}）。
+ *
+ * 修改历史：
+ * 2026年10月18日 - 初始版本
+ *
+ * 版权所有 (c) 2026 YoutubePlanner
+ */
+
+package com.youtubeplanner.backend.ai.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.stream.Stream;
+
+@Slf4j
+@Component
+class GenerationCache {
+    private static final String FILE_SUFFIX = ".txt";
+
+    private final Cache<String, String> cache;
+    private final Path dir;
+    private final Duration diskTtl;
+
+    GenerationCache(
+            @Value("${ai.generation.cache.ttl:1h}") Duration ttl,
+            @Value("${ai.generation.cache.max-size:1000}") long maxSize,
+            @Value("${ai.generation.cache.dir:}") String dir,
+            @Value("${ai.generation.cache.disk-ttl:7d}") Duration diskTtl,
+            MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "generation");
+        this.diskTtl = diskTtl;
+        this.dir = dir.isBlank() ? null : initDirectory(Path.of(dir));
+    }
+
+    /**
+     * 计算缓存键
+     * 各字段带长度前缀拼接，避免不同字段组合拼出相同内容
+     */
+    static String key(String provider, String baseUrl, String model, int maxTokens, double temperature, String prompt) {
+        StringBuilder raw = new StringBuilder();
+        for (String part : new String[]{provider, baseUrl, model, String.valueOf(maxTokens), String.valueOf(temperature), prompt}) {
+            raw.append(part.length()).append(':').append(part).append('\n');
+        }
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(raw.toString().getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 获取缓存的生成内容，内存未命中时查找磁盘层
+     *
+     * @return 生成内容，未命中时返回 null
+     */
+    String get(String key) {
+        String content = cache.getIfPresent(key);
+        if (content == null && dir != null) {
+            content = readFile(key);
+            if (content != null) {
+                cache.put(key, content);
+            }
+        }
+        return content;
+    }
+
+    void put(String key, String content) {
+        cache.put(key, content);
+        if (dir != null) {
+            writeFile(key, content);
+        }
+    }
+
+    private String readFile(String key) {
+        Path file = dir.resolve(key + FILE_SUFFIX);
+        try {
+            if (isExpired(file)) {
+                Files.deleteIfExists(file);
+                return null;
+            }
+            return Files.readString(file, StandardCharsets.UTF_8);
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            log.warn("读取生成缓存文件失败: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private void writeFile(String key, String content) {
+        try {
+            // 先写临时文件再移动，避免并发读取到不完整的内容
+            Path tmp = Files.createTempFile(dir, key, ".tmp");
+            Files.writeString(tmp, content, StandardCharsets.UTF_8);
+            Files.move(tmp, dir.resolve(key + FILE_SUFFIX), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("写入生成缓存文件失败: {}", e.getMessage());
+        }
+    }
+
+    private boolean isExpired(Path file) throws IOException {
+        return Files.getLastModifiedTime(file).toInstant().plus(diskTtl).isBefore(Instant.now());
+    }
+
+    /**
+     * 创建缓存目录，并清理已过期的文件和上次未完成写入的临时文件
+     */
+    private Path initDirectory(Path path) {
+        try {
+            Files.createDirectories(path);
+            try (Stream<Path> files = Files.list(path)) {
+                files.forEach(file -> {
+                    try {
+                        if (!file.toString().endsWith(FILE_SUFFIX) || isExpired(file)) {
+                            Files.deleteIfExists(file);
+                        }
+                    } catch (IOException e) {
+                        log.debug("清理生成缓存文件失败: {}", e.getMessage());
+                    }
+                });
+            }
+            log.info("AI生成磁盘缓存已启用: {}", path.toAbsolutePath());
+            return path;
+        } catch (IOException e) {
+            log.warn("AI生成磁盘缓存目录不可用，仅使用内存缓存: {}", e.getMessage());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * 文件名：GenerationLimiter.java
+ * 创建日期：2026年10月18日
+ * 作者：YoutubePlanner Team
+ *
+ * 文件描述：
+ * AI 生成并发限制，分别限制每个用户和全局同时进行的流式生成数量。
+ * 当前进行中的数量注册到 Micrometer（ai.generation.active）。
+ *
+ * 修改历史：
+ * 2026年10月18日 - 初始版本
+ *
+ * 版权所有 (c) 2026 YoutubePlanner
+ */
+
+package com.youtubeplanner.backend.ai.service.impl;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Component
+public class GenerationLimiter {
+    private final int maxPerUser;
+    private final int maxTotal;
+    private final Map<Long, Integer> activeByUser = new ConcurrentHashMap<>();
+    private final AtomicInteger active = new AtomicInteger();
+
+    public GenerationLimiter(
+            @Value("${ai.generation.max-concurrent-per-user:2}") int maxPerUser,
+            @Value("${ai.generation.max-concurrent:50}") int maxTotal,
+            MeterRegistry meterRegistry) {
+        this.maxPerUser = maxPerUser;
+        this.maxTotal = maxTotal;
+        Gauge.builder("ai.generation.active", active, AtomicInteger::get)
+                .description("进行中的AI流式生成数量")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 尝试占用一个生成名额，成功后必须调用且只调用一次 release
+     */
+    public boolean tryAcquire(Long userId) {
+        if (active.incrementAndGet() > maxTotal) {
+            active.decrementAndGet();
+            return false;
+        }
+        boolean[] acquired = {false};
+        activeByUser.compute(userId, (id, count) -> {
+            int current = count == null ? 0 : count;
+            if (current >= maxPerUser) {
+                return count;
+            }
+            acquired[0] = true;
+            return current + 1;
+        });
+        if (!acquired[0]) {
+            active.decrementAndGet();
+        }
+        return acquired[0];
+    }
+
+    public void release(Long userId) {
+        activeByUser.computeIfPresent(userId, (id, count) -> count <= 1 ? null : count - 1);
+        active.decrementAndGet();
+    }
+}
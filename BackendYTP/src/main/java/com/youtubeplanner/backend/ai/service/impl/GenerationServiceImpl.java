@@ -0,0 +1,205 @@
+/*
+ * 文件名：GenerationServiceImpl.java
+ * 创建日期：2026年10月18日
+ * 作者：YoutubePlanner Team
+ *
+ * 文件描述：
+ * AI 生成服务实现类。
+ * 使用共享的 HttpClient 异步调用上游接口，响应按行推送给 GenerationStream 转发，
+ * 请求线程在返回 SseEmitter 后立即释放，等待上游期间不占用线程。
+ * API 密钥只在服务端使用，不返回给客户端；接口地址由 LlmEndpointValidator 校验，不能指向内网。
+ * 相同的提供商、接口地址、模型、参数和提示词命中生成缓存时，直接以相同的事件格式回放缓存内容。
+ *
+ * 修改历史：
+ * 2026年10月18日 - 初始版本
+ * 2026年10月18日 - 校验接口地址，不允许访问内网地址
+ *
+ * 版权所有 (c) 2026 YoutubePlanner
+ */
+
+package com.youtubeplanner.backend.ai.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.youtubeplanner.backend.ai.dto.GenerateRequest;
+import com.youtubeplanner.backend.ai.service.GenerationService;
+import com.youtubeplanner.backend.common.exception.TooManyRequestsException;
+import com.youtubeplanner.backend.user.entity.User;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+
+@Slf4j
+@Service
+public class GenerationServiceImpl implements GenerationService {
+    private static final int DEFAULT_MAX_TOKENS = 2000;
+    private static final double DEFAULT_TEMPERATURE = 0.7;
+    // 回放缓存内容时每个 delta 事件的字符数
+    private static final int REPLAY_CHUNK_SIZE = 256;
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final GenerationLimiter limiter;
+    private final GenerationCache cache;
+    private final LlmEndpointValidator endpointValidator;
+    private final Duration responseTimeout;
+    private final Duration streamTimeout;
+
+    public GenerationServiceImpl(
+            HttpClient llmHttpClient,
+            ObjectMapper objectMapper,
+            GenerationLimiter limiter,
+            GenerationCache cache,
+            LlmEndpointValidator endpointValidator,
+            @Value("${ai.generation.response-timeout:60s}") Duration responseTimeout,
+            @Value("${ai.generation.stream-timeout:5m}") Duration streamTimeout) {
+        this.httpClient = llmHttpClient;
+        this.objectMapper = objectMapper;
+        this.limiter = limiter;
+        this.cache = cache;
+        this.endpointValidator = endpointValidator;
+        this.responseTimeout = responseTimeout;
+        this.streamTimeout = streamTimeout;
+    }
+
+    @Override
+    public SseEmitter streamGeneration(User user, GenerateRequest request) {
+        LlmProvider provider = LlmProvider.of(user.getApiProvider());
+        if (provider == null) {
+            throw new RuntimeException("请在用户信息页面配置API提供商");
+        }
+        HttpRequest upstreamRequest = buildUpstreamRequest(provider, user, request);
+
+        String cacheKey = GenerationCache.key(provider.name(), user.getApiBaseUrl(), user.getApiModel(),
+                maxTokens(request), temperature(request), request.getPrompt());
+        if (!Boolean.TRUE.equals(request.getNoCache())) {
+            String cached = cache.get(cacheKey);
+            if (cached != null) {
+                log.debug("AI生成命中缓存，用户ID: {}", user.getUserId());
+                return replay(cached);
+            }
+        }
+
+        if (!limiter.tryAcquire(user.getUserId())) {
+            throw new TooManyRequestsException("同时进行的生成任务过多，请稍后再试");
+        }
+        log.debug("开始AI生成，用户ID: {}, 接口: {}", user.getUserId(), upstreamRequest.uri().getHost());
+
+        SseEmitter emitter = new SseEmitter(streamTimeout.toMillis());
+        GenerationStream stream = new GenerationStream(emitter, provider, objectMapper,
+                () -> limiter.release(user.getUserId()), content -> cache.put(cacheKey, content));
+        emitter.onTimeout(() -> stream.fail("生成超时"));
+        emitter.onError(e -> stream.cancel());
+        emitter.onCompletion(stream::cancel);
+
+        HttpResponse.BodyHandler<Void> bodyHandler = responseInfo -> responseInfo.statusCode() == 200
+                ? HttpResponse.BodySubscribers.fromLineSubscriber(stream)
+                : HttpResponse.BodySubscribers.mapping(HttpResponse.BodySubscribers.ofString(StandardCharsets.UTF_8), body -> {
+                    stream.upstreamError(responseInfo.statusCode(), body);
+                    return null;
+                });
+        httpClient.sendAsync(upstreamRequest, bodyHandler)
+                .whenComplete((response, throwable) -> {
+                    if (throwable != null) {
+                        stream.fail(connectionErrorMessage(throwable));
+                    }
+                });
+        return emitter;
+    }
+
+    private HttpRequest buildUpstreamRequest(LlmProvider provider, User user, GenerateRequest request) {
+        if (isBlank(user.getApiKey())) {
+            throw new RuntimeException("API密钥未配置");
+        }
+        if (isBlank(user.getApiBaseUrl())) {
+            throw new RuntimeException("请在用户信息页面配置API基础URL");
+        }
+        if (isBlank(user.getApiModel())) {
+            throw new RuntimeException("请在用户信息页面配置API模型");
+        }
+
+        URI uri;
+        try {
+            uri = provider.uri(user.getApiBaseUrl());
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("API基础URL格式不正确");
+        }
+        endpointValidator.validate(uri);
+
+        String body = provider.body(objectMapper, user.getApiModel(), request.getPrompt(),
+                maxTokens(request), temperature(request)).toString();
+
+        HttpRequest.Builder builder = HttpRequest.newBuilder(uri)
+                // HTTPS 下使用 HTTP/2 复用连接；明文连接不尝试 h2c 升级
+                .version("https".equals(uri.getScheme()) ? HttpClient.Version.HTTP_2 : HttpClient.Version.HTTP_1_1)
+                .timeout(responseTimeout)
+                .header("Content-Type", "application/json")
+                .header("Accept", "text/event-stream")
+                .POST(HttpRequest.BodyPublishers.ofString(body, StandardCharsets.UTF_8));
+        provider.authorize(builder, user.getApiKey());
+        return builder.build();
+    }
+
+    /**
+     * 以与上游生成相同的事件格式回放缓存内容
+     */
+    private SseEmitter replay(String content) {
+        SseEmitter emitter = new SseEmitter(streamTimeout.toMillis());
+        try {
+            int start = 0;
+            while (start < content.length()) {
+                int end = Math.min(start + REPLAY_CHUNK_SIZE, content.length());
+                // 不在代理对中间切分
+                if (end < content.length() && Character.isHighSurrogate(content.charAt(end - 1))) {
+                    end++;
+                }
+                emitter.send(SseEmitter.event().name("delta")
+                        .data(Map.of("content", content.substring(start, end)), MediaType.APPLICATION_JSON));
+                start = end;
+            }
+            emitter.send(SseEmitter.event().name("done").data(Map.of(), MediaType.APPLICATION_JSON));
+            emitter.complete();
+        } catch (IOException | IllegalStateException e) {
+            log.debug("回放生成缓存失败，客户端可能已断开: {}", e.getMessage());
+        }
+        return emitter;
+    }
+
+    private int maxTokens(GenerateRequest request) {
+        return request.getMaxTokens() != null ? request.getMaxTokens() : DEFAULT_MAX_TOKENS;
+    }
+
+    private double temperature(GenerateRequest request) {
+        return request.getTemperature() != null ? request.getTemperature() : DEFAULT_TEMPERATURE;
+    }
+
+    private String connectionErrorMessage(Throwable throwable) {
+        Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null
+                ? throwable.getCause() : throwable;
+        log.debug("调用上游接口失败: {}", cause.toString());
+        if (cause instanceof HttpTimeoutException) {
+            return "API调用超时，请稍后重试";
+        }
+        if (cause instanceof ConnectException) {
+            return "无法连接到API服务，请检查API基础URL";
+        }
+        return "调用API服务失败";
+    }
+
+    private boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+}
@@ -0,0 +1,214 @@
+/*
+ * 文件名：GenerationStream.java
+ * 创建日期：2026年10月18日
+ * 作者：YoutubePlanner Team
+ *
+ * 文件描述：
+ * 一次流式生成的上下游桥接。
+ * 逐行接收上游大模型接口的 SSE 响应，取出生成的文本后以 SSE 事件转发给客户端：
+ * delta（{"content": "..."}）、done（生成结束）、error（{"message": "..."}）。
+ * 每处理完一行才向上游请求下一行；结束、出错或客户端断开时只释放一次并发名额，
+ * 客户端断开或出错时取消上游请求。
+ * 收到上游的结束标记后，将完整的生成内容交给 onSuccess（用于写入生成缓存）。
+ * 上游返回的错误内容只记录日志，不原样转发给客户端，error 事件只包含按状态码归类的提示。
+ *
+ * 修改历史：
+ * 2026年10月18日 - 初始版本
+ * 2026年10月18日 - 不再转发上游错误内容
+ *
+ * 版权所有 (c) 2026 YoutubePlanner
+ */
+
+package com.youtubeplanner.backend.ai.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+@Slf4j
+class GenerationStream implements Flow.Subscriber<String> {
+    private static final String DATA_PREFIX = "data:";
+    private static final String DONE = "[DONE]";
+
+    private final SseEmitter emitter;
+    private final LlmProvider provider;
+    private final ObjectMapper objectMapper;
+    private final Runnable onFinish;
+    private final Consumer<String> onSuccess;
+    private final StringBuilder content = new StringBuilder();
+    private final AtomicBoolean finished = new AtomicBoolean();
+    private volatile Flow.Subscription subscription;
+    private volatile boolean cancelled;
+
+    GenerationStream(SseEmitter emitter, LlmProvider provider, ObjectMapper objectMapper,
+                     Runnable onFinish, Consumer<String> onSuccess) {
+        this.emitter = emitter;
+        this.provider = provider;
+        this.objectMapper = objectMapper;
+        this.onFinish = onFinish;
+        this.onSuccess = onSuccess;
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        this.subscription = subscription;
+        if (cancelled) {
+            subscription.cancel();
+        } else {
+            subscription.request(1);
+        }
+    }
+
+    @Override
+    public void onNext(String line) {
+        // 已结束时继续读完剩余响应，使上游连接可以被复用
+        if (!finished.get()) {
+            handleLine(line);
+        }
+        if (!cancelled) {
+            subscription.request(1);
+        }
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        log.debug("上游响应读取失败: {}", throwable.getMessage());
+        fail("上游服务连接中断");
+    }
+
+    @Override
+    public void onComplete() {
+        // 上游没有发送结束标记就关闭了连接，内容可能不完整，不写入缓存
+        complete(false);
+    }
+
+    /**
+     * 上游返回非 200 状态码时调用
+     */
+    void upstreamError(int status, String body) {
+        log.debug("上游服务返回 HTTP {}: {}", status, abbreviate(body));
+        fail(upstreamErrorMessage(status));
+    }
+
+    static String upstreamErrorMessage(int status) {
+        String reason;
+        if (status == 401 || status == 403) {
+            reason = "API密钥无效或没有权限";
+        } else if (status == 404) {
+            reason = "API基础URL或模型不存在";
+        } else if (status == 429) {
+            reason = "上游服务请求过多，请稍后再试";
+        } else if (status >= 300 && status < 400) {
+            reason = "API基础URL发生了重定向，请填写最终地址";
+        } else if (status >= 500) {
+            reason = "上游服务暂时不可用";
+        } else {
+            reason = "请求被上游服务拒绝";
+        }
+        return "上游服务返回 HTTP " + status + "：" + reason;
+    }
+
+    /**
+     * 客户端断开时调用，已正常结束的流不受影响
+     */
+    void cancel() {
+        if (!finished.compareAndSet(false, true)) {
+            return;
+        }
+        cancelled = true;
+        if (subscription != null) {
+            subscription.cancel();
+        }
+        onFinish.run();
+    }
+
+    void fail(String message) {
+        if (!finished.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            emitter.send(SseEmitter.event().name("error").data(Map.of("message", message), MediaType.APPLICATION_JSON));
+            emitter.complete();
+        } catch (IOException | IllegalStateException e) {
+            log.debug("发送错误事件失败，客户端可能已断开: {}", e.getMessage());
+        } finally {
+            onFinish.run();
+            cancelled = true;
+            if (subscription != null) {
+                subscription.cancel();
+            }
+        }
+    }
+
+    private void complete(boolean endMarkerReceived) {
+        if (!finished.compareAndSet(false, true)) {
+            return;
+        }
+        if (endMarkerReceived && content.length() > 0) {
+            onSuccess.accept(content.toString());
+        }
+        try {
+            emitter.send(SseEmitter.event().name("done").data(Map.of(), MediaType.APPLICATION_JSON));
+            emitter.complete();
+        } catch (IOException | IllegalStateException e) {
+            log.debug("发送结束事件失败，客户端可能已断开: {}", e.getMessage());
+        } finally {
+            onFinish.run();
+        }
+    }
+
+    private static String abbreviate(String text) {
+        return text == null || text.length() <= 500 ? text : text.substring(0, 500) + "...";
+    }
+
+    private void handleLine(String line) {
+        if (!line.startsWith(DATA_PREFIX)) {
+            return;
+        }
+        String data = line.substring(DATA_PREFIX.length()).trim();
+        if (data.isEmpty()) {
+            return;
+        }
+        if (DONE.equals(data)) {
+            complete(true);
+            return;
+        }
+
+        JsonNode event;
+        try {
+            event = objectMapper.readTree(data);
+        } catch (JsonProcessingException e) {
+            log.debug("忽略无法解析的流式事件: {}", data);
+            return;
+        }
+        if (event.has("error")) {
+            log.debug("上游服务返回错误事件: {}", abbreviate(data));
+            fail("上游服务返回错误");
+            return;
+        }
+
+        String delta = provider.delta(event);
+        if (!delta.isEmpty()) {
+            content.append(delta);
+            try {
+                emitter.send(SseEmitter.event().name("delta").data(Map.of("content", delta), MediaType.APPLICATION_JSON));
+            } catch (IOException | IllegalStateException e) {
+                log.debug("客户端已断开，取消上游请求: {}", e.getMessage());
+                cancel();
+                return;
+            }
+        }
+        if (provider.isFinal(event)) {
+            complete(true);
+        }
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * 文件名：LlmEndpointValidator.java
+ * 创建日期：2026年10月18日
+ * 作者：YoutubePlanner Team
+ *
+ * 文件描述：
+ * 校验用户配置的大模型接口地址，防止借生成接口访问服务器所在网络的内部服务（SSRF）：
+ * - 只允许 https，且主机名解析出的所有地址都不能是回环、链路本地、私有网段、
+ *   唯一本地（fc00::/7）、运营商 NAT（100.64.0.0/10）、组播或未指定地址；
+ * - ai.generation.allowed-hosts 中列出的主机（如本机部署的模型服务）不做地址检查，并允许使用 http；
+ * - 地址中不能包含用户名和密码。
+ * 请求上游时不跟随重定向（见 HttpClientConfig），重定向到内网地址同样无法绕过。
+ * 校验和实际连接分别解析主机名，DNS 结果在两次解析之间变化的情况无法完全排除，
+ * 部署时仍应在网络层限制应用访问内部服务。
+ *
+ * 修改历史：
+ * 2026年10月18日 - 初始版本
+ *
+ * 版权所有 (c) 2026 YoutubePlanner
+ */
+
+package com.youtubeplanner.backend.ai.service.impl;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.Inet4Address;
+import java.net.Inet6Address;
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.UnknownHostException;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Component
+public class LlmEndpointValidator {
+    private final Set<String> allowedHosts;
+
+    public LlmEndpointValidator(@Value("${ai.generation.allowed-hosts:}") List<String> allowedHosts) {
+        this.allowedHosts = allowedHosts.stream()
+                .map(String::trim)
+                .filter(host -> !host.isEmpty())
+                .map(LlmEndpointValidator::normalizeHost)
+                .collect(Collectors.toSet());
+    }
+
+    /**
+     * 校验用户填写的 API 基础 URL
+     */
+    public void validate(String baseUrl) {
+        URI uri;
+        try {
+            uri = URI.create(baseUrl.trim());
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("API基础URL格式不正确");
+        }
+        validate(uri);
+    }
+
+    /**
+     * 校验实际请求的接口地址，不允许访问时抛出 RuntimeException
+     */
+    public void validate(URI uri) {
+        String scheme = uri.getScheme() == null ? "" : uri.getScheme().toLowerCase(Locale.ROOT);
+        if (uri.getHost() == null || (!"http".equals(scheme) && !"https".equals(scheme))) {
+            throw new RuntimeException("API基础URL格式不正确");
+        }
+        if (uri.getRawUserInfo() != null) {
+            throw new RuntimeException("API基础URL不能包含用户名和密码");
+        }
+
+        String host = normalizeHost(uri.getHost());
+        if (allowedHosts.contains(host)) {
+            return;
+        }
+        if (!"https".equals(scheme)) {
+            throw new RuntimeException("API基础URL必须使用 HTTPS");
+        }
+
+        InetAddress[] addresses;
+        try {
+            addresses = InetAddress.getAllByName(host);
+        } catch (UnknownHostException e) {
+            throw new RuntimeException("无法解析API基础URL的主机名");
+        }
+        for (InetAddress address : addresses) {
+            if (isInternal(address)) {
+                throw new RuntimeException("API基础URL不能指向内网地址");
+            }
+        }
+    }
+
+    static boolean isInternal(InetAddress address) {
+        if (address.isAnyLocalAddress() || address.isLoopbackAddress() || address.isLinkLocalAddress()
+                || address.isSiteLocalAddress() || address.isMulticastAddress()) {
+            return true;
+        }
+        byte[] bytes = address.getAddress();
+        if (address instanceof Inet4Address) {
+            int first = bytes[0] & 0xff;
+            int second = bytes[1] & 0xff;
+            return first == 0
+                    // 100.64.0.0/10 运营商级 NAT
+                    || (first == 100 && (second & 0xc0) == 64)
+                    // 198.18.0.0/15 网络设备测试网段
+                    || (first == 198 && (second == 18 || second == 19));
+        }
+        if (address instanceof Inet6Address) {
+            // fc00::/7 唯一本地地址
+            if ((bytes[0] & 0xfe) == 0xfc) {
+                return true;
+            }
+            // ::ffff:0:0/96 以外的 IPv4 兼容地址（::a.b.c.d）按其中的 IPv4 地址判断
+            boolean ipv4Compatible = true;
+            for (int i = 0; i < 12; i++) {
+                ipv4Compatible &= bytes[i] == 0;
+            }
+            if (ipv4Compatible) {
+                try {
+                    return isInternal(InetAddress.getByAddress(new byte[]{bytes[12], bytes[13], bytes[14], bytes[15]}));
+                } catch (UnknownHostException e) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static String normalizeHost(String host) {
+        String normalized = host.toLowerCase(Locale.ROOT);
+        if (normalized.startsWith("[") && normalized.endsWith("]")) {
+            normalized = normalized.substring(1, normalized.length() - 1);
+        }
+        return normalized.endsWith(".") ? normalized.substring(0, normalized.length() - 1) : normalized;
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * 文件名：LlmProvider.java
+ * 创建日期：2026年10月18日
+ * 作者：YoutubePlanner Team
+ *
+ * 文件描述：
+ * 支持的大模型接口协议，负责拼接接口地址、认证请求头、请求体，
+ * 以及从流式响应的事件中取出生成的文本。
+ * openai 和 custom 使用 OpenAI 兼容的 /chat/completions 接口，claude 使用 /messages 接口。
+ *
+ * 修改历史：
+ * 2026年10月18日 - 初始版本
+ *
+ * 版权所有 (c) 2026 YoutubePlanner
+ */
+
+package com.youtubeplanner.backend.ai.service.impl;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+
+enum LlmProvider {
+    OPENAI {
+        @Override
+        String endpoint(String baseUrl) {
+            if (baseUrl.contains("/chat/completions")) {
+                return baseUrl;
+            }
+            return baseUrl.contains("/v1") ? baseUrl + "/chat/completions" : baseUrl + "/v1/chat/completions";
+        }
+
+        @Override
+        void authorize(HttpRequest.Builder builder, String apiKey) {
+            builder.header("Authorization", "Bearer " + apiKey);
+        }
+
+        @Override
+        ObjectNode body(ObjectMapper objectMapper, String model, String prompt, int maxTokens, double temperature) {
+            ObjectNode body = super.body(objectMapper, model, prompt, maxTokens, temperature);
+            body.put("temperature", temperature);
+            return body;
+        }
+
+        @Override
+        String delta(JsonNode event) {
+            return event.path("choices").path(0).path("delta").path("content").asText("");
+        }
+
+        @Override
+        boolean isFinal(JsonNode event) {
+            // [DONE] 由调用方单独处理
+            return false;
+        }
+    },
+
+    CLAUDE {
+        @Override
+        String endpoint(String baseUrl) {
+            if (baseUrl.contains("/v1/messages")) {
+                return baseUrl;
+            }
+            return baseUrl.contains("/v1") ? baseUrl + "/messages" : baseUrl + "/v1/messages";
+        }
+
+        @Override
+        void authorize(HttpRequest.Builder builder, String apiKey) {
+            builder.header("x-api-key", apiKey);
+            builder.header("anthropic-version", "2023-06-01");
+        }
+
+        @Override
+        String delta(JsonNode event) {
+            if (!"content_block_delta".equals(event.path("type").asText())) {
+                return "";
+            }
+            return event.path("delta").path("text").asText("");
+        }
+
+        @Override
+        boolean isFinal(JsonNode event) {
+            return "message_stop".equals(event.path("type").asText());
+        }
+    };
+
+    /**
+     * 根据用户配置的 apiProvider 获取接口协议，不支持时返回 null
+     */
+    static LlmProvider of(String apiProvider) {
+        if (apiProvider == null) {
+            return null;
+        }
+        switch (apiProvider) {
+            case "openai":
+            case "custom":
+                return OPENAI;
+            case "claude":
+                return CLAUDE;
+            default:
+                return null;
+        }
+    }
+
+    abstract String endpoint(String baseUrl);
+
+    abstract void authorize(HttpRequest.Builder builder, String apiKey);
+
+    ObjectNode body(ObjectMapper objectMapper, String model, String prompt, int maxTokens, double temperature) {
+        ObjectNode body = objectMapper.createObjectNode();
+        body.put("model", model);
+        body.put("max_tokens", maxTokens);
+        body.put("stream", true);
+        ObjectNode message = body.putArray("messages").addObject();
+        message.put("role", "user");
+        message.put("content", prompt);
+        return body;
+    }
+
+    /**
+     * 从一个流式事件中取出新生成的文本，没有文本时返回空字符串
+     */
+    abstract String delta(JsonNode event);
+
+    /**
+     * 是否为表示生成结束的事件
+     */
+    abstract boolean isFinal(JsonNode event);
+
+    URI uri(String baseUrl) {
+        String cleanBaseUrl = baseUrl.trim().replaceAll("/+$", "");
+        return URI.create(endpoint(cleanBaseUrl));
+    }
+}
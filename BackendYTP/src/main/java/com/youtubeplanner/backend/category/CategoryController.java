@@ -45,8 +45,9 @@ public class CategoryController {
             @RequestParam(required = false) Integer page,
             @RequestParam(required = false) Integer limit,
             @RequestParam(required = false) String sortBy,
-            @RequestParam(required = false) String order) {
-        return categoryService.getCategories(search, page, limit, sortBy, order, getUserIdFromContext());
+            @RequestParam(required = false) String order,
+            @RequestParam(required = false) String cursor) {
+        return categoryService.getCategories(search, page, limit, sortBy, order, cursor, getUserIdFromContext());
     }
 
     @GetMapping("/{categoryId}")
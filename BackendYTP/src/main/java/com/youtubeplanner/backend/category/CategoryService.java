@@ -5,7 +5,10 @@ import com.youtubeplanner.backend.category.dto.CategoryResponse;
 import com.youtubeplanner.backend.category.entity.Category;
 import com.youtubeplanner.backend.category.repository.CategoryRepository;
 import com.youtubeplanner.backend.common.ApiResponse;
+import com.youtubeplanner.backend.common.KeysetCursor;
+import com.youtubeplanner.backend.common.KeysetSlice;
 import com.youtubeplanner.backend.common.PageResponse;
+import com.youtubeplanner.backend.user.service.UserStatsService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -17,6 +20,7 @@ import org.springframework.transaction.annotation.Transactional;
 @RequiredArgsConstructor
 public class CategoryService {
     private final CategoryRepository categoryRepository;
+    private final UserStatsService userStatsService;
 
     @Transactional
     public ApiResponse<CategoryResponse> createCategory(CreateCategoryRequest request, Long userId) {
@@ -30,6 +34,7 @@ public class CategoryService {
                 .setUserId(userId);
 
         Category savedCategory = categoryRepository.save(category);
+        userStatsService.categoriesChanged(userId, 1);
         return ApiResponse.created(convertToResponse(savedCategory));
     }
 
@@ -40,6 +45,7 @@ public class CategoryService {
             Integer limit,
             String sortBy,
             String order,
+            String cursor,
             Long userId) {
         // 设置默认值
         page = page == null ? 1 : page;
@@ -47,10 +53,18 @@ public class CategoryService {
         sortBy = sortBy == null ? "createdAt" : sortBy;
         order = order == null ? "desc" : order;
 
-        // 创建分页和排序
-        Sort sort = Sort.by(Sort.Direction.fromString(order), sortBy);
+        // 创建分页和排序：排序值相同时按分类ID排序，翻页顺序稳定，且与 (user_id, 排序列, category_id) 索引顺序一致
+        Sort.Direction direction = Sort.Direction.fromString(order);
+        Sort sort = Sort.by(direction, sortBy).and(Sort.by(direction, "categoryId"));
         PageRequest pageRequest = PageRequest.of(page - 1, limit, sort);
 
+        // 游标分页模式，不统计总数
+        if (cursor != null) {
+            KeysetSlice<Category> categorySlice = categoryRepository.findByUserIdAndSearchAfter(
+                    userId, search, pageRequest, KeysetCursor.decode(cursor));
+            return ApiResponse.success(PageResponse.of(categorySlice.map(this::convertToResponse)));
+        }
+
         // 查询数据
         Page<Category> categoryPage = categoryRepository.findByUserIdAndSearch(userId, search, pageRequest);
         Page<CategoryResponse> responsePage = categoryPage.map(this::convertToResponse);
@@ -58,6 +72,14 @@ public class CategoryService {
         return ApiResponse.success(PageResponse.of(responsePage));
     }
 
+    /**
+     * 检查分类是否存在且属于当前用户
+     */
+    @Transactional(readOnly = true)
+    public boolean isCategoryOwnedBy(Long categoryId, Long userId) {
+        return categoryRepository.existsByCategoryIdAndUserId(categoryId, userId);
+    }
+
     @Transactional(readOnly = true)
     public ApiResponse<CategoryResponse> getCategoryDetail(Long categoryId, Long userId) {
         Category category = categoryRepository.findById(categoryId)
@@ -112,6 +134,7 @@ public class CategoryService {
         }
 
         categoryRepository.delete(category);
+        userStatsService.categoriesChanged(userId, -1);
     }
 
     private CategoryResponse convertToResponse(Category category) {
@@ -11,21 +11,26 @@ import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
 @Repository
-public interface CategoryRepository extends JpaRepository<Category, Long> {
+public interface CategoryRepository extends JpaRepository<Category, Long>, CategoryRepositoryCustom {
+    // 用户分类列表查询，分页查询和游标分页查询共用
+    String USER_CATEGORIES_QUERY = "SELECT c FROM Category c " +
+           "WHERE c.userId = :userId " +
+           "AND (:search IS NULL OR :search = '' OR " +
+           "LOWER(c.categoryName) LIKE LOWER(CONCAT('%', :search, '%')))";
+
     boolean existsByUserIdAndCategoryName(Long userId, String categoryName);
+    boolean existsByCategoryIdAndUserId(Long categoryId, Long userId);
     
     // 按用户ID统计分类数量
     long countByUserId(Long userId);
     
-    // 按用户ID删除分类
+    // 按用户ID批量删除分类
     @Modifying
     @Transactional
-    void deleteByUserId(Long userId);
+    @Query("DELETE FROM Category c WHERE c.userId = :userId")
+    void deleteByUserId(@Param("userId") Long userId);
 
-    @Query("SELECT c FROM Category c " +
-           "WHERE c.userId = :userId " +
-           "AND (:search IS NULL OR :search = '' OR " +
-           "LOWER(c.categoryName) LIKE LOWER(CONCAT('%', :search, '%')))")
+    @Query(USER_CATEGORIES_QUERY)
     Page<Category> findByUserIdAndSearch(
             @Param("userId") Long userId,
             @Param("search") String search,
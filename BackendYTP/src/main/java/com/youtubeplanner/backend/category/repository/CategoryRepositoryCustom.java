@@ -0,0 +1,11 @@
+package com.youtubeplanner.backend.category.repository;
+
+import com.youtubeplanner.backend.category.entity.Category;
+import com.youtubeplanner.backend.common.KeysetCursor;
+import com.youtubeplanner.backend.common.KeysetSlice;
+import org.springframework.data.domain.Pageable;
+
+public interface CategoryRepositoryCustom {
+    // 游标分页查询用户的分类，不执行 COUNT 查询
+    KeysetSlice<Category> findByUserIdAndSearchAfter(Long userId, String search, Pageable pageable, KeysetCursor cursor);
+}
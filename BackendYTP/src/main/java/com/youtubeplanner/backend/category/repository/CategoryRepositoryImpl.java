@@ -0,0 +1,35 @@
+package com.youtubeplanner.backend.category.repository;
+
+import com.youtubeplanner.backend.category.entity.Category;
+import com.youtubeplanner.backend.common.KeysetCursor;
+import com.youtubeplanner.backend.common.KeysetQuery;
+import com.youtubeplanner.backend.common.KeysetSlice;
+import com.youtubeplanner.backend.common.KeysetSort;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.data.domain.Pageable;
+
+import java.time.ZonedDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+public class CategoryRepositoryImpl implements CategoryRepositoryCustom {
+    // 游标分页支持的排序键
+    private static final Map<String, KeysetSort<Category>> SORTS = Map.of(
+            "createdAt", new KeysetSort<>("createdAt", "c.createdAt", "c.categoryId", ZonedDateTime.class, true,
+                    Category::getCreatedAt, Category::getCategoryId),
+            "categoryName", new KeysetSort<>("categoryName", "c.categoryName", "c.categoryId", String.class, false,
+                    Category::getCategoryName, Category::getCategoryId));
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public KeysetSlice<Category> findByUserIdAndSearchAfter(Long userId, String search, Pageable pageable, KeysetCursor cursor) {
+        Map<String, Object> params = new HashMap<>();
+        params.put("userId", userId);
+        params.put("search", search);
+        return KeysetQuery.fetch(entityManager, CategoryRepository.USER_CATEGORIES_QUERY, Category.class,
+                params, SORTS, pageable, cursor);
+    }
+}
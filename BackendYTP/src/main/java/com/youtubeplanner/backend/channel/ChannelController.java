@@ -41,7 +41,7 @@ public class ChannelController {
     }
 
     @GetMapping
-    public ApiResponse<PageResponse<Channel>> getChannels(
+    public ApiResponse<PageResponse<ChannelDetailResponse>> getChannels(
             @Valid @ModelAttribute GetChannelsRequest request) {
         Long userId = getUserIdFromContext();
         return channelService.getChannels(request, userId);
@@ -49,9 +49,10 @@ public class ChannelController {
 
     @GetMapping("/{channelId}")
     public ApiResponse<ChannelDetailResponse> getChannelDetail(
-            @PathVariable Long channelId) {
+            @PathVariable Long channelId,
+            @RequestParam(name = "include_status_counts", defaultValue = "false") boolean includeStatusCounts) {
         Long userId = getUserIdFromContext();
-        return channelService.getChannelDetail(channelId, userId);
+        return channelService.getChannelDetail(channelId, userId, includeStatusCounts);
     }
 
     @PutMapping("/{channelId}")
@@ -12,6 +12,7 @@
 
 package com.youtubeplanner.backend.channel;
 
+import com.youtubeplanner.backend.channel.dto.ChannelScriptCountRow;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -21,10 +22,17 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface ChannelRepository extends JpaRepository<Channel, Long> {
+public interface ChannelRepository extends JpaRepository<Channel, Long>, ChannelRepositoryCustom {
+    // 用户频道列表查询（只查询未删除的），分页查询和游标分页查询共用
+    String USER_CHANNELS_QUERY = "SELECT c FROM Channel c WHERE c.userId = :userId AND c.deleted = false " +
+           "AND (:search IS NULL OR :search = '' OR " +
+           "LOWER(c.channelName) LIKE LOWER(CONCAT('%', :search, '%')))";
+
     boolean existsByUserIdAndChannelName(Long userId, String channelName);
     
     // 按用户ID统计频道数量（只统计未删除的）
@@ -44,14 +52,21 @@ public interface ChannelRepository extends JpaRepository<Channel, Long> {
     void deleteChannelsByUserIdNative(@Param("userId") Long userId);
     
     // 查询用户的频道（只查询未删除的）
-    @Query("SELECT c FROM Channel c WHERE c.userId = :userId AND c.deleted = false " +
-           "AND (:search IS NULL OR :search = '' OR " +
-           "LOWER(c.channelName) LIKE LOWER(CONCAT('%', :search, '%')))")
+    @Query(USER_CHANNELS_QUERY)
     Page<Channel> findByUserIdAndSearch(
             @Param("userId") Long userId,
             @Param("search") String search,
             Pageable pageable);
 
+    // 按频道和状态分组统计脚本数量，一页频道只执行一次聚合查询
+    @Query("SELECT s.channelId AS channelId, s.status AS status, COUNT(s) AS scriptCount FROM Script s " +
+           "WHERE s.userId = :userId AND s.channelId IN :channelIds GROUP BY s.channelId, s.status")
+    List<ChannelScriptCountRow> countScriptsByChannelAndStatus(
+            @Param("userId") Long userId,
+            @Param("channelIds") Collection<Long> channelIds);
+
+    boolean existsByChannelIdAndUserId(Long channelId, Long userId);
+
     // 查询特定频道（只查询未删除的）
     @Query("SELECT c FROM Channel c WHERE c.channelId = :channelId AND c.userId = :userId AND c.deleted = false")
     Optional<Channel> findByChannelIdAndUserId(@Param("channelId") Long channelId, @Param("userId") Long userId);
@@ -0,0 +1,22 @@
+/*
+ * File: ChannelRepositoryCustom.java
+ * Created Date: 2026-10-18
+ * Author: YoutubePlanner Team
+ * Description: Channel数据访问层自定义查询接口（游标分页）
+ * -----
+ * Last Modified: 2026-10-18
+ * Modified By: YoutubePlanner Team
+ * -----
+ * Copyright (c) 2026 YoutubePlanner
+ */
+
+package com.youtubeplanner.backend.channel;
+
+import com.youtubeplanner.backend.common.KeysetCursor;
+import com.youtubeplanner.backend.common.KeysetSlice;
+import org.springframework.data.domain.Pageable;
+
+public interface ChannelRepositoryCustom {
+    // 游标分页查询用户的频道（只查询未删除的），不执行 COUNT 查询
+    KeysetSlice<Channel> findByUserIdAndSearchAfter(Long userId, String search, Pageable pageable, KeysetCursor cursor);
+}
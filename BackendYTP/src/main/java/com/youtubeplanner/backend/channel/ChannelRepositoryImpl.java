@@ -0,0 +1,46 @@
+/*
+ * File: ChannelRepositoryImpl.java
+ * Created Date: 2026-10-18
+ * Author: YoutubePlanner Team
+ * Description: Channel数据访问层自定义查询实现（游标分页）
+ * -----
+ * Last Modified: 2026-10-18
+ * Modified By: YoutubePlanner Team
+ * -----
+ * Copyright (c) 2026 YoutubePlanner
+ */
+
+package com.youtubeplanner.backend.channel;
+
+import com.youtubeplanner.backend.common.KeysetCursor;
+import com.youtubeplanner.backend.common.KeysetQuery;
+import com.youtubeplanner.backend.common.KeysetSlice;
+import com.youtubeplanner.backend.common.KeysetSort;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.data.domain.Pageable;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+public class ChannelRepositoryImpl implements ChannelRepositoryCustom {
+    // 游标分页支持的排序键，与 GetChannelsRequest.toPageRequest 允许的排序字段一致
+    private static final Map<String, KeysetSort<Channel>> SORTS = Map.of(
+            "createdAt", new KeysetSort<>("createdAt", "c.createdAt", "c.channelId", Instant.class, false,
+                    Channel::getCreatedAt, Channel::getChannelId),
+            "channelName", new KeysetSort<>("channelName", "c.channelName", "c.channelId", String.class, false,
+                    Channel::getChannelName, Channel::getChannelId));
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public KeysetSlice<Channel> findByUserIdAndSearchAfter(Long userId, String search, Pageable pageable, KeysetCursor cursor) {
+        Map<String, Object> params = new HashMap<>();
+        params.put("userId", userId);
+        params.put("search", search);
+        return KeysetQuery.fetch(entityManager, ChannelRepository.USER_CHANNELS_QUERY, Channel.class,
+                params, SORTS, pageable, cursor);
+    }
+}
@@ -13,23 +13,33 @@
 package com.youtubeplanner.backend.channel;
 
 import com.youtubeplanner.backend.channel.dto.ChannelDetailResponse;
+import com.youtubeplanner.backend.channel.dto.ChannelScriptCountRow;
 import com.youtubeplanner.backend.channel.dto.CreateChannelRequest;
 import com.youtubeplanner.backend.channel.dto.GetChannelsRequest;
 import com.youtubeplanner.backend.channel.dto.UpdateChannelRequest;
 import com.youtubeplanner.backend.common.ApiResponse;
+import com.youtubeplanner.backend.common.KeysetCursor;
+import com.youtubeplanner.backend.common.KeysetSlice;
 import com.youtubeplanner.backend.common.PageResponse;
+import com.youtubeplanner.backend.user.service.UserStatsService;
 import org.springframework.data.domain.Page;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.TreeMap;
 
 @Service
 public class ChannelService {
     private final ChannelRepository channelRepository;
+    private final UserStatsService userStatsService;
 
-    public ChannelService(ChannelRepository channelRepository) {
+    public ChannelService(ChannelRepository channelRepository, UserStatsService userStatsService) {
         this.channelRepository = channelRepository;
+        this.userStatsService = userStatsService;
     }
 
     @Transactional
@@ -45,31 +55,80 @@ public class ChannelService {
         channel.setUserId(userId);
 
         Channel savedChannel = channelRepository.save(channel);
+        userStatsService.channelsChanged(userId, 1);
         return ApiResponse.created(savedChannel);
     }
 
     @Transactional(readOnly = true)
-    public ApiResponse<PageResponse<Channel>> getChannels(GetChannelsRequest request, Long userId) {
+    public ApiResponse<PageResponse<ChannelDetailResponse>> getChannels(GetChannelsRequest request, Long userId) {
+        if (request.getCursor() != null) {
+            KeysetSlice<Channel> channelSlice = channelRepository.findByUserIdAndSearchAfter(
+                userId,
+                request.getSearch(),
+                request.toPageRequest(),
+                KeysetCursor.decode(request.getCursor())
+            );
+            Map<Long, Map<String, Long>> counts = countScripts(channelSlice.getContent(), userId);
+            return ApiResponse.success(PageResponse.of(channelSlice.map(
+                    channel -> toDetailResponse(channel, counts, request.isIncludeStatusCounts()))));
+        }
+
         Page<Channel> channelPage = channelRepository.findByUserIdAndSearch(
             userId,
             request.getSearch(),
             request.toPageRequest()
         );
+        Map<Long, Map<String, Long>> counts = countScripts(channelPage.getContent(), userId);
 
-        return ApiResponse.success(PageResponse.of(channelPage));
+        return ApiResponse.success(PageResponse.of(channelPage.map(
+                channel -> toDetailResponse(channel, counts, request.isIncludeStatusCounts()))));
     }
 
     @Transactional(readOnly = true)
-    public ApiResponse<ChannelDetailResponse> getChannelDetail(Long channelId, Long userId) {
+    public ApiResponse<ChannelDetailResponse> getChannelDetail(Long channelId, Long userId, boolean includeStatusCounts) {
         return channelRepository.findByChannelIdAndUserId(channelId, userId)
-                .map(channel -> {
-                    // TODO: 实现获取脚本数量的逻辑
-                    Integer scriptsCount = 0; // 暂时返回0，等实现了脚本功能后再更新
-                    return ApiResponse.success(ChannelDetailResponse.fromChannel(channel, scriptsCount));
-                })
+                .map(channel -> ApiResponse.success(toDetailResponse(
+                        channel, countScripts(List.of(channel), userId), includeStatusCounts)))
                 .orElse(ApiResponse.error(404, "频道不存在"));
     }
 
+    /**
+     * 检查频道是否存在且属于当前用户（只检查未删除的）
+     */
+    @Transactional(readOnly = true)
+    public boolean isChannelOwnedBy(Long channelId, Long userId) {
+        return channelRepository.existsByChannelIdAndUserId(channelId, userId);
+    }
+
+    /**
+     * 统计一组频道的脚本数量，按频道ID -> 脚本状态 -> 数量返回，只执行一次分组查询
+     */
+    private Map<Long, Map<String, Long>> countScripts(List<Channel> channels, Long userId) {
+        if (channels.isEmpty()) {
+            return Map.of();
+        }
+        List<Long> channelIds = channels.stream().map(Channel::getChannelId).toList();
+        Map<Long, Map<String, Long>> counts = new HashMap<>();
+        for (ChannelScriptCountRow row : channelRepository.countScriptsByChannelAndStatus(userId, channelIds)) {
+            // 未设置状态的脚本归入 none
+            String status = row.getStatus() != null ? row.getStatus() : "none";
+            counts.computeIfAbsent(row.getChannelId(), id -> new TreeMap<>())
+                    .merge(status, row.getScriptCount(), Long::sum);
+        }
+        return counts;
+    }
+
+    private ChannelDetailResponse toDetailResponse(Channel channel, Map<Long, Map<String, Long>> counts,
+                                                   boolean includeStatusCounts) {
+        Map<String, Long> statusCounts = counts.getOrDefault(channel.getChannelId(), Map.of());
+        long scriptsCount = statusCounts.values().stream().mapToLong(Long::longValue).sum();
+        ChannelDetailResponse response = ChannelDetailResponse.fromChannel(channel, (int) scriptsCount);
+        if (includeStatusCounts) {
+            response.setStatusCounts(statusCounts);
+        }
+        return response;
+    }
+
     @Transactional
     public ApiResponse<Channel> updateChannel(Long channelId, Long userId, UpdateChannelRequest request) {
         // 1. 检查频道是否存在且属于当前用户
@@ -110,6 +169,7 @@ public class ChannelService {
 
         // 2. 执行软删除
         channelRepository.delete(channelOpt.get());
+        userStatsService.channelsChanged(userId, -1);
         
         // 3. 返回成功响应
         return ApiResponse.success(204, "删除成功", null);
@@ -15,11 +15,13 @@
 
 package com.youtubeplanner.backend.channel.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.Data;
 import lombok.experimental.Accessors;
 
 import java.time.Instant;
+import java.util.Map;
 
 @Data
 @Accessors(chain = true)
@@ -39,6 +41,11 @@ public class ChannelDetailResponse {
     @JsonProperty("scripts_count")
     private Integer scriptsCount;
 
+    // 按脚本状态统计的数量，仅在请求 include_status_counts=true 时返回
+    @JsonProperty("status_counts")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Map<String, Long> statusCounts;
+
     // 从Channel实体转换为DTO
     public static ChannelDetailResponse fromChannel(com.youtubeplanner.backend.channel.Channel channel, Integer scriptsCount) {
         return new ChannelDetailResponse()
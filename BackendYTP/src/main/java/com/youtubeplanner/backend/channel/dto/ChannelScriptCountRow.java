@@ -0,0 +1,12 @@
+package com.youtubeplanner.backend.channel.dto;
+
+/**
+ * 频道脚本数量投影，按频道和脚本状态分组统计的一行。
+ */
+public interface ChannelScriptCountRow {
+    Long getChannelId();
+
+    String getStatus();
+
+    Long getScriptCount();
+}
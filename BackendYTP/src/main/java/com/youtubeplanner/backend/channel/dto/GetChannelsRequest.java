@@ -34,6 +34,17 @@ public class GetChannelsRequest {
     private String sortBy = "created_at";
     private String order = "desc";
 
+    // 游标分页：传入后使用游标模式（空字符串表示第一页），不再统计总数
+    private String cursor;
+
+    // 是否返回每个频道按脚本状态统计的数量
+    private boolean includeStatusCounts;
+
+    // 为URL参数绑定添加setter方法
+    public void setInclude_status_counts(boolean includeStatusCounts) {
+        this.includeStatusCounts = includeStatusCounts;
+    }
+
     public PageRequest toPageRequest() {
         // 将页码转换为从0开始
         int pageIndex = page - 1;
@@ -45,11 +56,9 @@ public class GetChannelsRequest {
             default -> "createdAt";
         };
 
-        // 创建排序对象
-        Sort sort = Sort.by(
-            "asc".equalsIgnoreCase(order) ? Sort.Direction.ASC : Sort.Direction.DESC,
-            sortField
-        );
+        // 创建排序对象：排序值相同时按频道ID排序，翻页顺序稳定，且与 (user_id, 排序列, channel_id) 索引顺序一致
+        Sort.Direction direction = "asc".equalsIgnoreCase(order) ? Sort.Direction.ASC : Sort.Direction.DESC;
+        Sort sort = Sort.by(direction, sortField).and(Sort.by(direction, "channelId"));
 
         return PageRequest.of(pageIndex, limit, sort);
     }
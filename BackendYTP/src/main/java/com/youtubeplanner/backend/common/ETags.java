@@ -0,0 +1,76 @@
+/*
+ * 文件名：ETags.java
+ * 创建日期：2026年10月18日
+ * 作者：YoutubePlanner Team
+ *
+ * 文件描述：
+ * 基于实体版本号的 ETag 工具。
+ * 强 ETag 格式为带引号的版本号，例如 "3"；
+ * If-None-Match 使用弱比较，If-Match 使用强比较。
+ *
+ * 修改历史：
+ * 2026年10月18日 - 初始版本
+ *
+ * 版权所有 (c) 2026 YoutubePlanner
+ */
+
+package com.youtubeplanner.backend.common;
+
+public final class ETags {
+    // 无法解析的 If-Match 视为与任何版本都不匹配
+    private static final long UNMATCHABLE_VERSION = -1L;
+
+    private ETags() {
+    }
+
+    public static String of(Long version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * 判断 If-None-Match 是否命中当前版本，命中时应返回 304
+     *
+     * @param ifNoneMatch 请求头的值，可包含多个 ETag
+     * @param version 当前版本号，null 表示资源不存在或无权访问
+     */
+    public static boolean noneMatchHit(String ifNoneMatch, Long version) {
+        if (ifNoneMatch == null || version == null) {
+            return false;
+        }
+        for (String tag : ifNoneMatch.split(",")) {
+            tag = tag.trim();
+            if (tag.equals("*")) {
+                return true;
+            }
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals(of(version))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 解析 If-Match 中期望的版本号
+     *
+     * @param ifMatch 请求头的值
+     * @return 期望的版本号；未携带或为 * 时返回 null，表示不做版本校验
+     */
+    public static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        // If-Match 只接受单个强 ETag
+        if (tag.length() < 3 || !tag.startsWith("\"") || !tag.endsWith("\"")) {
+            return UNMATCHABLE_VERSION;
+        }
+        try {
+            return Long.valueOf(tag.substring(1, tag.length() - 1));
+        } catch (NumberFormatException e) {
+            return UNMATCHABLE_VERSION;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * 文件名：KeysetCursor.java
+ * 创建日期：2026年10月18日
+ * 作者：YoutubePlanner Team
+ *
+ * 文件描述：
+ * 游标分页的游标对象，记录上一页最后一行的排序键值和ID。
+ * 对外以 Base64URL 编码的不透明字符串传递（cursor / next_cursor）。
+ *
+ * 修改历史：
+ * 2026年10月18日 - 初始版本
+ *
+ * 版权所有 (c) 2026 YoutubePlanner
+ */
+
+package com.youtubeplanner.backend.common;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZonedDateTime;
+import java.util.Base64;
+
+@Data
+@AllArgsConstructor
+public class KeysetCursor {
+    private static final String SEPARATOR = "|";
+
+    // 排序字段（实体属性名）
+    private String property;
+    private Sort.Direction direction;
+    // 上一页最后一行的ID
+    private Long id;
+    // 上一页最后一行的排序键值，null 表示该行排序键为空
+    private String value;
+
+    /**
+     * 解析客户端传入的游标
+     * 空字符串表示以游标模式获取第一页，返回 null
+     *
+     * @param cursor 游标字符串
+     * @return 游标对象，第一页时为 null
+     */
+    public static KeysetCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            // 格式：property|direction|id|N 或 property|direction|id|V<value>
+            String[] parts = raw.split("\\|", 4);
+            String value = parts[3].startsWith("V") ? parts[3].substring(1) : null;
+            return new KeysetCursor(parts[0], Sort.Direction.valueOf(parts[1]), Long.valueOf(parts[2]), value);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("无效的分页游标");
+        }
+    }
+
+    public String encode() {
+        String raw = property + SEPARATOR + direction.name() + SEPARATOR + id + SEPARATOR
+                + (value == null ? "N" : "V" + value);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 将游标中的排序键值转换为查询参数类型
+     */
+    public Object typedValue(Class<?> type) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            if (type == Instant.class) return Instant.parse(value);
+            if (type == LocalDate.class) return LocalDate.parse(value);
+            if (type == LocalDateTime.class) return LocalDateTime.parse(value);
+            if (type == ZonedDateTime.class) return ZonedDateTime.parse(value);
+            if (type == Integer.class) return Integer.valueOf(value);
+            if (type == Long.class) return Long.valueOf(value);
+            return value;
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("无效的分页游标");
+        }
+    }
+}
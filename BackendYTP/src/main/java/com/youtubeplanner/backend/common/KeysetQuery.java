@@ -0,0 +1,175 @@
+/*
+ * 文件名：KeysetQuery.java
+ * 创建日期：2026年10月18日
+ * 作者：YoutubePlanner Team
+ *
+ * 文件描述：
+ * 游标（Keyset）分页查询工具。
+ * 在已有的 JPQL 查询（必须已包含 WHERE 子句）后追加 "排序键 + ID" 的定位条件和排序，
+ * 多取一行判断是否有下一页，不执行 COUNT 查询，深度翻页时性能保持稳定。
+ * 排序与 (..., 排序键, ID) 升序索引的扫描顺序一致：升序时排序键为空的行排在最后（NULLS LAST），
+ * 降序时排在最前（NULLS FIRST，即索引的倒序扫描），与分页查询使用的数据库默认空值顺序相同。
+ * 定位条件使用行比较 (排序键, ID) > (:值, :ID)，可以直接作为索引扫描的起点；
+ * 排序键允许为空时，为空的行和不为空的行分两段查询，每段都沿索引顺序读取，一页跨两段时再查询下一段。
+ *
+ * 修改历史：
+ * 2026年10月18日 - 初始版本
+ * 2026年10月18日 - 空值顺序与索引一致，定位条件改为行比较，排序键为空的行单独查询
+ *
+ * 版权所有 (c) 2026 YoutubePlanner
+ */
+
+package com.youtubeplanner.backend.common;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public final class KeysetQuery {
+
+    private KeysetQuery() {
+    }
+
+    /**
+     * 执行游标分页查询
+     *
+     * @param entityManager 实体管理器
+     * @param jpql 基础查询语句，必须已包含 WHERE 子句且不包含 ORDER BY
+     * @param resultType 结果类型
+     * @param params 基础查询的参数
+     * @param sorts 支持的排序键，按实体属性名索引
+     * @param pageable 排序和每页数量，页码会被忽略
+     * @param cursor 上一页返回的游标，第一页为 null
+     * @return 游标分页结果
+     */
+    public static <T> KeysetSlice<T> fetch(
+            EntityManager entityManager,
+            String jpql,
+            Class<T> resultType,
+            Map<String, Object> params,
+            Map<String, KeysetSort<T>> sorts,
+            Pageable pageable,
+            KeysetCursor cursor) {
+        Sort.Order order = pageable.getSort().stream().findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("游标分页需要指定排序字段"));
+        KeysetSort<T> key = sorts.get(order.getProperty());
+        if (key == null) {
+            throw new IllegalArgumentException("游标分页不支持该排序字段: " + order.getProperty());
+        }
+
+        Sort.Direction direction = order.getDirection();
+        if (cursor != null && (!key.getProperty().equals(cursor.getProperty()) || direction != cursor.getDirection())) {
+            throw new IllegalArgumentException("分页游标与当前排序条件不一致");
+        }
+        if (cursor != null && cursor.getValue() == null && !key.isNullable()) {
+            throw new IllegalArgumentException("无效的分页游标");
+        }
+
+        // 多取一行用于判断是否有下一页
+        int limit = pageable.getPageSize();
+        List<T> rows = new ArrayList<>();
+        if (cursor == null) {
+            // 第一页：按完整的索引顺序读取，两段连续，不需要分开查询
+            String orderBy = orderBy(key, direction, true);
+            rows.addAll(query(entityManager, jpql + orderBy, resultType, params, Map.of(), limit + 1));
+        } else {
+            List<Segment> segments = segments(key, direction, cursor);
+            for (int i = 0; i < segments.size() && rows.size() <= limit; i++) {
+                Segment segment = segments.get(i);
+                Map<String, Object> seek = new HashMap<>();
+                StringBuilder query = new StringBuilder(jpql);
+                if (segment == Segment.NULL) {
+                    query.append(" AND ").append(key.getPath()).append(" IS NULL");
+                } else if (key.isNullable()) {
+                    query.append(" AND ").append(key.getPath()).append(" IS NOT NULL");
+                }
+                // 只有游标所在的第一段需要定位，之后的段从头读取
+                if (i == 0) {
+                    String comparator = direction.isAscending() ? ">" : "<";
+                    if (segment == Segment.NULL) {
+                        query.append(" AND ").append(key.getIdPath()).append(' ').append(comparator).append(" :keysetId");
+                    } else {
+                        query.append(" AND (").append(key.getPath()).append(", ").append(key.getIdPath()).append(") ")
+                                .append(comparator).append(" (:keysetValue, :keysetId)");
+                        seek.put("keysetValue", cursor.typedValue(key.getValueType()));
+                    }
+                    seek.put("keysetId", cursor.getId());
+                }
+                query.append(orderBy(key, direction, segment == Segment.NON_NULL));
+                rows.addAll(query(entityManager, query.toString(), resultType, params, seek, limit + 1 - rows.size()));
+            }
+        }
+
+        boolean hasNext = rows.size() > limit;
+        List<T> content = hasNext ? new ArrayList<>(rows.subList(0, limit)) : rows;
+        String nextCursor = null;
+        if (hasNext) {
+            T last = content.get(content.size() - 1);
+            Object value = key.getValueOf().apply(last);
+            nextCursor = new KeysetCursor(key.getProperty(), direction, key.getIdOf().apply(last),
+                    value == null ? null : value.toString()).encode();
+        }
+
+        return new KeysetSlice<>(content, PageRequest.of(0, limit, pageable.getSort()), cursor != null, nextCursor);
+    }
+
+    /**
+     * 排序键为空的行和不为空的行在排序结果中的两段
+     */
+    private enum Segment {
+        NON_NULL, NULL
+    }
+
+    /**
+     * 从游标所在的段开始，按排序结果中的先后顺序列出需要查询的段
+     */
+    private static List<Segment> segments(KeysetSort<?> key, Sort.Direction direction, KeysetCursor cursor) {
+        if (!key.isNullable()) {
+            return List.of(Segment.NON_NULL);
+        }
+        // 升序时为空的行在最后，降序时在最前
+        List<Segment> order = direction.isAscending()
+                ? List.of(Segment.NON_NULL, Segment.NULL)
+                : List.of(Segment.NULL, Segment.NON_NULL);
+        return order.subList(order.indexOf(startSegment(cursor)), order.size());
+    }
+
+    private static Segment startSegment(KeysetCursor cursor) {
+        return cursor.getValue() == null ? Segment.NULL : Segment.NON_NULL;
+    }
+
+    /**
+     * 与升序索引一致的排序：升序 NULLS LAST，降序 NULLS FIRST
+     * 只查询一段为空的行时，排序键都相同，只按ID排序
+     */
+    private static String orderBy(KeysetSort<?> key, Sort.Direction direction, boolean includeKey) {
+        String dir = direction.name();
+        StringBuilder orderBy = new StringBuilder(" ORDER BY ");
+        if (includeKey) {
+            orderBy.append(key.getPath()).append(' ').append(dir)
+                    .append(direction.isAscending() ? " NULLS LAST" : " NULLS FIRST").append(", ");
+        }
+        return orderBy.append(key.getIdPath()).append(' ').append(dir).toString();
+    }
+
+    private static <T> List<T> query(
+            EntityManager entityManager,
+            String jpql,
+            Class<T> resultType,
+            Map<String, Object> params,
+            Map<String, Object> seek,
+            int maxResults) {
+        TypedQuery<T> typedQuery = entityManager.createQuery(jpql, resultType);
+        params.forEach(typedQuery::setParameter);
+        seek.forEach(typedQuery::setParameter);
+        typedQuery.setMaxResults(maxResults);
+        return typedQuery.getResultList();
+    }
+}
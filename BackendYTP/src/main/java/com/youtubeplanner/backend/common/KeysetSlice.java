@@ -0,0 +1,46 @@
+/*
+ * 文件名：KeysetSlice.java
+ * 创建日期：2026年10月18日
+ * 作者：YoutubePlanner Team
+ *
+ * 文件描述：
+ * 游标分页结果，不执行 COUNT 查询，只携带是否有下一页和下一页游标。
+ *
+ * 修改历史：
+ * 2026年10月18日 - 初始版本
+ *
+ * 版权所有 (c) 2026 YoutubePlanner
+ */
+
+package com.youtubeplanner.backend.common;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+
+import java.util.List;
+import java.util.function.Function;
+
+public class KeysetSlice<T> extends SliceImpl<T> {
+    private final boolean hasPrevious;
+    private final String nextCursor;
+
+    public KeysetSlice(List<T> content, Pageable pageable, boolean hasPrevious, String nextCursor) {
+        super(content, pageable, nextCursor != null);
+        this.hasPrevious = hasPrevious;
+        this.nextCursor = nextCursor;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    @Override
+    public boolean hasPrevious() {
+        return hasPrevious;
+    }
+
+    @Override
+    public <U> KeysetSlice<U> map(Function<? super T, ? extends U> converter) {
+        return new KeysetSlice<>(getConvertedContent(converter), getPageable(), hasPrevious, nextCursor);
+    }
+}
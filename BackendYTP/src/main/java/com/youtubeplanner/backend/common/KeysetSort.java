@@ -0,0 +1,39 @@
+/*
+ * 文件名：KeysetSort.java
+ * 创建日期：2026年10月18日
+ * 作者：YoutubePlanner Team
+ *
+ * 文件描述：
+ * 游标分页支持的排序键定义，描述排序字段在 JPQL 中的路径、值类型，
+ * 以及如何从查询结果行中取出排序键值和ID用于生成下一页游标。
+ * 排序列允许为空时需声明 nullable，KeysetQuery 会把为空的行作为单独的一段查询。
+ *
+ * 修改历史：
+ * 2026年10月18日 - 初始版本
+ * 2026年10月18日 - 增加 nullable，区分排序列是否允许为空
+ *
+ * 版权所有 (c) 2026 YoutubePlanner
+ */
+
+package com.youtubeplanner.backend.common;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.function.Function;
+
+@Getter
+@RequiredArgsConstructor
+public class KeysetSort<T> {
+    // 实体属性名，与 Pageable 中的排序属性一致
+    private final String property;
+    // 排序键的 JPQL 路径，例如 s.createdAt
+    private final String path;
+    // 唯一ID的 JPQL 路径，作为排序键相同时的次级排序
+    private final String idPath;
+    private final Class<?> valueType;
+    // 排序列是否允许为空（数据库列没有 NOT NULL 约束）
+    private final boolean nullable;
+    private final Function<T, ?> valueOf;
+    private final Function<T, Long> idOf;
+}
@@ -15,6 +15,7 @@
 
 package com.youtubeplanner.backend.common;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.Data;
 import org.springframework.data.domain.Page;
@@ -26,10 +27,23 @@ public class PageResponse<T> {
     private List<T> items;
     private PaginationInfo pagination;
 
+    // 游标分页模式下的下一页游标，没有下一页或非游标模式时不返回
+    @JsonProperty("next_cursor")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String nextCursor;
+
     public static <T> PageResponse<T> of(Page<T> page) {
         PageResponse<T> response = new PageResponse<>();
         response.setItems(page.getContent());
         response.setPagination(PaginationInfo.of(page));
         return response;
     }
+
+    public static <T> PageResponse<T> of(KeysetSlice<T> slice) {
+        PageResponse<T> response = new PageResponse<>();
+        response.setItems(slice.getContent());
+        response.setPagination(PaginationInfo.of(slice));
+        response.setNextCursor(slice.getNextCursor());
+        return response;
+    }
 } 
\ No newline at end of file
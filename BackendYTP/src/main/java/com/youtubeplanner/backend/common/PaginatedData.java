@@ -14,6 +14,8 @@
 
 package com.youtubeplanner.backend.common;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.Builder;
 import lombok.Data;
 
@@ -24,4 +26,9 @@ import java.util.List;
 public class PaginatedData<T> {
     private List<T> items;
     private PaginationInfo pagination;
+
+    // 游标分页模式下的下一页游标，没有下一页或非游标模式时不返回
+    @JsonProperty("next_cursor")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String nextCursor;
 } 
\ No newline at end of file
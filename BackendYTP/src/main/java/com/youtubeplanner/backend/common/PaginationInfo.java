@@ -21,6 +21,7 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 
 @Data
 @Builder
@@ -48,4 +49,19 @@ public class PaginationInfo {
         info.setHasPrev(page.hasPrevious());
         return info;
     }
+
+    /**
+     * 游标分页模式的分页信息
+     * 游标模式不执行 COUNT 查询，page、total 和 pages 固定为 -1
+     */
+    public static PaginationInfo of(Slice<?> slice) {
+        PaginationInfo info = new PaginationInfo();
+        info.setPage(-1);
+        info.setLimit(slice.getSize());
+        info.setTotal(-1);
+        info.setPages(-1);
+        info.setHasNext(slice.hasNext());
+        info.setHasPrev(slice.hasPrevious());
+        return info;
+    }
 } 
\ No newline at end of file
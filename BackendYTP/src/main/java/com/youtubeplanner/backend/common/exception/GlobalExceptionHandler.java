@@ -16,16 +16,22 @@
 package com.youtubeplanner.backend.common.exception;
 
 import com.youtubeplanner.backend.common.response.ApiResponse;
+import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.security.core.AuthenticationException;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -34,6 +40,9 @@ public class GlobalExceptionHandler {
 
     private static final Logger log = LoggerFactory.getLogger(GlobalExceptionHandler.class);
 
+    @Value("${database.pool.retry-after:5}")
+    private long poolRetryAfterSeconds;
+
     /**
      * 处理业务异常（RuntimeException）
      */
@@ -44,6 +53,57 @@ public class GlobalExceptionHandler {
                 .body(ApiResponse.error(400, e.getMessage()));
     }
 
+    /**
+     * 处理条件请求失败（If-Match 版本不一致）
+     */
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ResponseEntity<ApiResponse<Object>> handlePreconditionFailedException(PreconditionFailedException e) {
+        log.warn("条件请求失败: {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED)
+                .body(ApiResponse.error(412, e.getMessage()));
+    }
+
+    /**
+     * 处理请求过多（超出并发或频率限制）
+     */
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<ApiResponse<Object>> handleTooManyRequestsException(TooManyRequestsException e) {
+        log.warn("请求过多: {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .body(ApiResponse.error(429, e.getMessage()));
+    }
+
+    /**
+     * 处理获取数据库连接失败（连接池等待超时或数据库不可用）
+     */
+    @ExceptionHandler(CannotCreateTransactionException.class)
+    public ResponseEntity<ApiResponse<Object>> handleCannotCreateTransactionException(CannotCreateTransactionException e) {
+        log.warn("获取数据库连接失败: {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(poolRetryAfterSeconds))
+                .body(ApiResponse.error(503, "服务器繁忙，请稍后重试"));
+    }
+
+    /**
+     * 处理接口 SQL 语句数超出预算（sql-budget.mode=fail，开发和测试环境）
+     */
+    @ExceptionHandler(SqlBudgetExceededException.class)
+    public ResponseEntity<ApiResponse<Object>> handleSqlBudgetExceededException(SqlBudgetExceededException e) {
+        log.error("接口 SQL 语句数超出预算: {}", e.getMessage(), e);
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(ApiResponse.error(500, e.getMessage()));
+    }
+
+    /**
+     * 处理并发修改冲突（提交时乐观锁版本校验失败）
+     */
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    public ResponseEntity<ApiResponse<Object>> handleOptimisticLockingFailureException(ObjectOptimisticLockingFailureException e) {
+        log.warn("并发修改冲突: {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(ApiResponse.error(409, "数据已被其他请求修改，请刷新后重试"));
+    }
+
     /**
      * 处理参数验证异常
      */
@@ -74,6 +134,21 @@ public class GlobalExceptionHandler {
                 .body(ApiResponse.error(401, "认证失败"));
     }
 
+    /**
+     * 处理IO异常
+     * 流式响应（SSE）过程中客户端断开时响应已提交，无法再返回错误信息
+     */
+    @ExceptionHandler(IOException.class)
+    public ResponseEntity<ApiResponse<Object>> handleIOException(IOException e, HttpServletResponse response) {
+        if (response.isCommitted()) {
+            log.debug("客户端已断开连接: {}", e.getMessage());
+            return null;
+        }
+        log.error("IO异常: {}", e.getMessage(), e);
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(ApiResponse.error(500, "服务器内部错误"));
+    }
+
     /**
      * 处理所有未捕获的异常
      */
@@ -0,0 +1,23 @@
+/*
+ * 文件名：PreconditionFailedException.java
+ * 创建日期：2026年10月18日
+ * 作者：YoutubePlanner Team
+ *
+ * 文件描述：
+ * 条件请求失败异常。客户端通过 If-Match 提交的版本与当前版本不一致时抛出，
+ * 由全局异常处理器转换为 412 Precondition Failed。
+ *
+ * 修改历史：
+ * 2026年10月18日 - 初始版本
+ *
+ * 版权所有 (c) 2026 YoutubePlanner
+ */
+
+package com.youtubeplanner.backend.common.exception;
+
+public class PreconditionFailedException extends RuntimeException {
+
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,23 @@
+/*
+ * 文件名：SqlBudgetExceededException.java
+ * 创建日期：2026年10月18日
+ * 作者：YoutubePlanner Team
+ *
+ * 文件描述：
+ * SQL 语句数超出接口预算异常。sql-budget.mode=fail 时在超出预算的语句执行前抛出，
+ * 用于在开发和测试中尽早发现 N+1 查询，由全局异常处理器转换为 500。
+ *
+ * 修改历史：
+ * 2026年10月18日 - 初始版本
+ *
+ * 版权所有 (c) 2026 YoutubePlanner
+ */
+
+package com.youtubeplanner.backend.common.exception;
+
+public class SqlBudgetExceededException extends RuntimeException {
+
+    public SqlBudgetExceededException(int statements, int budget) {
+        super("SQL 语句数超出预算: 第 " + statements + " 条，预算 " + budget + " 条");
+    }
+}
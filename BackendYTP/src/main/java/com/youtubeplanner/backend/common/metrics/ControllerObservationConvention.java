@@ -0,0 +1,43 @@
+/*
+ * 文件名：ControllerObservationConvention.java
+ * 创建日期：2026年10月18日
+ * 作者：YoutubePlanner Team
+ *
+ * 文件描述：
+ * 接口请求指标（http.server.requests）的标签：在默认的 method、uri、status、outcome、exception 之外，
+ * 增加处理请求的控制器（controller，如 ScriptController）和控制器方法（action，如 getScripts），
+ * 每个控制器方法都有自己的耗时统计，可以直接按控制器汇总。
+ * 没有匹配到控制器的请求（404、被过滤器拒绝的请求等）两个标签都为 none。
+ *
+ * 修改历史：
+ * 2026年10月18日 - 初始版本
+ *
+ * 版权所有 (c) 2026 YoutubePlanner
+ */
+
+package com.youtubeplanner.backend.common.metrics;
+
+import io.micrometer.common.KeyValue;
+import io.micrometer.common.KeyValues;
+import org.springframework.http.server.observation.DefaultServerRequestObservationConvention;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+public class ControllerObservationConvention extends DefaultServerRequestObservationConvention {
+
+    private static final String NONE = "none";
+
+    @Override
+    public KeyValues getLowCardinalityKeyValues(ServerRequestObservationContext context) {
+        Object handler = context.getCarrier().getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE);
+        if (handler instanceof HandlerMethod handlerMethod) {
+            return super.getLowCardinalityKeyValues(context).and(
+                    KeyValue.of("controller", handlerMethod.getBeanType().getSimpleName()),
+                    KeyValue.of("action", handlerMethod.getMethod().getName()));
+        }
+        return super.getLowCardinalityKeyValues(context).and(
+                KeyValue.of("controller", NONE),
+                KeyValue.of("action", NONE));
+    }
+}
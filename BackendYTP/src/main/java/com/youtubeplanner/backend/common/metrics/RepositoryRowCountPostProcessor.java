@@ -0,0 +1,100 @@
+/*
+ * 文件名：RepositoryRowCountPostProcessor.java
+ * 创建日期：2026年10月18日
+ * 作者：YoutubePlanner Team
+ *
+ * 文件描述：
+ * 统计 Spring Data 仓库方法返回的行数（spring.data.repository.rows，标签 repository、method），
+ * 与 Spring Boot 自带的仓库方法耗时（spring.data.repository.invocations）使用相同的标签，可以对照查看。
+ * 行数按返回值计算：集合的元素数、分页/切片当前页的元素数、Optional 或单个实体为 0/1，
+ * @Modifying 方法返回的更新行数；计数、存在性判断和 Stream 返回值不统计。
+ *
+ * 修改历史：
+ * 2026年10月18日 - 初始版本
+ *
+ * 版权所有 (c) 2026 YoutubePlanner
+ */
+
+package com.youtubeplanner.backend.common.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.stream.BaseStream;
+
+@Component
+public class RepositoryRowCountPostProcessor implements BeanPostProcessor {
+
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    public RepositoryRowCountPostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+            factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                    (proxyFactory, repositoryInformation) -> proxyFactory.addAdvice(
+                            new RowCountInterceptor(repositoryInformation.getRepositoryInterface().getSimpleName()))));
+        }
+        return bean;
+    }
+
+    private class RowCountInterceptor implements MethodInterceptor {
+        private final String repository;
+
+        RowCountInterceptor(String repository) {
+            this.repository = repository;
+        }
+
+        @Override
+        public Object invoke(MethodInvocation invocation) throws Throwable {
+            Object result = invocation.proceed();
+            Integer rows = rowCount(invocation, result);
+            MeterRegistry registry = meterRegistry.getIfAvailable();
+            if (rows != null && registry != null) {
+                DistributionSummary.builder("spring.data.repository.rows")
+                        .description("Rows returned or modified by repository methods")
+                        .baseUnit("rows")
+                        .tag("repository", repository)
+                        .tag("method", invocation.getMethod().getName())
+                        .register(registry)
+                        .record(rows);
+            }
+            return result;
+        }
+
+        private Integer rowCount(MethodInvocation invocation, Object result) {
+            if (invocation.getMethod().isAnnotationPresent(Modifying.class)) {
+                return result instanceof Number number ? number.intValue() : null;
+            }
+            if (result instanceof Collection<?> collection) {
+                return collection.size();
+            }
+            if (result instanceof Slice<?> slice) {
+                return slice.getNumberOfElements();
+            }
+            if (result instanceof Optional<?> optional) {
+                return optional.isPresent() ? 1 : 0;
+            }
+            Class<?> returnType = invocation.getMethod().getReturnType();
+            if (returnType.isPrimitive() || Number.class.isAssignableFrom(returnType)
+                    || Boolean.class.equals(returnType) || Iterable.class.isAssignableFrom(returnType)
+                    || BaseStream.class.isAssignableFrom(returnType)) {
+                return null;
+            }
+            return result == null ? 0 : 1;
+        }
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * 文件名：RequestMetricsFilter.java
+ * 创建日期：2026年10月18日
+ * 作者：YoutubePlanner Team
+ *
+ * 文件描述：
+ * 记录每个接口请求的 SQL 统计（按 uri 标签区分）：
+ * - db.request.statements：执行的语句数；
+ * - db.request.rows：读取或修改的行数；
+ * - db.request.time：数据库耗时；
+ * 并按 sql-budget.* 检查接口的语句数预算，超出时计入 db.request.budget.exceeded 并记录警告日志，
+ * 用于发现一次请求执行大量查询（N+1）的接口。
+ * 在安全过滤器链之前执行，认证时加载用户的查询也计入。
+ *
+ * 修改历史：
+ * 2026年10月18日 - 初始版本
+ * 2026年10月18日 - 改为在 JDBC 层统计语句数、行数和耗时，增加接口语句数预算
+ *
+ * 版权所有 (c) 2026 YoutubePlanner
+ */
+
+package com.youtubeplanner.backend.common.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@RequiredArgsConstructor
+public class RequestMetricsFilter extends OncePerRequestFilter {
+
+    private final MeterRegistry meterRegistry;
+    private final SqlBudgetProperties budgetProperties;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain filterChain
+    ) throws ServletException, IOException {
+        SqlBudgetProperties.Mode mode = budgetProperties.getMode();
+        RequestSqlStatistics statistics = RequestSqlStatistics.start(
+                mode == SqlBudgetProperties.Mode.FAIL ? () -> getBudget(request) : null);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RequestSqlStatistics.stop();
+            record(request, statistics);
+            if (mode != SqlBudgetProperties.Mode.OFF) {
+                checkBudget(request, statistics);
+            }
+        }
+    }
+
+    private void record(HttpServletRequest request, RequestSqlStatistics statistics) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern == null ? "UNKNOWN" : pattern.toString();
+        DistributionSummary.builder("db.request.statements")
+                .description("SQL statements executed per request")
+                .baseUnit("statements")
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(statistics.getStatements());
+        DistributionSummary.builder("db.request.rows")
+                .description("Rows read or modified per request")
+                .baseUnit("rows")
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(statistics.getRows());
+        Timer.builder("db.request.time")
+                .description("Time spent executing SQL statements per request")
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(statistics.getNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    private void checkBudget(HttpServletRequest request, RequestSqlStatistics statistics) {
+        String endpoint = getEndpoint(request);
+        Integer budget = getBudget(endpoint);
+        if (budget == null || statistics.getStatements() <= budget) {
+            return;
+        }
+        Counter.builder("db.request.budget.exceeded")
+                .description("Requests that executed more SQL statements than the endpoint budget")
+                .tag("endpoint", endpoint)
+                .register(meterRegistry)
+                .increment();
+        log.warn("接口 SQL 语句数超出预算: endpoint={}, uri={}, statements={}, budget={}, rows={}, time={}ms",
+                endpoint, request.getRequestURI(), statistics.getStatements(), budget,
+                statistics.getRows(), String.format("%.2f", statistics.getTimeMillis()));
+    }
+
+    private Integer getBudget(HttpServletRequest request) {
+        String endpoint = getEndpoint(request);
+        return endpoint == null ? null : getBudget(endpoint);
+    }
+
+    private Integer getBudget(String endpoint) {
+        if (endpoint == null) {
+            return null;
+        }
+        return budgetProperties.getEndpoints().getOrDefault(endpoint, budgetProperties.getDefaultBudget());
+    }
+
+    /**
+     * 当前请求匹配的接口，格式为“控制器.方法”；尚未匹配到控制器方法时返回 null
+     */
+    static String getEndpoint(HttpServletRequest request) {
+        Object handler = request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE);
+        if (handler instanceof HandlerMethod handlerMethod) {
+            return handlerMethod.getBeanType().getSimpleName() + "." + handlerMethod.getMethod().getName();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * 文件名：RequestSqlStatistics.java
+ * 创建日期：2026年10月18日
+ * 作者：YoutubePlanner Team
+ *
+ * 文件描述：
+ * 当前请求的 SQL 统计：执行的语句数、读取或修改的行数、数据库耗时。
+ * 保存在请求线程上，由 RequestMetricsFilter 在请求开始时创建、结束时移除，
+ * SqlStatisticsDataSource 在每次执行语句时累加。异步线程上执行的语句不计入。
+ * 开启预算检查时，语句数超出当前接口的预算后，下一条语句执行前抛出 SqlBudgetExceededException。
+ *
+ * 修改历史：
+ * 2026年10月18日 - 初始版本
+ *
+ * 版权所有 (c) 2026 YoutubePlanner
+ */
+
+package com.youtubeplanner.backend.common.metrics;
+
+import com.youtubeplanner.backend.common.exception.SqlBudgetExceededException;
+import lombok.Getter;
+
+import java.util.function.Supplier;
+
+@Getter
+public class RequestSqlStatistics {
+
+    private static final ThreadLocal<RequestSqlStatistics> CURRENT = new ThreadLocal<>();
+
+    private int statements;
+    private long rows;
+    private long nanos;
+
+    // 返回当前接口的语句数预算，接口尚未确定（如认证过滤器中）时返回 null；为 null 表示不检查
+    private final Supplier<Integer> budgetResolver;
+    private Integer budget;
+
+    private RequestSqlStatistics(Supplier<Integer> budgetResolver) {
+        this.budgetResolver = budgetResolver;
+    }
+
+    /**
+     * 开始统计当前线程的 SQL
+     *
+     * @param budgetResolver 超出预算时直接失败；不需要时传 null
+     */
+    public static RequestSqlStatistics start(Supplier<Integer> budgetResolver) {
+        RequestSqlStatistics statistics = new RequestSqlStatistics(budgetResolver);
+        CURRENT.set(statistics);
+        return statistics;
+    }
+
+    public static RequestSqlStatistics current() {
+        return CURRENT.get();
+    }
+
+    public static void stop() {
+        CURRENT.remove();
+    }
+
+    /**
+     * 数据库耗时（毫秒）
+     */
+    public double getTimeMillis() {
+        return nanos / 1_000_000.0;
+    }
+
+    void statementStarted() {
+        statements++;
+        if (budgetResolver == null) {
+            return;
+        }
+        if (budget == null) {
+            budget = budgetResolver.get();
+        }
+        if (budget != null && statements > budget) {
+            throw new SqlBudgetExceededException(statements, budget);
+        }
+    }
+
+    void statementFinished(long elapsedNanos) {
+        nanos += elapsedNanos;
+    }
+
+    void rowsProcessed(long count) {
+        rows += count;
+    }
+}
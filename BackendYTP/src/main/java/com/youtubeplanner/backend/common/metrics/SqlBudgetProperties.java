@@ -0,0 +1,45 @@
+/*
+ * 文件名：SqlBudgetProperties.java
+ * 创建日期：2026年10月18日
+ * 作者：YoutubePlanner Team
+ *
+ * 文件描述：
+ * 每个接口的 SQL 语句数预算（sql-budget.*）：
+ * - mode：off 不检查；log 请求结束后超出预算时记录警告日志；fail 超出预算时下一条语句直接失败（开发和测试环境）；
+ * - response-header：是否在响应头 X-SQL-Statistics 中返回本次请求的语句数、行数和数据库耗时（非生产环境）；
+ * - endpoints：按“控制器.方法”配置预算，如 sql-budget.endpoints.ScriptController.getScripts=3；
+ * - default-budget：没有单独配置的接口使用的预算，不设置表示不检查。
+ * 预算包含认证时加载用户的查询（用户信息缓存未命中时 1 条）。
+ *
+ * 修改历史：
+ * 2026年10月18日 - 初始版本
+ *
+ * 版权所有 (c) 2026 YoutubePlanner
+ */
+
+package com.youtubeplanner.backend.common.metrics;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "sql-budget")
+public class SqlBudgetProperties {
+
+    public enum Mode {
+        OFF, LOG, FAIL
+    }
+
+    private Mode mode = Mode.LOG;
+
+    private boolean responseHeader = false;
+
+    private Integer defaultBudget;
+
+    private Map<String, Integer> endpoints = new HashMap<>();
+}
@@ -0,0 +1,184 @@
+/*
+ * 文件名：SqlStatisticsDataSource.java
+ * 创建日期：2026年10月18日
+ * 作者：YoutubePlanner Team
+ *
+ * 文件描述：
+ * 包装连接池数据源，把 JDBC 语句的执行记入当前请求的 RequestSqlStatistics：
+ * - execute/executeQuery/executeUpdate/executeBatch 每次调用计一条语句，并累计执行耗时；
+ * - 查询结果每读取一行（ResultSet.next() 返回 true）计一行，更新语句按返回的更新行数计；
+ * 当前线程没有在统计（后台任务、启动时的迁移）时直接返回原始的语句对象，没有额外开销。
+ * unwrap 等其他方法直接交给原始对象，工作区导入取 PGConnection 使用 COPY 不受影响。
+ *
+ * 修改历史：
+ * 2026年10月18日 - 初始版本
+ *
+ * 版权所有 (c) 2026 YoutubePlanner
+ */
+
+package com.youtubeplanner.backend.common.metrics;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+public class SqlStatisticsDataSource extends DelegatingDataSource {
+
+    public SqlStatisticsDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return proxy(Connection.class, new ConnectionHandler(obtainTargetDataSource().getConnection()));
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return proxy(Connection.class, new ConnectionHandler(obtainTargetDataSource().getConnection(username, password)));
+    }
+
+    private static <T> T proxy(Class<T> type, Handler handler) {
+        return type.cast(Proxy.newProxyInstance(SqlStatisticsDataSource.class.getClassLoader(), new Class<?>[]{type}, handler));
+    }
+
+    /**
+     * 代理对象的公共部分：equals/hashCode 按代理对象本身比较（Hibernate 用语句对象作为 Map 的键），
+     * 其他方法交给原始对象，原始对象抛出的异常原样抛出
+     */
+    private abstract static class Handler implements InvocationHandler {
+        protected final Object target;
+
+        Handler(Object target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return target.toString();
+                default:
+                    return handle(proxy, method, args);
+            }
+        }
+
+        protected abstract Object handle(Object proxy, Method method, Object[] args) throws Throwable;
+
+        protected Object invokeTarget(Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+        }
+    }
+
+    private static class ConnectionHandler extends Handler {
+        ConnectionHandler(Connection target) {
+            super(target);
+        }
+
+        @Override
+        protected Object handle(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = invokeTarget(method, args);
+            if (result instanceof Statement && RequestSqlStatistics.current() != null) {
+                // 按方法声明的返回类型代理：Statement、PreparedStatement 或 CallableStatement
+                return proxy(method.getReturnType(), new StatementHandler(result, proxy));
+            }
+            return result;
+        }
+    }
+
+    private static class StatementHandler extends Handler {
+        private final Object connection;
+
+        StatementHandler(Object target, Object connection) {
+            super(target);
+            this.connection = connection;
+        }
+
+        @Override
+        protected Object handle(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if ("getConnection".equals(name)) {
+                return connection;
+            }
+            RequestSqlStatistics statistics = RequestSqlStatistics.current();
+            if (statistics == null) {
+                return invokeTarget(method, args);
+            }
+            if ("getResultSet".equals(name) || "getGeneratedKeys".equals(name)) {
+                return wrapResultSet(invokeTarget(method, args), proxy);
+            }
+            if (!name.startsWith("execute")) {
+                return invokeTarget(method, args);
+            }
+
+            statistics.statementStarted();
+            long start = System.nanoTime();
+            Object result;
+            try {
+                result = invokeTarget(method, args);
+            } finally {
+                statistics.statementFinished(System.nanoTime() - start);
+            }
+
+            if (result instanceof ResultSet) {
+                return wrapResultSet(result, proxy);
+            }
+            if (result instanceof Integer || result instanceof Long) {
+                statistics.rowsProcessed(Math.max(0, ((Number) result).longValue()));
+            } else if (result instanceof int[] counts) {
+                for (int count : counts) {
+                    statistics.rowsProcessed(Math.max(0, count));
+                }
+            } else if (result instanceof long[] counts) {
+                for (long count : counts) {
+                    statistics.rowsProcessed(Math.max(0, count));
+                }
+            }
+            return result;
+        }
+
+        private Object wrapResultSet(Object resultSet, Object statement) {
+            return resultSet == null ? null : proxy(ResultSet.class, new ResultSetHandler(resultSet, statement));
+        }
+    }
+
+    private static class ResultSetHandler extends Handler {
+        private final Object statement;
+
+        ResultSetHandler(Object target, Object statement) {
+            super(target);
+            this.statement = statement;
+        }
+
+        @Override
+        protected Object handle(Object proxy, Method method, Object[] args) throws Throwable {
+            if ("getStatement".equals(method.getName())) {
+                return statement;
+            }
+            Object result = invokeTarget(method, args);
+            if ("next".equals(method.getName()) && Boolean.TRUE.equals(result)) {
+                RequestSqlStatistics statistics = RequestSqlStatistics.current();
+                if (statistics != null) {
+                    statistics.rowsProcessed(1);
+                }
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+/*
+ * 文件名：SqlStatisticsPostProcessor.java
+ * 创建日期：2026年10月18日
+ * 作者：YoutubePlanner Team
+ *
+ * 文件描述：
+ * 用 SqlStatisticsDataSource 包装应用的数据源，统计每个请求执行的 SQL 语句数、行数和耗时。
+ * 连接池本身的配置（预处理语句模式、连接池指标）在初始化前完成，这里在初始化后包装，
+ * 其他组件需要 HikariDataSource 时通过 unwrap 获取。
+ *
+ * 修改历史：
+ * 2026年10月18日 - 初始版本
+ *
+ * 版权所有 (c) 2026 YoutubePlanner
+ */
+
+package com.youtubeplanner.backend.common.metrics;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+@Component
+public class SqlStatisticsPostProcessor implements BeanPostProcessor {
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && !(bean instanceof SqlStatisticsDataSource)) {
+            return new SqlStatisticsDataSource(dataSource);
+        }
+        return bean;
+    }
+}
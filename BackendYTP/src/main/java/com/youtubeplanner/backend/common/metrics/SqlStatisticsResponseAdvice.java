@@ -0,0 +1,59 @@
+/*
+ * 文件名：SqlStatisticsResponseAdvice.java
+ * 创建日期：2026年10月18日
+ * 作者：YoutubePlanner Team
+ *
+ * 文件描述：
+ * sql-budget.response-header=true 时（非生产环境），在接口响应头中返回本次请求的 SQL 统计，
+ * 如 X-SQL-Statistics: statements=3, rows=21, time=4.21ms，方便在浏览器开发者工具中查看。
+ * 统计截止到响应序列化之前；流式响应（导出、生成）不返回该响应头。
+ *
+ * 修改历史：
+ * 2026年10月18日 - 初始版本
+ *
+ * 版权所有 (c) 2026 YoutubePlanner
+ */
+
+package com.youtubeplanner.backend.common.metrics;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.util.Locale;
+
+@RestControllerAdvice
+@RequiredArgsConstructor
+public class SqlStatisticsResponseAdvice implements ResponseBodyAdvice<Object> {
+
+    public static final String HEADER = "X-SQL-Statistics";
+
+    private final SqlBudgetProperties budgetProperties;
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return budgetProperties.isResponseHeader();
+    }
+
+    @Override
+    public Object beforeBodyWrite(
+            Object body,
+            MethodParameter returnType,
+            MediaType selectedContentType,
+            Class<? extends HttpMessageConverter<?>> selectedConverterType,
+            ServerHttpRequest request,
+            ServerHttpResponse response
+    ) {
+        RequestSqlStatistics statistics = RequestSqlStatistics.current();
+        if (statistics != null) {
+            response.getHeaders().set(HEADER, String.format(Locale.ROOT, "statements=%d, rows=%d, time=%.2fms",
+                    statistics.getStatements(), statistics.getRows(), statistics.getTimeMillis()));
+        }
+        return body;
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * 文件名：ConnectionPoolAdmissionFilter.java
+ * 创建日期：2026年10月18日
+ * 作者：YoutubePlanner Team
+ *
+ * 文件描述：
+ * 连接池饱和时拒绝新的接口请求：返回 503 和 Retry-After 响应头，客户端稍后重试，
+ * 不再让请求线程等待 connection-timeout（最长 60 秒）后才失败。
+ * 在安全过滤器链中位于 CORS 之后、JWT 认证之前（认证也可能查询数据库），拒绝的响应同样带 CORS 响应头。
+ * 拒绝次数记录在 db.pool.rejected 指标中。
+ * 虚拟线程模式（spring.threads.virtual.enabled=true，需要 Java 21）下每个请求都有自己的线程，
+ * 不再受 Tomcat 线程数限制，改用信号量限制同时执行的接口请求数（与连接池最大连接数上限相同），
+ * 排队的请求达到 database.pool.max-pending 或等待超过 connection-timeout 时返回 503。
+ *
+ * 修改历史：
+ * 2026年10月18日 - 初始版本
+ *
+ * 版权所有 (c) 2026 YoutubePlanner
+ */
+
+package com.youtubeplanner.backend.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.youtubeplanner.backend.common.response.ApiResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+@Component
+public class ConnectionPoolAdmissionFilter extends OncePerRequestFilter {
+
+    private final ConnectionPoolController poolController;
+    private final ObjectMapper objectMapper;
+    private final Counter rejected;
+    private final long retryAfterSeconds;
+    private final long acquireTimeoutMillis;
+    // 只在虚拟线程模式下使用，平台线程模式下为 null
+    private final Semaphore permits;
+
+    public ConnectionPoolAdmissionFilter(
+            ConnectionPoolController poolController,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            Environment environment,
+            @Value("${database.pool.retry-after:5}") long retryAfterSeconds,
+            @Value("${spring.datasource.hikari.connection-timeout:30000}") long acquireTimeoutMillis) {
+        this.poolController = poolController;
+        this.objectMapper = objectMapper;
+        this.rejected = Counter.builder("db.pool.rejected")
+                .description("Requests rejected because the connection pool was saturated")
+                .register(meterRegistry);
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+
+        if (Threading.VIRTUAL.isActive(environment)) {
+            this.permits = new Semaphore(poolController.getMaxSizeLimit(), true);
+            log.info("虚拟线程模式，同时执行的接口请求数上限: {}", poolController.getMaxSizeLimit());
+        } else {
+            this.permits = null;
+            if (environment.getProperty("spring.threads.virtual.enabled", Boolean.class, false)) {
+                log.warn("虚拟线程需要 Java 21，当前 Java {}，使用平台线程", Runtime.version().feature());
+            }
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain filterChain
+    ) throws ServletException, IOException {
+        if (permits != null) {
+            if (!tryAcquire()) {
+                reject(request, response);
+                return;
+            }
+            try {
+                filterChain.doFilter(request, response);
+            } finally {
+                permits.release();
+            }
+            return;
+        }
+
+        if (!poolController.isSaturated()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        reject(request, response);
+    }
+
+    private boolean tryAcquire() {
+        if (permits.getQueueLength() >= poolController.getMaxPending()) {
+            return false;
+        }
+        try {
+            return permits.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        rejected.increment();
+        log.warn("连接池饱和，拒绝请求: {} {}", request.getMethod(), request.getRequestURI());
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        objectMapper.writeValue(response.getWriter(), ApiResponse.error(503, "服务器繁忙，请稍后重试"));
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * 文件名：ConnectionPoolController.java
+ * 创建日期：2026年10月18日
+ * 作者：YoutubePlanner Team
+ *
+ * 文件描述：
+ * 连接池容量控制：
+ * - 定时检查等待连接的线程数，有线程等待时把最大连接数提高到 database.pool.max-size-limit 为止，
+ *   持续空闲一段时间后逐个降回配置的 maximum-pool-size，多出的空闲连接由连接池按 idle-timeout 关闭；
+ * - 等待连接的线程数达到 database.pool.max-pending 时视为连接池饱和，
+ *   由 ConnectionPoolAdmissionFilter 直接返回 503，不再让请求线程排队等待 connection-timeout。
+ * 虚拟线程模式下定时任务也在虚拟线程上执行，使用 ReentrantLock 而不是 synchronized，避免占住载体线程。
+ *
+ * 修改历史：
+ * 2026年10月18日 - 初始版本
+ *
+ * 版权所有 (c) 2026 YoutubePlanner
+ */
+
+package com.youtubeplanner.backend.config;
+
+import com.zaxxer.hikari.HikariConfigMXBean;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.concurrent.locks.ReentrantLock;
+
+@Slf4j
+@Component
+public class ConnectionPoolController {
+
+    // 连续多少次检查没有等待且有空闲连接后，最大连接数减一
+    private static final int SHRINK_AFTER_IDLE_CHECKS = 12;
+
+    private final HikariDataSource dataSource;
+    private final int baseSize;
+    @Getter
+    private final int maxSizeLimit;
+    @Getter
+    private final int maxPending;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private int idleChecks;
+
+    public ConnectionPoolController(
+            DataSource dataSource,
+            @Value("${database.pool.max-size-limit:0}") int maxSizeLimit,
+            @Value("${database.pool.max-pending:10}") int maxPending) throws SQLException {
+        this.dataSource = dataSource.isWrapperFor(HikariDataSource.class)
+                ? dataSource.unwrap(HikariDataSource.class)
+                : null;
+        this.baseSize = this.dataSource == null ? 0 : this.dataSource.getMaximumPoolSize();
+        this.maxSizeLimit = Math.max(baseSize, maxSizeLimit);
+        this.maxPending = maxPending;
+    }
+
+    /**
+     * 连接池是否饱和（等待连接的线程数达到上限）
+     */
+    public boolean isSaturated() {
+        HikariPoolMXBean pool = pool();
+        return pool != null && pool.getThreadsAwaitingConnection() >= maxPending;
+    }
+
+    @Scheduled(fixedDelayString = "${database.pool.resize-interval:5000}")
+    public void adjustPoolSize() {
+        HikariPoolMXBean pool = pool();
+        if (pool == null) {
+            return;
+        }
+        lock.lock();
+        try {
+            resize(pool);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void resize(HikariPoolMXBean pool) {
+        HikariConfigMXBean config = dataSource.getHikariConfigMXBean();
+        int maximumPoolSize = config.getMaximumPoolSize();
+        int pending = pool.getThreadsAwaitingConnection();
+
+        if (pending > 0) {
+            idleChecks = 0;
+            if (maximumPoolSize < maxSizeLimit) {
+                int newSize = Math.min(maxSizeLimit, maximumPoolSize + pending);
+                config.setMaximumPoolSize(newSize);
+                log.info("连接池有 {} 个线程等待连接，最大连接数 {} -> {}", pending, maximumPoolSize, newSize);
+            }
+        } else if (maximumPoolSize > baseSize && pool.getActiveConnections() < maximumPoolSize - 1) {
+            if (++idleChecks >= SHRINK_AFTER_IDLE_CHECKS) {
+                idleChecks = 0;
+                config.setMaximumPoolSize(maximumPoolSize - 1);
+                log.info("连接池空闲，最大连接数 {} -> {}", maximumPoolSize, maximumPoolSize - 1);
+            }
+        } else {
+            idleChecks = 0;
+        }
+    }
+
+    private HikariPoolMXBean pool() {
+        // 连接池在第一次获取连接时才启动
+        return dataSource == null ? null : dataSource.getHikariPoolMXBean();
+    }
+}
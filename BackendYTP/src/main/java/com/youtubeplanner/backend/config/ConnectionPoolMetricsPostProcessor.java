@@ -0,0 +1,120 @@
+/*
+ * 文件名：ConnectionPoolMetricsPostProcessor.java
+ * 创建日期：2026年10月18日
+ * 作者：YoutubePlanner Team
+ *
+ * 文件描述：
+ * 在连接池启动前为 HikariCP 设置指标收集，通过 actuator（/actuator/metrics）导出：
+ * - hikaricp.connections.active / idle / pending / max：活动、空闲、等待中的连接数和当前最大连接数；
+ * - hikaricp.connections.acquire：获取连接的耗时，hikaricp.connections.usage：连接占用时间；
+ * - db.connection.hold：按接口（uri 标签，与 http.server.requests 相同的路径模板）统计的连接占用时间，
+ *   用于找出长时间占用连接的接口。认证过滤器等在匹配接口之前使用的连接记为 UNKNOWN，后台任务记为 none。
+ * Spring Boot 默认在应用启动后才设置 Hikari 指标，而连接池启动后不能再替换指标收集器，因此在这里统一设置。
+ *
+ * 修改历史：
+ * 2026年10月18日 - 初始版本
+ *
+ * 版权所有 (c) 2026 YoutubePlanner
+ */
+
+package com.youtubeplanner.backend.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.concurrent.TimeUnit;
+
+@Component
+public class ConnectionPoolMetricsPostProcessor implements BeanPostProcessor {
+
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    public ConnectionPoolMetricsPostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (bean instanceof HikariDataSource dataSource
+                && dataSource.getMetricRegistry() == null
+                && dataSource.getMetricsTrackerFactory() == null) {
+            // 连接池在第一次获取连接时才创建指标收集器，此时再取 MeterRegistry
+            dataSource.setMetricsTrackerFactory((poolName, poolStats) -> {
+                MeterRegistry registry = meterRegistry.getIfAvailable();
+                return registry == null
+                        ? new IMetricsTracker() { }
+                        : new EndpointMetricsTracker(
+                                new MicrometerMetricsTrackerFactory(registry).create(poolName, poolStats), registry, poolName);
+            });
+        }
+        return bean;
+    }
+
+    /**
+     * 在 Hikari 默认指标之外，按当前请求的接口记录连接占用时间。
+     * 连接在使用它的线程上归还，归还时的请求就是占用连接的请求。
+     */
+    private static class EndpointMetricsTracker implements IMetricsTracker {
+        private final IMetricsTracker delegate;
+        private final MeterRegistry registry;
+        private final String poolName;
+
+        EndpointMetricsTracker(IMetricsTracker delegate, MeterRegistry registry, String poolName) {
+            this.delegate = delegate;
+            this.registry = registry;
+            this.poolName = poolName;
+        }
+
+        @Override
+        public void recordConnectionCreatedMillis(long connectionCreatedMillis) {
+            delegate.recordConnectionCreatedMillis(connectionCreatedMillis);
+        }
+
+        @Override
+        public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+            delegate.recordConnectionAcquiredNanos(elapsedAcquiredNanos);
+        }
+
+        @Override
+        public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+            delegate.recordConnectionUsageMillis(elapsedBorrowedMillis);
+            Timer.builder("db.connection.hold")
+                    .description("Connection hold time by endpoint")
+                    .tag("pool", poolName)
+                    .tag("uri", currentUri())
+                    .register(registry)
+                    .record(elapsedBorrowedMillis, TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public void recordConnectionTimeout() {
+            delegate.recordConnectionTimeout();
+        }
+
+        @Override
+        public void close() {
+            delegate.close();
+        }
+
+        private static String currentUri() {
+            RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+            if (attributes == null) {
+                return "none";
+            }
+            Object pattern = attributes.getAttribute(
+                    HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+            return pattern == null ? "UNKNOWN" : pattern.toString();
+        }
+    }
+}
@@ -0,0 +1,38 @@
+/*
+ * 文件名：HttpClientConfig.java
+ * 创建日期：2026年10月18日
+ * 作者：YoutubePlanner Team
+ *
+ * 文件描述：
+ * 调用外部大模型接口使用的 HTTP 客户端配置。
+ * 全局共享一个客户端，复用上游连接（HTTPS 下使用 HTTP/2 多路复用），
+ * 响应以异步方式推送处理，不为每个流式请求占用线程。
+ * 不跟随重定向，避免经校验的接口地址重定向到内网服务。
+ *
+ * 修改历史：
+ * 2026年10月18日 - 初始版本
+ * 2026年10月18日 - 不再跟随重定向
+ *
+ * 版权所有 (c) 2026 YoutubePlanner
+ */
+
+package com.youtubeplanner.backend.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+
+@Configuration
+public class HttpClientConfig {
+
+    @Bean
+    public HttpClient llmHttpClient(@Value("${ai.generation.connect-timeout:10s}") Duration connectTimeout) {
+        return HttpClient.newBuilder()
+                .connectTimeout(connectTimeout)
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .build();
+    }
+}
@@ -0,0 +1,31 @@
+/*
+ * 文件名：MetricsConfig.java
+ * 创建日期：2026年10月18日
+ * 作者：YoutubePlanner Team
+ *
+ * 文件描述：
+ * 指标配置：接口请求指标按控制器和控制器方法打标签（每个请求的 SQL 统计见 RequestMetricsFilter）。
+ * 其余指标由 Spring Boot 自动导出：JVM（内存、GC、线程）、连接池、仓库方法耗时、
+ * Hibernate 统计信息（hibernate.generate_statistics 开启时）。
+ *
+ * 修改历史：
+ * 2026年10月18日 - 初始版本
+ *
+ * 版权所有 (c) 2026 YoutubePlanner
+ */
+
+package com.youtubeplanner.backend.config;
+
+import com.youtubeplanner.backend.common.metrics.ControllerObservationConvention;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.server.observation.ServerRequestObservationConvention;
+
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public ServerRequestObservationConvention controllerObservationConvention() {
+        return new ControllerObservationConvention();
+    }
+}
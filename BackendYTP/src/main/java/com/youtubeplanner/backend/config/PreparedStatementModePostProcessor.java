@@ -0,0 +1,177 @@
+/*
+ * 文件名：PreparedStatementModePostProcessor.java
+ * 创建日期：2026年10月18日
+ * 作者：YoutubePlanner Team
+ *
+ * 文件描述：
+ * 按数据库连接方式配置 PostgreSQL 驱动的预处理语句，在连接池创建第一个连接之前生效。
+ * database.prepared-statements 取值：
+ * - server：使用服务端预处理语句（驱动默认行为），同一条 SQL 在一个连接上执行 5 次后改为命名语句，
+ *   之后只发送参数，数据库不再重复解析和改写 SQL。同时设置 plan_cache_mode=force_custom_plan：
+ *   列表查询的过滤条件是 "(:x IS NULL OR ...)" 形式，数据库改用通用执行计划后不再按实际参数选择索引，
+ *   列表页会慢一个数量级，因此每次执行仍按参数生成执行计划；
+ * - client（默认）：不使用命名语句，每次都以未命名语句执行。事务级连接池（如 PgBouncer transaction 模式、
+ *   Supabase 6543 端口）会把同一个客户端连接的事务分配到不同的数据库连接上，命名语句在另一个连接上不存在；
+ * - auto：需显式配置。启动时用一个单独的连接检测，直连数据库时使用 server，经过连接池或无法确认时使用 client。
+ * 检测方法：数据库自身的监听地址和端口（inet_server_addr()、inet_server_port()）与连接地址的主机解析结果和端口一致时
+ * 视为直连，不一致说明中间有连接池或代理（连接池与数据库同端口但不同主机时也能识别）；
+ * 主机名包含 pooler 时直接视为连接池。
+ *
+ * 修改历史：
+ * 2026年10月18日 - 初始版本
+ *
+ * 版权所有 (c) 2026 YoutubePlanner
+ */
+
+package com.youtubeplanner.backend.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.Driver;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+
+@Slf4j
+@Component
+public class PreparedStatementModePostProcessor implements BeanPostProcessor {
+
+    public enum Mode {
+        AUTO, SERVER, CLIENT
+    }
+
+    // 驱动默认值：执行 5 次后使用服务端命名语句，每个连接缓存最近 256 条 SQL
+    private static final Map<String, String> SERVER_SIDE = Map.of(
+            "prepareThreshold", "5",
+            "preparedStatementCacheQueries", "256",
+            "preparedStatementCacheSizeMiB", "5");
+
+    // 连接池兼容配置：始终使用未命名语句，不缓存语句
+    private static final Map<String, String> CLIENT_SIDE = Map.of(
+            "prepareThreshold", "0",
+            "preparedStatementCacheQueries", "0",
+            "preparedStatementCacheSizeMiB", "0");
+
+    // 命名语句始终按实际参数生成执行计划，避免可选过滤条件的查询使用通用执行计划
+    private static final String FORCE_CUSTOM_PLAN = "-c plan_cache_mode=force_custom_plan";
+
+    private final Mode mode;
+
+    public PreparedStatementModePostProcessor(@Value("${database.prepared-statements:client}") String mode) {
+        this.mode = Mode.valueOf(mode.trim().toUpperCase(Locale.ROOT));
+    }
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (!(bean instanceof HikariDataSource dataSource)
+                || dataSource.getJdbcUrl() == null
+                || !dataSource.getJdbcUrl().startsWith("jdbc:postgresql:")) {
+            return bean;
+        }
+
+        boolean serverSide = switch (mode) {
+            case SERVER -> true;
+            case CLIENT -> false;
+            case AUTO -> isDirectConnection(dataSource);
+        };
+        (serverSide ? SERVER_SIDE : CLIENT_SIDE).forEach(dataSource::addDataSourceProperty);
+        if (serverSide) {
+            dataSource.addDataSourceProperty("options", withForceCustomPlan(dataSource));
+        }
+        log.info("数据库预处理语句模式: {}（配置: {}）", serverSide ? "server" : "client", mode.name().toLowerCase(Locale.ROOT));
+        return bean;
+    }
+
+    /**
+     * 在已有的连接参数（数据源属性或连接地址中的 options）后追加 plan_cache_mode 设置
+     */
+    private String withForceCustomPlan(HikariDataSource dataSource) {
+        Object options = dataSource.getDataSourceProperties().get("options");
+        if (options == null) {
+            Properties urlProperties = Driver.parseURL(dataSource.getJdbcUrl(), null);
+            options = urlProperties == null ? null : urlProperties.getProperty("options");
+        }
+        return options == null || options.toString().isBlank()
+                ? FORCE_CUSTOM_PLAN
+                : options + " " + FORCE_CUSTOM_PLAN;
+    }
+
+    private boolean isDirectConnection(HikariDataSource dataSource) {
+        Properties urlProperties = Driver.parseURL(dataSource.getJdbcUrl(), null);
+        if (urlProperties == null) {
+            return false;
+        }
+        String host = urlProperties.getProperty("PGHOST", "");
+        if (host.toLowerCase(Locale.ROOT).contains("pooler")) {
+            log.info("数据库地址 {} 是连接池，不使用服务端预处理语句", host);
+            return false;
+        }
+
+        Properties info = new Properties();
+        dataSource.getDataSourceProperties().forEach(info::put);
+        CLIENT_SIDE.forEach(info::put);
+        if (dataSource.getUsername() != null) {
+            info.put("user", dataSource.getUsername());
+        }
+        if (dataSource.getPassword() != null) {
+            info.put("password", dataSource.getPassword());
+        }
+        info.put("connectTimeout", "10");
+
+        try (Connection connection = DriverManager.getConnection(dataSource.getJdbcUrl(), info);
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT inet_server_addr(), inet_server_port()")) {
+            resultSet.next();
+            String serverAddress = resultSet.getString(1);
+            if (serverAddress == null) {
+                // 通过 Unix 套接字连接，没有经过网络上的连接池
+                return true;
+            }
+            int serverPort = resultSet.getInt(2);
+
+            // 多主机地址中的主机和端口按位置对应，任一对与数据库的监听地址一致即为直连
+            String[] hosts = host.split(",");
+            String[] ports = urlProperties.getProperty("PGPORT", "5432").split(",");
+            for (int i = 0; i < hosts.length && i < ports.length; i++) {
+                if (ports[i].equals(String.valueOf(serverPort)) && resolvesTo(hosts[i], serverAddress)) {
+                    return true;
+                }
+            }
+            log.info("连接地址 {}:{} 与数据库监听地址 {}:{} 不同，视为经过连接池",
+                    host, urlProperties.getProperty("PGPORT"), serverAddress, serverPort);
+            return false;
+        } catch (SQLException e) {
+            log.warn("检测数据库连接方式失败，不使用服务端预处理语句: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * 连接地址中的主机名是否解析到数据库的监听地址
+     */
+    private static boolean resolvesTo(String host, String serverAddress) {
+        try {
+            InetAddress server = InetAddress.getByName(serverAddress.split("/")[0]);
+            for (InetAddress address : InetAddress.getAllByName(host.replace("[", "").replace("]", ""))) {
+                if (address.equals(server)) {
+                    return true;
+                }
+            }
+            return false;
+        } catch (UnknownHostException e) {
+            log.warn("无法解析数据库地址 {}: {}", host, e.getMessage());
+            return false;
+        }
+    }
+}
@@ -15,7 +15,10 @@
 package com.youtubeplanner.backend.mindmap.controller;
 
 import com.youtubeplanner.backend.common.response.ApiResponse;
+import com.youtubeplanner.backend.common.ETags;
 import com.youtubeplanner.backend.common.PaginatedData;
+import com.youtubeplanner.backend.mindmap.dto.MindMapPatchRequest;
+import com.youtubeplanner.backend.mindmap.dto.MindMapPatchResponse;
 import com.youtubeplanner.backend.mindmap.dto.MindMapRequest;
 import com.youtubeplanner.backend.mindmap.dto.MindMapResponse;
 import com.youtubeplanner.backend.mindmap.dto.MindMapListResponse;
@@ -24,6 +27,9 @@ import com.youtubeplanner.backend.user.entity.User;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
@@ -48,30 +54,54 @@ public class MindMapController {
     }
     
     @GetMapping("/{mindMapId}")
-    public ApiResponse<MindMapResponse> getMindMapById(
+    public ResponseEntity<ApiResponse<MindMapResponse>> getMindMapById(
             @AuthenticationPrincipal User user,
-            @PathVariable Long mindMapId) {
+            @PathVariable Long mindMapId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         log.debug("获取思维导图详情，用户ID: {}, 思维导图ID: {}", 
                 user != null ? user.getUserId() : "null", mindMapId);
         if (user == null) {
-            return ApiResponse.error(401, "用户未认证");
+            return ResponseEntity.ok(ApiResponse.error(401, "用户未认证"));
+        }
+        // 携带 If-None-Match 时先只查询版本号，未变化则直接返回 304，不加载节点和连线数据
+        if (ifNoneMatch != null) {
+            Long version = mindMapService.getMindMapVersion(user, mindMapId);
+            if (ETags.noneMatchHit(ifNoneMatch, version)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(ETags.of(version)).build();
+            }
         }
         MindMapResponse response = mindMapService.getMindMapById(user, mindMapId);
-        return ApiResponse.success(response);
+        return ResponseEntity.ok().eTag(ETags.of(response.getVersion())).body(ApiResponse.success(response));
     }
     
     @PutMapping("/{mindMapId}")
-    public ApiResponse<MindMapResponse> updateMindMap(
+    public ResponseEntity<ApiResponse<MindMapResponse>> updateMindMap(
             @AuthenticationPrincipal User user,
             @PathVariable Long mindMapId,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @Valid @RequestBody MindMapRequest request) {
         log.debug("更新思维导图，用户ID: {}, 思维导图ID: {}", 
                 user != null ? user.getUserId() : "null", mindMapId);
         if (user == null) {
-            return ApiResponse.error(401, "用户未认证");
+            return ResponseEntity.ok(ApiResponse.error(401, "用户未认证"));
+        }
+        MindMapResponse response = mindMapService.updateMindMap(user, mindMapId, request, ETags.expectedVersion(ifMatch));
+        return ResponseEntity.ok().eTag(ETags.of(response.getVersion())).body(ApiResponse.success("思维导图更新成功", response));
+    }
+    
+    @PatchMapping("/{mindMapId}")
+    public ResponseEntity<ApiResponse<MindMapPatchResponse>> patchMindMap(
+            @AuthenticationPrincipal User user,
+            @PathVariable Long mindMapId,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @Valid @RequestBody MindMapPatchRequest request) {
+        log.debug("增量更新思维导图，用户ID: {}, 思维导图ID: {}", 
+                user != null ? user.getUserId() : "null", mindMapId);
+        if (user == null) {
+            return ResponseEntity.ok(ApiResponse.error(401, "用户未认证"));
         }
-        MindMapResponse response = mindMapService.updateMindMap(user, mindMapId, request);
-        return ApiResponse.success("思维导图更新成功", response);
+        MindMapPatchResponse response = mindMapService.patchMindMap(user, mindMapId, request, ETags.expectedVersion(ifMatch));
+        return ResponseEntity.ok().eTag(ETags.of(response.getVersion())).body(ApiResponse.success("思维导图更新成功", response));
     }
     
     @DeleteMapping("/{mindMapId}")
@@ -92,13 +122,14 @@ public class MindMapController {
             @AuthenticationPrincipal User user,
             @RequestParam(defaultValue = "1") int page,
             @RequestParam(defaultValue = "10") int limit,
-            @RequestParam(required = false) String search) {
-        log.debug("获取用户思维导图列表，用户ID: {}, 页码: {}, 每页数量: {}, 搜索: {}", 
-                user != null ? user.getUserId() : "null", page, limit, search);
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) String cursor) {
+        log.debug("获取用户思维导图列表，用户ID: {}, 页码: {}, 每页数量: {}, 搜索: {}, 游标: {}", 
+                user != null ? user.getUserId() : "null", page, limit, search, cursor);
         if (user == null) {
             return ApiResponse.error(401, "用户未认证");
         }
-        PaginatedData<MindMapListResponse> response = mindMapService.getUserMindMaps(user, page, limit, search);
+        PaginatedData<MindMapListResponse> response = mindMapService.getUserMindMaps(user, page, limit, search, cursor);
         return ApiResponse.success(response);
     }
 } 
\ No newline at end of file
@@ -0,0 +1,54 @@
+/*
+ * 文件名：MindMapPatchRequest.java
+ * 创建日期：2026年10月18日
+ * 作者：YoutubePlanner Team
+ *
+ * 文件描述：
+ * 思维导图增量更新请求DTO。
+ * 节点和连线按 id 新增、修改或删除，只需提交发生变化的元素。
+ *
+ * 修改历史：
+ * 2026年10月18日 - 初始版本
+ *
+ * 版权所有 (c) 2026 YoutubePlanner
+ */
+
+package com.youtubeplanner.backend.mindmap.dto;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class MindMapPatchRequest {
+    // 为 null 时不修改
+    @Size(min = 1, max = 255, message = "标题长度必须在1-255个字符之间")
+    @Pattern(regexp = ".*\\S.*", message = "思维导图标题不能为空")
+    private String title;
+
+    // 为 null 时不修改
+    @Size(max = 1000, message = "描述长度不能超过1000个字符")
+    private String description;
+
+    @Valid
+    private ElementChanges nodes;
+
+    @Valid
+    private ElementChanges edges;
+
+    @Data
+    public static class ElementChanges {
+        // 新增的完整元素，id 不能已存在
+        private List<ObjectNode> add;
+
+        // 修改的元素，按 id 匹配，只覆盖传入的顶层字段，id 必须已存在
+        private List<ObjectNode> update;
+
+        // 要删除的元素 id；删除节点时同时删除与其相连的连线
+        private List<String> remove;
+    }
+}
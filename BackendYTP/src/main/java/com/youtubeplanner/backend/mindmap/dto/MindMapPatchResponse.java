@@ -0,0 +1,28 @@
+/*
+ * 文件名：MindMapPatchResponse.java
+ * 创建日期：2026年10月18日
+ * 作者：YoutubePlanner Team
+ *
+ * 文件描述：
+ * 思维导图增量更新响应DTO，只返回新的版本号和更新时间，不回传节点和连线数据。
+ *
+ * 修改历史：
+ * 2026年10月18日 - 初始版本
+ *
+ * 版权所有 (c) 2026 YoutubePlanner
+ */
+
+package com.youtubeplanner.backend.mindmap.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+public class MindMapPatchResponse {
+    private Long mindMapId;
+    private Long version;
+    private LocalDateTime updatedAt;
+}
@@ -20,7 +20,9 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnTransformer;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.DynamicUpdate;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
@@ -30,6 +32,7 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
+@DynamicUpdate
 @Table(name = "mind_maps")
 public class MindMap {
     @Id
@@ -43,11 +46,13 @@ public class MindMap {
     @Column(name = "description", length = 1000)
     private String description;
 
-    @Column(name = "nodes_data", columnDefinition = "TEXT")
-    private String nodesData; // JSON格式存储节点数据
+    @Column(name = "nodes_data", columnDefinition = "jsonb")
+    @ColumnTransformer(write = "CAST(? AS jsonb)")
+    private String nodesData; // JSON数组格式存储节点数据
 
-    @Column(name = "edges_data", columnDefinition = "TEXT")
-    private String edgesData; // JSON格式存储连接线数据
+    @Column(name = "edges_data", columnDefinition = "jsonb")
+    @ColumnTransformer(write = "CAST(? AS jsonb)")
+    private String edgesData; // JSON数组格式存储连接线数据
 
     @Column(name = "user_id", nullable = false)
     private Long userId;
@@ -62,4 +67,9 @@ public class MindMap {
 
     @Column(name = "is_deleted", nullable = false)
     private boolean isDeleted = false;
+
+    // 乐观锁版本号，每次更新自动加一，同时作为 ETag
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
 } 
\ No newline at end of file
@@ -25,8 +25,10 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Optional;
+
 @Repository
-public interface MindMapRepository extends JpaRepository<MindMap, Long> {
+public interface MindMapRepository extends JpaRepository<MindMap, Long>, MindMapRepositoryCustom {
     
     @Query("SELECT m FROM MindMap m WHERE m.userId = :userId AND m.isDeleted = false ORDER BY m.updatedAt DESC")
     Page<MindMap> findByUserIdAndNotDeleted(@Param("userId") Long userId, Pageable pageable);
@@ -37,8 +39,13 @@ public interface MindMapRepository extends JpaRepository<MindMap, Long> {
     @Query("SELECT COUNT(m) FROM MindMap m WHERE m.userId = :userId AND m.isDeleted = false")
     long countByUserIdAndNotDeleted(@Param("userId") Long userId);
     
-    // 按用户ID删除思维导图
+    // 只查询版本号，用于条件请求（If-None-Match）判断是否需要返回完整内容
+    @Query("SELECT m.version FROM MindMap m WHERE m.mindMapId = :mindMapId AND m.userId = :userId AND m.isDeleted = false")
+    Optional<Long> findVersionByIdAndUserId(@Param("mindMapId") Long mindMapId, @Param("userId") Long userId);
+    
+    // 按用户ID批量删除思维导图
     @Modifying
     @Transactional
-    void deleteByUserId(Long userId);
+    @Query("DELETE FROM MindMap m WHERE m.userId = :userId")
+    void deleteByUserId(@Param("userId") Long userId);
 } 
\ No newline at end of file
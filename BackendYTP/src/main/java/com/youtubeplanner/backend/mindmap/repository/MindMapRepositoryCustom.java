@@ -0,0 +1,50 @@
+/*
+ * 文件名：MindMapRepositoryCustom.java
+ * 创建日期：2026年10月18日
+ * 作者：YoutubePlanner Team
+ * 
+ * 文件描述：
+ * 思维导图仓库自定义查询接口，提供游标分页查询。
+ * 
+ * 修改历史：
+ * 2026年10月18日 - 初始版本
+ * 
+ * 版权所有 (c) 2026 YoutubePlanner
+ */
+
+package com.youtubeplanner.backend.mindmap.repository;
+
+import com.youtubeplanner.backend.common.KeysetCursor;
+import com.youtubeplanner.backend.common.KeysetSlice;
+import com.youtubeplanner.backend.mindmap.entity.MindMap;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+
+public interface MindMapRepositoryCustom {
+    /**
+     * 游标分页查询用户未删除的思维导图，title 为空时不按标题过滤，不执行 COUNT 查询
+     */
+    KeysetSlice<MindMap> findByUserIdAndNotDeletedAfter(Long userId, String title, Pageable pageable, KeysetCursor cursor);
+
+    /**
+     * 在数据库中对节点和连线数据应用增量修改，版本号一致时才更新，同时递增版本号
+     * nodeChanges、edgeChanges 为 {"add": [...], "update": [...], "remove": [...], "detach": [...]} 格式的 JSON，
+     * detach 为已删除的节点 id，source 或 target 为这些节点的元素一并删除；
+     * title、description、nodeChanges、edgeChanges 为 null 时不修改对应列
+     *
+     * @return 更新的行数，版本号不一致时为 0
+     */
+    int patchElements(Long mindMapId, Long userId, long version, LocalDateTime updatedAt,
+                      String title, String description, String nodeChanges, String edgeChanges);
+
+    /**
+     * 在指定版本的节点和连线数据中查询已存在的元素 id，一次查询，只返回 id，不读取整列数据
+     * idsByColumn 的键为 nodes_data 或 edges_data，值为要查询的 id；返回值按列给出其中已存在的 id，
+     * 版本号不一致时各列均为空集合
+     */
+    Map<String, Set<String>> findExistingElementIds(Long mindMapId, long version, Map<String, ? extends Collection<String>> idsByColumn);
+}
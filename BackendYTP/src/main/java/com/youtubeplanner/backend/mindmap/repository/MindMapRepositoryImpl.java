@@ -0,0 +1,154 @@
+/*
+ * 文件名：MindMapRepositoryImpl.java
+ * 创建日期：2026年10月18日
+ * 作者：YoutubePlanner Team
+ * 
+ * 文件描述：
+ * 思维导图仓库自定义查询实现，提供游标分页查询。
+ * 
+ * 修改历史：
+ * 2026年10月18日 - 初始版本
+ * 
+ * 版权所有 (c) 2026 YoutubePlanner
+ */
+
+package com.youtubeplanner.backend.mindmap.repository;
+
+import com.youtubeplanner.backend.common.KeysetCursor;
+import com.youtubeplanner.backend.common.KeysetQuery;
+import com.youtubeplanner.backend.common.KeysetSlice;
+import com.youtubeplanner.backend.common.KeysetSort;
+import com.youtubeplanner.backend.mindmap.entity.MindMap;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class MindMapRepositoryImpl implements MindMapRepositoryCustom {
+    // 思维导图列表固定按更新时间排序
+    private static final Map<String, KeysetSort<MindMap>> SORTS = Map.of(
+            "updatedAt", new KeysetSort<>("updatedAt", "m.updatedAt", "m.mindMapId", LocalDateTime.class, false,
+                    MindMap::getUpdatedAt, MindMap::getMindMapId));
+
+    // 允许按元素 id 查询的 JSON 数组列
+    private static final Set<String> ELEMENT_COLUMNS = Set.of("nodes_data", "edges_data");
+
+    private static final String USER_MIND_MAPS_QUERY = "SELECT m FROM MindMap m " +
+            "WHERE m.userId = :userId AND m.isDeleted = false";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public int patchElements(Long mindMapId, Long userId, long version, LocalDateTime updatedAt,
+                             String title, String description, String nodeChanges, String edgeChanges) {
+        StringBuilder sql = new StringBuilder("UPDATE mind_maps SET version = version + 1, updated_at = :updatedAt");
+        if (title != null) {
+            sql.append(", title = :title");
+        }
+        if (description != null) {
+            sql.append(", description = :description");
+        }
+        if (nodeChanges != null) {
+            sql.append(", nodes_data = ").append(elementsPatch("nodes_data", "nodeChanges"));
+        }
+        if (edgeChanges != null) {
+            sql.append(", edges_data = ").append(elementsPatch("edges_data", "edgeChanges"));
+        }
+        sql.append(" WHERE mind_map_id = :mindMapId AND user_id = :userId AND is_deleted = false AND version = :version");
+
+        Query query = entityManager.createNativeQuery(sql.toString());
+        query.setParameter("updatedAt", updatedAt);
+        query.setParameter("mindMapId", mindMapId);
+        query.setParameter("userId", userId);
+        query.setParameter("version", version);
+        if (title != null) {
+            query.setParameter("title", title);
+        }
+        if (description != null) {
+            query.setParameter("description", description);
+        }
+        if (nodeChanges != null) {
+            query.setParameter("nodeChanges", nodeChanges);
+        }
+        if (edgeChanges != null) {
+            query.setParameter("edgeChanges", edgeChanges);
+        }
+        return query.executeUpdate();
+    }
+
+    @Override
+    public Map<String, Set<String>> findExistingElementIds(Long mindMapId, long version,
+                                                           Map<String, ? extends Collection<String>> idsByColumn) {
+        Map<String, Set<String>> existing = new HashMap<>();
+        List<String> selects = new ArrayList<>();
+        for (Map.Entry<String, ? extends Collection<String>> entry : idsByColumn.entrySet()) {
+            String column = entry.getKey();
+            if (!ELEMENT_COLUMNS.contains(column)) {
+                throw new IllegalArgumentException("不支持的元素列: " + column);
+            }
+            existing.put(column, new HashSet<>());
+            if (!entry.getValue().isEmpty()) {
+                selects.add("SELECT '" + column + "', e.elem ->> 'id' FROM mind_maps m " +
+                        "CROSS JOIN jsonb_array_elements(COALESCE(m." + column + ", CAST('[]' AS jsonb))) AS e(elem) " +
+                        "WHERE m.mind_map_id = :mindMapId AND m.version = :version AND e.elem ->> 'id' IN (:" + column + ")");
+            }
+        }
+        if (selects.isEmpty()) {
+            return existing;
+        }
+
+        Query query = entityManager.createNativeQuery(String.join(" UNION ALL ", selects));
+        query.setParameter("mindMapId", mindMapId);
+        query.setParameter("version", version);
+        idsByColumn.forEach((column, ids) -> {
+            if (!ids.isEmpty()) {
+                query.setParameter(column, ids);
+            }
+        });
+        for (Object row : query.getResultList()) {
+            Object[] columns = (Object[]) row;
+            existing.get((String) columns[0]).add((String) columns[1]);
+        }
+        return existing;
+    }
+
+    /**
+     * 对 JSON 数组列应用增量修改：保持原有顺序，按 id 覆盖修改的顶层字段，
+     * 过滤删除的元素和与已删除节点相连的元素，最后追加新增的元素
+     */
+    private static String elementsPatch(String column, String param) {
+        String changes = "CAST(:" + param + " AS jsonb)";
+        return "(SELECT COALESCE(jsonb_agg(COALESCE(e.elem || u.patch, e.elem) ORDER BY e.ord), CAST('[]' AS jsonb)) " +
+                "FROM jsonb_array_elements(COALESCE(" + column + ", CAST('[]' AS jsonb))) WITH ORDINALITY AS e(elem, ord) " +
+                "LEFT JOIN jsonb_array_elements(" + changes + " -> 'update') AS u(patch) ON u.patch ->> 'id' = e.elem ->> 'id' " +
+                "WHERE NOT EXISTS (SELECT 1 FROM jsonb_array_elements_text(" + changes + " -> 'remove') AS r(id) " +
+                "WHERE r.id = e.elem ->> 'id') " +
+                "AND NOT EXISTS (SELECT 1 FROM jsonb_array_elements_text(" + changes + " -> 'detach') AS d(id) " +
+                "WHERE d.id IN (e.elem ->> 'source', e.elem ->> 'target'))) " +
+                "|| COALESCE(" + changes + " -> 'add', CAST('[]' AS jsonb))";
+    }
+
+    @Override
+    public KeysetSlice<MindMap> findByUserIdAndNotDeletedAfter(Long userId, String title, Pageable pageable, KeysetCursor cursor) {
+        Map<String, Object> params = new HashMap<>();
+        params.put("userId", userId);
+        String jpql = USER_MIND_MAPS_QUERY;
+        // 有搜索条件时才追加标题过滤，避免空字符串参数在 PostgreSQL 中被推断为 bytea
+        if (title != null) {
+            jpql += " AND m.title LIKE CONCAT('%', :title, '%')";
+            params.put("title", title);
+        }
+        return KeysetQuery.fetch(entityManager, jpql, MindMap.class,
+                params, SORTS, pageable, cursor);
+    }
+}
@@ -15,6 +15,8 @@
 package com.youtubeplanner.backend.mindmap.service;
 
 import com.youtubeplanner.backend.common.PaginatedData;
+import com.youtubeplanner.backend.mindmap.dto.MindMapPatchRequest;
+import com.youtubeplanner.backend.mindmap.dto.MindMapPatchResponse;
 import com.youtubeplanner.backend.mindmap.dto.MindMapRequest;
 import com.youtubeplanner.backend.mindmap.dto.MindMapResponse;
 import com.youtubeplanner.backend.mindmap.dto.MindMapListResponse;
@@ -32,10 +34,22 @@ public interface MindMapService {
      */
     MindMapResponse getMindMapById(User user, Long mindMapId);
     
+    /**
+     * 获取思维导图版本号，不存在或无权访问时返回 null
+     */
+    Long getMindMapVersion(User user, Long mindMapId);
+    
     /**
      * 更新思维导图
+     * expectedVersion 不为 null 时校验版本，不一致抛出 PreconditionFailedException
+     */
+    MindMapResponse updateMindMap(User user, Long mindMapId, MindMapRequest request, Long expectedVersion);
+    
+    /**
+     * 增量更新思维导图，节点和连线的修改在数据库中完成，不加载和回写完整数据
+     * expectedVersion 不为 null 时校验版本，不一致抛出 PreconditionFailedException
      */
-    MindMapResponse updateMindMap(User user, Long mindMapId, MindMapRequest request);
+    MindMapPatchResponse patchMindMap(User user, Long mindMapId, MindMapPatchRequest request, Long expectedVersion);
     
     /**
      * 删除思维导图（软删除）
@@ -44,6 +58,7 @@ public interface MindMapService {
     
     /**
      * 获取用户的思维导图列表
+     * cursor 不为 null 时使用游标分页（空字符串表示第一页），忽略 page 参数
      */
-    PaginatedData<MindMapListResponse> getUserMindMaps(User user, int page, int limit, String search);
+    PaginatedData<MindMapListResponse> getUserMindMaps(User user, int page, int limit, String search, String cursor);
 } 
\ No newline at end of file
@@ -8,14 +8,25 @@
  * 
  * 修改历史：
  * 2024年12月XX日 - 初始版本
+ * 2026年10月18日 - 增量更新校验新增元素不存在、修改元素存在，新增连线不能连接同时删除的节点
  * 
  * 版权所有 (c) 2025 YoutubePlanner
  */
 
 package com.youtubeplanner.backend.mindmap.service.impl;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.youtubeplanner.backend.common.KeysetCursor;
+import com.youtubeplanner.backend.common.KeysetSlice;
 import com.youtubeplanner.backend.common.PaginatedData;
 import com.youtubeplanner.backend.common.PaginationInfo;
+import com.youtubeplanner.backend.common.exception.PreconditionFailedException;
+import com.youtubeplanner.backend.mindmap.dto.MindMapPatchRequest;
+import com.youtubeplanner.backend.mindmap.dto.MindMapPatchResponse;
 import com.youtubeplanner.backend.mindmap.dto.MindMapRequest;
 import com.youtubeplanner.backend.mindmap.dto.MindMapResponse;
 import com.youtubeplanner.backend.mindmap.dto.MindMapListResponse;
@@ -23,15 +34,25 @@ import com.youtubeplanner.backend.mindmap.entity.MindMap;
 import com.youtubeplanner.backend.mindmap.repository.MindMapRepository;
 import com.youtubeplanner.backend.mindmap.service.MindMapService;
 import com.youtubeplanner.backend.user.entity.User;
+import com.youtubeplanner.backend.user.service.UserStatsService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -40,6 +61,8 @@ import java.util.stream.Collectors;
 public class MindMapServiceImpl implements MindMapService {
     
     private final MindMapRepository mindMapRepository;
+    private final UserStatsService userStatsService;
+    private final ObjectMapper objectMapper;
     
     @Override
     @Transactional
@@ -49,12 +72,13 @@ public class MindMapServiceImpl implements MindMapService {
         MindMap mindMap = MindMap.builder()
                 .title(request.getTitle())
                 .description(request.getDescription())
-                .nodesData(request.getNodesData())
-                .edgesData(request.getEdgesData())
+                .nodesData(validateElements(request.getNodesData(), "节点"))
+                .edgesData(validateElements(request.getEdgesData(), "连线"))
                 .userId(user.getUserId())
                 .build();
         
         MindMap savedMindMap = mindMapRepository.save(mindMap);
+        userStatsService.mindMapsChanged(user.getUserId(), 1);
         return convertToResponse(savedMindMap);
     }
     
@@ -72,9 +96,14 @@ public class MindMapServiceImpl implements MindMapService {
         return convertToResponse(mindMap);
     }
     
+    @Override
+    public Long getMindMapVersion(User user, Long mindMapId) {
+        return mindMapRepository.findVersionByIdAndUserId(mindMapId, user.getUserId()).orElse(null);
+    }
+    
     @Override
     @Transactional
-    public MindMapResponse updateMindMap(User user, Long mindMapId, MindMapRequest request) {
+    public MindMapResponse updateMindMap(User user, Long mindMapId, MindMapRequest request, Long expectedVersion) {
         log.debug("更新思维导图，用户ID: {}, 思维导图ID: {}", user.getUserId(), mindMapId);
         
         MindMap mindMap = mindMapRepository.findById(mindMapId)
@@ -84,15 +113,67 @@ public class MindMapServiceImpl implements MindMapService {
             throw new RuntimeException("无权修改该思维导图");
         }
         
+        if (expectedVersion != null && !expectedVersion.equals(mindMap.getVersion())) {
+            throw new PreconditionFailedException("思维导图已被修改，请刷新后重试");
+        }
+        
         mindMap.setTitle(request.getTitle());
         mindMap.setDescription(request.getDescription());
-        mindMap.setNodesData(request.getNodesData());
-        mindMap.setEdgesData(request.getEdgesData());
+        mindMap.setNodesData(validateElements(request.getNodesData(), "节点"));
+        mindMap.setEdgesData(validateElements(request.getEdgesData(), "连线"));
         
-        MindMap savedMindMap = mindMapRepository.save(mindMap);
+        // 写入后刷新以取得新的版本号
+        MindMap savedMindMap = mindMapRepository.saveAndFlush(mindMap);
         return convertToResponse(savedMindMap);
     }
     
+    @Override
+    @Transactional
+    public MindMapPatchResponse patchMindMap(User user, Long mindMapId, MindMapPatchRequest request, Long expectedVersion) {
+        log.debug("增量更新思维导图，用户ID: {}, 思维导图ID: {}", user.getUserId(), mindMapId);
+        
+        // 只查询版本号，不加载节点和连线数据
+        Long version = mindMapRepository.findVersionByIdAndUserId(mindMapId, user.getUserId())
+                .orElseThrow(() -> new RuntimeException("思维导图不存在"));
+        
+        if (expectedVersion != null && !expectedVersion.equals(version)) {
+            throw new PreconditionFailedException("思维导图已被修改，请刷新后重试");
+        }
+        
+        ObjectNode nodeChanges = toElementChanges(request.getNodes(), "节点");
+        ObjectNode edgeChanges = toElementChanges(request.getEdges(), "连线");
+        checkElementIds(mindMapId, version, request.getNodes(), request.getEdges());
+        
+        // 删除节点时同时删除与其相连的连线
+        if (request.getNodes() != null && request.getNodes().getRemove() != null && !request.getNodes().getRemove().isEmpty()) {
+            checkEdgesNotAttached(request.getEdges(), request.getNodes().getRemove());
+            if (edgeChanges == null) {
+                edgeChanges = objectMapper.createObjectNode();
+            }
+            edgeChanges.set("detach", objectMapper.valueToTree(request.getNodes().getRemove()));
+        }
+        
+        if (request.getTitle() == null && request.getDescription() == null && nodeChanges == null && edgeChanges == null) {
+            return MindMapPatchResponse.builder().mindMapId(mindMapId).version(version).build();
+        }
+        
+        LocalDateTime updatedAt = LocalDateTime.now();
+        int updated = mindMapRepository.patchElements(mindMapId, user.getUserId(), version, updatedAt,
+                request.getTitle(), request.getDescription(),
+                nodeChanges != null ? nodeChanges.toString() : null,
+                edgeChanges != null ? edgeChanges.toString() : null);
+        if (updated == 0) {
+            // 查询版本号之后已被其他请求修改或删除
+            throw new ObjectOptimisticLockingFailureException(MindMap.class, mindMapId);
+        }
+        
+        return MindMapPatchResponse.builder()
+                .mindMapId(mindMapId)
+                .version(version + 1)
+                .updatedAt(updatedAt)
+                .build();
+    }
+    
     @Override
     @Transactional
     public void deleteMindMap(User user, Long mindMapId) {
@@ -107,12 +188,27 @@ public class MindMapServiceImpl implements MindMapService {
         
         mindMap.setDeleted(true);
         mindMapRepository.save(mindMap);
+        userStatsService.mindMapsChanged(user.getUserId(), -1);
     }
     
     @Override
-    public PaginatedData<MindMapListResponse> getUserMindMaps(User user, int page, int limit, String search) {
-        log.debug("获取用户思维导图列表，用户ID: {}, 页码: {}, 每页数量: {}, 搜索: {}", 
-                user.getUserId(), page, limit, search);
+    public PaginatedData<MindMapListResponse> getUserMindMaps(User user, int page, int limit, String search, String cursor) {
+        log.debug("获取用户思维导图列表，用户ID: {}, 页码: {}, 每页数量: {}, 搜索: {}, 游标: {}", 
+                user.getUserId(), page, limit, search, cursor);
+        
+        // 游标分页模式，不统计总数
+        if (cursor != null) {
+            String title = search != null && !search.trim().isEmpty() ? search.trim() : null;
+            KeysetSlice<MindMap> mindMapSlice = mindMapRepository.findByUserIdAndNotDeletedAfter(
+                    user.getUserId(), title, PageRequest.of(0, limit, Sort.by(Sort.Direction.DESC, "updatedAt")),
+                    KeysetCursor.decode(cursor));
+            
+            return PaginatedData.<MindMapListResponse>builder()
+                    .items(mindMapSlice.map(this::convertToListResponse).getContent())
+                    .pagination(PaginationInfo.of(mindMapSlice))
+                    .nextCursor(mindMapSlice.getNextCursor())
+                    .build();
+        }
         
         Pageable pageable = PageRequest.of(page - 1, limit);
         Page<MindMap> mindMapPage;
@@ -143,6 +239,145 @@ public class MindMapServiceImpl implements MindMapService {
                 .build();
     }
     
+    /**
+     * 校验并整理一类元素的增量修改，同一 id 只能出现一次
+     */
+    private ObjectNode toElementChanges(MindMapPatchRequest.ElementChanges changes, String elementName) {
+        if (changes == null) {
+            return null;
+        }
+        List<ObjectNode> additions = changes.getAdd() != null ? changes.getAdd() : Collections.emptyList();
+        List<ObjectNode> updates = changes.getUpdate() != null ? changes.getUpdate() : Collections.emptyList();
+        List<String> removals = changes.getRemove() != null ? changes.getRemove() : Collections.emptyList();
+        if (additions.isEmpty() && updates.isEmpty() && removals.isEmpty()) {
+            return null;
+        }
+        
+        Set<String> ids = new HashSet<>();
+        ObjectNode result = objectMapper.createObjectNode();
+        ArrayNode remove = result.putArray("remove");
+        for (ObjectNode element : additions) {
+            String id = elementId(element, elementName);
+            if (!ids.add(id)) {
+                throw new RuntimeException("同一" + elementName + "只能出现一次: " + id);
+            }
+        }
+        for (ObjectNode element : updates) {
+            String id = elementId(element, elementName);
+            if (!ids.add(id)) {
+                throw new RuntimeException("同一" + elementName + "只能出现一次: " + id);
+            }
+        }
+        for (String id : removals) {
+            if (id == null || !ids.add(id)) {
+                throw new RuntimeException("同一" + elementName + "只能出现一次: " + id);
+            }
+            remove.add(id);
+        }
+        result.putArray("add").addAll(additions);
+        result.putArray("update").addAll(updates);
+        return result;
+    }
+    
+    /**
+     * 新增元素的 id 不能已存在，修改的元素必须存在；节点和连线一次查询，只按 id 查询，不加载节点和连线数据
+     */
+    private void checkElementIds(Long mindMapId, long version, MindMapPatchRequest.ElementChanges nodes,
+                                 MindMapPatchRequest.ElementChanges edges) {
+        Map<String, Set<String>> idsByColumn = new HashMap<>();
+        idsByColumn.put("nodes_data", addedAndUpdatedIds(nodes));
+        idsByColumn.put("edges_data", addedAndUpdatedIds(edges));
+        if (idsByColumn.values().stream().allMatch(Set::isEmpty)) {
+            return;
+        }
+        
+        Map<String, Set<String>> existing = mindMapRepository.findExistingElementIds(mindMapId, version, idsByColumn);
+        checkElementIds(nodes, existing.get("nodes_data"), "节点");
+        checkElementIds(edges, existing.get("edges_data"), "连线");
+    }
+    
+    private void checkElementIds(MindMapPatchRequest.ElementChanges changes, Set<String> existing, String elementName) {
+        if (changes == null) {
+            return;
+        }
+        if (changes.getAdd() != null) {
+            for (ObjectNode element : changes.getAdd()) {
+                if (existing.contains(element.get("id").asText())) {
+                    throw new RuntimeException(elementName + "已存在: " + element.get("id").asText());
+                }
+            }
+        }
+        if (changes.getUpdate() != null) {
+            for (ObjectNode element : changes.getUpdate()) {
+                if (!existing.contains(element.get("id").asText())) {
+                    throw new RuntimeException(elementName + "不存在: " + element.get("id").asText());
+                }
+            }
+        }
+    }
+    
+    private Set<String> addedAndUpdatedIds(MindMapPatchRequest.ElementChanges changes) {
+        Set<String> ids = new HashSet<>();
+        if (changes == null) {
+            return ids;
+        }
+        if (changes.getAdd() != null) {
+            changes.getAdd().forEach(element -> ids.add(element.get("id").asText()));
+        }
+        if (changes.getUpdate() != null) {
+            changes.getUpdate().forEach(element -> ids.add(element.get("id").asText()));
+        }
+        return ids;
+    }
+    
+    /**
+     * 新增或修改的连线不能连接同一请求中删除的节点
+     */
+    private void checkEdgesNotAttached(MindMapPatchRequest.ElementChanges edges, List<String> removedNodeIds) {
+        if (edges == null) {
+            return;
+        }
+        Set<String> removed = new HashSet<>(removedNodeIds);
+        for (List<ObjectNode> elements : Arrays.asList(edges.getAdd(), edges.getUpdate())) {
+            if (elements == null) {
+                continue;
+            }
+            for (ObjectNode edge : elements) {
+                for (String end : new String[]{"source", "target"}) {
+                    JsonNode nodeId = edge.get(end);
+                    if (nodeId != null && nodeId.isValueNode() && removed.contains(nodeId.asText())) {
+                        throw new RuntimeException("连线连接了已删除的节点: " + edge.get("id").asText());
+                    }
+                }
+            }
+        }
+    }
+    
+    private String elementId(ObjectNode element, String elementName) {
+        JsonNode id = element.get("id");
+        if (id == null || !id.isValueNode() || id.isNull() || id.asText().isBlank()) {
+            throw new RuntimeException(elementName + "缺少id");
+        }
+        return id.asText();
+    }
+    
+    /**
+     * 节点和连线数据必须是 JSON 数组，空字符串视为未设置
+     */
+    private String validateElements(String data, String elementName) {
+        if (data == null || data.isBlank()) {
+            return null;
+        }
+        try {
+            if (!objectMapper.readTree(data).isArray()) {
+                throw new RuntimeException(elementName + "数据必须是JSON数组");
+            }
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException(elementName + "数据不是有效的JSON");
+        }
+        return data;
+    }
+    
     private MindMapResponse convertToResponse(MindMap mindMap) {
         return MindMapResponse.builder()
                 .mindMapId(mindMap.getMindMapId())
@@ -153,6 +388,7 @@ public class MindMapServiceImpl implements MindMapService {
                 .userId(mindMap.getUserId())
                 .createdAt(mindMap.getCreatedAt())
                 .updatedAt(mindMap.getUpdatedAt())
+                .version(mindMap.getVersion())
                 .build();
     }
     
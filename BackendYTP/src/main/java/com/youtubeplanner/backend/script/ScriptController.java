@@ -16,22 +16,33 @@
 package com.youtubeplanner.backend.script;
 
 import com.youtubeplanner.backend.common.ApiResponse;
+import com.youtubeplanner.backend.common.ETags;
 import com.youtubeplanner.backend.common.PageResponse;
+import com.youtubeplanner.backend.script.dto.BulkDeleteScriptsRequest;
+import com.youtubeplanner.backend.script.dto.BulkScriptsResponse;
+import com.youtubeplanner.backend.script.dto.BulkUpdateScriptsRequest;
 import com.youtubeplanner.backend.script.dto.CreateScriptRequest;
 import com.youtubeplanner.backend.script.dto.GetScriptsRequest;
+import com.youtubeplanner.backend.script.dto.PatchChaptersRequest;
+import com.youtubeplanner.backend.script.dto.PatchChaptersResponse;
 import com.youtubeplanner.backend.script.dto.ScriptListItemResponse;
 import com.youtubeplanner.backend.script.dto.ScriptResponse;
+import com.youtubeplanner.backend.script.dto.ScriptSearchResultResponse;
 import com.youtubeplanner.backend.script.service.ScriptService;
 import com.youtubeplanner.backend.user.entity.User;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
 
 @RestController
 @RequestMapping("/api/v1/scripts")
@@ -52,6 +63,25 @@ public class ScriptController {
         return scriptService.getScripts(request, getUserIdFromContext());
     }
 
+    @PostMapping("/bulk-update")
+    public ApiResponse<BulkScriptsResponse> bulkUpdateScripts(
+            @Valid @RequestBody BulkUpdateScriptsRequest request) {
+        return scriptService.bulkUpdateScripts(request, getUserIdFromContext());
+    }
+
+    @PostMapping("/bulk-delete")
+    public ApiResponse<BulkScriptsResponse> bulkDeleteScripts(
+            @Valid @RequestBody BulkDeleteScriptsRequest request) {
+        return scriptService.bulkDeleteScripts(request, getUserIdFromContext());
+    }
+
+    @GetMapping("/search")
+    public ApiResponse<List<ScriptSearchResultResponse>> searchScripts(
+            @RequestParam("q") String query,
+            @RequestParam(defaultValue = "20") int limit) {
+        return scriptService.searchScripts(query, limit, getUserIdFromContext());
+    }
+
     @GetMapping("/test")
     public ApiResponse<Map<String, Object>> testDatabase() {
         Map<String, Object> testResult = new HashMap<>();
@@ -62,16 +92,36 @@ public class ScriptController {
     }
 
     @GetMapping("/{scriptId}")
-    public ApiResponse<ScriptResponse> getScriptDetail(
-            @PathVariable Long scriptId) {
-        return scriptService.getScriptDetail(scriptId, getUserIdFromContext());
+    public ResponseEntity<ApiResponse<ScriptResponse>> getScriptDetail(
+            @PathVariable Long scriptId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        Long userId = getUserIdFromContext();
+        // 携带 If-None-Match 时先只查询版本号，未变化则直接返回 304，不加载脚本和章节
+        if (ifNoneMatch != null) {
+            Long version = scriptService.getScriptVersion(scriptId, userId);
+            if (ETags.noneMatchHit(ifNoneMatch, version)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(ETags.of(version)).build();
+            }
+        }
+        return withETag(scriptService.getScriptDetail(scriptId, userId), ScriptResponse::getVersion);
     }
 
     @PutMapping("/{scriptId}")
-    public ApiResponse<ScriptResponse> updateScript(
+    public ResponseEntity<ApiResponse<ScriptResponse>> updateScript(
             @PathVariable Long scriptId,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @Valid @RequestBody CreateScriptRequest request) {
-        return scriptService.updateScript(scriptId, request, getUserIdFromContext());
+        return withETag(scriptService.updateScript(scriptId, request, getUserIdFromContext(), ETags.expectedVersion(ifMatch)),
+                ScriptResponse::getVersion);
+    }
+
+    @PatchMapping("/{scriptId}/chapters")
+    public ResponseEntity<ApiResponse<PatchChaptersResponse>> patchChapters(
+            @PathVariable Long scriptId,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @Valid @RequestBody PatchChaptersRequest request) {
+        return withETag(scriptService.patchChapters(scriptId, request, getUserIdFromContext(), ETags.expectedVersion(ifMatch)),
+                PatchChaptersResponse::getVersion);
     }
 
     @DeleteMapping("/{scriptId}")
@@ -81,6 +131,13 @@ public class ScriptController {
         scriptService.deleteScript(scriptId, getUserIdFromContext());
     }
 
+    private <T> ResponseEntity<ApiResponse<T>> withETag(ApiResponse<T> response, Function<T, Long> versionOf) {
+        if (!response.isSuccess() || response.getData() == null) {
+            return ResponseEntity.ok(response);
+        }
+        return ResponseEntity.ok().eTag(ETags.of(versionOf.apply(response.getData()))).body(response);
+    }
+
     private Long getUserIdFromContext() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         if (authentication == null || !authentication.isAuthenticated()) {
@@ -1,23 +1,45 @@
 package com.youtubeplanner.backend.script;
 
-import com.youtubeplanner.backend.channel.ChannelService;
 import com.youtubeplanner.backend.category.CategoryService;
+import com.youtubeplanner.backend.channel.ChannelService;
 import com.youtubeplanner.backend.common.ApiResponse;
+import com.youtubeplanner.backend.common.KeysetCursor;
+import com.youtubeplanner.backend.common.KeysetSlice;
 import com.youtubeplanner.backend.common.PageResponse;
+import com.youtubeplanner.backend.common.exception.PreconditionFailedException;
+import com.youtubeplanner.backend.script.dto.BulkDeleteScriptsRequest;
+import com.youtubeplanner.backend.script.dto.BulkScriptsResponse;
+import com.youtubeplanner.backend.script.dto.BulkUpdateScriptsRequest;
 import com.youtubeplanner.backend.script.dto.CreateScriptRequest;
+import com.youtubeplanner.backend.script.dto.ChapterNumberRow;
 import com.youtubeplanner.backend.script.dto.GetScriptsRequest;
+import com.youtubeplanner.backend.script.dto.PatchChaptersRequest;
+import com.youtubeplanner.backend.script.dto.PatchChaptersResponse;
 import com.youtubeplanner.backend.script.dto.ScriptListItemResponse;
+import com.youtubeplanner.backend.script.dto.ScriptListItemRow;
 import com.youtubeplanner.backend.script.dto.ScriptResponse;
+import com.youtubeplanner.backend.script.dto.ScriptSearchResultResponse;
+import com.youtubeplanner.backend.script.dto.ScriptSearchRow;
 import com.youtubeplanner.backend.script.entity.Script;
 import com.youtubeplanner.backend.script.entity.ScriptChapter;
+import com.youtubeplanner.backend.script.repository.ScriptChapterRepository;
 import com.youtubeplanner.backend.script.repository.ScriptRepository;
 import com.youtubeplanner.backend.script.service.ScriptService;
+import com.youtubeplanner.backend.user.service.UserStatsService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.util.HtmlUtils;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -25,17 +47,20 @@ import java.util.stream.Collectors;
 @Service
 @RequiredArgsConstructor
 public class ScriptServiceImpl implements ScriptService {
+    private static final int MAX_SEARCH_LIMIT = 50;
+
     private final ScriptRepository scriptRepository;
+    private final ScriptChapterRepository scriptChapterRepository;
     private final ChannelService channelService;
     private final CategoryService categoryService;
+    private final UserStatsService userStatsService;
 
     @Override
     @Transactional
     public ApiResponse<ScriptResponse> createScript(CreateScriptRequest request, Long userId) {
         // 验证频道权限
         if (request.getChannelId() != null) {
-            var channelResponse = channelService.getChannelDetail(request.getChannelId(), userId);
-            if (!channelResponse.isSuccess()) {
+            if (!channelService.isChannelOwnedBy(request.getChannelId(), userId)) {
                 return ApiResponse.error(403, "无权限访问该频道");
             }
         }
@@ -74,13 +99,30 @@ public class ScriptServiceImpl implements ScriptService {
         }
 
         Script savedScript = scriptRepository.save(script);
+        userStatsService.scriptsChanged(userId, 1);
         return ApiResponse.created(convertToResponse(savedScript));
     }
 
     @Override
     @Transactional(readOnly = true)
     public ApiResponse<PageResponse<ScriptListItemResponse>> getScripts(GetScriptsRequest request, Long userId) {
-        Page<Script> scriptPage = scriptRepository.findByUserIdAndFilters(
+        if (request.getCursor() != null) {
+            KeysetSlice<ScriptListItemRow> rowSlice = scriptRepository.findListItemsAfter(
+                    userId,
+                    request.getChannelId(),
+                    request.getCategoryId(),
+                    request.getStatus(),
+                    request.getDifficulty(),
+                    request.getDateFrom(),
+                    request.getDateTo(),
+                    request.getSearch(),
+                    request.toPageRequest(),
+                    KeysetCursor.decode(request.getCursor())
+            );
+            return ApiResponse.success(PageResponse.of(rowSlice.map(this::convertToListItemResponse)));
+        }
+
+        Page<ScriptListItemRow> rowPage = scriptRepository.findListItemsByUserIdAndFilters(
                 userId,
                 request.getChannelId(),
                 request.getCategoryId(),
@@ -92,11 +134,25 @@ public class ScriptServiceImpl implements ScriptService {
                 request.toPageRequest()
         );
 
-        Page<ScriptListItemResponse> responsePage = scriptPage.map(script -> 
-            convertToListItemResponse(script, userId, request.getIncludeFields()));
+        Page<ScriptListItemResponse> responsePage = rowPage.map(this::convertToListItemResponse);
         return ApiResponse.success(PageResponse.of(responsePage));
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public ApiResponse<List<ScriptSearchResultResponse>> searchScripts(String query, int limit, Long userId) {
+        if (query == null || query.isBlank()) {
+            return ApiResponse.error(400, "搜索关键词不能为空");
+        }
+
+        int size = Math.max(1, Math.min(limit, MAX_SEARCH_LIMIT));
+        String keyword = query.trim();
+        List<ScriptSearchResultResponse> results = scriptRepository.searchByUserId(userId, keyword, size).stream()
+                .map(row -> convertToSearchResultResponse(row, keyword))
+                .collect(Collectors.toList());
+        return ApiResponse.success(results);
+    }
+
     @Override
     @Transactional(readOnly = true)
     public ApiResponse<ScriptResponse> getScriptDetail(Long scriptId, Long userId) {
@@ -114,9 +170,15 @@ public class ScriptServiceImpl implements ScriptService {
         return ApiResponse.success(convertToResponse(script));
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Long getScriptVersion(Long scriptId, Long userId) {
+        return scriptRepository.findVersionByScriptIdAndUserId(scriptId, userId).orElse(null);
+    }
+
     @Override
     @Transactional
-    public ApiResponse<ScriptResponse> updateScript(Long scriptId, CreateScriptRequest request, Long userId) {
+    public ApiResponse<ScriptResponse> updateScript(Long scriptId, CreateScriptRequest request, Long userId, Long expectedVersion) {
         Script script = scriptRepository.findById(scriptId)
                 .orElse(null);
 
@@ -128,10 +190,11 @@ public class ScriptServiceImpl implements ScriptService {
             return ApiResponse.error(403, "无权限访问该脚本");
         }
 
+        checkVersion(script, expectedVersion);
+
         // 验证频道权限
         if (request.getChannelId() != null) {
-            var channelResponse = channelService.getChannelDetail(request.getChannelId(), userId);
-            if (!channelResponse.isSuccess()) {
+            if (!channelService.isChannelOwnedBy(request.getChannelId(), userId)) {
                 return ApiResponse.error(403, "无权限访问该频道");
             }
         }
@@ -181,10 +244,121 @@ public class ScriptServiceImpl implements ScriptService {
             script.getChapters().addAll(updatedChapters);
         }
 
-        Script updatedScript = scriptRepository.save(script);
+        // 只修改章节时也更新脚本的更新时间，保证版本号递增；写入后刷新以取得新的版本号
+        script.setUpdatedAt(Instant.now());
+        Script updatedScript = scriptRepository.saveAndFlush(script);
         return ApiResponse.success(convertToResponse(updatedScript));
     }
 
+    @Override
+    @Transactional
+    public ApiResponse<PatchChaptersResponse> patchChapters(Long scriptId, PatchChaptersRequest request, Long userId, Long expectedVersion) {
+        Script script = scriptRepository.findById(scriptId)
+                .orElse(null);
+
+        if (script == null) {
+            return ApiResponse.error(404, "脚本不存在");
+        }
+
+        if (!script.getUserId().equals(userId)) {
+            return ApiResponse.error(403, "无权限访问该脚本");
+        }
+
+        checkVersion(script, expectedVersion);
+
+        List<CreateScriptRequest.ChapterRequest> additions = request.getAdd() != null ? request.getAdd() : Collections.emptyList();
+        List<PatchChaptersRequest.ChapterUpdate> updates = request.getUpdate() != null ? request.getUpdate() : Collections.emptyList();
+        Set<Long> deletions = request.getDelete() != null ? new HashSet<>(request.getDelete()) : Collections.emptySet();
+
+        // 验证同一章节不能重复更新，也不能同时更新和删除
+        Set<Long> updatedIds = new HashSet<>();
+        for (var update : updates) {
+            if (!updatedIds.add(update.getChapterId()) || deletions.contains(update.getChapterId())) {
+                return ApiResponse.error(400, "同一章节只能出现一次");
+            }
+        }
+
+        // 只查询章节ID和编号，不加载章节内容
+        Map<Long, Integer> chapterNumbers = new HashMap<>();
+        for (ChapterNumberRow row : scriptChapterRepository.findChapterNumbersByScriptId(scriptId)) {
+            chapterNumbers.put(row.getChapterId(), row.getChapterNumber());
+        }
+        if (!chapterNumbers.keySet().containsAll(updatedIds) || !chapterNumbers.keySet().containsAll(deletions)) {
+            return ApiResponse.error(404, "章节不存在");
+        }
+
+        // 验证变更后的章节编号唯一性
+        chapterNumbers.keySet().removeAll(deletions);
+        for (var update : updates) {
+            if (update.getChapterNumber() != null) {
+                chapterNumbers.put(update.getChapterId(), update.getChapterNumber());
+            }
+        }
+        Set<Integer> finalNumbers = new HashSet<>(chapterNumbers.values());
+        for (var addition : additions) {
+            if (!finalNumbers.add(addition.getChapterNumber())) {
+                return ApiResponse.error(409, "章节编号重复");
+            }
+        }
+        if (finalNumbers.size() != chapterNumbers.size() + additions.size()) {
+            return ApiResponse.error(409, "章节编号重复");
+        }
+
+        if (!deletions.isEmpty()) {
+            scriptChapterRepository.deleteByScriptIdAndChapterIdIn(scriptId, deletions);
+        }
+
+        // 只修改传入且发生变化的字段，未变化的章节内容不会被写回
+        List<ScriptChapter> changedChapters = new ArrayList<>();
+        Set<ScriptChapter> contentChanged = Collections.newSetFromMap(new IdentityHashMap<>());
+        if (!updates.isEmpty()) {
+            Map<Long, ScriptChapter> chapters = scriptChapterRepository.findByScriptIdAndChapterIdIn(scriptId, updatedIds).stream()
+                    .collect(Collectors.toMap(ScriptChapter::getChapterId, chapter -> chapter));
+            for (var update : updates) {
+                ScriptChapter chapter = chapters.get(update.getChapterId());
+                if (update.getChapterNumber() != null && !update.getChapterNumber().equals(chapter.getChapterNumber())) {
+                    chapter.setChapterNumber(update.getChapterNumber());
+                }
+                if (update.getTitle() != null && !update.getTitle().equals(chapter.getTitle())) {
+                    chapter.setTitle(update.getTitle());
+                }
+                if (update.getContent() != null && !update.getContent().equals(chapter.getContent())) {
+                    chapter.setContent(update.getContent());
+                    contentChanged.add(chapter);
+                }
+                changedChapters.add(chapter);
+            }
+        }
+
+        for (var addition : additions) {
+            ScriptChapter chapter = scriptChapterRepository.save(new ScriptChapter()
+                    .setScript(script)
+                    .setChapterNumber(addition.getChapterNumber())
+                    .setTitle(addition.getTitle())
+                    .setContent(addition.getContent()));
+            changedChapters.add(chapter);
+            contentChanged.add(chapter);
+        }
+
+        // 章节变更同时更新脚本的更新时间和版本号，写入后刷新以取得最新的值
+        script.setUpdatedAt(Instant.now());
+        scriptRepository.flush();
+
+        PatchChaptersResponse response = new PatchChaptersResponse()
+                .setScriptId(scriptId)
+                .setChapters(changedChapters.stream()
+                        .sorted((a, b) -> Integer.compare(a.getChapterNumber(), b.getChapterNumber()))
+                        // 内容未变化的章节不回传内容
+                        .map(chapter -> contentChanged.contains(chapter)
+                                ? convertToChapterResponse(chapter)
+                                : convertToChapterResponse(chapter).setContent(null))
+                        .collect(Collectors.toList()))
+                .setDeleted(new ArrayList<>(deletions))
+                .setUpdatedAt(script.getUpdatedAt())
+                .setVersion(script.getVersion());
+        return ApiResponse.success(response);
+    }
+
     @Override
     @Transactional
     public void deleteScript(Long scriptId, Long userId) {
@@ -200,6 +374,75 @@ public class ScriptServiceImpl implements ScriptService {
         }
 
         scriptRepository.delete(script);
+        userStatsService.scriptsChanged(userId, -1);
+    }
+
+    @Override
+    @Transactional
+    public ApiResponse<BulkScriptsResponse> bulkUpdateScripts(BulkUpdateScriptsRequest request, Long userId) {
+        if (!request.hasChanges()) {
+            return ApiResponse.error(400, "没有需要修改的字段");
+        }
+
+        List<Long> scriptIds = new ArrayList<>(new LinkedHashSet<>(request.getScriptIds()));
+        List<Long> notOwned = findNotOwnedScriptIds(scriptIds, userId);
+        if (!notOwned.isEmpty()) {
+            return ApiResponse.error(404, "脚本不存在或无权限访问: " + notOwned);
+        }
+
+        // 频道和分类对整批只校验一次
+        if (request.getChannelId() != null && !channelService.isChannelOwnedBy(request.getChannelId(), userId)) {
+            return ApiResponse.error(403, "无权限访问该频道");
+        }
+        if (request.getCategoryId() != null && !categoryService.isCategoryOwnedBy(request.getCategoryId(), userId)) {
+            return ApiResponse.error(403, "无权限访问该分类");
+        }
+
+        Instant updatedAt = Instant.now();
+        scriptRepository.bulkUpdate(
+                userId,
+                scriptIds,
+                request.getStatus(),
+                request.getChannelId(),
+                request.getCategoryId(),
+                request.getDifficulty(),
+                request.getReleaseDate(),
+                updatedAt);
+        return ApiResponse.success(new BulkScriptsResponse()
+                .setScriptIds(scriptIds)
+                .setUpdatedAt(updatedAt));
+    }
+
+    @Override
+    @Transactional
+    public ApiResponse<BulkScriptsResponse> bulkDeleteScripts(BulkDeleteScriptsRequest request, Long userId) {
+        List<Long> scriptIds = new ArrayList<>(new LinkedHashSet<>(request.getScriptIds()));
+        List<Long> notOwned = findNotOwnedScriptIds(scriptIds, userId);
+        if (!notOwned.isEmpty()) {
+            return ApiResponse.error(404, "脚本不存在或无权限访问: " + notOwned);
+        }
+
+        // 章节外键没有级联删除，先删章节再删脚本，各一条语句
+        scriptChapterRepository.deleteByScriptIdIn(scriptIds);
+        int deleted = scriptRepository.deleteByUserIdAndScriptIdIn(userId, scriptIds);
+        userStatsService.scriptsChanged(userId, -deleted);
+        return ApiResponse.success(new BulkScriptsResponse().setScriptIds(scriptIds));
+    }
+
+    /**
+     * 一次查询找出不存在或不属于该用户的脚本ID
+     */
+    private List<Long> findNotOwnedScriptIds(List<Long> scriptIds, Long userId) {
+        Set<Long> owned = new HashSet<>(scriptRepository.findScriptIdsByUserIdAndScriptIdIn(userId, scriptIds));
+        return scriptIds.stream()
+                .filter(scriptId -> !owned.contains(scriptId))
+                .collect(Collectors.toList());
+    }
+
+    private void checkVersion(Script script, Long expectedVersion) {
+        if (expectedVersion != null && !expectedVersion.equals(script.getVersion())) {
+            throw new PreconditionFailedException("脚本已被修改，请刷新后重试");
+        }
     }
 
     private ScriptResponse convertToResponse(Script script) {
@@ -215,58 +458,91 @@ public class ScriptServiceImpl implements ScriptService {
                 .setChannelId(script.getChannelId())
                 .setCategoryId(script.getCategoryId())
                 .setCreatedAt(script.getCreatedAt())
-                .setUpdatedAt(script.getUpdatedAt());
+                .setUpdatedAt(script.getUpdatedAt())
+                .setVersion(script.getVersion());
 
         if (script.getChapters() != null) {
             response.setChapters(script.getChapters().stream()
                     .sorted((a, b) -> Integer.compare(a.getChapterNumber(), b.getChapterNumber()))
-                    .map(chapter -> new ScriptResponse.ChapterResponse()
-                            .setChapterId(chapter.getChapterId())
-                            .setChapterNumber(chapter.getChapterNumber())
-                            .setTitle(chapter.getTitle())
-                            .setContent(chapter.getContent())
-                            .setCreatedAt(chapter.getCreatedAt())
-                            .setUpdatedAt(chapter.getUpdatedAt()))
+                    .map(this::convertToChapterResponse)
                     .collect(Collectors.toList()));
         }
 
         return response;
     }
 
-    private ScriptListItemResponse convertToListItemResponse(Script script, Long userId, Set<String> includeFields) {
+    private ScriptResponse.ChapterResponse convertToChapterResponse(ScriptChapter chapter) {
+        return new ScriptResponse.ChapterResponse()
+                .setChapterId(chapter.getChapterId())
+                .setChapterNumber(chapter.getChapterNumber())
+                .setTitle(chapter.getTitle())
+                .setContent(chapter.getContent())
+                .setCreatedAt(chapter.getCreatedAt())
+                .setUpdatedAt(chapter.getUpdatedAt());
+    }
+
+    private ScriptListItemResponse convertToListItemResponse(ScriptListItemRow row) {
         ScriptListItemResponse response = new ScriptListItemResponse()
-                .setScriptId(script.getScriptId())
-                .setTitle(script.getTitle())
-                .setDescription(script.getDescription())
-                .setStatus(script.getStatus())
-                .setDifficulty(script.getDifficulty())
-                .setReleaseDate(script.getReleaseDate())
-                .setChaptersCount(script.getChapters() != null ? script.getChapters().size() : 0)
-                .setCreatedAt(script.getCreatedAt())
-                .setUpdatedAt(script.getUpdatedAt());
+                .setScriptId(row.getScriptId())
+                .setTitle(row.getTitle())
+                .setDescription(row.getDescription())
+                .setStatus(row.getStatus())
+                .setDifficulty(row.getDifficulty())
+                .setReleaseDate(row.getReleaseDate())
+                .setChaptersCount(row.getChaptersCount() != null ? row.getChaptersCount().intValue() : 0)
+                .setCreatedAt(row.getCreatedAt())
+                .setUpdatedAt(row.getUpdatedAt());
 
         // 添加频道信息（总是包含）
-        if (script.getChannelId() != null) {
-            var channelResponse = channelService.getChannelDetail(script.getChannelId(), userId);
-            if (channelResponse.isSuccess()) {
-                var channelData = channelResponse.getData();
-                response.setChannel(new ScriptListItemResponse.ChannelInfo()
-                        .setChannelId(channelData.getChannelId())
-                        .setChannelName(channelData.getChannelName()));
-            }
+        if (row.getChannelId() != null) {
+            response.setChannel(new ScriptListItemResponse.ChannelInfo()
+                    .setChannelId(row.getChannelId())
+                    .setChannelName(row.getChannelName()));
         }
 
         // 添加分类信息（总是包含）
-        if (script.getCategoryId() != null) {
-            var categoryResponse = categoryService.getCategoryDetail(script.getCategoryId(), userId);
-            if (categoryResponse.isSuccess()) {
-                var categoryData = categoryResponse.getData();
-                response.setCategory(new ScriptListItemResponse.CategoryInfo()
-                        .setCategoryId(categoryData.getCategoryId())
-                        .setCategoryName(categoryData.getCategoryName()));
-            }
+        if (row.getCategoryId() != null) {
+            response.setCategory(new ScriptListItemResponse.CategoryInfo()
+                    .setCategoryId(row.getCategoryId())
+                    .setCategoryName(row.getCategoryName()));
         }
 
         return response;
     }
+
+    private ScriptSearchResultResponse convertToSearchResultResponse(ScriptSearchRow row, String keyword) {
+        return new ScriptSearchResultResponse()
+                .setScriptId(row.getScriptId())
+                .setTitle(row.getTitle())
+                .setStatus(row.getStatus())
+                .setChapterNumber(row.getChapterNumber())
+                .setSnippet(toHtmlSnippet(row.getSnippet(), keyword))
+                .setRank(row.getRank())
+                .setUpdatedAt(row.getUpdatedAt());
+    }
+
+    // 摘要转为 HTML：内容做 HTML 转义，只有命中关键词的起止标记替换为 <mark></mark>
+    private String toHtmlSnippet(String snippet, String keyword) {
+        if (snippet == null) {
+            return null;
+        }
+        String marked = snippet.contains(ScriptRepository.HIGHLIGHT_START) ? snippet : markSubstring(snippet, keyword);
+        return HtmlUtils.htmlEscape(marked, "UTF-8")
+                .replace(ScriptRepository.HIGHLIGHT_START, "<mark>")
+                .replace(ScriptRepository.HIGHLIGHT_STOP, "</mark>");
+    }
+
+    // ts_headline 只能标记分词命中的关键词，子串命中（如中文）时在摘要中补充标记；
+    // 逐个位置忽略大小写比较，不使用 toLowerCase 后的下标（转小写可能改变字符串长度）
+    private String markSubstring(String snippet, String keyword) {
+        int length = keyword.length();
+        for (int index = 0; index + length <= snippet.length(); index++) {
+            if (snippet.regionMatches(true, index, keyword, 0, length)) {
+                return snippet.substring(0, index) + ScriptRepository.HIGHLIGHT_START
+                        + snippet.substring(index, index + length) + ScriptRepository.HIGHLIGHT_STOP
+                        + snippet.substring(index + length);
+            }
+        }
+        return snippet;
+    }
 } 
\ No newline at end of file
@@ -0,0 +1,17 @@
+package com.youtubeplanner.backend.script.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BulkDeleteScriptsRequest {
+    @JsonProperty("script_ids")
+    @NotEmpty(message = "脚本ID不能为空")
+    @Size(max = 500, message = "每次最多删除500个脚本")
+    private List<@NotNull(message = "脚本ID不能为空") Long> scriptIds;
+}
@@ -0,0 +1,25 @@
+package com.youtubeplanner.backend.script.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * 批量修改或删除的结果。
+ */
+@Data
+@Accessors(chain = true)
+public class BulkScriptsResponse {
+    // 实际修改或删除的脚本ID
+    @JsonProperty("script_ids")
+    private List<Long> scriptIds;
+
+    // 修改后脚本的更新时间，批量删除时不返回
+    @JsonProperty("updated_at")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Instant updatedAt;
+}
@@ -0,0 +1,39 @@
+package com.youtubeplanner.backend.script.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.validation.constraints.*;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * 批量修改脚本，只修改传入的字段，所有脚本修改为相同的值。
+ */
+@Data
+public class BulkUpdateScriptsRequest {
+    @JsonProperty("script_ids")
+    @NotEmpty(message = "脚本ID不能为空")
+    @Size(max = 500, message = "每次最多修改500个脚本")
+    private List<@NotNull(message = "脚本ID不能为空") Long> scriptIds;
+
+    @Min(value = 1, message = "难度等级最小为1")
+    @Max(value = 5, message = "难度等级最大为5")
+    private Integer difficulty;
+
+    @Size(max = 50, message = "状态长度不能超过50个字符")
+    private String status;
+
+    @JsonProperty("release_date")
+    private LocalDate releaseDate;
+
+    @JsonProperty("channel_id")
+    private Long channelId;
+
+    @JsonProperty("category_id")
+    private Long categoryId;
+
+    public boolean hasChanges() {
+        return difficulty != null || status != null || releaseDate != null || channelId != null || categoryId != null;
+    }
+}
@@ -0,0 +1,10 @@
+package com.youtubeplanner.backend.script.dto;
+
+/**
+ * 章节编号投影，校验章节编号时只查询ID和编号，不加载章节内容。
+ */
+public interface ChapterNumberRow {
+    Long getChapterId();
+
+    Integer getChapterNumber();
+}
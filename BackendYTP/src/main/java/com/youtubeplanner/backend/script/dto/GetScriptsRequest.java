@@ -22,6 +22,11 @@ public class GetScriptsRequest {
     @JsonProperty("limit")
     private int size = 10;
 
+    // 为URL参数绑定添加setter方法
+    public void setLimit(int size) {
+        this.size = size;
+    }
+
     @JsonProperty("channel_id")
     private Long channelId;
     
@@ -74,6 +79,9 @@ public class GetScriptsRequest {
     @Pattern(regexp = "^(asc|desc)?$", message = "排序方向必须是 asc 或 desc")
     private String order = "desc";
 
+    // 游标分页：传入后使用游标模式（空字符串表示第一页），不再统计总数
+    private String cursor;
+
     private Set<String> includeFields = new HashSet<>();
     
     private String include;
@@ -107,11 +115,9 @@ public class GetScriptsRequest {
             default -> "createdAt";
         };
 
-        // 创建排序对象
-        Sort sort = Sort.by(
-            "asc".equalsIgnoreCase(order) ? Sort.Direction.ASC : Sort.Direction.DESC,
-            sortField
-        );
+        // 创建排序对象：排序值相同时按脚本ID排序，翻页顺序稳定，且与 (user_id, 排序列, script_id) 索引顺序一致
+        Sort.Direction direction = "asc".equalsIgnoreCase(order) ? Sort.Direction.ASC : Sort.Direction.DESC;
+        Sort sort = Sort.by(direction, sortField).and(Sort.by(direction, "scriptId"));
 
         return PageRequest.of(pageIndex, size, sort);
     }
@@ -0,0 +1,43 @@
+package com.youtubeplanner.backend.script.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.*;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 章节增量更新请求，只包含发生变化的章节。
+ * 未出现在请求中的章节保持不变；调整顺序只需在 update 中修改 chapter_number。
+ */
+@Data
+public class PatchChaptersRequest {
+    // 新增的章节
+    @Valid
+    private List<CreateScriptRequest.ChapterRequest> add;
+
+    // 按章节ID更新的章节，只修改传入的字段
+    @Valid
+    private List<ChapterUpdate> update;
+
+    // 要删除的章节ID
+    private List<Long> delete;
+
+    @Data
+    public static class ChapterUpdate {
+        @JsonProperty("chapter_id")
+        @NotNull(message = "章节ID不能为空")
+        private Long chapterId;
+
+        @JsonProperty("chapter_number")
+        @Min(value = 1, message = "章节编号必须大于0")
+        private Integer chapterNumber;
+
+        @Size(max = 255, message = "章节标题长度不能超过255个字符")
+        private String title;
+
+        @Pattern(regexp = "(?s).*\\S.*", message = "章节内容不能为空")
+        private String content;
+    }
+}
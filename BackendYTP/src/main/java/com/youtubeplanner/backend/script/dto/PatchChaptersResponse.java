@@ -0,0 +1,30 @@
+package com.youtubeplanner.backend.script.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * 章节增量更新结果，只返回新增和修改过的章节，不回传未变化的章节内容。
+ */
+@Data
+@Accessors(chain = true)
+public class PatchChaptersResponse {
+    @JsonProperty("script_id")
+    private Long scriptId;
+
+    // 新增和修改过的章节
+    private List<ScriptResponse.ChapterResponse> chapters;
+
+    // 已删除的章节ID
+    private List<Long> deleted;
+
+    @JsonProperty("updated_at")
+    private Instant updatedAt;
+
+    // 更新后的脚本版本号
+    private Long version;
+}
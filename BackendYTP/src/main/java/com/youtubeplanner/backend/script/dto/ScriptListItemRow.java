@@ -0,0 +1,29 @@
+package com.youtubeplanner.backend.script.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * 脚本列表查询投影，只包含列表页需要的列。
+ * 由 JPQL 构造表达式直接生成，不会加载 Script 实体及其章节内容。
+ */
+@Data
+@AllArgsConstructor
+public class ScriptListItemRow {
+    private Long scriptId;
+    private String title;
+    private String description;
+    private String status;
+    private Integer difficulty;
+    private LocalDate releaseDate;
+    private Instant createdAt;
+    private Instant updatedAt;
+    private Long channelId;
+    private String channelName;
+    private Long categoryId;
+    private String categoryName;
+    private Long chaptersCount;
+}
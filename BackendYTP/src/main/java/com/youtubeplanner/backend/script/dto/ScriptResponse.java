@@ -45,6 +45,8 @@ public class ScriptResponse {
     @JsonProperty("updated_at")
     private Instant updatedAt;
 
+    private Long version;
+
     @Data
     @Accessors(chain = true)
     public static class ChapterResponse {
@@ -0,0 +1,30 @@
+package com.youtubeplanner.backend.script.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+import java.time.Instant;
+
+@Data
+@Accessors(chain = true)
+public class ScriptSearchResultResponse {
+    @JsonProperty("script_id")
+    private Long scriptId;
+
+    private String title;
+
+    private String status;
+
+    // 命中的章节编号，只有脚本本身命中时为 null
+    @JsonProperty("chapter_number")
+    private Integer chapterNumber;
+
+    // 命中内容的摘要片段，关键词用 <mark></mark> 标记
+    private String snippet;
+
+    private Double rank;
+
+    @JsonProperty("updated_at")
+    private Instant updatedAt;
+}
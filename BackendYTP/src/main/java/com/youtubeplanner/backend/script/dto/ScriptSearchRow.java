@@ -0,0 +1,22 @@
+package com.youtubeplanner.backend.script.dto;
+
+import java.time.Instant;
+
+/**
+ * 脚本全文搜索的原生查询投影，按查询列别名映射。
+ */
+public interface ScriptSearchRow {
+    Long getScriptId();
+
+    String getTitle();
+
+    String getStatus();
+
+    Instant getUpdatedAt();
+
+    Integer getChapterNumber();
+
+    String getSnippet();
+
+    Double getRank();
+}
@@ -58,4 +58,9 @@ public class Script {
     @UpdateTimestamp
     @Column(name = "updated_at", nullable = false)
     private Instant updatedAt;
+
+    // 乐观锁版本号，每次更新自动加一，同时作为 ETag
+    @Version
+    @Column(nullable = false)
+    private Long version;
 } 
\ No newline at end of file
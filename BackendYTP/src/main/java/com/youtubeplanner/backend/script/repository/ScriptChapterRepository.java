@@ -0,0 +1,40 @@
+package com.youtubeplanner.backend.script.repository;
+
+import com.youtubeplanner.backend.script.dto.ChapterNumberRow;
+import com.youtubeplanner.backend.script.entity.ScriptChapter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ScriptChapterRepository extends JpaRepository<ScriptChapter, Long> {
+    // 只查询章节ID和编号，用于校验章节编号唯一性
+    @Query("SELECT c.chapterId AS chapterId, c.chapterNumber AS chapterNumber " +
+           "FROM ScriptChapter c WHERE c.script.scriptId = :scriptId")
+    List<ChapterNumberRow> findChapterNumbersByScriptId(@Param("scriptId") Long scriptId);
+
+    @Query("SELECT c FROM ScriptChapter c WHERE c.script.scriptId = :scriptId AND c.chapterId IN :chapterIds")
+    List<ScriptChapter> findByScriptIdAndChapterIdIn(
+            @Param("scriptId") Long scriptId,
+            @Param("chapterIds") Collection<Long> chapterIds);
+
+    @Modifying
+    @Query("DELETE FROM ScriptChapter c WHERE c.script.scriptId = :scriptId AND c.chapterId IN :chapterIds")
+    int deleteByScriptIdAndChapterIdIn(
+            @Param("scriptId") Long scriptId,
+            @Param("chapterIds") Collection<Long> chapterIds);
+
+    @Modifying
+    @Query("DELETE FROM ScriptChapter c WHERE c.script.scriptId IN :scriptIds")
+    int deleteByScriptIdIn(@Param("scriptIds") Collection<Long> scriptIds);
+
+    // 删除用户所有脚本的章节（删除用户时使用）
+    @Modifying
+    @Query("DELETE FROM ScriptChapter c WHERE c.script.scriptId IN (SELECT s.scriptId FROM Script s WHERE s.userId = :userId)")
+    int deleteByUserId(@Param("userId") Long userId);
+}
@@ -1,5 +1,7 @@
 package com.youtubeplanner.backend.script.repository;
 
+import com.youtubeplanner.backend.script.dto.ScriptListItemRow;
+import com.youtubeplanner.backend.script.dto.ScriptSearchRow;
 import com.youtubeplanner.backend.script.entity.Script;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -11,32 +13,111 @@ import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
 
 @Repository
-public interface ScriptRepository extends JpaRepository<Script, Long> {
+public interface ScriptRepository extends JpaRepository<Script, Long>, ScriptRepositoryCustom {
+    // 列表查询：只选择列表页需要的列，关联频道和分类名称，章节数量由子查询计算
+    String LIST_SELECT = "SELECT new com.youtubeplanner.backend.script.dto.ScriptListItemRow(" +
+           "s.scriptId, s.title, s.description, s.status, s.difficulty, s.releaseDate, s.createdAt, s.updatedAt, " +
+           "ch.channelId, ch.channelName, cat.categoryId, cat.categoryName, " +
+           "(SELECT COUNT(sc) FROM ScriptChapter sc WHERE sc.script.scriptId = s.scriptId)) " +
+           "FROM Script s " +
+           "LEFT JOIN Channel ch ON ch.channelId = s.channelId AND ch.userId = s.userId AND ch.deleted = false " +
+           "LEFT JOIN Category cat ON cat.categoryId = s.categoryId AND cat.userId = s.userId ";
+
+    // 列表查询的过滤条件，列表查询、计数查询和游标分页查询共用；
+    // 驱动按未指定类型发送日期参数，单独判断是否为空时需要显式转换，否则数据库无法推断参数类型
+    String LIST_FILTERS = "WHERE s.userId = :userId " +
+           "AND (:channelId IS NULL OR s.channelId = :channelId) " +
+           "AND (:categoryId IS NULL OR s.categoryId = :categoryId) " +
+           "AND (:status IS NULL OR :status = '' OR s.status = :status) " +
+           "AND (:difficulty IS NULL OR s.difficulty = :difficulty) " +
+           "AND (CAST(:dateFrom AS date) IS NULL OR s.releaseDate >= :dateFrom) " +
+           "AND (CAST(:dateTo AS date) IS NULL OR s.releaseDate <= :dateTo) " +
+           "AND (:search IS NULL OR :search = '' OR " +
+           "   LOWER(CAST(s.title AS text)) LIKE LOWER(CONCAT('%', CAST(:search AS text), '%')) OR " +
+           "   LOWER(CAST(s.description AS text)) LIKE LOWER(CONCAT('%', CAST(:search AS text), '%')))";
+
+    // 搜索关键词的分词查询和子串匹配条件；:pattern 由 searchPattern 生成，关键词中的 % _ \ 按字面匹配
+    String SEARCH_TSQUERY = "websearch_to_tsquery('simple', :query)";
+    String SEARCH_LIKE = "LIKE :pattern ESCAPE '\\'";
+
+    // 搜索摘要中命中关键词的起止标记：使用章节内容中不会出现的控制字符，
+    // 摘要做 HTML 转义后再替换为 <mark></mark>，章节内容里的 HTML 不会被当作标签
+    String HIGHLIGHT_START = "\u0002";
+    String HIGHLIGHT_STOP = "\u0003";
+
+    // 搜索摘要片段的 ts_headline 参数
+    String HEADLINE_OPTIONS = "'StartSel=" + HIGHLIGHT_START + ", StopSel=" + HIGHLIGHT_STOP +
+           ", MaxWords=30, MinWords=10, MaxFragments=2'";
+
+    // 全文搜索：脚本标题/描述和章节内容同时检索，分词匹配走 search_vector 的 GIN 索引，
+    // 子串匹配（中文等不分词的内容）走 lower(...) 上的三元组索引；
+    // 关键词表达式直接写在条件里而不是放进 CTE，规划器才能把它当作常量使用索引；
+    // 候选脚本是标题/描述命中的脚本和章节命中的脚本的并集，两部分都由索引得到，不逐个检查用户的全部脚本；
+    // 每个脚本只取得分最高的一个章节生成摘要，结果按相关度排序
+    String SEARCH_QUERY = "WITH chapter_hits AS (" +
+           "   SELECT DISTINCT ON (c.script_id) c.script_id, c.chapter_number, c.content, " +
+           "          ts_rank(c.search_vector, " + SEARCH_TSQUERY + ") " +
+           "          + CASE WHEN lower(c.content) " + SEARCH_LIKE + " THEN 0.1 ELSE 0 END AS rank " +
+           "   FROM script_chapters c " +
+           "   JOIN scripts hs ON hs.script_id = c.script_id AND hs.user_id = :userId " +
+           "   WHERE c.search_vector @@ " + SEARCH_TSQUERY +
+           "      OR lower(c.content) " + SEARCH_LIKE +
+           "   ORDER BY c.script_id, rank DESC, c.chapter_number), " +
+           "script_hits AS (" +
+           "   SELECT ms.script_id FROM scripts ms " +
+           "   WHERE ms.user_id = :userId " +
+           "     AND (ms.search_vector @@ " + SEARCH_TSQUERY +
+           "          OR lower(ms.title) " + SEARCH_LIKE +
+           "          OR lower(ms.description) " + SEARCH_LIKE + ") " +
+           "   UNION " +
+           "   SELECT script_id FROM chapter_hits) " +
+           "SELECT s.script_id AS scriptId, s.title AS title, s.status AS status, s.updated_at AS updatedAt, " +
+           "       h.chapter_number AS chapterNumber, " +
+           "       ts_headline('simple', coalesce(h.content, s.description, ''), " + SEARCH_TSQUERY + ", " +
+                   HEADLINE_OPTIONS + ") AS snippet, " +
+           "       CAST(ts_rank(s.search_vector, " + SEARCH_TSQUERY + ") + coalesce(h.rank, 0) " +
+           "            + CASE WHEN lower(s.title) " + SEARCH_LIKE + " THEN 1 ELSE 0 END " +
+           "            AS double precision) AS rank " +
+           "FROM script_hits x " +
+           "JOIN scripts s ON s.script_id = x.script_id " +
+           "LEFT JOIN chapter_hits h ON h.script_id = s.script_id " +
+           "ORDER BY rank DESC, s.updated_at DESC, s.script_id DESC " +
+           "LIMIT :limit";
+
     boolean existsByUserIdAndChannelId(Long userId, Long channelId);
     boolean existsByUserIdAndCategoryId(Long userId, Long categoryId);
     
     // 按用户ID统计脚本数量
     long countByUserId(Long userId);
     
-    // 按用户ID删除脚本（级联删除章节）
+    // 按用户ID批量删除脚本，章节需先通过 ScriptChapterRepository.deleteByUserId 删除
     @Modifying
     @Transactional
-    void deleteByUserId(Long userId);
+    @Query("DELETE FROM Script s WHERE s.userId = :userId")
+    void deleteByUserId(@Param("userId") Long userId);
 
-    @Query(value = "SELECT s FROM Script s " +
-           "WHERE s.userId = :userId " +
-           "AND (:channelId IS NULL OR s.channelId = :channelId) " +
-           "AND (:categoryId IS NULL OR s.categoryId = :categoryId) " +
-           "AND (:status IS NULL OR :status = '' OR s.status = :status) " +
-           "AND (:difficulty IS NULL OR s.difficulty = :difficulty) " +
-           "AND (:dateFrom IS NULL OR s.releaseDate >= :dateFrom) " +
-           "AND (:dateTo IS NULL OR s.releaseDate <= :dateTo) " +
-           "AND (:search IS NULL OR :search = '' OR " +
-           "   LOWER(CAST(s.title AS text)) LIKE LOWER(CONCAT('%', CAST(:search AS text), '%')) OR " +
-           "   LOWER(CAST(s.description AS text)) LIKE LOWER(CONCAT('%', CAST(:search AS text), '%')))")
-    Page<Script> findByUserIdAndFilters(
+    // 批量操作前校验脚本归属：只返回属于该用户的脚本ID
+    @Query("SELECT s.scriptId FROM Script s WHERE s.userId = :userId AND s.scriptId IN :scriptIds")
+    List<Long> findScriptIdsByUserIdAndScriptIdIn(
+            @Param("userId") Long userId,
+            @Param("scriptIds") Collection<Long> scriptIds);
+
+    // 批量删除脚本，章节需先通过 ScriptChapterRepository.deleteByScriptIdIn 删除
+    @Modifying
+    @Query("DELETE FROM Script s WHERE s.userId = :userId AND s.scriptId IN :scriptIds")
+    int deleteByUserIdAndScriptIdIn(
+            @Param("userId") Long userId,
+            @Param("scriptIds") Collection<Long> scriptIds);
+
+    @Query(value = LIST_SELECT + LIST_FILTERS,
+           countQuery = "SELECT COUNT(s) FROM Script s " + LIST_FILTERS)
+    Page<ScriptListItemRow> findListItemsByUserIdAndFilters(
             @Param("userId") Long userId,
             @Param("channelId") Long channelId,
             @Param("categoryId") Long categoryId,
@@ -46,4 +127,31 @@ public interface ScriptRepository extends JpaRepository<Script, Long> {
             @Param("dateTo") LocalDate dateTo,
             @Param("search") String search,
             Pageable pageable);
-} 
\ No newline at end of file
+
+    // 只查询版本号，用于条件请求（If-None-Match）判断是否需要返回完整内容
+    @Query("SELECT s.version FROM Script s WHERE s.scriptId = :scriptId AND s.userId = :userId")
+    Optional<Long> findVersionByScriptIdAndUserId(
+            @Param("scriptId") Long scriptId,
+            @Param("userId") Long userId);
+
+    // 全文搜索，子串匹配的模式由关键词生成
+    default List<ScriptSearchRow> searchByUserId(Long userId, String query, int limit) {
+        return searchByUserId(userId, query, searchPattern(query), limit);
+    }
+
+    @Query(value = SEARCH_QUERY, nativeQuery = true)
+    List<ScriptSearchRow> searchByUserId(
+            @Param("userId") Long userId,
+            @Param("query") String query,
+            @Param("pattern") String pattern,
+            @Param("limit") int limit);
+
+    // 子串匹配模式：转小写，转义 LIKE 的通配符和转义符本身
+    private static String searchPattern(String query) {
+        String escaped = query.toLowerCase(Locale.ROOT)
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+        return "%" + escaped + "%";
+    }
+}
\ No newline at end of file
@@ -0,0 +1,43 @@
+package com.youtubeplanner.backend.script.repository;
+
+import com.youtubeplanner.backend.common.KeysetCursor;
+import com.youtubeplanner.backend.common.KeysetSlice;
+import com.youtubeplanner.backend.script.dto.ScriptListItemRow;
+import org.springframework.data.domain.Pageable;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Collection;
+
+public interface ScriptRepositoryCustom {
+    /**
+     * 游标分页查询脚本列表，过滤条件与 findListItemsByUserIdAndFilters 相同，不执行 COUNT 查询
+     */
+    KeysetSlice<ScriptListItemRow> findListItemsAfter(
+            Long userId,
+            Long channelId,
+            Long categoryId,
+            String status,
+            Integer difficulty,
+            LocalDate dateFrom,
+            LocalDate dateTo,
+            String search,
+            Pageable pageable,
+            KeysetCursor cursor);
+
+    /**
+     * 用一条 UPDATE 语句批量修改当前用户的脚本，只修改不为 null 的字段，
+     * 同时更新更新时间并将版本号加一
+     *
+     * @return 修改的行数
+     */
+    int bulkUpdate(
+            Long userId,
+            Collection<Long> scriptIds,
+            String status,
+            Long channelId,
+            Long categoryId,
+            Integer difficulty,
+            LocalDate releaseDate,
+            Instant updatedAt);
+}
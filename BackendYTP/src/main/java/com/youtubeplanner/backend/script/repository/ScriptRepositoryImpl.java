@@ -0,0 +1,98 @@
+package com.youtubeplanner.backend.script.repository;
+
+import com.youtubeplanner.backend.common.KeysetCursor;
+import com.youtubeplanner.backend.common.KeysetQuery;
+import com.youtubeplanner.backend.common.KeysetSlice;
+import com.youtubeplanner.backend.common.KeysetSort;
+import com.youtubeplanner.backend.script.dto.ScriptListItemRow;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.springframework.data.domain.Pageable;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+public class ScriptRepositoryImpl implements ScriptRepositoryCustom {
+    // 游标分页支持的排序键，与 GetScriptsRequest.toPageRequest 允许的排序字段一致
+    private static final Map<String, KeysetSort<ScriptListItemRow>> SORTS = Map.of(
+            "title", new KeysetSort<>("title", "s.title", "s.scriptId", String.class, false,
+                    ScriptListItemRow::getTitle, ScriptListItemRow::getScriptId),
+            "createdAt", new KeysetSort<>("createdAt", "s.createdAt", "s.scriptId", Instant.class, false,
+                    ScriptListItemRow::getCreatedAt, ScriptListItemRow::getScriptId),
+            "updatedAt", new KeysetSort<>("updatedAt", "s.updatedAt", "s.scriptId", Instant.class, false,
+                    ScriptListItemRow::getUpdatedAt, ScriptListItemRow::getScriptId),
+            "releaseDate", new KeysetSort<>("releaseDate", "s.releaseDate", "s.scriptId", LocalDate.class, true,
+                    ScriptListItemRow::getReleaseDate, ScriptListItemRow::getScriptId),
+            "difficulty", new KeysetSort<>("difficulty", "s.difficulty", "s.scriptId", Integer.class, true,
+                    ScriptListItemRow::getDifficulty, ScriptListItemRow::getScriptId));
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public KeysetSlice<ScriptListItemRow> findListItemsAfter(
+            Long userId,
+            Long channelId,
+            Long categoryId,
+            String status,
+            Integer difficulty,
+            LocalDate dateFrom,
+            LocalDate dateTo,
+            String search,
+            Pageable pageable,
+            KeysetCursor cursor) {
+        Map<String, Object> params = new HashMap<>();
+        params.put("userId", userId);
+        params.put("channelId", channelId);
+        params.put("categoryId", categoryId);
+        params.put("status", status);
+        params.put("difficulty", difficulty);
+        params.put("dateFrom", dateFrom);
+        params.put("dateTo", dateTo);
+        params.put("search", search);
+
+        return KeysetQuery.fetch(
+                entityManager,
+                ScriptRepository.LIST_SELECT + ScriptRepository.LIST_FILTERS,
+                ScriptListItemRow.class,
+                params,
+                SORTS,
+                pageable,
+                cursor);
+    }
+
+    @Override
+    public int bulkUpdate(
+            Long userId,
+            Collection<Long> scriptIds,
+            String status,
+            Long channelId,
+            Long categoryId,
+            Integer difficulty,
+            LocalDate releaseDate,
+            Instant updatedAt) {
+        // 只拼接需要修改的字段，未传入的字段保持原值；批量 UPDATE 不经过乐观锁，需手动递增版本号
+        Map<String, Object> changes = new HashMap<>();
+        changes.put("status", status);
+        changes.put("channelId", channelId);
+        changes.put("categoryId", categoryId);
+        changes.put("difficulty", difficulty);
+        changes.put("releaseDate", releaseDate);
+        changes.values().removeIf(value -> value == null);
+
+        StringBuilder jpql = new StringBuilder("UPDATE Script s SET s.updatedAt = :updatedAt, s.version = s.version + 1");
+        changes.keySet().forEach(field -> jpql.append(", s.").append(field).append(" = :").append(field));
+        jpql.append(" WHERE s.userId = :userId AND s.scriptId IN :scriptIds");
+
+        Query query = entityManager.createQuery(jpql.toString());
+        changes.forEach(query::setParameter);
+        query.setParameter("updatedAt", updatedAt);
+        query.setParameter("userId", userId);
+        query.setParameter("scriptIds", scriptIds);
+        return query.executeUpdate();
+    }
+}
@@ -2,19 +2,40 @@ package com.youtubeplanner.backend.script.service;
 
 import com.youtubeplanner.backend.common.ApiResponse;
 import com.youtubeplanner.backend.common.PageResponse;
+import com.youtubeplanner.backend.script.dto.BulkDeleteScriptsRequest;
+import com.youtubeplanner.backend.script.dto.BulkScriptsResponse;
+import com.youtubeplanner.backend.script.dto.BulkUpdateScriptsRequest;
 import com.youtubeplanner.backend.script.dto.CreateScriptRequest;
 import com.youtubeplanner.backend.script.dto.GetScriptsRequest;
+import com.youtubeplanner.backend.script.dto.PatchChaptersRequest;
+import com.youtubeplanner.backend.script.dto.PatchChaptersResponse;
 import com.youtubeplanner.backend.script.dto.ScriptListItemResponse;
 import com.youtubeplanner.backend.script.dto.ScriptResponse;
+import com.youtubeplanner.backend.script.dto.ScriptSearchResultResponse;
+
+import java.util.List;
 
 public interface ScriptService {
     ApiResponse<ScriptResponse> createScript(CreateScriptRequest request, Long userId);
     
     ApiResponse<PageResponse<ScriptListItemResponse>> getScripts(GetScriptsRequest request, Long userId);
     
+    ApiResponse<List<ScriptSearchResultResponse>> searchScripts(String query, int limit, Long userId);
+    
     ApiResponse<ScriptResponse> getScriptDetail(Long scriptId, Long userId);
     
-    ApiResponse<ScriptResponse> updateScript(Long scriptId, CreateScriptRequest request, Long userId);
+    // 脚本不存在或无权访问时返回 null
+    Long getScriptVersion(Long scriptId, Long userId);
+    
+    // expectedVersion 不为 null 时校验版本，不一致抛出 PreconditionFailedException
+    ApiResponse<ScriptResponse> updateScript(Long scriptId, CreateScriptRequest request, Long userId, Long expectedVersion);
+    
+    ApiResponse<PatchChaptersResponse> patchChapters(Long scriptId, PatchChaptersRequest request, Long userId, Long expectedVersion);
     
     void deleteScript(Long scriptId, Long userId);
+    
+    // 批量操作：任一脚本不存在或无权访问时不做任何修改
+    ApiResponse<BulkScriptsResponse> bulkUpdateScripts(BulkUpdateScriptsRequest request, Long userId);
+    
+    ApiResponse<BulkScriptsResponse> bulkDeleteScripts(BulkDeleteScriptsRequest request, Long userId);
 } 
\ No newline at end of file
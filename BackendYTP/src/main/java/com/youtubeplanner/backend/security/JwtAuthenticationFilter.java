@@ -14,6 +14,7 @@
 
 package com.youtubeplanner.backend.security;
 
+import com.youtubeplanner.backend.user.dto.JwtClaims;
 import com.youtubeplanner.backend.user.entity.User;
 import com.youtubeplanner.backend.user.service.JwtService;
 import jakarta.servlet.FilterChain;
@@ -38,6 +39,7 @@ import java.io.IOException;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private final JwtService jwtService;
     private final UserDetailsService userDetailsService;
+    private final PrincipalCache principalCache;
 
     @Override
     protected void doFilterInternal(
@@ -46,11 +48,8 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             FilterChain filterChain
     ) throws ServletException, IOException {
         final String authHeader = request.getHeader("Authorization");
-        final String jwt;
-        final String username;
 
         log.debug("Processing request: {} {}", request.getMethod(), request.getRequestURI());
-        log.debug("Authorization header: {}", authHeader);
 
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
             log.debug("No valid Authorization header found");
@@ -58,17 +57,21 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             return;
         }
 
-        jwt = authHeader.substring(7);
-        username = jwtService.getUsernameFromToken(jwt);
-        log.debug("Extracted username from token: {}", username);
+        // 只验签一次：先校验令牌，令牌无效时不再加载用户
+        JwtClaims claims = jwtService.parseAndValidate(authHeader.substring(7));
+        if (claims == null) {
+            log.debug("Token validation failed");
+        } else if (claims.getUsername() != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+            log.debug("Token is valid, username: {}", claims.getUsername());
+            // 缓存命中时直接使用缓存的用户信息，不查询数据库
+            UserDetails userDetails = principalCache.get(claims.getUsername(), userDetailsService::loadUserByUsername);
 
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
-            log.debug("Loaded user details: {}", userDetails);
-            log.debug("User authorities: {}", userDetails.getAuthorities());
-            
-            if (jwtService.validateToken(jwt)) {
-                log.debug("Token is valid");
+            // 用户名被删除后重新注册时，旧令牌中的用户ID与当前用户不一致，不予认证
+            if (userDetails instanceof User user && claims.getUserId() != null
+                    && !claims.getUserId().equals(user.getUserId())) {
+                log.debug("Token user id {} does not match user {}", claims.getUserId(), user.getUserId());
+            } else {
+                log.debug("User authorities: {}", userDetails.getAuthorities());
                 UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                         userDetails,  // 使用整个UserDetails对象作为principal
                         null,
@@ -77,8 +80,6 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                 authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(authToken);
                 log.debug("Authentication set in SecurityContext");
-            } else {
-                log.debug("Token validation failed");
             }
         }
         filterChain.doFilter(request, response);
@@ -0,0 +1,77 @@
+/*
+ * 文件名：PrincipalCache.java
+ * 创建日期：2026年10月18日
+ * 作者：YoutubePlanner Team
+ * 
+ * 文件描述：
+ * 已认证用户信息缓存，避免JWT认证过滤器在每个请求上都查询用户表。
+ * 按用户名缓存，支持过期时间和容量上限；用户角色、密码等信息变更或用户被删除时需要显式失效。
+ * 命中/未命中统计注册到 Micrometer（cache.gets{cache=principal}）。
+ * 
+ * 修改历史：
+ * 2026年10月18日 - 初始版本
+ * 
+ * 版权所有 (c) 2026 YoutubePlanner
+ */
+
+package com.youtubeplanner.backend.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+@Slf4j
+@Component
+public class PrincipalCache {
+    private final Cache<String, UserDetails> cache;
+
+    public PrincipalCache(
+            @Value("${security.principal-cache.ttl:60s}") Duration ttl,
+            @Value("${security.principal-cache.max-size:10000}") long maxSize,
+            MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "principal");
+    }
+
+    /**
+     * 获取用户信息，缓存未命中时调用 loader 加载
+     * loader 抛出的异常（如用户不存在）会直接向上抛出，且不会被缓存
+     */
+    public UserDetails get(String username, Function<String, UserDetails> loader) {
+        return cache.get(username, loader);
+    }
+
+    /**
+     * 使指定用户的缓存失效
+     * 在事务中调用时，事务结束后会再失效一次，避免提交前被并发请求重新加载旧数据
+     */
+    public void evict(String username) {
+        if (username == null) {
+            return;
+        }
+        log.debug("Evicting cached principal: {}", username);
+        cache.invalidate(username);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.invalidate(username);
+                }
+            });
+        }
+    }
+}
@@ -91,14 +91,4 @@ public class UserController {
         ApiConfigResponse apiConfig = userService.updateApiConfig(user, request);
         return ApiResponse.success("API配置更新成功", apiConfig);
     }
-
-    @GetMapping("/me/api-config/full")
-    public ApiResponse<ApiConfigRequest> getFullApiConfig(@AuthenticationPrincipal User user) {
-        log.debug("获取完整API配置，用户ID: {}", user != null ? user.getUserId() : "null");
-        if (user == null) {
-            return ApiResponse.error(401, "用户未认证");
-        }
-        ApiConfigRequest fullConfig = userService.getFullApiConfig(user);
-        return ApiResponse.success(fullConfig);
-    }
 } 
\ No newline at end of file
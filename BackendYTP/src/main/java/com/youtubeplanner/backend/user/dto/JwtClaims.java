@@ -0,0 +1,29 @@
+/*
+ * 文件名：JwtClaims.java
+ * 创建日期：2026年10月18日
+ * 作者：YoutubePlanner Team
+ * 
+ * 文件描述：
+ * JWT令牌声明DTO，令牌验签并校验有效期后返回。
+ * 包含用户ID、用户名和过期时间。
+ * 
+ * 修改历史：
+ * 2026年10月18日 - 初始版本
+ * 
+ * 版权所有 (c) 2026 YoutubePlanner
+ */
+
+package com.youtubeplanner.backend.user.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.Instant;
+
+@Data
+@AllArgsConstructor
+public class JwtClaims {
+    private Long userId;
+    private String username;
+    private Instant expiresAt;
+}
@@ -5,7 +5,7 @@
  * 
  * 文件描述：
  * 用户统计信息DTO，用于返回用户的统计数据。
- * 包含脚本总数、频道总数和分类总数。
+ * 包含脚本总数、频道总数、分类总数和思维导图总数。
  * 
  * 修改历史：
  * 2024年3月19日 - 初始版本
@@ -30,4 +30,7 @@ public class UserStats {
     
     @JsonProperty("total_categories")
     private Integer totalCategories;
+
+    @JsonProperty("total_mind_maps")
+    private Integer totalMindMaps;
 } 
\ No newline at end of file
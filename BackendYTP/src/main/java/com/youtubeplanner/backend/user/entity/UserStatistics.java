@@ -0,0 +1,53 @@
+/*
+ * 文件名：UserStatistics.java
+ * 创建日期：2026年10月18日
+ * 作者：YoutubePlanner Team
+ *
+ * 文件描述：
+ * 用户统计计数实体类，对应 user_stats 表，每个用户一行。
+ * 计数只通过 UserStatisticsRepository 中的原子增减和对账语句修改，实体本身只读。
+ *
+ * 修改历史：
+ * 2026年10月18日 - 初始版本
+ *
+ * 版权所有 (c) 2026 YoutubePlanner
+ */
+
+package com.youtubeplanner.backend.user.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@Entity
+@Immutable
+@Table(name = "user_stats")
+public class UserStatistics {
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "script_count", nullable = false)
+    private long scriptCount;
+
+    // 频道和思维导图只统计未删除的
+    @Column(name = "channel_count", nullable = false)
+    private long channelCount;
+
+    @Column(name = "category_count", nullable = false)
+    private long categoryCount;
+
+    @Column(name = "mind_map_count", nullable = false)
+    private long mindMapCount;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
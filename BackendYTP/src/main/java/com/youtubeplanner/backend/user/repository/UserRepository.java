@@ -17,8 +17,6 @@ package com.youtubeplanner.backend.user.repository;
 
 import com.youtubeplanner.backend.user.entity.User;
 import com.youtubeplanner.backend.user.entity.Role;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -29,15 +27,13 @@ import org.springframework.transaction.annotation.Transactional;
 import java.util.Optional;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, UserRepositoryCustom {
     Optional<User> findByUsername(String username);
     Optional<User> findByEmail(String email);
     boolean existsByUsername(String username);
     boolean existsByEmail(String email);
     
     // 管理员功能相关方法
-    Page<User> findByUsernameContainingIgnoreCaseOrEmailContainingIgnoreCase(
-        String username, String email, Pageable pageable);
     long countByRole(Role role);
 
     // 使用原生SQL直接删除用户
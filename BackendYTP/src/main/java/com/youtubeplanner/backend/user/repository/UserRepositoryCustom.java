@@ -0,0 +1,36 @@
+/*
+ * 文件名：UserRepositoryCustom.java
+ * 创建日期：2026年10月18日
+ * 作者：YoutubePlanner Team
+ *
+ * 文件描述：
+ * 用户仓库自定义查询接口，提供带统计数据的管理员用户查询。
+ *
+ * 修改历史：
+ * 2026年10月18日 - 初始版本
+ *
+ * 版权所有 (c) 2026 YoutubePlanner
+ */
+
+package com.youtubeplanner.backend.user.repository;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.util.Optional;
+
+public interface UserRepositoryCustom {
+    /**
+     * 分页查询用户及其脚本、频道、分类、思维导图数量，统计数量从 user_stats 关联，与用户在同一条查询中返回
+     * search 不为空时按用户名或邮箱模糊匹配（忽略大小写）；
+     * 支持按用户字段以及 scriptCount、channelCount、categoryCount、mindMapCount 排序
+     *
+     * @throws IllegalArgumentException 排序字段不支持时
+     */
+    Page<UserWithStats> findAllWithStats(String search, Pageable pageable);
+
+    /**
+     * 查询单个用户及其统计数据
+     */
+    Optional<UserWithStats> findWithStatsById(Long userId);
+}
@@ -0,0 +1,121 @@
+/*
+ * 文件名：UserRepositoryImpl.java
+ * 创建日期：2026年10月18日
+ * 作者：YoutubePlanner Team
+ *
+ * 文件描述：
+ * 用户仓库自定义查询实现。
+ * 统计数量从 user_stats 计数表关联查出，一页用户只执行一条查询（分页时另加一条 COUNT），
+ * 不再为每个用户分别查询各项数量。
+ *
+ * 修改历史：
+ * 2026年10月18日 - 初始版本
+ *
+ * 版权所有 (c) 2026 YoutubePlanner
+ */
+
+package com.youtubeplanner.backend.user.repository;
+
+import com.youtubeplanner.backend.user.entity.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+public class UserRepositoryImpl implements UserRepositoryCustom {
+    // 还没有统计行的用户计数为 0
+    private static final String SELECT_WITH_STATS = "SELECT u, " +
+            "COALESCE(st.scriptCount, 0) AS scriptCount, " +
+            "COALESCE(st.channelCount, 0) AS channelCount, " +
+            "COALESCE(st.categoryCount, 0) AS categoryCount, " +
+            "COALESCE(st.mindMapCount, 0) AS mindMapCount " +
+            "FROM User u LEFT JOIN UserStatistics st ON st.userId = u.userId";
+
+    private static final String SEARCH_CONDITION = " WHERE (LOWER(u.username) LIKE :pattern ESCAPE '\\' " +
+            "OR LOWER(u.email) LIKE :pattern ESCAPE '\\')";
+
+    // 支持的排序字段 -> 排序表达式，统计数量使用查询中的别名
+    private static final Map<String, String> SORTS = Map.of(
+            "userId", "u.userId",
+            "username", "u.username",
+            "email", "u.email",
+            "displayName", "u.displayName",
+            "createdAt", "u.createdAt",
+            "updatedAt", "u.updatedAt",
+            "scriptCount", "scriptCount",
+            "channelCount", "channelCount",
+            "categoryCount", "categoryCount",
+            "mindMapCount", "mindMapCount");
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<UserWithStats> findAllWithStats(String search, Pageable pageable) {
+        boolean hasSearch = search != null && !search.isBlank();
+        String where = hasSearch ? SEARCH_CONDITION : "";
+
+        TypedQuery<Object[]> query = entityManager.createQuery(
+                SELECT_WITH_STATS + where + orderBy(pageable.getSort()), Object[].class);
+        TypedQuery<Long> countQuery = entityManager.createQuery("SELECT COUNT(u) FROM User u" + where, Long.class);
+        if (hasSearch) {
+            String pattern = likePattern(search.trim());
+            query.setParameter("pattern", pattern);
+            countQuery.setParameter("pattern", pattern);
+        }
+        query.setFirstResult((int) pageable.getOffset());
+        query.setMaxResults(pageable.getPageSize());
+
+        List<UserWithStats> content = query.getResultList().stream().map(this::toUserWithStats).toList();
+        // 第一页不满一页时不需要 COUNT 查询
+        long total = pageable.getOffset() == 0 && content.size() < pageable.getPageSize()
+                ? content.size() : countQuery.getSingleResult();
+        return new PageImpl<>(content, pageable, total);
+    }
+
+    @Override
+    public Optional<UserWithStats> findWithStatsById(Long userId) {
+        return entityManager.createQuery(SELECT_WITH_STATS + " WHERE u.userId = :userId", Object[].class)
+                .setParameter("userId", userId)
+                .getResultStream()
+                .findFirst()
+                .map(this::toUserWithStats);
+    }
+
+    private String orderBy(Sort sort) {
+        StringBuilder orderBy = new StringBuilder();
+        Sort.Direction idDirection = Sort.Direction.DESC;
+        for (Sort.Order order : sort) {
+            String expression = SORTS.get(order.getProperty());
+            if (expression == null) {
+                throw new IllegalArgumentException("不支持的排序字段: " + order.getProperty());
+            }
+            orderBy.append(orderBy.isEmpty() ? " ORDER BY " : ", ")
+                    .append(expression).append(' ').append(order.getDirection().name()).append(" NULLS LAST");
+            idDirection = order.getDirection();
+        }
+        // 以用户ID作为最后的排序键，保证分页结果稳定
+        return orderBy.append(orderBy.isEmpty() ? " ORDER BY " : ", ")
+                .append("u.userId ").append(idDirection.name()).toString();
+    }
+
+    private String likePattern(String search) {
+        String escaped = search.toLowerCase(Locale.ROOT)
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+        return "%" + escaped + "%";
+    }
+
+    private UserWithStats toUserWithStats(Object[] row) {
+        return new UserWithStats((User) row[0], (Long) row[1], (Long) row[2], (Long) row[3], (Long) row[4]);
+    }
+}
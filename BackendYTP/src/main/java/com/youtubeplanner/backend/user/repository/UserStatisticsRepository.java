@@ -0,0 +1,79 @@
+/*
+ * 文件名：UserStatisticsRepository.java
+ * 创建日期：2026年10月18日
+ * 作者：YoutubePlanner Team
+ *
+ * 文件描述：
+ * 用户统计计数仓库接口。
+ * 计数以单条 UPSERT 语句原子增减，不需要先读取；对账语句按源数据重新计算并只修改有偏差的行。
+ * 对账前先补齐统计行并锁定全部统计行：READ COMMITTED 下计数语句的快照在语句开始时确定，
+ * 如果在等待行锁之前就已计数，增量事务提交后会被旧快照覆盖；持有行锁之后再计数，
+ * 计数语句能看到已提交的增量事务，之后的增量事务则等对账提交后再叠加。
+ *
+ * 修改历史：
+ * 2026年10月18日 - 初始版本
+ *
+ * 版权所有 (c) 2026 YoutubePlanner
+ */
+
+package com.youtubeplanner.backend.user.repository;
+
+import com.youtubeplanner.backend.user.entity.UserStatistics;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface UserStatisticsRepository extends JpaRepository<UserStatistics, Long> {
+
+    // 增减计数，用户还没有统计行时插入；计数不会小于 0
+    @Modifying
+    @Query(value = "INSERT INTO user_stats AS st (user_id, script_count, channel_count, category_count, mind_map_count, updated_at) " +
+            "VALUES (:userId, GREATEST(:scripts, 0), GREATEST(:channels, 0), GREATEST(:categories, 0), GREATEST(:mindMaps, 0), LOCALTIMESTAMP) " +
+            "ON CONFLICT (user_id) DO UPDATE SET " +
+            "script_count = GREATEST(st.script_count + :scripts, 0), " +
+            "channel_count = GREATEST(st.channel_count + :channels, 0), " +
+            "category_count = GREATEST(st.category_count + :categories, 0), " +
+            "mind_map_count = GREATEST(st.mind_map_count + :mindMaps, 0), " +
+            "updated_at = LOCALTIMESTAMP", nativeQuery = true)
+    void increment(@Param("userId") Long userId,
+                   @Param("scripts") long scripts,
+                   @Param("channels") long channels,
+                   @Param("categories") long categories,
+                   @Param("mindMaps") long mindMaps);
+
+    // 为还没有统计行的用户插入计数为 0 的行，之后的行锁才能覆盖到这些用户；
+    // 与未提交的首次增量冲突时等待其提交后跳过
+    @Modifying
+    @Query(value = "INSERT INTO user_stats (user_id) SELECT u.user_id FROM users u " +
+            "ON CONFLICT (user_id) DO NOTHING", nativeQuery = true)
+    int insertMissing();
+
+    // 按主键顺序锁定全部统计行，等待进行中的增量事务提交，并阻止新的增量直到当前事务结束
+    @Query(value = "SELECT COUNT(*) FROM (SELECT st.user_id FROM user_stats st ORDER BY st.user_id FOR UPDATE) locked",
+            nativeQuery = true)
+    long lockAll();
+
+    // 按源数据重新计算所有用户的计数，修复有偏差的行，返回修改的行数；需在 lockAll 之后执行
+    @Modifying
+    @Query(value = "INSERT INTO user_stats AS st (user_id, script_count, channel_count, category_count, mind_map_count, updated_at) " +
+            "SELECT u.user_id, " +
+            "(SELECT COUNT(*) FROM scripts s WHERE s.user_id = u.user_id), " +
+            "(SELECT COUNT(*) FROM channels c WHERE c.user_id = u.user_id AND c.deleted = FALSE), " +
+            "(SELECT COUNT(*) FROM categories ca WHERE ca.user_id = u.user_id), " +
+            "(SELECT COUNT(*) FROM mind_maps m WHERE m.user_id = u.user_id AND m.is_deleted = FALSE), " +
+            "LOCALTIMESTAMP " +
+            "FROM users u " +
+            "ON CONFLICT (user_id) DO UPDATE SET " +
+            "script_count = EXCLUDED.script_count, " +
+            "channel_count = EXCLUDED.channel_count, " +
+            "category_count = EXCLUDED.category_count, " +
+            "mind_map_count = EXCLUDED.mind_map_count, " +
+            "updated_at = EXCLUDED.updated_at " +
+            "WHERE (st.script_count, st.channel_count, st.category_count, st.mind_map_count) IS DISTINCT FROM " +
+            "(EXCLUDED.script_count, EXCLUDED.channel_count, EXCLUDED.category_count, EXCLUDED.mind_map_count)",
+            nativeQuery = true)
+    int reconcile();
+}
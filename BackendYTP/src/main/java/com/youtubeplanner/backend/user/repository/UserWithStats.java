@@ -0,0 +1,30 @@
+/*
+ * 文件名：UserWithStats.java
+ * 创建日期：2026年10月18日
+ * 作者：YoutubePlanner Team
+ *
+ * 文件描述：
+ * 用户及其统计数据的查询结果，由管理员用户列表的单条查询一次返回。
+ *
+ * 修改历史：
+ * 2026年10月18日 - 初始版本
+ *
+ * 版权所有 (c) 2026 YoutubePlanner
+ */
+
+package com.youtubeplanner.backend.user.repository;
+
+import com.youtubeplanner.backend.user.entity.User;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class UserWithStats {
+    private final User user;
+    private final long scriptCount;
+    // 以下统计只包含未删除的数据
+    private final long channelCount;
+    private final long categoryCount;
+    private final long mindMapCount;
+}
@@ -15,11 +15,19 @@
 
 package com.youtubeplanner.backend.user.service;
 
+import com.youtubeplanner.backend.user.dto.JwtClaims;
 import com.youtubeplanner.backend.user.entity.User;
 
 public interface JwtService {
     String generateAccessToken(User user);
     String generateRefreshToken(User user);
+    /**
+     * 验证令牌签名和有效期并解析声明，只验签一次
+     *
+     * @param token JWT令牌
+     * @return 令牌声明，令牌无效或已过期时返回 null
+     */
+    JwtClaims parseAndValidate(String token);
     boolean validateToken(String token);
     String getUsernameFromToken(String token);
 } 
\ No newline at end of file
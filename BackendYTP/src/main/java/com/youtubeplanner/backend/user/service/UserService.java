@@ -28,5 +28,4 @@ public interface UserService {
     void changePassword(User user, ChangePasswordRequest request);
     ApiConfigResponse updateApiConfig(User user, ApiConfigRequest request);
     ApiConfigResponse getApiConfig(User user);
-    ApiConfigRequest getFullApiConfig(User user);
 } 
\ No newline at end of file
@@ -0,0 +1,38 @@
+/*
+ * 文件名：UserStatsService.java
+ * 创建日期：2026年10月18日
+ * 作者：YoutubePlanner Team
+ *
+ * 文件描述：
+ * 用户统计计数服务接口。
+ * 脚本、频道、分类、思维导图的创建和删除方法在自己的事务中调用对应的计数方法，
+ * 计数与数据变更一起提交或回滚。
+ *
+ * 修改历史：
+ * 2026年10月18日 - 初始版本
+ *
+ * 版权所有 (c) 2026 YoutubePlanner
+ */
+
+package com.youtubeplanner.backend.user.service;
+
+import com.youtubeplanner.backend.user.dto.UserStats;
+
+public interface UserStatsService {
+    void scriptsChanged(Long userId, long delta);
+    void channelsChanged(Long userId, long delta);
+    void categoriesChanged(Long userId, long delta);
+    void mindMapsChanged(Long userId, long delta);
+
+    /**
+     * 读取用户统计数据，按主键查询一行
+     */
+    UserStats getStats(Long userId);
+
+    /**
+     * 按源数据重新计算计数，修复偏差
+     *
+     * @return 计数有偏差并被修复的用户数（为没有数据的用户补齐的零计数行不计入）
+     */
+    int reconcile();
+}
@@ -8,13 +8,17 @@ import com.youtubeplanner.backend.user.dto.UserStats;
 import com.youtubeplanner.backend.user.entity.User;
 import com.youtubeplanner.backend.user.entity.Role;
 import com.youtubeplanner.backend.user.repository.UserRepository;
+import com.youtubeplanner.backend.user.repository.UserWithStats;
 import com.youtubeplanner.backend.user.service.AdminUserService;
+import com.youtubeplanner.backend.script.repository.ScriptChapterRepository;
 import com.youtubeplanner.backend.script.repository.ScriptRepository;
 import com.youtubeplanner.backend.channel.ChannelRepository;
 import com.youtubeplanner.backend.category.repository.CategoryRepository;
 import com.youtubeplanner.backend.mindmap.repository.MindMapRepository;
+import com.youtubeplanner.backend.security.PrincipalCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
 import org.springframework.data.domain.*;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -25,9 +29,11 @@ import org.springframework.transaction.annotation.Transactional;
 public class AdminUserServiceImpl implements AdminUserService {
     private final UserRepository userRepository;
     private final ScriptRepository scriptRepository;
+    private final ScriptChapterRepository scriptChapterRepository;
     private final ChannelRepository channelRepository;
     private final CategoryRepository categoryRepository;
     private final MindMapRepository mindMapRepository;
+    private final PrincipalCache principalCache;
 
     @Override
     @Transactional(readOnly = true)
@@ -49,19 +55,16 @@ public class AdminUserServiceImpl implements AdminUserService {
             Sort sort = Sort.by(Sort.Direction.fromString(order), sortBy);
             PageRequest pageRequest = PageRequest.of(page - 1, limit, sort);
 
-            // 查询用户
-            Page<User> userPage;
-            if (search != null && !search.trim().isEmpty()) {
-                userPage = userRepository.findByUsernameContainingIgnoreCaseOrEmailContainingIgnoreCase(
-                    search.trim(), search.trim(), pageRequest);
-            } else {
-                userPage = userRepository.findAll(pageRequest);
-            }
+            // 查询用户，统计数量在同一条查询中返回
+            Page<UserWithStats> userPage = userRepository.findAllWithStats(search, pageRequest);
 
             // 转换为响应DTO
             Page<AdminUserListResponse> responsePage = userPage.map(this::convertToAdminUserResponse);
             
             return ApiResponse.success(PageResponse.of(responsePage));
+        } catch (IllegalArgumentException | InvalidDataAccessApiUsageException e) {
+            // 不支持的排序字段或排序方向（仓库抛出的异常会被转换为 InvalidDataAccessApiUsageException）
+            return ApiResponse.error(400, e.getMessage());
         } catch (Exception e) {
             log.error("获取用户列表失败", e);
             return ApiResponse.error(500, "获取用户列表失败: " + e.getMessage());
@@ -72,7 +75,7 @@ public class AdminUserServiceImpl implements AdminUserService {
     @Transactional(readOnly = true)
     public ApiResponse<AdminUserListResponse> getUserById(Long userId) {
         try {
-            User user = userRepository.findById(userId).orElse(null);
+            UserWithStats user = userRepository.findWithStatsById(userId).orElse(null);
             if (user == null) {
                 return ApiResponse.error(404, "用户不存在");
             }
@@ -117,7 +120,8 @@ public class AdminUserServiceImpl implements AdminUserService {
             }
 
             user = userRepository.save(user);
-            return ApiResponse.success("用户信息更新成功", convertToAdminUserResponse(user));
+            principalCache.evict(user.getUsername());
+            return ApiResponse.success("用户信息更新成功", convertToAdminUserResponse(withStats(user)));
         } catch (Exception e) {
             log.error("更新用户信息失败，用户ID: {}", userId, e);
             return ApiResponse.error(500, "更新用户信息失败: " + e.getMessage());
@@ -145,26 +149,23 @@ public class AdminUserServiceImpl implements AdminUserService {
             log.info("开始删除用户 {} (ID: {}) 及其所有相关数据", user.getUsername(), userId);
 
             // 按照外键依赖关系的顺序删除数据
-            // 1. 删除脚本（会级联删除脚本章节）
+            // 1. 删除脚本章节和脚本（批量删除，不逐个加载脚本和章节）
             long scriptCount = scriptRepository.countByUserId(userId);
             if (scriptCount > 0) {
                 log.info("删除用户 {} 的 {} 个脚本", user.getUsername(), scriptCount);
+                scriptChapterRepository.deleteByUserId(userId);
                 scriptRepository.deleteByUserId(userId);
             }
 
-            // 2. 删除思维导图
+            // 2. 删除思维导图（计数只包含未删除的，已软删除的也要一并删除，不按计数跳过）
             long mindMapCount = mindMapRepository.countByUserIdAndNotDeleted(userId);
-            if (mindMapCount > 0) {
-                log.info("删除用户 {} 的 {} 个思维导图", user.getUsername(), mindMapCount);
-                mindMapRepository.deleteByUserId(userId);
-            }
+            log.info("删除用户 {} 的 {} 个思维导图", user.getUsername(), mindMapCount);
+            mindMapRepository.deleteByUserId(userId);
 
-            // 3. 删除频道（使用原生SQL直接删除，绕过Hibernate）
+            // 3. 删除频道（使用原生SQL直接删除，绕过Hibernate；已软删除的频道仍引用该用户，同样不按计数跳过）
             long channelCount = channelRepository.countByUserId(userId);
-            if (channelCount > 0) {
-                log.info("删除用户 {} 的 {} 个频道", user.getUsername(), channelCount);
-                channelRepository.deleteChannelsByUserIdNative(userId);
-            }
+            log.info("删除用户 {} 的 {} 个频道", user.getUsername(), channelCount);
+            channelRepository.deleteChannelsByUserIdNative(userId);
 
             // 4. 删除分类
             long categoryCount = categoryRepository.countByUserId(userId);
@@ -175,6 +176,7 @@ public class AdminUserServiceImpl implements AdminUserService {
 
             // 5. 最后删除用户（使用原生SQL直接删除，绕过Hibernate）
             userRepository.deleteUserByIdNative(userId);
+            principalCache.evict(user.getUsername());
             
             log.info("成功删除用户 {} 及其所有相关数据：脚本{}个，思维导图{}个，频道{}个，分类{}个", 
                     user.getUsername(), scriptCount, mindMapCount, channelCount, categoryCount);
@@ -212,24 +214,28 @@ public class AdminUserServiceImpl implements AdminUserService {
 
             user.setRole(newRole);
             user = userRepository.save(user);
+            principalCache.evict(user.getUsername());
             
-            return ApiResponse.success("用户角色更新成功", convertToAdminUserResponse(user));
+            return ApiResponse.success("用户角色更新成功", convertToAdminUserResponse(withStats(user)));
         } catch (Exception e) {
             log.error("更新用户角色失败，用户ID: {}, 角色: {}", userId, role, e);
             return ApiResponse.error(500, "更新用户角色失败: " + e.getMessage());
         }
     }
 
-    private AdminUserListResponse convertToAdminUserResponse(User user) {
-        // 实现获取用户统计信息的逻辑
-        int scriptCount = (int) scriptRepository.countByUserId(user.getUserId());
-        int channelCount = (int) channelRepository.countByUserId(user.getUserId());
-        int categoryCount = (int) categoryRepository.countByUserId(user.getUserId());
-        
+    // 查询更新后的用户及其统计数据（查询前会先刷新本事务中的修改）
+    private UserWithStats withStats(User user) {
+        return userRepository.findWithStatsById(user.getUserId())
+                .orElseThrow(() -> new IllegalStateException("用户不存在"));
+    }
+
+    private AdminUserListResponse convertToAdminUserResponse(UserWithStats row) {
+        User user = row.getUser();
         UserStats stats = UserStats.builder()
-                .totalScripts(scriptCount)
-                .totalChannels(channelCount)
-                .totalCategories(categoryCount)
+                .totalScripts((int) row.getScriptCount())
+                .totalChannels((int) row.getChannelCount())
+                .totalCategories((int) row.getCategoryCount())
+                .totalMindMaps((int) row.getMindMapCount())
                 .build();
 
         // 处理role为null的情况
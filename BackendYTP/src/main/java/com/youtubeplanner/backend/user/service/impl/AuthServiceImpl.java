@@ -92,13 +92,13 @@ public class AuthServiceImpl implements AuthService {
     @Override
     public TokenResponse refreshToken(String refreshToken) {
         // 验证刷新令牌
-        if (!jwtService.validateToken(refreshToken)) {
+        JwtClaims claims = jwtService.parseAndValidate(refreshToken);
+        if (claims == null) {
             throw new RuntimeException("无效的刷新令牌");
         }
 
         // 从令牌中获取用户信息
-        String username = jwtService.getUsernameFromToken(refreshToken);
-        User user = userRepository.findByUsername(username)
+        User user = userRepository.findByUsername(claims.getUsername())
                 .orElseThrow(() -> new RuntimeException("用户不存在"));
 
         // 生成新的访问令牌
@@ -15,12 +15,16 @@
 
 package com.youtubeplanner.backend.user.service.impl;
 
+import com.youtubeplanner.backend.user.dto.JwtClaims;
 import com.youtubeplanner.backend.user.entity.User;
 import com.youtubeplanner.backend.user.service.JwtService;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
@@ -42,9 +46,16 @@ public class JwtServiceImpl implements JwtService {
     @Value("${jwt.refresh-token.expiration}")
     private Long refreshTokenExpiration;
 
-    private Key getSigningKey() {
-        byte[] keyBytes = secret.getBytes();
-        return Keys.hmacShaKeyFor(keyBytes);
+    // 签名密钥和解析器在启动时创建一次，JwtParser 不可变且线程安全
+    private Key signingKey;
+    private JwtParser jwtParser;
+
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(secret.getBytes());
+        jwtParser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
     }
 
     @Override
@@ -71,48 +82,34 @@ public class JwtServiceImpl implements JwtService {
                 .setClaims(claims)
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + expiration * 1000))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
     @Override
-    public boolean validateToken(String token) {
+    public JwtClaims parseAndValidate(String token) {
         try {
-            log.debug("Validating token: {}", token);
-            Claims claims = Jwts.parserBuilder()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
-            
-            log.debug("Token claims: {}", claims);
-            log.debug("Token expiration: {}", claims.getExpiration());
-            
-            boolean isValid = !claims.getExpiration().before(new Date());
-            log.debug("Token is valid: {}", isValid);
-            
-            return isValid;
-        } catch (Exception e) {
-            log.error("Token validation failed", e);
-            return false;
+            // 解析时会同时校验签名和过期时间，过期抛出 ExpiredJwtException
+            Claims claims = jwtParser.parseClaimsJws(token).getBody();
+            Number userId = claims.get("userId", Number.class);
+            return new JwtClaims(
+                    userId != null ? userId.longValue() : null,
+                    claims.get("username", String.class),
+                    claims.getExpiration().toInstant());
+        } catch (JwtException | IllegalArgumentException e) {
+            log.debug("Token validation failed: {}", e.getMessage());
+            return null;
         }
     }
 
+    @Override
+    public boolean validateToken(String token) {
+        return parseAndValidate(token) != null;
+    }
+
     @Override
     public String getUsernameFromToken(String token) {
-        try {
-            Claims claims = Jwts.parserBuilder()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
-
-            String username = claims.get("username", String.class);
-            log.debug("Extracted username from token: {}", username);
-            return username;
-        } catch (Exception e) {
-            log.error("Failed to extract username from token", e);
-            return null;
-        }
+        JwtClaims claims = parseAndValidate(token);
+        return claims != null ? claims.getUsername() : null;
     }
-} 
\ No newline at end of file
+}
\ No newline at end of file
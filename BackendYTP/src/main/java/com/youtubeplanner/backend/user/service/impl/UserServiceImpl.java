@@ -15,6 +15,7 @@
 
 package com.youtubeplanner.backend.user.service.impl;
 
+import com.youtubeplanner.backend.ai.service.impl.LlmEndpointValidator;
 import com.youtubeplanner.backend.user.dto.ChangePasswordRequest;
 import com.youtubeplanner.backend.user.dto.UpdateUserRequest;
 import com.youtubeplanner.backend.user.dto.UserDetailResponse;
@@ -24,9 +25,8 @@ import com.youtubeplanner.backend.user.dto.ApiConfigResponse;
 import com.youtubeplanner.backend.user.entity.User;
 import com.youtubeplanner.backend.user.repository.UserRepository;
 import com.youtubeplanner.backend.user.service.UserService;
-import com.youtubeplanner.backend.script.repository.ScriptRepository;
-import com.youtubeplanner.backend.channel.ChannelRepository;
-import com.youtubeplanner.backend.category.repository.CategoryRepository;
+import com.youtubeplanner.backend.user.service.UserStatsService;
+import com.youtubeplanner.backend.security.PrincipalCache;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -37,18 +37,14 @@ import org.springframework.transaction.annotation.Transactional;
 public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
-    private final ScriptRepository scriptRepository;
-    private final ChannelRepository channelRepository;
-    private final CategoryRepository categoryRepository;
+    private final UserStatsService userStatsService;
+    private final PrincipalCache principalCache;
+    private final LlmEndpointValidator llmEndpointValidator;
 
     @Override
     public UserDetailResponse getCurrentUserInfo(User user) {
-        // 实现获取用户统计信息的逻辑
-        UserStats stats = UserStats.builder()
-                .totalScripts((int) scriptRepository.countByUserId(user.getUserId()))
-                .totalChannels((int) channelRepository.countByUserId(user.getUserId()))
-                .totalCategories((int) categoryRepository.countByUserId(user.getUserId()))
-                .build();
+        // 统计数据从 user_stats 按主键读取一行
+        UserStats stats = userStatsService.getStats(user.getUserId());
 
         return UserDetailResponse.builder()
                 .userId(user.getUserId())
@@ -75,6 +71,7 @@ public class UserServiceImpl implements UserService {
         }
 
         user = userRepository.save(user);
+        principalCache.evict(user.getUsername());
         return getCurrentUserInfo(user);
     }
 
@@ -87,6 +84,7 @@ public class UserServiceImpl implements UserService {
 
         user.setPasswordHash(passwordEncoder.encode(request.getNewPassword()));
         userRepository.save(user);
+        principalCache.evict(user.getUsername());
     }
 
     @Override
@@ -109,6 +107,10 @@ public class UserServiceImpl implements UserService {
             user.setApiKey(request.getApiKey());
         }
         if (request.getApiBaseUrl() != null) {
+            // 保存时即拒绝内网地址，生成时还会按实际请求地址再校验一次
+            if (!request.getApiBaseUrl().isBlank()) {
+                llmEndpointValidator.validate(request.getApiBaseUrl());
+            }
             user.setApiBaseUrl(request.getApiBaseUrl());
         }
         if (request.getApiModel() != null) {
@@ -116,16 +118,7 @@ public class UserServiceImpl implements UserService {
         }
 
         userRepository.save(user);
+        principalCache.evict(user.getUsername());
         return getApiConfig(user);
     }
-
-    @Override
-    public ApiConfigRequest getFullApiConfig(User user) {
-        ApiConfigRequest config = new ApiConfigRequest();
-        config.setApiProvider(user.getApiProvider());
-        config.setApiKey(user.getApiKey());
-        config.setApiBaseUrl(user.getApiBaseUrl());
-        config.setApiModel(user.getApiModel());
-        return config;
-    }
 } 
\ No newline at end of file
@@ -0,0 +1,88 @@
+/*
+ * 文件名：UserStatsServiceImpl.java
+ * 创建日期：2026年10月18日
+ * 作者：YoutubePlanner Team
+ *
+ * 文件描述：
+ * 用户统计计数服务实现类。
+ * 计数方法加入调用方的事务（MANDATORY），保证与数据变更一起提交；
+ * 对账任务按 user-stats.reconcile-cron 定时执行，修复直接改库等原因产生的偏差。
+ *
+ * 修改历史：
+ * 2026年10月18日 - 初始版本
+ *
+ * 版权所有 (c) 2026 YoutubePlanner
+ */
+
+package com.youtubeplanner.backend.user.service.impl;
+
+import com.youtubeplanner.backend.user.dto.UserStats;
+import com.youtubeplanner.backend.user.entity.UserStatistics;
+import com.youtubeplanner.backend.user.repository.UserStatisticsRepository;
+import com.youtubeplanner.backend.user.service.UserStatsService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UserStatsServiceImpl implements UserStatsService {
+    private final UserStatisticsRepository userStatisticsRepository;
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void scriptsChanged(Long userId, long delta) {
+        userStatisticsRepository.increment(userId, delta, 0, 0, 0);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void channelsChanged(Long userId, long delta) {
+        userStatisticsRepository.increment(userId, 0, delta, 0, 0);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void categoriesChanged(Long userId, long delta) {
+        userStatisticsRepository.increment(userId, 0, 0, delta, 0);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void mindMapsChanged(Long userId, long delta) {
+        userStatisticsRepository.increment(userId, 0, 0, 0, delta);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public UserStats getStats(Long userId) {
+        // 还没有统计行的用户（新注册且未创建任何数据）计数均为 0
+        UserStatistics statistics = userStatisticsRepository.findById(userId).orElseGet(UserStatistics::new);
+        return UserStats.builder()
+                .totalScripts((int) statistics.getScriptCount())
+                .totalChannels((int) statistics.getChannelCount())
+                .totalCategories((int) statistics.getCategoryCount())
+                .totalMindMaps((int) statistics.getMindMapCount())
+                .build();
+    }
+
+    @Override
+    @Transactional
+    @Scheduled(cron = "${user-stats.reconcile-cron:0 30 3 * * *}")
+    public int reconcile() {
+        // 先补齐并锁定统计行再计数，避免旧的计数覆盖并发提交的增量
+        userStatisticsRepository.insertMissing();
+        userStatisticsRepository.lockAll();
+        int repaired = userStatisticsRepository.reconcile();
+        if (repaired > 0) {
+            log.warn("用户统计计数对账完成，修复 {} 个用户的计数", repaired);
+        } else {
+            log.info("用户统计计数对账完成，没有偏差");
+        }
+        return repaired;
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * 文件名：WorkspaceController.java
+ * 创建日期：2026年10月18日
+ * 作者：YoutubePlanner Team
+ *
+ * 文件描述：
+ * 工作区控制器，导出当前用户的全部数据，以及导入脚本和章节。
+ *
+ * 修改历史：
+ * 2026年10月18日 - 初始版本
+ *
+ * 版权所有 (c) 2026 YoutubePlanner
+ */
+
+package com.youtubeplanner.backend.workspace.controller;
+
+import com.youtubeplanner.backend.common.response.ApiResponse;
+import com.youtubeplanner.backend.user.entity.User;
+import com.youtubeplanner.backend.workspace.dto.ImportJobResponse;
+import com.youtubeplanner.backend.workspace.service.WorkspaceExportService;
+import com.youtubeplanner.backend.workspace.service.WorkspaceImportService;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/v1/workspace")
+@RequiredArgsConstructor
+public class WorkspaceController {
+
+    private final WorkspaceExportService exportService;
+    private final WorkspaceImportService importService;
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportWorkspace(@AuthenticationPrincipal User user) {
+        log.debug("导出工作区，用户ID: {}", user.getUserId());
+        String filename = "youtubeplanner-" + user.getUsername() + "-" + LocalDate.now() + ".ndjson";
+        // 最后占用导出名额，之后不再有可能失败的操作
+        StreamingResponseBody body = exportService.exportWorkspace(user);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(filename, StandardCharsets.UTF_8).build().toString())
+                .cacheControl(CacheControl.noStore())
+                .body(body);
+    }
+
+    /**
+     * 上传 NDJSON 文件（请求体即文件内容），立即返回导入任务，导入在后台进行
+     */
+    @PostMapping("/import")
+    public ResponseEntity<ApiResponse<ImportJobResponse>> importWorkspace(
+            @AuthenticationPrincipal User user, HttpServletRequest request) throws IOException {
+        log.debug("导入工作区，用户ID: {}", user.getUserId());
+        ImportJobResponse job = importService.startImport(user, request.getInputStream());
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(ApiResponse.success(HttpStatus.ACCEPTED.value(), "导入任务已创建", job));
+    }
+
+    @GetMapping("/import/{jobId}")
+    public ResponseEntity<ApiResponse<ImportJobResponse>> getImportJob(
+            @AuthenticationPrincipal User user, @PathVariable String jobId) {
+        ImportJobResponse job = importService.getJob(user.getUserId(), jobId);
+        if (job == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(ApiResponse.error(HttpStatus.NOT_FOUND.value(), "导入任务不存在或已过期"));
+        }
+        return ResponseEntity.ok(ApiResponse.success(job));
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * 文件名：ImportJobResponse.java
+ * 创建日期：2026年10月18日
+ * 作者：YoutubePlanner Team
+ *
+ * 文件描述：
+ * 导入任务状态和进度。
+ *
+ * 修改历史：
+ * 2026年10月18日 - 初始版本
+ *
+ * 版权所有 (c) 2026 YoutubePlanner
+ */
+
+package com.youtubeplanner.backend.workspace.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ImportJobResponse {
+    @JsonProperty("job_id")
+    private String jobId;
+
+    private ImportJobStatus status;
+
+    // 已读取的文件字节数占文件大小的百分比，写入正式表阶段为 100
+    private Integer progress;
+
+    @JsonProperty("total_bytes")
+    private Long totalBytes;
+
+    @JsonProperty("lines_processed")
+    private Long linesProcessed;
+
+    // 以下数量在任务完成后返回
+    private Long scripts;
+
+    private Long chapters;
+
+    @JsonProperty("channels_created")
+    private Long channelsCreated;
+
+    @JsonProperty("categories_created")
+    private Long categoriesCreated;
+
+    // 不支持导入的行（如思维导图、end 行）
+    @JsonProperty("skipped_lines")
+    private Long skippedLines;
+
+    // 失败原因，带有出错的行号
+    private String error;
+
+    @JsonProperty("created_at")
+    private Instant createdAt;
+
+    @JsonProperty("finished_at")
+    private Instant finishedAt;
+}
@@ -0,0 +1,27 @@
+/*
+ * 文件名：ImportJobStatus.java
+ * 创建日期：2026年10月18日
+ * 作者：YoutubePlanner Team
+ *
+ * 文件描述：
+ * 导入任务状态：排队中、读取文件写入暂存表、写入正式表、已完成、失败。
+ *
+ * 修改历史：
+ * 2026年10月18日 - 初始版本
+ *
+ * 版权所有 (c) 2026 YoutubePlanner
+ */
+
+package com.youtubeplanner.backend.workspace.dto;
+
+public enum ImportJobStatus {
+    QUEUED,
+    STAGING,
+    INSERTING,
+    COMPLETED,
+    FAILED;
+
+    public boolean isFinished() {
+        return this == COMPLETED || this == FAILED;
+    }
+}
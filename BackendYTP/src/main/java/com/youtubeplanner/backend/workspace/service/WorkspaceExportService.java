@@ -0,0 +1,26 @@
+/*
+ * 文件名：WorkspaceExportService.java
+ * 创建日期：2026年10月18日
+ * 作者：YoutubePlanner Team
+ *
+ * 文件描述：
+ * 工作区导出服务接口，将用户的频道、分类、脚本（含章节）和思维导图导出为 NDJSON。
+ *
+ * 修改历史：
+ * 2026年10月18日 - 初始版本
+ *
+ * 版权所有 (c) 2026 YoutubePlanner
+ */
+
+package com.youtubeplanner.backend.workspace.service;
+
+import com.youtubeplanner.backend.user.entity.User;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+public interface WorkspaceExportService {
+    /**
+     * 创建导出用户全部数据的流式响应体，每行一个 JSON 对象
+     * 同时进行的导出超出限制时抛出 TooManyRequestsException
+     */
+    StreamingResponseBody exportWorkspace(User user);
+}
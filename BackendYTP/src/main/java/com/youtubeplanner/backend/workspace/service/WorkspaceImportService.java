@@ -0,0 +1,34 @@
+/*
+ * 文件名：WorkspaceImportService.java
+ * 创建日期：2026年10月18日
+ * 作者：YoutubePlanner Team
+ *
+ * 文件描述：
+ * 工作区导入服务接口，在后台任务中批量导入 NDJSON 格式的脚本、章节、频道和分类，
+ * 通过任务ID查询进度。
+ *
+ * 修改历史：
+ * 2026年10月18日 - 初始版本
+ *
+ * 版权所有 (c) 2026 YoutubePlanner
+ */
+
+package com.youtubeplanner.backend.workspace.service;
+
+import com.youtubeplanner.backend.user.entity.User;
+import com.youtubeplanner.backend.workspace.dto.ImportJobResponse;
+
+import java.io.InputStream;
+
+public interface WorkspaceImportService {
+    /**
+     * 保存上传的文件并创建导入任务，文件在后台导入
+     * 文件为空或超过大小限制时抛出 RuntimeException，排队的任务过多时抛出 TooManyRequestsException
+     */
+    ImportJobResponse startImport(User user, InputStream content);
+
+    /**
+     * 查询导入任务，任务不存在、已过期或不属于该用户时返回 null
+     */
+    ImportJobResponse getJob(Long userId, String jobId);
+}
@@ -0,0 +1,81 @@
+/*
+ * 文件名：ImportJob.java
+ * 创建日期：2026年10月18日
+ * 作者：YoutubePlanner Team
+ *
+ * 文件描述：
+ * 一次导入任务的状态。只由执行导入的后台线程修改，查询进度的请求线程只读取。
+ *
+ * 修改历史：
+ * 2026年10月18日 - 初始版本
+ *
+ * 版权所有 (c) 2026 YoutubePlanner
+ */
+
+package com.youtubeplanner.backend.workspace.service.impl;
+
+import com.youtubeplanner.backend.workspace.dto.ImportJobResponse;
+import com.youtubeplanner.backend.workspace.dto.ImportJobStatus;
+
+import java.nio.file.Path;
+import java.time.Instant;
+
+class ImportJob {
+    final String jobId;
+    final Long userId;
+    final Path file;
+    final long totalBytes;
+    final Instant createdAt = Instant.now();
+
+    volatile ImportJobStatus status = ImportJobStatus.QUEUED;
+    volatile long bytesRead;
+    volatile long linesProcessed;
+    volatile long skippedLines;
+    volatile long scripts;
+    volatile long chapters;
+    volatile long channelsCreated;
+    volatile long categoriesCreated;
+    volatile String error;
+    volatile Instant finishedAt;
+
+    ImportJob(String jobId, Long userId, Path file, long totalBytes) {
+        this.jobId = jobId;
+        this.userId = userId;
+        this.file = file;
+        this.totalBytes = totalBytes;
+    }
+
+    void complete() {
+        status = ImportJobStatus.COMPLETED;
+        finishedAt = Instant.now();
+    }
+
+    void fail(String message) {
+        error = message;
+        status = ImportJobStatus.FAILED;
+        finishedAt = Instant.now();
+    }
+
+    ImportJobResponse toResponse() {
+        ImportJobStatus current = status;
+        int progress = current == ImportJobStatus.QUEUED ? 0
+                : current == ImportJobStatus.STAGING ? (int) Math.min(99, bytesRead * 100 / Math.max(totalBytes, 1))
+                : 100;
+        boolean completed = current == ImportJobStatus.COMPLETED;
+        return ImportJobResponse.builder()
+                .jobId(jobId)
+                .status(current)
+                .progress(progress)
+                .totalBytes(totalBytes)
+                .linesProcessed(linesProcessed)
+                .scripts(completed ? scripts : null)
+                .chapters(completed ? chapters : null)
+                .channelsCreated(completed ? channelsCreated : null)
+                .categoriesCreated(completed ? categoriesCreated : null)
+                .skippedLines(completed ? skippedLines : null)
+                .error(error)
+                .createdAt(createdAt)
+                .finishedAt(finishedAt)
+                .build();
+    }
+}
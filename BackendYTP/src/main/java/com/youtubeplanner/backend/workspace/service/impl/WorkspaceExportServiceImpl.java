@@ -0,0 +1,341 @@
+/*
+ * 文件名：WorkspaceExportServiceImpl.java
+ * 创建日期：2026年10月18日
+ * 作者：YoutubePlanner Team
+ *
+ * 文件描述：
+ * 工作区导出服务实现类。
+ * 在只读事务中用 JDBC 游标按固定批次读取数据，每读一行立即写出一行 JSON，
+ * 不创建实体也不缓存结果集，内存占用与导出的数据量无关。
+ * 每个脚本后紧跟它的章节，便于导入时按脚本逐个处理。
+ * 导出完成时写出 end 行，缺少 end 行说明导出中途失败，文件不完整。
+ * 导出期间占用一个数据库连接，同时进行的导出数量受 workspace.export.max-concurrent 限制。
+ * 名额在返回响应体前占用，导出结束时释放；异步请求在导出开始前结束（超时、出错、客户端断开）时，
+ * 导出不再执行，名额由异步请求的结束回调释放。
+ *
+ * 修改历史：
+ * 2026年10月18日 - 初始版本
+ *
+ * 版权所有 (c) 2026 YoutubePlanner
+ */
+
+package com.youtubeplanner.backend.workspace.service.impl;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.youtubeplanner.backend.common.exception.TooManyRequestsException;
+import com.youtubeplanner.backend.user.entity.User;
+import com.youtubeplanner.backend.workspace.service.WorkspaceExportService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Slf4j
+@Service
+public class WorkspaceExportServiceImpl implements WorkspaceExportService {
+    // 导出格式版本，格式发生不兼容的变化时递增
+    public static final int FORMAT_VERSION = 1;
+    // 游标每次从数据库读取的行数
+    private static final int FETCH_SIZE = 500;
+
+    private static final String CHANNELS_SQL =
+            "SELECT channel_id, channel_name, created_at FROM channels " +
+            "WHERE user_id = ? AND deleted = FALSE ORDER BY channel_id";
+
+    private static final String CATEGORIES_SQL =
+            "SELECT category_id, category_name, created_at FROM categories " +
+            "WHERE user_id = ? ORDER BY category_id";
+
+    // 脚本和章节一次查询按脚本顺序读出，脚本字段在每个章节行上重复，换来单次顺序扫描
+    private static final String SCRIPTS_SQL =
+            "SELECT s.script_id, s.title, s.alternative_title1, s.description, s.status, s.difficulty, " +
+            "       s.release_date, s.channel_id, ch.channel_name, s.category_id, cat.category_name, " +
+            "       s.created_at, s.updated_at, " +
+            "       c.chapter_id, c.chapter_number, c.title AS chapter_title, c.content, " +
+            "       c.created_at AS chapter_created_at, c.updated_at AS chapter_updated_at " +
+            "FROM scripts s " +
+            "LEFT JOIN channels ch ON ch.channel_id = s.channel_id AND ch.deleted = FALSE " +
+            "LEFT JOIN categories cat ON cat.category_id = s.category_id " +
+            "LEFT JOIN script_chapters c ON c.script_id = s.script_id " +
+            "WHERE s.user_id = ? " +
+            "ORDER BY s.script_id, c.chapter_number";
+
+    private static final String MIND_MAPS_SQL =
+            "SELECT mind_map_id, title, description, nodes_data, edges_data, created_at, updated_at " +
+            "FROM mind_maps WHERE user_id = ? AND is_deleted = FALSE ORDER BY mind_map_id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Semaphore slots;
+
+    public WorkspaceExportServiceImpl(
+            DataSource dataSource,
+            PlatformTransactionManager transactionManager,
+            ObjectMapper objectMapper,
+            @Value("${workspace.export.max-concurrent:1}") int maxConcurrent,
+            @Value("${workspace.export.timeout:10m}") Duration timeout) {
+        // PostgreSQL 驱动只有在事务中（关闭自动提交）且设置了 fetchSize 时才按批读取，否则一次读入全部结果
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(FETCH_SIZE);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.transactionTemplate.setTimeout((int) timeout.toSeconds());
+        this.objectMapper = objectMapper;
+        this.slots = new Semaphore(maxConcurrent);
+    }
+
+    @Override
+    public StreamingResponseBody exportWorkspace(User user) {
+        if (!slots.tryAcquire()) {
+            throw new TooManyRequestsException("当前导出任务过多，请稍后重试");
+        }
+        // 导出和异步请求结束回调中先执行的一方负责释放名额
+        AtomicBoolean claimed = new AtomicBoolean();
+        releaseIfNotStarted(claimed);
+        Long userId = user.getUserId();
+        String username = user.getUsername();
+        return out -> {
+            if (!claimed.compareAndSet(false, true)) {
+                log.debug("异步请求已结束，不再导出，用户ID: {}", userId);
+                return;
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> writeWorkspace(userId, username, out));
+            } catch (UncheckedIOException e) {
+                log.debug("导出中断，客户端可能已断开: {}", e.getMessage());
+                throw e.getCause();
+            } catch (RuntimeException e) {
+                // 响应头已经发出，无法再返回错误状态码；不写 end 行，客户端据此判断导出不完整
+                log.error("工作区导出失败，用户ID: {}", userId, e);
+            } finally {
+                slots.release();
+            }
+        };
+    }
+
+    /**
+     * 异步请求结束时导出尚未开始，则释放名额
+     * 不在 Web 请求中调用时（没有异步请求）不注册，由调用方执行响应体
+     */
+    private void releaseIfNotStarted(AtomicBoolean claimed) {
+        if (!(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes)) {
+            return;
+        }
+        WebAsyncUtils.getAsyncManager(attributes.getRequest()).registerCallableInterceptor(
+                WorkspaceExportServiceImpl.class.getName(), new CallableProcessingInterceptor() {
+                    @Override
+                    public <T> void afterCompletion(NativeWebRequest request, Callable<T> task) {
+                        if (claimed.compareAndSet(false, true)) {
+                            log.debug("异步请求在导出开始前结束，释放导出名额");
+                            slots.release();
+                        }
+                    }
+                });
+    }
+
+    private void writeWorkspace(Long userId, String username, OutputStream out) {
+        try (JsonGenerator gen = objectMapper.getFactory().createGenerator(out)) {
+            gen.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // 每行一个 JSON 对象，行之间不加默认的空格分隔符
+            gen.setRootValueSeparator(null);
+
+            gen.writeStartObject();
+            gen.writeStringField("type", "export");
+            gen.writeNumberField("format_version", FORMAT_VERSION);
+            gen.writeStringField("exported_at", Instant.now().toString());
+            gen.writeStringField("username", username);
+            endLine(gen);
+
+            long channels = writeRows(CHANNELS_SQL, userId, gen, (rs, g) -> {
+                g.writeStringField("type", "channel");
+                writeLong(g, "channel_id", rs, "channel_id");
+                g.writeStringField("channel_name", rs.getString("channel_name"));
+                writeTimestamp(g, "created_at", rs, "created_at");
+            });
+            long categories = writeRows(CATEGORIES_SQL, userId, gen, (rs, g) -> {
+                g.writeStringField("type", "category");
+                writeLong(g, "category_id", rs, "category_id");
+                g.writeStringField("category_name", rs.getString("category_name"));
+                writeTimestamp(g, "created_at", rs, "created_at");
+            });
+
+            ScriptRowHandler scripts = new ScriptRowHandler(gen);
+            jdbcTemplate.query(SCRIPTS_SQL, scripts, userId);
+
+            long mindMaps = writeRows(MIND_MAPS_SQL, userId, gen, (rs, g) -> {
+                g.writeStringField("type", "mind_map");
+                writeLong(g, "mind_map_id", rs, "mind_map_id");
+                g.writeStringField("title", rs.getString("title"));
+                g.writeStringField("description", rs.getString("description"));
+                // JSONB 原样输出，不在内存中解析
+                writeRawJson(g, "nodes_data", rs.getString("nodes_data"));
+                writeRawJson(g, "edges_data", rs.getString("edges_data"));
+                writeLocalDateTime(g, "created_at", rs, "created_at");
+                writeLocalDateTime(g, "updated_at", rs, "updated_at");
+            });
+
+            gen.writeStartObject();
+            gen.writeStringField("type", "end");
+            gen.writeObjectFieldStart("counts");
+            gen.writeNumberField("channels", channels);
+            gen.writeNumberField("categories", categories);
+            gen.writeNumberField("scripts", scripts.scripts);
+            gen.writeNumberField("chapters", scripts.chapters);
+            gen.writeNumberField("mind_maps", mindMaps);
+            gen.writeEndObject();
+            endLine(gen);
+
+            log.info("工作区导出完成，用户ID: {}，脚本: {}，章节: {}，思维导图: {}",
+                    userId, scripts.scripts, scripts.chapters, mindMaps);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 逐行读取查询结果，每行写出一个 JSON 对象
+     *
+     * @return 写出的行数
+     */
+    private long writeRows(String sql, Long userId, JsonGenerator gen, RowWriter writer) {
+        long[] count = {0};
+        jdbcTemplate.query(sql, (RowCallbackHandler) rs -> {
+            try {
+                gen.writeStartObject();
+                writer.write(rs, gen);
+                endLine(gen);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            count[0]++;
+        }, userId);
+        return count[0];
+    }
+
+    /**
+     * 脚本和章节的连接查询结果：脚本ID变化时先写出脚本行，再写出该行的章节
+     */
+    private static class ScriptRowHandler implements RowCallbackHandler {
+        private final JsonGenerator gen;
+        private long currentScriptId = -1;
+        private long scripts;
+        private long chapters;
+
+        ScriptRowHandler(JsonGenerator gen) {
+            this.gen = gen;
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            try {
+                long scriptId = rs.getLong("script_id");
+                if (scriptId != currentScriptId) {
+                    currentScriptId = scriptId;
+                    scripts++;
+                    gen.writeStartObject();
+                    gen.writeStringField("type", "script");
+                    gen.writeNumberField("script_id", scriptId);
+                    gen.writeStringField("title", rs.getString("title"));
+                    gen.writeStringField("alternative_title1", rs.getString("alternative_title1"));
+                    gen.writeStringField("description", rs.getString("description"));
+                    gen.writeStringField("status", rs.getString("status"));
+                    writeLong(gen, "difficulty", rs, "difficulty");
+                    LocalDate releaseDate = rs.getObject("release_date", LocalDate.class);
+                    gen.writeStringField("release_date", releaseDate == null ? null : releaseDate.toString());
+                    writeLong(gen, "channel_id", rs, "channel_id");
+                    gen.writeStringField("channel_name", rs.getString("channel_name"));
+                    writeLong(gen, "category_id", rs, "category_id");
+                    gen.writeStringField("category_name", rs.getString("category_name"));
+                    writeTimestamp(gen, "created_at", rs, "created_at");
+                    writeTimestamp(gen, "updated_at", rs, "updated_at");
+                    endLine(gen);
+                }
+
+                long chapterId = rs.getLong("chapter_id");
+                if (rs.wasNull()) {
+                    return;
+                }
+                chapters++;
+                gen.writeStartObject();
+                gen.writeStringField("type", "chapter");
+                gen.writeNumberField("chapter_id", chapterId);
+                gen.writeNumberField("script_id", scriptId);
+                writeLong(gen, "chapter_number", rs, "chapter_number");
+                gen.writeStringField("title", rs.getString("chapter_title"));
+                gen.writeStringField("content", rs.getString("content"));
+                writeTimestamp(gen, "created_at", rs, "chapter_created_at");
+                writeTimestamp(gen, "updated_at", rs, "chapter_updated_at");
+                endLine(gen);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface RowWriter {
+        void write(ResultSet rs, JsonGenerator gen) throws SQLException, IOException;
+    }
+
+    private static void endLine(JsonGenerator gen) throws IOException {
+        gen.writeEndObject();
+        gen.writeRaw('\n');
+    }
+
+    private static void writeLong(JsonGenerator gen, String field, ResultSet rs, String column)
+            throws SQLException, IOException {
+        long value = rs.getLong(column);
+        if (rs.wasNull()) {
+            gen.writeNullField(field);
+        } else {
+            gen.writeNumberField(field, value);
+        }
+    }
+
+    private static void writeTimestamp(JsonGenerator gen, String field, ResultSet rs, String column)
+            throws SQLException, IOException {
+        OffsetDateTime value = rs.getObject(column, OffsetDateTime.class);
+        gen.writeStringField(field, value == null ? null : value.toInstant().toString());
+    }
+
+    private static void writeLocalDateTime(JsonGenerator gen, String field, ResultSet rs, String column)
+            throws SQLException, IOException {
+        LocalDateTime value = rs.getObject(column, LocalDateTime.class);
+        gen.writeStringField(field, value == null ? null : value.toString());
+    }
+
+    private static void writeRawJson(JsonGenerator gen, String field, String json) throws IOException {
+        gen.writeFieldName(field);
+        if (json == null) {
+            gen.writeNull();
+        } else {
+            gen.writeRawValue(json);
+        }
+    }
+}
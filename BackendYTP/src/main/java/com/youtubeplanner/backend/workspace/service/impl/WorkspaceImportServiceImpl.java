@@ -0,0 +1,573 @@
+/*
+ * 文件名：WorkspaceImportServiceImpl.java
+ * 创建日期：2026年10月18日
+ * 作者：YoutubePlanner Team
+ *
+ * 文件描述：
+ * 工作区导入服务实现类。
+ * 上传的文件先保存为临时文件，再由后台线程导入，请求立即返回任务ID：
+ * 1. 逐行解析 NDJSON（与导出格式相同），校验后通过 COPY 写入事务内的临时暂存表；
+ * 2. 在暂存表上用集合 SQL 校验章节编号，按名称批量匹配或创建频道和分类
+ *    （名称与已删除的频道相同时恢复该频道）；
+ * 3. 预先分配脚本ID，各用一条 INSERT ... SELECT 写入脚本和章节，并更新用户统计计数。
+ * 整个导入在一个事务中完成，任一行出错时不导入任何数据，错误信息带有行号。
+ * 任务状态保存在内存中，完成后保留 workspace.import.job-ttl，只能在当前实例上查询。
+ *
+ * 修改历史：
+ * 2026年10月18日 - 初始版本
+ *
+ * 版权所有 (c) 2026 YoutubePlanner
+ */
+
+package com.youtubeplanner.backend.workspace.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.youtubeplanner.backend.common.exception.TooManyRequestsException;
+import com.youtubeplanner.backend.user.entity.User;
+import com.youtubeplanner.backend.user.service.UserStatsService;
+import com.youtubeplanner.backend.workspace.dto.ImportJobResponse;
+import com.youtubeplanner.backend.workspace.dto.ImportJobStatus;
+import com.youtubeplanner.backend.workspace.service.WorkspaceImportService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import javax.sql.DataSource;
+import java.io.BufferedReader;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+@Service
+public class WorkspaceImportServiceImpl implements WorkspaceImportService {
+    private static final int MAX_TITLE_LENGTH = 255;
+    private static final int MAX_STATUS_LENGTH = 50;
+    private static final int MAX_CHANNEL_NAME_LENGTH = 255;
+    private static final int MAX_CATEGORY_NAME_LENGTH = 100;
+
+    // 暂存表只在导入事务内存在，提交或回滚时自动删除；并发的导入使用各自连接上的临时表，互不影响
+    private static final String CREATE_STAGING_SQL =
+            "CREATE TEMP TABLE import_staging (" +
+            "    line_no BIGINT NOT NULL," +
+            "    kind TEXT NOT NULL," +
+            "    script_key BIGINT," +
+            "    title TEXT," +
+            "    alternative_title1 TEXT," +
+            "    description TEXT," +
+            "    status TEXT," +
+            "    difficulty INTEGER," +
+            "    release_date DATE," +
+            "    channel_name TEXT," +
+            "    category_name TEXT," +
+            "    chapter_number INTEGER," +
+            "    content TEXT," +
+            "    created_at TIMESTAMPTZ," +
+            "    updated_at TIMESTAMPTZ," +
+            "    script_id BIGINT" +
+            ") ON COMMIT DROP";
+
+    private static final String COPY_SQL =
+            "COPY import_staging (line_no, kind, script_key, title, alternative_title1, description, status, " +
+            "difficulty, release_date, channel_name, category_name, chapter_number, content, created_at, updated_at) " +
+            "FROM STDIN (FORMAT csv)";
+
+    private static final String DUPLICATE_CHAPTER_SQL =
+            "SELECT MAX(line_no) FROM import_staging WHERE kind = 'chapter' " +
+            "GROUP BY script_key, chapter_number HAVING COUNT(*) > 1 ORDER BY 1 LIMIT 1";
+
+    // 频道名称有唯一约束（包含已删除的频道），与已删除频道同名时恢复该频道
+    private static final String RESTORE_CHANNELS_SQL =
+            "UPDATE channels c SET deleted = FALSE " +
+            "WHERE c.user_id = ? AND c.deleted = TRUE " +
+            "AND c.channel_name IN (SELECT channel_name FROM import_staging WHERE channel_name IS NOT NULL)";
+
+    private static final String INSERT_CHANNELS_SQL =
+            "INSERT INTO channels (channel_name, user_id) " +
+            "SELECT DISTINCT channel_name, CAST(? AS BIGINT) FROM import_staging WHERE channel_name IS NOT NULL " +
+            "ON CONFLICT (user_id, channel_name) DO NOTHING";
+
+    private static final String INSERT_CATEGORIES_SQL =
+            "INSERT INTO categories (category_name, user_id) " +
+            "SELECT DISTINCT s.category_name, CAST(? AS BIGINT) FROM import_staging s " +
+            "WHERE s.category_name IS NOT NULL " +
+            "AND NOT EXISTS (SELECT 1 FROM categories c WHERE c.user_id = ? AND c.category_name = s.category_name)";
+
+    // 先分配脚本ID，章节才能直接关联到新脚本
+    private static final String ASSIGN_SCRIPT_IDS_SQL =
+            "UPDATE import_staging SET script_id = nextval('scripts_script_id_seq') WHERE kind = 'script'";
+
+    // 分类名称没有唯一约束，同名分类取ID最小的一个
+    private static final String INSERT_SCRIPTS_SQL =
+            "INSERT INTO scripts (script_id, title, alternative_title1, description, status, difficulty, release_date, " +
+            "                     user_id, channel_id, category_id, created_at, updated_at, version) " +
+            "SELECT s.script_id, s.title, s.alternative_title1, s.description, s.status, s.difficulty, s.release_date, " +
+            "       CAST(? AS BIGINT), ch.channel_id, cat.category_id, " +
+            "       COALESCE(s.created_at, CURRENT_TIMESTAMP), COALESCE(s.updated_at, CURRENT_TIMESTAMP), 0 " +
+            "FROM import_staging s " +
+            "LEFT JOIN channels ch ON ch.user_id = ? AND ch.channel_name = s.channel_name " +
+            "LEFT JOIN (SELECT category_name, MIN(category_id) AS category_id FROM categories " +
+            "           WHERE user_id = ? GROUP BY category_name) cat ON cat.category_name = s.category_name " +
+            "WHERE s.kind = 'script'";
+
+    private static final String INSERT_CHAPTERS_SQL =
+            "INSERT INTO script_chapters (script_id, chapter_number, title, content, created_at, updated_at) " +
+            "SELECT p.script_id, c.chapter_number, c.title, c.content, " +
+            "       COALESCE(c.created_at, CURRENT_TIMESTAMP), COALESCE(c.updated_at, CURRENT_TIMESTAMP) " +
+            "FROM import_staging c " +
+            "JOIN import_staging p ON p.kind = 'script' AND p.script_key = c.script_key " +
+            "WHERE c.kind = 'chapter'";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final UserStatsService userStatsService;
+    private final ThreadPoolExecutor executor;
+    private final Map<String, ImportJob> jobs = new ConcurrentHashMap<>();
+    private final long maxBytes;
+    private final Duration jobTtl;
+
+    public WorkspaceImportServiceImpl(
+            DataSource dataSource,
+            PlatformTransactionManager transactionManager,
+            ObjectMapper objectMapper,
+            UserStatsService userStatsService,
+            @Value("${workspace.import.max-concurrent:1}") int maxConcurrent,
+            @Value("${workspace.import.queue-capacity:10}") int queueCapacity,
+            @Value("${workspace.import.max-size:100MB}") DataSize maxSize,
+            @Value("${workspace.import.timeout:10m}") Duration timeout,
+            @Value("${workspace.import.job-ttl:1h}") Duration jobTtl) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setTimeout((int) timeout.toSeconds());
+        this.objectMapper = objectMapper;
+        this.userStatsService = userStatsService;
+        this.executor = new ThreadPoolExecutor(maxConcurrent, maxConcurrent, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("workspace-import-"));
+        this.maxBytes = maxSize.toBytes();
+        this.jobTtl = jobTtl;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Override
+    public ImportJobResponse startImport(User user, InputStream content) {
+        purgeFinishedJobs();
+        if (executor.getQueue().remainingCapacity() == 0) {
+            throw new TooManyRequestsException("导入任务排队过多，请稍后重试");
+        }
+
+        Path file = saveUpload(content);
+        ImportJob job;
+        try {
+            job = new ImportJob(UUID.randomUUID().toString(), user.getUserId(), file, Files.size(file));
+        } catch (IOException e) {
+            deleteQuietly(file);
+            throw new UncheckedIOException(e);
+        }
+        jobs.put(job.jobId, job);
+        try {
+            executor.execute(() -> run(job));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.jobId);
+            deleteQuietly(file);
+            throw new TooManyRequestsException("导入任务排队过多，请稍后重试");
+        }
+        log.info("创建导入任务，任务ID: {}，用户ID: {}，文件大小: {}", job.jobId, job.userId, job.totalBytes);
+        return job.toResponse();
+    }
+
+    @Override
+    public ImportJobResponse getJob(Long userId, String jobId) {
+        purgeFinishedJobs();
+        ImportJob job = jobs.get(jobId);
+        if (job == null || !job.userId.equals(userId)) {
+            return null;
+        }
+        return job.toResponse();
+    }
+
+    /**
+     * 将上传内容保存为临时文件，超过大小限制时删除文件并拒绝
+     */
+    private Path saveUpload(InputStream content) {
+        Path file;
+        try {
+            file = Files.createTempFile("workspace-import-", ".ndjson");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        try (OutputStream out = Files.newOutputStream(file)) {
+            byte[] buffer = new byte[64 * 1024];
+            long total = 0;
+            int read;
+            while ((read = content.read(buffer)) != -1) {
+                total += read;
+                if (total > maxBytes) {
+                    throw new RuntimeException("导入文件不能超过 " + DataSize.ofBytes(maxBytes).toMegabytes() + "MB");
+                }
+                out.write(buffer, 0, read);
+            }
+            if (total == 0) {
+                throw new RuntimeException("导入文件为空");
+            }
+            return file;
+        } catch (IOException e) {
+            deleteQuietly(file);
+            throw new UncheckedIOException(e);
+        } catch (RuntimeException e) {
+            deleteQuietly(file);
+            throw e;
+        }
+    }
+
+    private void run(ImportJob job) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> importFile(job));
+            job.complete();
+            log.info("导入完成，任务ID: {}，脚本: {}，章节: {}，新建频道: {}，新建分类: {}",
+                    job.jobId, job.scripts, job.chapters, job.channelsCreated, job.categoriesCreated);
+        } catch (ImportException e) {
+            log.info("导入失败，任务ID: {}，{}", job.jobId, e.getMessage());
+            job.fail(e.getMessage());
+        } catch (RuntimeException e) {
+            log.error("导入失败，任务ID: {}", job.jobId, e);
+            job.fail("导入失败，请检查文件内容后重试");
+        } finally {
+            deleteQuietly(job.file);
+        }
+    }
+
+    private void importFile(ImportJob job) {
+        job.status = ImportJobStatus.STAGING;
+        jdbcTemplate.execute(CREATE_STAGING_SQL);
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            StagingCopyWriter writer = new StagingCopyWriter(
+                    connection.unwrap(PGConnection.class).getCopyAPI().copyIn(COPY_SQL));
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                    new CountingInputStream(Files.newInputStream(job.file), job), StandardCharsets.UTF_8))) {
+                new StagingParser(job, writer).parse(reader);
+                writer.finish();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } finally {
+                writer.cancel();
+            }
+            return null;
+        });
+        // 临时表不会被自动分析，先收集统计信息，后续的连接和分组才能选择合适的计划
+        jdbcTemplate.execute("ANALYZE import_staging");
+
+        List<Long> duplicateLines = jdbcTemplate.queryForList(DUPLICATE_CHAPTER_SQL, Long.class);
+        if (!duplicateLines.isEmpty()) {
+            throw new ImportException(duplicateLines.get(0), "章节编号重复");
+        }
+
+        job.status = ImportJobStatus.INSERTING;
+        Long userId = job.userId;
+        int restoredChannels = jdbcTemplate.update(RESTORE_CHANNELS_SQL, userId);
+        int insertedChannels = jdbcTemplate.update(INSERT_CHANNELS_SQL, userId);
+        int insertedCategories = jdbcTemplate.update(INSERT_CATEGORIES_SQL, userId, userId);
+        jdbcTemplate.update(ASSIGN_SCRIPT_IDS_SQL);
+        int scripts = jdbcTemplate.update(INSERT_SCRIPTS_SQL, userId, userId, userId);
+        int chapters = jdbcTemplate.update(INSERT_CHAPTERS_SQL);
+
+        if (scripts > 0) {
+            userStatsService.scriptsChanged(userId, scripts);
+        }
+        if (restoredChannels + insertedChannels > 0) {
+            userStatsService.channelsChanged(userId, restoredChannels + insertedChannels);
+        }
+        if (insertedCategories > 0) {
+            userStatsService.categoriesChanged(userId, insertedCategories);
+        }
+
+        job.scripts = scripts;
+        job.chapters = chapters;
+        job.channelsCreated = restoredChannels + insertedChannels;
+        job.categoriesCreated = insertedCategories;
+    }
+
+    private void purgeFinishedJobs() {
+        Instant expiredBefore = Instant.now().minus(jobTtl);
+        jobs.values().removeIf(job -> job.finishedAt != null && job.finishedAt.isBefore(expiredBefore));
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("删除导入临时文件失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 逐行解析 NDJSON 并写入暂存表
+     * 每行按 type 区分：channel、category、script（可带 chapters 数组）、chapter；
+     * 没有 type 的行视为 script，export 行检查格式版本，其他类型（如 mind_map、end）跳过。
+     * 章节通过 script_id 关联到文件中的脚本，没有 script_id 时属于它前面最近的脚本。
+     */
+    private class StagingParser {
+        private final ImportJob job;
+        private final StagingCopyWriter writer;
+        // 文件中的频道、分类ID到名称，脚本只带ID时据此取得名称
+        private final Map<Long, String> channelNames = new HashMap<>();
+        private final Map<Long, String> categoryNames = new HashMap<>();
+        // 文件中的脚本ID到暂存表中的脚本键（脚本所在行号）
+        private final Map<Long, Long> scriptKeys = new HashMap<>();
+        private Long currentScriptKey;
+        private long lineNo;
+
+        StagingParser(ImportJob job, StagingCopyWriter writer) {
+            this.job = job;
+            this.writer = writer;
+        }
+
+        void parse(BufferedReader reader) throws IOException, SQLException {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNo++;
+                if (!line.isBlank()) {
+                    parseLine(line);
+                }
+                job.linesProcessed = lineNo;
+            }
+        }
+
+        private void parseLine(String line) throws SQLException {
+            JsonNode node;
+            try {
+                node = objectMapper.readTree(line);
+            } catch (JsonProcessingException e) {
+                throw new ImportException(lineNo, "不是有效的 JSON");
+            }
+            if (!node.isObject()) {
+                throw new ImportException(lineNo, "每行必须是一个 JSON 对象");
+            }
+
+            String type = node.hasNonNull("type") ? node.get("type").asText() : "script";
+            switch (type) {
+                case "export" -> {
+                    if (node.path("format_version").asInt(1) > WorkspaceExportServiceImpl.FORMAT_VERSION) {
+                        throw new ImportException(lineNo, "不支持的导出格式版本");
+                    }
+                }
+                case "channel" -> {
+                    String name = requiredText(node, "channel_name", MAX_CHANNEL_NAME_LENGTH);
+                    remember(channelNames, node, "channel_id", name);
+                    writer.row(lineNo, "channel", null, null, null, null, null, null, null,
+                            name, null, null, null, null, null);
+                }
+                case "category" -> {
+                    String name = requiredText(node, "category_name", MAX_CATEGORY_NAME_LENGTH);
+                    remember(categoryNames, node, "category_id", name);
+                    writer.row(lineNo, "category", null, null, null, null, null, null, null,
+                            null, name, null, null, null, null);
+                }
+                case "script" -> parseScript(node);
+                case "chapter" -> parseChapter(node, scriptKeyOf(node));
+                default -> job.skippedLines++;
+            }
+        }
+
+        private void parseScript(JsonNode node) throws SQLException {
+            long scriptKey = lineNo;
+            Integer difficulty = integer(node, "difficulty");
+            if (difficulty != null && (difficulty < 1 || difficulty > 5)) {
+                throw new ImportException(lineNo, "难度等级必须在1到5之间");
+            }
+            String channelName = optionalText(node, "channel_name", MAX_CHANNEL_NAME_LENGTH);
+            if (channelName == null && node.hasNonNull("channel_id")) {
+                channelName = channelNames.get(node.get("channel_id").asLong());
+            }
+            String categoryName = optionalText(node, "category_name", MAX_CATEGORY_NAME_LENGTH);
+            if (categoryName == null && node.hasNonNull("category_id")) {
+                categoryName = categoryNames.get(node.get("category_id").asLong());
+            }
+
+            writer.row(lineNo, "script", scriptKey,
+                    requiredText(node, "title", MAX_TITLE_LENGTH),
+                    optionalText(node, "alternative_title1", MAX_TITLE_LENGTH),
+                    optionalText(node, "description", Integer.MAX_VALUE),
+                    optionalText(node, "status", MAX_STATUS_LENGTH),
+                    difficulty,
+                    date(node, "release_date"),
+                    channelName,
+                    categoryName,
+                    null,
+                    null,
+                    timestamp(node, "created_at"),
+                    timestamp(node, "updated_at"));
+
+            remember(scriptKeys, node, "script_id", scriptKey);
+            currentScriptKey = scriptKey;
+
+            JsonNode chapters = node.path("chapters");
+            if (chapters.isArray()) {
+                for (JsonNode chapter : chapters) {
+                    parseChapter(chapter, scriptKey);
+                }
+            }
+        }
+
+        private void parseChapter(JsonNode node, long scriptKey) throws SQLException {
+            Integer chapterNumber = integer(node, "chapter_number");
+            if (chapterNumber == null || chapterNumber < 1) {
+                throw new ImportException(lineNo, "章节编号必须大于0");
+            }
+            if (!node.hasNonNull("content")) {
+                throw new ImportException(lineNo, "章节内容不能为空");
+            }
+            writer.row(lineNo, "chapter", scriptKey, optionalText(node, "title", MAX_TITLE_LENGTH),
+                    null, null, null, null, null, null, null,
+                    chapterNumber,
+                    node.get("content").asText(),
+                    timestamp(node, "created_at"),
+                    timestamp(node, "updated_at"));
+        }
+
+        private long scriptKeyOf(JsonNode chapter) {
+            if (chapter.hasNonNull("script_id")) {
+                Long scriptKey = scriptKeys.get(chapter.get("script_id").asLong());
+                if (scriptKey == null) {
+                    throw new ImportException(lineNo, "章节所属的脚本不在文件中或出现在章节之后");
+                }
+                return scriptKey;
+            }
+            if (currentScriptKey == null) {
+                throw new ImportException(lineNo, "章节之前没有脚本");
+            }
+            return currentScriptKey;
+        }
+
+        private <T> void remember(Map<Long, T> map, JsonNode node, String idField, T value) {
+            if (node.hasNonNull(idField)) {
+                map.put(node.get(idField).asLong(), value);
+            }
+        }
+
+        private String requiredText(JsonNode node, String field, int maxLength) {
+            String value = optionalText(node, field, maxLength);
+            if (value == null || value.isBlank()) {
+                throw new ImportException(lineNo, field + " 不能为空");
+            }
+            return value;
+        }
+
+        private String optionalText(JsonNode node, String field, int maxLength) {
+            if (!node.hasNonNull(field)) {
+                return null;
+            }
+            String value = node.get(field).asText();
+            if (value.length() > maxLength) {
+                throw new ImportException(lineNo, field + " 长度不能超过" + maxLength + "个字符");
+            }
+            return value;
+        }
+
+        private Integer integer(JsonNode node, String field) {
+            if (!node.hasNonNull(field)) {
+                return null;
+            }
+            JsonNode value = node.get(field);
+            if (!value.canConvertToInt() || !value.isIntegralNumber()) {
+                throw new ImportException(lineNo, field + " 必须是整数");
+            }
+            return value.asInt();
+        }
+
+        private LocalDate date(JsonNode node, String field) {
+            if (!node.hasNonNull(field)) {
+                return null;
+            }
+            try {
+                return LocalDate.parse(node.get(field).asText());
+            } catch (DateTimeParseException e) {
+                throw new ImportException(lineNo, field + " 不是有效的日期（YYYY-MM-DD）");
+            }
+        }
+
+        private Instant timestamp(JsonNode node, String field) {
+            if (!node.hasNonNull(field)) {
+                return null;
+            }
+            try {
+                return Instant.parse(node.get(field).asText());
+            } catch (DateTimeParseException e) {
+                throw new ImportException(lineNo, field + " 不是有效的 UTC 时间");
+            }
+        }
+    }
+
+    /**
+     * 文件内容错误，消息带有行号，直接作为任务的失败原因返回
+     */
+    private static class ImportException extends RuntimeException {
+        ImportException(long lineNo, String message) {
+            super("第 " + lineNo + " 行: " + message);
+        }
+    }
+
+    /**
+     * 统计已读取的字节数，用于计算导入进度
+     */
+    private static class CountingInputStream extends FilterInputStream {
+        private final ImportJob job;
+
+        CountingInputStream(InputStream in, ImportJob job) {
+            super(in);
+            this.job = job;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) {
+                job.bytesRead++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int read = super.read(b, off, len);
+            if (read > 0) {
+                job.bytesRead += read;
+            }
+            return read;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+-- 用户统计计数表：脚本、频道、分类、思维导图数量随创建和删除在同一事务中增减，
+-- 读取用户信息时按主键查询一行，不再每次执行 COUNT 查询；定时对账任务修复偏差
+CREATE TABLE IF NOT EXISTS user_stats (
+    user_id BIGINT PRIMARY KEY REFERENCES users(user_id) ON DELETE CASCADE,
+    script_count BIGINT NOT NULL DEFAULT 0,
+    channel_count BIGINT NOT NULL DEFAULT 0,
+    category_count BIGINT NOT NULL DEFAULT 0,
+    mind_map_count BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP WITHOUT TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- 按现有数据初始化计数（频道和思维导图只统计未删除的）
+INSERT INTO user_stats (user_id, script_count, channel_count, category_count, mind_map_count)
+SELECT u.user_id,
+       (SELECT COUNT(*) FROM scripts s WHERE s.user_id = u.user_id),
+       (SELECT COUNT(*) FROM channels c WHERE c.user_id = u.user_id AND c.deleted = FALSE),
+       (SELECT COUNT(*) FROM categories ca WHERE ca.user_id = u.user_id),
+       (SELECT COUNT(*) FROM mind_maps m WHERE m.user_id = u.user_id AND m.is_deleted = FALSE)
+FROM users u
+ON CONFLICT (user_id) DO NOTHING;
@@ -0,0 +1,3 @@
+-- 章节主键改为由 Hibernate 按序列批量预取（allocationSize = 50），
+-- 插入章节时可以使用 JDBC 批处理；序列步长需与实体上的 allocationSize 一致
+ALTER SEQUENCE script_chapters_chapter_id_seq INCREMENT BY 50;
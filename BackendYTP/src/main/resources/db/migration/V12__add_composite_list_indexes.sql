@@ -0,0 +1,47 @@
+-- 列表查询的复合索引：按 (user_id, 排序列, 主键) 建立，与列表的排序（排序列 + 主键，见
+-- GetScriptsRequest.toPageRequest 和 ScriptRepositoryImpl.SORTS）对应，按索引顺序读取前 N 行，
+-- 不需要取出用户的全部脚本再排序。覆盖范围（由 ScriptQueryPlanTest 检查执行计划）：
+-- - 不带过滤条件时，每种排序的分页和游标分页，升序和降序都走索引；降序是倒序扫描，
+--   所以排序列为空的行升序时在最后、降序时在最前，查询的空值顺序与此一致；
+-- - 按状态、频道、分类过滤时只有默认排序（创建时间）有对应的索引，按难度过滤配合按难度排序、
+--   按发布日期范围过滤配合按发布日期排序也走索引；其他过滤条件和排序的组合会先过滤再排序；
+-- - 游标分页剩余的行不足两页时，规划器可能直接取出剩余的行排序
+
+-- 脚本：每种排序一个索引，难度同时覆盖“按难度过滤 + 按难度排序”
+CREATE INDEX IF NOT EXISTS idx_scripts_user_created_at ON scripts (user_id, created_at, script_id);
+CREATE INDEX IF NOT EXISTS idx_scripts_user_updated_at ON scripts (user_id, updated_at, script_id);
+CREATE INDEX IF NOT EXISTS idx_scripts_user_release_date ON scripts (user_id, release_date, script_id);
+CREATE INDEX IF NOT EXISTS idx_scripts_user_difficulty ON scripts (user_id, difficulty, script_id);
+CREATE INDEX IF NOT EXISTS idx_scripts_user_title ON scripts (user_id, title, script_id);
+
+-- 脚本：按状态过滤（看板、列表筛选），按默认排序（创建时间）读取
+CREATE INDEX IF NOT EXISTS idx_scripts_user_status_created_at ON scripts (user_id, status, created_at, script_id);
+
+-- 脚本：按频道、分类过滤；频道和分类只属于一个用户，不需要再带 user_id。
+-- 同时用于删除频道/分类时的外键检查，替代原来的单列索引
+CREATE INDEX IF NOT EXISTS idx_scripts_channel_created_at ON scripts (channel_id, created_at, script_id);
+CREATE INDEX IF NOT EXISTS idx_scripts_category_created_at ON scripts (category_id, created_at, script_id);
+
+-- 章节总是按脚本读取并按章节编号排序
+CREATE INDEX IF NOT EXISTS idx_script_chapters_script_number ON script_chapters (script_id, chapter_number);
+
+-- 分类：列表支持按创建时间和名称排序，按名称匹配也用于导入
+CREATE INDEX IF NOT EXISTS idx_categories_user_created_at ON categories (user_id, created_at, category_id);
+CREATE INDEX IF NOT EXISTS idx_categories_user_name ON categories (user_id, category_name, category_id);
+
+-- 频道和思维导图：查询只读取未删除的数据，使用部分索引，已删除的行不占索引空间。
+-- 频道按名称排序由唯一约束 uq_user_channel_name 的索引支持
+CREATE INDEX IF NOT EXISTS idx_channels_user_created_at_active ON channels (user_id, created_at, channel_id)
+    WHERE deleted = FALSE;
+CREATE INDEX IF NOT EXISTS idx_mind_maps_user_updated_at_active ON mind_maps (user_id, updated_at, mind_map_id)
+    WHERE is_deleted = FALSE;
+
+-- 被以上复合索引覆盖（是其前缀）或选择性过低的索引，删除以减少写入开销
+DROP INDEX IF EXISTS idx_scripts_user_id;
+DROP INDEX IF EXISTS idx_scripts_channel_id;
+DROP INDEX IF EXISTS idx_scripts_category_id;
+DROP INDEX IF EXISTS idx_script_chapters_script_id;
+DROP INDEX IF EXISTS idx_categories_user_id;
+DROP INDEX IF EXISTS idx_channels_user_id;
+DROP INDEX IF EXISTS idx_channels_deleted;
+DROP INDEX IF EXISTS idx_mind_maps_user_id_deleted;
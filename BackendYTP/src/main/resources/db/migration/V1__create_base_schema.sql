@@ -0,0 +1,68 @@
+-- 基础表结构：用户、频道、分类、脚本、章节（V2 之前的状态）
+-- 只在空数据库上执行；已有数据库由 Flyway 按 spring.flyway.baseline-version 建立基线，不会执行此脚本
+CREATE TABLE IF NOT EXISTS users (
+    user_id BIGINT GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
+    username VARCHAR(255) NOT NULL UNIQUE,
+    password_hash VARCHAR(255) NOT NULL,
+    email VARCHAR(255) UNIQUE,
+    created_at TIMESTAMP WITHOUT TIME ZONE DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP WITHOUT TIME ZONE,
+    avatar_url VARCHAR(500),
+    display_name VARCHAR(255),
+    role VARCHAR(50) CHECK (role::text = ANY (ARRAY['USER'::character varying, 'ADMIN'::character varying]::text[]))
+);
+
+CREATE TABLE IF NOT EXISTS channels (
+    channel_id BIGSERIAL PRIMARY KEY,
+    channel_name VARCHAR(255) NOT NULL,
+    user_id BIGINT NOT NULL,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    deleted BOOLEAN NOT NULL DEFAULT FALSE,
+    CONSTRAINT fk_channel_user FOREIGN KEY (user_id) REFERENCES users(user_id),
+    CONSTRAINT uq_user_channel_name UNIQUE (user_id, channel_name)
+);
+
+CREATE TABLE IF NOT EXISTS categories (
+    category_id BIGSERIAL PRIMARY KEY,
+    category_name VARCHAR(100) NOT NULL,
+    user_id BIGINT NOT NULL,
+    created_at TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT fk_category_user FOREIGN KEY (user_id) REFERENCES users(user_id)
+);
+
+CREATE TABLE IF NOT EXISTS scripts (
+    script_id BIGSERIAL PRIMARY KEY,
+    title VARCHAR(255) NOT NULL,
+    alternative_title1 VARCHAR(255),
+    description TEXT,
+    user_id BIGINT NOT NULL,
+    channel_id BIGINT,
+    category_id BIGINT,
+    status VARCHAR(50),
+    difficulty INTEGER,
+    release_date DATE,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT fk_script_user FOREIGN KEY (user_id) REFERENCES users(user_id),
+    CONSTRAINT fk_script_channel FOREIGN KEY (channel_id) REFERENCES channels(channel_id),
+    CONSTRAINT fk_script_category FOREIGN KEY (category_id) REFERENCES categories(category_id)
+);
+
+CREATE TABLE IF NOT EXISTS script_chapters (
+    chapter_id BIGSERIAL PRIMARY KEY,
+    script_id BIGINT NOT NULL,
+    chapter_number INTEGER NOT NULL,
+    title VARCHAR(255),
+    content TEXT NOT NULL,
+    created_at TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT script_chapters_video_script_id_fkey FOREIGN KEY (script_id) REFERENCES scripts(script_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_channels_user_id ON channels(user_id);
+CREATE INDEX IF NOT EXISTS idx_channels_deleted ON channels(deleted);
+CREATE INDEX IF NOT EXISTS idx_categories_user_id ON categories(user_id);
+CREATE INDEX IF NOT EXISTS idx_scripts_user_id ON scripts(user_id);
+CREATE INDEX IF NOT EXISTS idx_scripts_channel_id ON scripts(channel_id);
+CREATE INDEX IF NOT EXISTS idx_scripts_category_id ON scripts(category_id);
+CREATE INDEX IF NOT EXISTS idx_script_chapters_script_id ON script_chapters(script_id);
@@ -0,0 +1,27 @@
+-- 脚本全文搜索索引
+-- search_vector 为生成列，由数据库在写入时自动维护，应用代码无需处理
+-- 使用 simple 配置，不做词干处理，中英文关键词都按原样匹配
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+ALTER TABLE scripts
+ADD COLUMN IF NOT EXISTS search_vector tsvector
+GENERATED ALWAYS AS (
+    setweight(to_tsvector('simple', coalesce(title, '')), 'A') ||
+    setweight(to_tsvector('simple', coalesce(alternative_title1, '')), 'A') ||
+    setweight(to_tsvector('simple', coalesce(description, '')), 'B')
+) STORED;
+
+ALTER TABLE script_chapters
+ADD COLUMN IF NOT EXISTS search_vector tsvector
+GENERATED ALWAYS AS (
+    setweight(to_tsvector('simple', coalesce(title, '')), 'B') ||
+    setweight(to_tsvector('simple', coalesce(content, '')), 'C')
+) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_scripts_search_vector ON scripts USING GIN (search_vector);
+CREATE INDEX IF NOT EXISTS idx_script_chapters_search_vector ON script_chapters USING GIN (search_vector);
+
+-- 三元组索引：支持不分词的子串匹配（LIKE '%关键词%'），中文等没有空格分词的内容依赖此索引
+CREATE INDEX IF NOT EXISTS idx_scripts_title_trgm ON scripts USING GIN (lower(title) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_scripts_description_trgm ON scripts USING GIN (lower(description) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_script_chapters_content_trgm ON script_chapters USING GIN (lower(content) gin_trgm_ops);
@@ -0,0 +1,3 @@
+-- 为脚本和思维导图添加乐观锁版本号，同时作为 ETag 使用
+ALTER TABLE scripts ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE mind_maps ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
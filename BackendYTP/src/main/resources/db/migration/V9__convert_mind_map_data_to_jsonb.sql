@@ -0,0 +1,27 @@
+-- 思维导图节点和连线数据改为 JSONB 存储，支持在数据库中按元素增量修改
+-- 旧数据为空时保持 NULL；无法解析或不是数组的数据前端也无法加载，统一置为空数组
+CREATE OR REPLACE FUNCTION pg_temp.mind_map_elements(data TEXT) RETURNS JSONB AS $$
+BEGIN
+    IF data IS NULL OR btrim(data) = '' THEN
+        RETURN NULL;
+    END IF;
+    IF jsonb_typeof(data::jsonb) = 'array' THEN
+        RETURN data::jsonb;
+    END IF;
+    RETURN '[]'::jsonb;
+EXCEPTION WHEN invalid_text_representation THEN
+    RETURN '[]'::jsonb;
+END;
+$$ LANGUAGE plpgsql;
+
+-- 由 init-db.sql 创建的数据库已经是 JSONB，建立迁移基线后会重新执行本脚本，此时跳过转换
+DO $$
+BEGIN
+    IF (SELECT data_type FROM information_schema.columns
+        WHERE table_schema = current_schema() AND table_name = 'mind_maps' AND column_name = 'nodes_data') <> 'jsonb' THEN
+        ALTER TABLE mind_maps
+            ALTER COLUMN nodes_data TYPE JSONB USING pg_temp.mind_map_elements(nodes_data),
+            ALTER COLUMN edges_data TYPE JSONB USING pg_temp.mind_map_elements(edges_data);
+    END IF;
+END;
+$$;
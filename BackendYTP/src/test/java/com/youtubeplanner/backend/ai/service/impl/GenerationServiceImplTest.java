@@ -0,0 +1,281 @@
+/*
+ * 文件名：GenerationServiceImplTest.java
+ * 创建日期：2026年10月18日
+ * 作者：YoutubePlanner Team
+ *
+ * 文件描述：
+ * 流式生成接口测试。在本机启动一个模拟大模型接口（OpenAI 兼容格式）的 HTTP 服务，
+ * 通过 MockMvc 调用生成接口，检查 delta/done/error 事件的转发、上游错误、连接失败、
+ * 每个用户的并发限制，以及客户端断开后释放并发名额。
+ *
+ * 修改历史：
+ * 2026年10月18日 - 初始版本
+ *
+ * 版权所有 (c) 2026 YoutubePlanner
+ */
+
+package com.youtubeplanner.backend.ai.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.youtubeplanner.backend.ai.controller.GenerationController;
+import com.youtubeplanner.backend.common.exception.GlobalExceptionHandler;
+import com.youtubeplanner.backend.config.HttpClientConfig;
+import com.youtubeplanner.backend.user.entity.Role;
+import com.youtubeplanner.backend.user.entity.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.method.annotation.AuthenticationPrincipalArgumentResolver;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class GenerationServiceImplTest {
+
+    private static final String SECRET = "internal-detail-7f3a";
+
+    private HttpServer stub;
+    private ExecutorService stubExecutor;
+    private final CountDownLatch releaseHeld = new CountDownLatch(1);
+    private final AtomicInteger okCalls = new AtomicInteger();
+    private final AtomicInteger heldCalls = new AtomicInteger();
+    private MockMvc mockMvc;
+    private User user;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        stub = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        stubExecutor = Executors.newCachedThreadPool();
+        stub.setExecutor(stubExecutor);
+        stub.createContext("/ok", exchange -> {
+            okCalls.incrementAndGet();
+            streamLines(exchange, List.of(
+                    delta("Hello"),
+                    ": keep-alive",
+                    delta(", world"),
+                    "data: [DONE]"));
+        });
+        stub.createContext("/error-event", exchange -> streamLines(exchange, List.of(
+                delta("partial"),
+                "data: {\"error\":{\"message\":\"" + SECRET + "\"}}")));
+        stub.createContext("/unauthorized", exchange ->
+                respond(exchange, 401, "{\"error\":{\"message\":\"" + SECRET + "\"}}"));
+        stub.createContext("/redirect", exchange -> {
+            exchange.getResponseHeaders().add("Location", baseUrl("/ok") + "/v1/chat/completions");
+            respond(exchange, 302, "");
+        });
+        stub.createContext("/hold", exchange -> {
+            heldCalls.incrementAndGet();
+            exchange.getResponseHeaders().add("Content-Type", "text/event-stream");
+            exchange.sendResponseHeaders(200, 0);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write((delta("waiting") + "\n\n").getBytes(StandardCharsets.UTF_8));
+                out.flush();
+                releaseHeld.await(30, TimeUnit.SECONDS);
+                out.write("data: [DONE]\n\n".getBytes(StandardCharsets.UTF_8));
+            } catch (IOException | InterruptedException e) {
+                // 客户端取消请求
+            }
+        });
+        stub.start();
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        GenerationServiceImpl service = new GenerationServiceImpl(
+                new HttpClientConfig().llmHttpClient(Duration.ofSeconds(2)),
+                new ObjectMapper(),
+                new GenerationLimiter(2, 50, meterRegistry),
+                new GenerationCache(Duration.ofMinutes(1), 100, "", Duration.ofDays(1), meterRegistry),
+                new LlmEndpointValidator(List.of("127.0.0.1")),
+                Duration.ofSeconds(5),
+                Duration.ofSeconds(30));
+        mockMvc = MockMvcBuilders.standaloneSetup(new GenerationController(service))
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .setCustomArgumentResolvers(new AuthenticationPrincipalArgumentResolver())
+                .build();
+
+        user = User.builder()
+                .userId(42L)
+                .username("generator")
+                .role(Role.USER)
+                .apiProvider("openai")
+                .apiKey("test-key")
+                .apiModel("stub-model")
+                .build();
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        releaseHeld.countDown();
+        SecurityContextHolder.clearContext();
+        stub.stop(0);
+        stubExecutor.shutdownNow();
+    }
+
+    @Test
+    void relaysDeltaAndDoneEvents() throws Exception {
+        user.setApiBaseUrl(baseUrl("/ok"));
+
+        String body = completedStream(start());
+
+        assertThat(body).isEqualTo(
+                "event:delta\ndata:{\"content\":\"Hello\"}\n\n"
+                        + "event:delta\ndata:{\"content\":\", world\"}\n\n"
+                        + "event:done\ndata:{}\n\n");
+    }
+
+    @Test
+    void relaysInStreamErrorWithoutUpstreamMessage() throws Exception {
+        user.setApiBaseUrl(baseUrl("/error-event"));
+
+        String body = completedStream(start());
+
+        assertThat(body).startsWith("event:delta\ndata:{\"content\":\"partial\"}\n\n");
+        assertThat(body).endsWith("event:error\ndata:{\"message\":\"上游服务返回错误\"}\n\n");
+        assertThat(body).doesNotContain(SECRET);
+    }
+
+    @Test
+    void reportsUpstreamClientErrorByStatus() throws Exception {
+        user.setApiBaseUrl(baseUrl("/unauthorized"));
+
+        String body = completedStream(start());
+
+        assertThat(body).startsWith("event:error\n");
+        assertThat(body).contains("HTTP 401").contains("API密钥无效或没有权限");
+        assertThat(body).doesNotContain(SECRET);
+    }
+
+    @Test
+    void doesNotFollowRedirects() throws Exception {
+        user.setApiBaseUrl(baseUrl("/redirect"));
+
+        String body = completedStream(start());
+
+        assertThat(body).startsWith("event:error\n").contains("HTTP 302");
+        assertThat(okCalls).hasValue(0);
+    }
+
+    @Test
+    void reportsConnectFailure() throws Exception {
+        int closedPort;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            closedPort = socket.getLocalPort();
+        }
+        user.setApiBaseUrl("http://127.0.0.1:" + closedPort);
+
+        String body = completedStream(start());
+
+        assertThat(body).isEqualTo("event:error\ndata:{\"message\":\"无法连接到API服务，请检查API基础URL\"}\n\n");
+    }
+
+    @Test
+    void rejectsInternalAddressNotInAllowList() throws Exception {
+        user.setApiBaseUrl("http://localhost:" + stub.getAddress().getPort() + "/ok");
+
+        mockMvc.perform(generateRequest())
+                .andExpect(status().isBadRequest());
+        assertThat(okCalls).hasValue(0);
+    }
+
+    @Test
+    void returns429WhenPerUserLimitReachedAndReleasesOnDisconnect() throws Exception {
+        user.setApiBaseUrl(baseUrl("/hold"));
+        MvcResult first = start();
+        start();
+        awaitHeldCalls(2);
+
+        mockMvc.perform(generateRequest())
+                .andExpect(status().isTooManyRequests());
+
+        // 模拟客户端断开：容器以 IOException 通知异步请求出错
+        MockAsyncContext asyncContext = (MockAsyncContext) first.getRequest().getAsyncContext();
+        for (AsyncListener listener : asyncContext.getListeners()) {
+            listener.onError(new AsyncEvent(asyncContext, new IOException("Broken pipe")));
+        }
+
+        start();
+        awaitHeldCalls(3);
+    }
+
+    private MvcResult start() throws Exception {
+        return mockMvc.perform(generateRequest())
+                .andExpect(request().asyncStarted())
+                .andReturn();
+    }
+
+    private RequestBuilder generateRequest() {
+        return post("/api/v1/ai/generate")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"prompt\":\"hi\",\"noCache\":true}");
+    }
+
+    private String completedStream(MvcResult result) throws Exception {
+        result.getAsyncResult(TimeUnit.SECONDS.toMillis(10));
+        return result.getResponse().getContentAsString(StandardCharsets.UTF_8);
+    }
+
+    private void awaitHeldCalls(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (heldCalls.get() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(heldCalls).hasValue(expected);
+    }
+
+    private String baseUrl(String path) {
+        return "http://127.0.0.1:" + stub.getAddress().getPort() + path;
+    }
+
+    private static String delta(String content) {
+        return "data: {\"choices\":[{\"delta\":{\"content\":\"" + content + "\"}}]}";
+    }
+
+    private static void streamLines(HttpExchange exchange, List<String> lines) throws IOException {
+        exchange.getResponseHeaders().add("Content-Type", "text/event-stream");
+        exchange.sendResponseHeaders(200, 0);
+        try (OutputStream out = exchange.getResponseBody()) {
+            for (String line : lines) {
+                out.write((line + "\n\n").getBytes(StandardCharsets.UTF_8));
+                out.flush();
+            }
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,262 @@
+/*
+ * 文件名：AbstractSqlBudgetIntegrationTest.java
+ * 创建日期：2026年10月18日
+ * 作者：YoutubePlanner Team
+ *
+ * 文件描述：
+ * 接口 SQL 语句数预算的集成测试。以 sql-budget.mode=fail 启动完整应用（嵌入式 PostgreSQL，
+ * Flyway 迁移建表），依次调用 application.properties 中配置了预算的每个接口，检查：
+ * - 请求成功，且 X-SQL-Statistics 中的语句数不超过该接口的预算；
+ * - 没有请求计入 db.request.budget.exceeded；
+ * - 配置了预算的接口全部被调用到（新增预算而没有补充调用时测试失败）。
+ * 子类决定认证用户缓存是否生效（缓存命中时认证不查询用户表，未命中时多一条查询）。
+ *
+ * 修改历史：
+ * 2026年10月18日 - 初始版本
+ *
+ * 版权所有 (c) 2026 YoutubePlanner
+ */
+
+package com.youtubeplanner.backend.common.metrics;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.youtubeplanner.backend.support.PostgresIntegrationTest;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.MockMvcPrint;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.web.method.HandlerMethod;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@AutoConfigureMockMvc(print = MockMvcPrint.NONE)
+abstract class AbstractSqlBudgetIntegrationTest extends PostgresIntegrationTest {
+
+    private static final Pattern STATEMENTS = Pattern.compile("statements=(\\d+)");
+
+    @Autowired
+    protected MockMvc mockMvc;
+
+    @Autowired
+    protected ObjectMapper objectMapper;
+
+    @Autowired
+    protected JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    protected SqlBudgetProperties budgetProperties;
+
+    @Autowired
+    protected MeterRegistry meterRegistry;
+
+    /**
+     * 每个接口实际执行的最大语句数（控制器.方法 -> 语句数，没有响应头的接口记为 -1）
+     */
+    private final Map<String, Integer> observed = new TreeMap<>();
+
+    @Test
+    void everyBudgetedEndpointStaysWithinBudget() throws Exception {
+        String suffix = Long.toString(System.nanoTime(), 36);
+        String username = "b_" + suffix;
+        String adminName = "a_" + suffix;
+
+        // 认证
+        call(null, post("/api/v1/auth/register").content(json(
+                "{'username':'%s','password':'abc12345','email':'%s@example.com'}", username, username)));
+        call(null, post("/api/v1/auth/register").content(json(
+                "{'username':'%s','password':'abc12345','email':'%s@example.com'}", adminName, adminName)));
+        jdbcTemplate.update("UPDATE users SET role = 'ADMIN' WHERE username = ?", adminName);
+        JsonNode tokens = call(null, post("/api/v1/auth/login").content(json(
+                "{'username':'%s','password':'abc12345'}", username))).path("data");
+        String token = tokens.path("accessToken").asText();
+        String refreshToken = tokens.path("refreshToken").asText();
+        String adminToken = call(null, post("/api/v1/auth/login").content(json(
+                "{'username':'%s','password':'abc12345'}", adminName))).path("data").path("accessToken").asText();
+
+        // 当前用户
+        long userId = call(token, get("/api/v1/users/me")).path("data").path("userId").asLong();
+        call(token, put("/api/v1/users/me").content(json("{'email':'%s@example.org'}", username)));
+        call(token, put("/api/v1/users/me/api-config").content(json(
+                "{'apiProvider':'openai','apiKey':'test-key','apiBaseUrl':'http://127.0.0.1:9','apiModel':'stub'}")));
+        call(token, get("/api/v1/users/me/api-config"));
+
+        // 分类和频道
+        long categoryId = call(token, post("/api/v1/categories").content(json("{'category_name':'分类'}")))
+                .path("data").path("category_id").asLong();
+        call(token, get("/api/v1/categories/" + categoryId));
+        call(token, put("/api/v1/categories/" + categoryId).content(json("{'category_name':'分类2'}")));
+        call(token, get("/api/v1/categories"));
+        long channelId = call(token, post("/api/v1/channels").content(json("{'channel_name':'频道'}")))
+                .path("data").path("channel_id").asLong();
+        call(token, get("/api/v1/channels/" + channelId));
+        call(token, put("/api/v1/channels/" + channelId).content(json("{'channel_name':'频道2'}")));
+        call(token, get("/api/v1/channels"));
+
+        // 脚本
+        long scriptId = call(token, post("/api/v1/scripts").content(json(
+                "{'title':'预算脚本','channel_id':%d,'category_id':%d,'chapters':["
+                        + "{'chapter_number':1,'title':'a','content':'第一章'},"
+                        + "{'chapter_number':2,'title':'b','content':'第二章'}]}", channelId, categoryId)))
+                .path("data").path("script_id").asLong();
+        call(token, get("/api/v1/scripts/" + scriptId));
+        call(token, put("/api/v1/scripts/" + scriptId).content(json(
+                "{'title':'预算脚本2','channel_id':%d,'category_id':%d,'chapters':["
+                        + "{'chapter_number':1,'title':'a2','content':'第一章修改'},"
+                        + "{'chapter_number':3,'title':'c','content':'第三章'}]}", channelId, categoryId)));
+        call(token, patch("/api/v1/scripts/" + scriptId + "/chapters").content(json(
+                "{'add':[{'chapter_number':2,'title':'b2','content':'第二章'}]}")));
+        call(token, get("/api/v1/scripts").param("limit", "50"));
+        call(token, get("/api/v1/scripts").param("limit", "50")
+                .param("channel_id", String.valueOf(channelId))
+                .param("category_id", String.valueOf(categoryId))
+                .param("status", "draft"));
+        call(token, get("/api/v1/scripts/search").param("q", "预算"));
+        call(token, get("/api/v1/scripts/test"));
+        call(token, post("/api/v1/scripts/bulk-update").content(json(
+                "{'script_ids':[%d],'status':'draft'}", scriptId)));
+        long secondScriptId = call(token, post("/api/v1/scripts").content(json("{'title':'第二个脚本'}")))
+                .path("data").path("script_id").asLong();
+        call(token, post("/api/v1/scripts/bulk-delete").content(json("{'script_ids':[%d]}", secondScriptId)));
+
+        // 删除
+        call(token, delete("/api/v1/scripts/" + scriptId));
+        call(token, delete("/api/v1/channels/" + channelId));
+        call(token, delete("/api/v1/categories/" + categoryId));
+
+        // 工作区导出和导入（在删除分类之后，否则导入的脚本仍引用该分类）
+        call(token, post("/api/v1/scripts").content(json("{'title':'导出脚本'}")));
+        MvcResult export = perform(token, get("/api/v1/workspace/export"));
+        byte[] exported = mockMvc.perform(asyncDispatch(export))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+        String jobId = call(token, post("/api/v1/workspace/import")
+                .contentType("application/x-ndjson").content(exported))
+                .path("data").path("job_id").asText();
+        awaitImport(token, jobId);
+
+        // 生成：接口地址无法连接，流中返回 error 事件
+        perform(token, post("/api/v1/ai/generate").content(json("{'prompt':'hi','noCache':true}")));
+
+        // 思维导图
+        long mindMapId = call(token, post("/api/v1/mindmaps").content(json("{'title':'导图'}")))
+                .path("data").path("mindMapId").asLong();
+        call(token, get("/api/v1/mindmaps/" + mindMapId));
+        call(token, put("/api/v1/mindmaps/" + mindMapId).content(json("{'title':'导图2'}")));
+        call(token, patch("/api/v1/mindmaps/" + mindMapId).content(json(
+                "{'title':'导图3','nodes':{'add':[{'id':'n1'},{'id':'n2'}]}}")));
+        call(token, get("/api/v1/mindmaps"));
+        call(token, delete("/api/v1/mindmaps/" + mindMapId));
+
+        // 令牌和密码
+        String refreshed = call(null, post("/api/v1/auth/refresh").content(json("{'refreshToken':'%s'}", refreshToken)))
+                .path("data").path("refreshToken").asText();
+        call(token, put("/api/v1/users/me/password").content(json(
+                "{'currentPassword':'abc12345','newPassword':'abc123456'}")));
+        call(null, post("/api/v1/auth/logout").content(json("{'refreshToken':'%s'}", refreshed)));
+
+        // 管理员
+        call(adminToken, get("/api/v1/admin/users").param("search", suffix));
+        call(adminToken, get("/api/v1/admin/users/" + userId));
+        call(adminToken, put("/api/v1/admin/users/" + userId).content(json("{'displayName':'预算用户'}")));
+        call(adminToken, put("/api/v1/admin/users/" + userId + "/role").param("role", "USER"));
+        call(adminToken, delete("/api/v1/admin/users/" + userId));
+
+        assertThat(observed.keySet())
+                .as("配置了 SQL 预算的接口都应在测试中调用")
+                .containsAll(budgetProperties.getEndpoints().keySet());
+    }
+
+    /**
+     * 调用接口，检查请求成功且没有超出语句数预算，返回响应体
+     */
+    private JsonNode call(String token, MockHttpServletRequestBuilder request) throws Exception {
+        MvcResult result = perform(token, request);
+        return objectMapper.readTree(result.getResponse().getContentAsString(StandardCharsets.UTF_8));
+    }
+
+    private MvcResult perform(String token, MockHttpServletRequestBuilder request) throws Exception {
+        if (token != null) {
+            request.header(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+        }
+        double exceededBefore = exceededCount();
+        MvcResult result = mockMvc.perform(request.with(mockRequest -> {
+            if (mockRequest.getContentType() == null) {
+                mockRequest.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            }
+            return mockRequest;
+        })).andReturn();
+
+        String endpoint = endpoint(result);
+        String description = endpoint + " " + result.getResponse().getContentAsString(StandardCharsets.UTF_8);
+        assertThat(result.getResponse().getStatus()).as(description).isBetween(200, 299);
+        // 部分接口出错时仍返回 200，错误放在响应体的 success/code 中
+        String contentType = result.getResponse().getContentType();
+        if (contentType != null && MediaType.APPLICATION_JSON.isCompatibleWith(MediaType.parseMediaType(contentType))) {
+            assertThat(objectMapper.readTree(result.getResponse().getContentAsString(StandardCharsets.UTF_8))
+                    .path("success").asBoolean()).as(description).isTrue();
+        }
+        assertThat(exceededCount()).as(description).isEqualTo(exceededBefore);
+
+        int statements = -1;
+        String header = result.getResponse().getHeader(SqlStatisticsResponseAdvice.HEADER);
+        if (header != null) {
+            Matcher matcher = STATEMENTS.matcher(header);
+            assertThat(matcher.find()).as(header).isTrue();
+            statements = Integer.parseInt(matcher.group(1));
+            int budget = budgetProperties.getEndpoints().getOrDefault(endpoint, budgetProperties.getDefaultBudget());
+            assertThat(statements).as(description).isLessThanOrEqualTo(budget);
+        }
+        observed.merge(endpoint, statements, Math::max);
+        return result;
+    }
+
+    private void awaitImport(String token, String jobId) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        String status;
+        do {
+            Thread.sleep(50);
+            status = call(token, get("/api/v1/workspace/import/" + jobId)).path("data").path("status").asText();
+        } while (!"COMPLETED".equals(status) && !"FAILED".equals(status) && System.nanoTime() < deadline);
+        assertThat(status).isEqualTo("COMPLETED");
+    }
+
+    private double exceededCount() {
+        return meterRegistry.find("db.request.budget.exceeded").counters().stream()
+                .mapToDouble(Counter::count)
+                .sum();
+    }
+
+    private static String endpoint(MvcResult result) {
+        if (result.getHandler() instanceof HandlerMethod handlerMethod) {
+            return handlerMethod.getBeanType().getSimpleName() + "." + handlerMethod.getMethod().getName();
+        }
+        return String.valueOf(result.getHandler());
+    }
+
+    private static String json(String template, Object... args) {
+        return String.format(template, args).replace('\'', '"');
+    }
+}
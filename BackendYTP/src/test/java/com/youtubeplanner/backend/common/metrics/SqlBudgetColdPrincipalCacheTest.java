@@ -0,0 +1,22 @@
+/*
+ * 文件名：SqlBudgetColdPrincipalCacheTest.java
+ * 创建日期：2026年10月18日
+ * 作者：YoutubePlanner Team
+ *
+ * 文件描述：
+ * 认证用户缓存不生效（每个请求都在认证时查询用户表）时各接口的 SQL 语句数预算测试，
+ * 对应服务重启或缓存过期后的第一个请求。
+ *
+ * 修改历史：
+ * 2026年10月18日 - 初始版本
+ *
+ * 版权所有 (c) 2026 YoutubePlanner
+ */
+
+package com.youtubeplanner.backend.common.metrics;
+
+import org.springframework.test.context.TestPropertySource;
+
+@TestPropertySource(properties = "security.principal-cache.ttl=0s")
+class SqlBudgetColdPrincipalCacheTest extends AbstractSqlBudgetIntegrationTest {
+}
@@ -0,0 +1,57 @@
+/*
+ * 文件名：SqlBudgetIntegrationTest.java
+ * 创建日期：2026年10月18日
+ * 作者：YoutubePlanner Team
+ *
+ * 文件描述：
+ * 认证用户缓存生效（默认配置）时各接口的 SQL 语句数预算测试，
+ * 并检查 sql-budget.mode=fail 下超出预算的请求确实失败。
+ *
+ * 修改历史：
+ * 2026年10月18日 - 初始版本
+ *
+ * 版权所有 (c) 2026 YoutubePlanner
+ */
+
+package com.youtubeplanner.backend.common.metrics;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class SqlBudgetIntegrationTest extends AbstractSqlBudgetIntegrationTest {
+
+    @Test
+    void requestExceedingBudgetFails() throws Exception {
+        String username = "x_" + Long.toString(System.nanoTime(), 36);
+        mockMvc.perform(post("/api/v1/auth/register").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"" + username + "\",\"password\":\"abc12345\",\"email\":\""
+                                + username + "@example.com\"}"))
+                .andExpect(status().isCreated());
+        String body = mockMvc.perform(post("/api/v1/auth/login").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"" + username + "\",\"password\":\"abc12345\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        String token = objectMapper.readTree(body).path("data").path("accessToken").asText();
+
+        Map<String, Integer> endpoints = budgetProperties.getEndpoints();
+        Integer budget = endpoints.put("UserController.getCurrentUserInfo", 0);
+        try {
+            mockMvc.perform(get("/api/v1/users/me").header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                    .andExpect(status().isInternalServerError())
+                    .andExpect(jsonPath("$.code").value(500));
+        } finally {
+            endpoints.put("UserController.getCurrentUserInfo", budget);
+        }
+        assertThat(meterRegistry.find("db.request.budget.exceeded")
+                .tag("endpoint", "UserController.getCurrentUserInfo").counter()).isNotNull();
+    }
+}
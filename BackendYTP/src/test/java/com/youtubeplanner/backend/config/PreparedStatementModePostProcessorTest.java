@@ -0,0 +1,67 @@
+/*
+ * 文件名：PreparedStatementModePostProcessorTest.java
+ * 创建日期：2026年10月18日
+ * 作者：YoutubePlanner Team
+ *
+ * 文件描述：
+ * 预处理语句模式测试：auto 模式连接嵌入式 PostgreSQL 时，数据库的监听地址和端口与连接地址一致，使用服务端预处理语句；
+ * 主机名包含 pooler 时不连接数据库直接使用 client；client 模式不检测。
+ *
+ * 修改历史：
+ * 2026年10月18日 - 初始版本
+ *
+ * 版权所有 (c) 2026 YoutubePlanner
+ */
+
+package com.youtubeplanner.backend.config;
+
+import com.youtubeplanner.backend.support.PostgresTestDatabase;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PreparedStatementModePostProcessorTest {
+
+    @Test
+    void autoUsesServerSideStatementsOnDirectConnection() {
+        HikariDataSource dataSource = dataSource(PostgresTestDatabase.jdbcUrl());
+
+        new PreparedStatementModePostProcessor("auto").postProcessBeforeInitialization(dataSource, "dataSource");
+
+        assertThat(dataSource.getDataSourceProperties())
+                .containsEntry("prepareThreshold", "5")
+                .containsEntry("options", "-c plan_cache_mode=force_custom_plan");
+    }
+
+    @Test
+    void autoUsesClientSideStatementsForPoolerHost() {
+        HikariDataSource dataSource = dataSource("jdbc:postgresql://aws-0-eu.pooler.supabase.com:5432/postgres");
+
+        new PreparedStatementModePostProcessor("auto").postProcessBeforeInitialization(dataSource, "dataSource");
+
+        assertThat(dataSource.getDataSourceProperties())
+                .containsEntry("prepareThreshold", "0")
+                .doesNotContainKey("options");
+    }
+
+    @Test
+    void clientModeDoesNotUseServerSideStatements() {
+        HikariDataSource dataSource = dataSource(PostgresTestDatabase.jdbcUrl());
+
+        new PreparedStatementModePostProcessor("client").postProcessBeforeInitialization(dataSource, "dataSource");
+
+        assertThat(dataSource.getDataSourceProperties())
+                .containsEntry("prepareThreshold", "0")
+                .containsEntry("preparedStatementCacheQueries", "0")
+                .doesNotContainKey("options");
+    }
+
+    private static HikariDataSource dataSource(String jdbcUrl) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(jdbcUrl);
+        dataSource.setUsername("postgres");
+        dataSource.setPassword("postgres");
+        return dataSource;
+    }
+}
@@ -0,0 +1,191 @@
+/*
+ * 文件名：MindMapConditionalRequestTest.java
+ * 创建日期：2026年10月18日
+ * 作者：YoutubePlanner Team
+ *
+ * 文件描述：
+ * 思维导图详情和修改接口的条件请求测试：
+ * - If-None-Match 与当前版本一致时返回 304，只查询版本号，不读取节点和连线数据；
+ * - PUT 和 PATCH 携带过期的 If-Match 时返回 412，标题、节点、连线和版本号都不变。
+ *
+ * 修改历史：
+ * 2026年10月18日 - 初始版本
+ *
+ * 版权所有 (c) 2026 YoutubePlanner
+ */
+
+package com.youtubeplanner.backend.mindmap;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.youtubeplanner.backend.support.PostgresIntegrationTest;
+import com.youtubeplanner.backend.support.RecordingDataSource;
+import com.youtubeplanner.backend.support.RecordingDataSource.RecordedStatement;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.MockMvcPrint;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@AutoConfigureMockMvc(print = MockMvcPrint.NONE)
+class MindMapConditionalRequestTest extends PostgresIntegrationTest {
+
+    private static final String NODES = "[{\"id\":\"root\",\"data\":{\"label\":\"根\"}},{\"id\":\"a\",\"data\":{\"label\":\"A\"}}]";
+    private static final String EDGES = "[{\"id\":\"e1\",\"source\":\"root\",\"target\":\"a\"}]";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private String token;
+    private long mindMapId;
+
+    @TestConfiguration
+    static class RecordingConfig {
+        @Bean
+        static BeanPostProcessor recordingDataSourcePostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (bean instanceof DataSource target && !(bean instanceof RecordingDataSource)) {
+                        return new RecordingDataSource(target);
+                    }
+                    return bean;
+                }
+            };
+        }
+    }
+
+    @BeforeEach
+    void setUp() throws Exception {
+        String username = "m_" + Long.toString(System.nanoTime(), 36);
+        mockMvc.perform(post("/api/v1/auth/register").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"" + username + "\",\"password\":\"abc12345\",\"email\":\""
+                                + username + "@example.com\"}"))
+                .andExpect(status().isCreated());
+        String body = mockMvc.perform(post("/api/v1/auth/login").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"" + username + "\",\"password\":\"abc12345\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        token = objectMapper.readTree(body).path("data").path("accessToken").asText();
+
+        MvcResult created = mockMvc.perform(post("/api/v1/mindmaps").contentType(MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                        .content(json(Map.of("title", "原标题", "nodesData", NODES, "edgesData", EDGES))))
+                .andExpect(status().isOk())
+                .andReturn();
+        mindMapId = data(created).path("mindMapId").asLong();
+    }
+
+    @Test
+    void matchingIfNoneMatchReturns304WithoutLoadingNodes() throws Exception {
+        // 第一次请求同时使认证用户进入缓存，之后记录的语句只包含接口本身的查询
+        String etag = mockMvc.perform(detail(null))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(etag).isNotNull();
+
+        List<RecordedStatement> statements = record(detail(etag), 304);
+
+        assertThat(statements).hasSize(1);
+        assertThat(statements.get(0).sql()).doesNotContain("nodes_data").doesNotContain("edges_data");
+    }
+
+    @Test
+    void staleIfMatchOnPutReturns412AndWritesNothing() throws Exception {
+        String etag = mockMvc.perform(detail(null)).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        jdbcTemplate.update("UPDATE mind_maps SET version = version + 1 WHERE mind_map_id = ?", mindMapId);
+        Map<String, Object> before = mindMapRow();
+
+        mockMvc.perform(put("/api/v1/mindmaps/" + mindMapId)
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                        .header(HttpHeaders.IF_MATCH, etag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json(Map.of("title", "基于旧版本的修改", "nodesData", "[]", "edgesData", "[]"))))
+                .andExpect(status().isPreconditionFailed());
+
+        assertThat(mindMapRow()).isEqualTo(before);
+        assertThat(before.get("title")).isEqualTo("原标题");
+    }
+
+    @Test
+    void staleIfMatchOnPatchReturns412AndWritesNothing() throws Exception {
+        String etag = mockMvc.perform(detail(null)).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        jdbcTemplate.update("UPDATE mind_maps SET version = version + 1 WHERE mind_map_id = ?", mindMapId);
+        Map<String, Object> before = mindMapRow();
+
+        mockMvc.perform(patch("/api/v1/mindmaps/" + mindMapId)
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                        .header(HttpHeaders.IF_MATCH, etag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json(Map.of(
+                                "title", "基于旧版本的修改",
+                                "nodes", Map.of("add", List.of(Map.of("id", "b", "data", Map.of("label", "B"))),
+                                        "remove", List.of("a"))))))
+                .andExpect(status().isPreconditionFailed());
+
+        assertThat(mindMapRow()).isEqualTo(before);
+    }
+
+    private RequestBuilder detail(String ifNoneMatch) {
+        var request = get("/api/v1/mindmaps/" + mindMapId).header(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+        if (ifNoneMatch != null) {
+            request.header(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        return request;
+    }
+
+    /**
+     * 执行请求并返回其间执行的 SQL 语句
+     */
+    private List<RecordedStatement> record(RequestBuilder request, int expectedStatus) {
+        return RecordingDataSource.record(() -> {
+            try {
+                MvcResult result = mockMvc.perform(request).andReturn();
+                assertThat(result.getResponse().getStatus()).isEqualTo(expectedStatus);
+                return result;
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+
+    private Map<String, Object> mindMapRow() {
+        return jdbcTemplate.queryForMap("SELECT title, nodes_data::text AS nodes_data, edges_data::text AS edges_data, "
+                + "version, updated_at FROM mind_maps WHERE mind_map_id = ?", mindMapId);
+    }
+
+    private String json(Object value) throws Exception {
+        return objectMapper.writeValueAsString(value);
+    }
+
+    private JsonNode data(MvcResult result) throws Exception {
+        return objectMapper.readTree(result.getResponse().getContentAsString(StandardCharsets.UTF_8)).path("data");
+    }
+}
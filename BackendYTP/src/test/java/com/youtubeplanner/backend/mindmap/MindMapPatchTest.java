@@ -0,0 +1,169 @@
+/*
+ * 文件名：MindMapPatchTest.java
+ * 创建日期：2026年10月18日
+ * 作者：YoutubePlanner Team
+ *
+ * 文件描述：
+ * 思维导图增量更新测试：
+ * - 新增、修改、删除节点和连线后的数据与预期一致，删除节点时相连的连线一并删除；
+ * - 新增已存在的 id、修改不存在的 id、新增连线连接同一请求中删除的节点时返回 400，数据和版本号不变。
+ *
+ * 修改历史：
+ * 2026年10月18日 - 初始版本
+ *
+ * 版权所有 (c) 2026 YoutubePlanner
+ */
+
+package com.youtubeplanner.backend.mindmap;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.youtubeplanner.backend.support.PostgresIntegrationTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.MockMvcPrint;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@AutoConfigureMockMvc(print = MockMvcPrint.NONE)
+class MindMapPatchTest extends PostgresIntegrationTest {
+
+    private static final String NODES = "[{\"id\":\"root\",\"data\":{\"label\":\"根\"}},"
+            + "{\"id\":\"a\",\"data\":{\"label\":\"A\"}},{\"id\":\"b\",\"data\":{\"label\":\"B\"}}]";
+    private static final String EDGES = "[{\"id\":\"e1\",\"source\":\"root\",\"target\":\"a\"},"
+            + "{\"id\":\"e2\",\"source\":\"root\",\"target\":\"b\"}]";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private String token;
+    private long mindMapId;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        String username = "p_" + Long.toString(System.nanoTime(), 36);
+        mockMvc.perform(post("/api/v1/auth/register").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"" + username + "\",\"password\":\"abc12345\",\"email\":\""
+                                + username + "@example.com\"}"))
+                .andExpect(status().isCreated());
+        String body = mockMvc.perform(post("/api/v1/auth/login").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"" + username + "\",\"password\":\"abc12345\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        token = objectMapper.readTree(body).path("data").path("accessToken").asText();
+
+        MvcResult created = mockMvc.perform(post("/api/v1/mindmaps").contentType(MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                        .content(json(Map.of("title", "增量更新", "nodesData", NODES, "edgesData", EDGES))))
+                .andExpect(status().isOk())
+                .andReturn();
+        mindMapId = objectMapper.readTree(created.getResponse().getContentAsString(StandardCharsets.UTF_8))
+                .path("data").path("mindMapId").asLong();
+    }
+
+    @Test
+    void appliesChangesAndDetachesEdgesOfRemovedNodes() throws Exception {
+        patchMindMap(Map.of(
+                "nodes", Map.of(
+                        "add", List.of(Map.of("id", "c", "data", Map.of("label", "C"))),
+                        "update", List.of(Map.of("id", "b", "data", Map.of("label", "B2"))),
+                        "remove", List.of("a")),
+                "edges", Map.of(
+                        "add", List.of(Map.of("id", "e3", "source", "b", "target", "c")))))
+                .andExpect(status().isOk());
+
+        JsonNode nodes = elements("nodes_data");
+        assertThat(ids(nodes)).containsExactly("root", "b", "c");
+        assertThat(nodes.get(1).path("data").path("label").asText()).isEqualTo("B2");
+        assertThat(ids(elements("edges_data"))).containsExactly("e2", "e3");
+        assertThat(version()).isEqualTo(1L);
+    }
+
+    @Test
+    void rejectsAddingExistingId() throws Exception {
+        assertRejected(Map.of("nodes", Map.of(
+                "add", List.of(Map.of("id", "a", "data", Map.of("label", "替换"))))));
+        assertRejected(Map.of("edges", Map.of(
+                "add", List.of(Map.of("id", "e1", "source", "root", "target", "b")))));
+    }
+
+    @Test
+    void rejectsUpdatingMissingId() throws Exception {
+        assertRejected(Map.of("nodes", Map.of(
+                "update", List.of(Map.of("id", "missing", "data", Map.of("label", "X"))))));
+        assertRejected(Map.of("edges", Map.of(
+                "update", List.of(Map.of("id", "missing", "target", "a")))));
+    }
+
+    @Test
+    void rejectsEdgesAttachedToRemovedNodes() throws Exception {
+        assertRejected(Map.of(
+                "nodes", Map.of("remove", List.of("a")),
+                "edges", Map.of("add", List.of(Map.of("id", "e3", "source", "b", "target", "a")))));
+        assertRejected(Map.of(
+                "nodes", Map.of("remove", List.of("a")),
+                "edges", Map.of("update", List.of(Map.of("id", "e2", "source", "a")))));
+    }
+
+    /**
+     * 请求返回 400，节点、连线和版本号都不变
+     */
+    private void assertRejected(Map<String, Object> request) throws Exception {
+        Map<String, Object> before = row();
+        patchMindMap(request).andExpect(status().isBadRequest());
+        assertThat(row()).isEqualTo(before);
+    }
+
+    private ResultActions patchMindMap(Map<String, Object> request) throws Exception {
+        return mockMvc.perform(patch("/api/v1/mindmaps/" + mindMapId)
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(json(request)));
+    }
+
+    private Map<String, Object> row() {
+        return jdbcTemplate.queryForMap("SELECT nodes_data::text AS nodes_data, edges_data::text AS edges_data, version "
+                + "FROM mind_maps WHERE mind_map_id = ?", mindMapId);
+    }
+
+    private JsonNode elements(String column) throws Exception {
+        return objectMapper.readTree(jdbcTemplate.queryForObject(
+                "SELECT " + column + "::text FROM mind_maps WHERE mind_map_id = ?", String.class, mindMapId));
+    }
+
+    private Long version() {
+        return jdbcTemplate.queryForObject("SELECT version FROM mind_maps WHERE mind_map_id = ?", Long.class, mindMapId);
+    }
+
+    private static List<String> ids(JsonNode elements) {
+        List<String> ids = new ArrayList<>();
+        elements.forEach(element -> ids.add(element.path("id").asText()));
+        return ids;
+    }
+
+    private String json(Object value) throws Exception {
+        return objectMapper.writeValueAsString(value);
+    }
+}
@@ -0,0 +1,271 @@
+/*
+ * 文件名：ScriptBulkOperationsTest.java
+ * 创建日期：2026年10月18日
+ * 作者：YoutubePlanner Team
+ *
+ * 文件描述：
+ * 脚本批量操作和章节批量插入测试，记录每次调用执行的 SQL 语句：
+ * - 批量修改、删除中有不存在或属于其他用户的脚本时拒绝整批，不修改任何数据；
+ * - 批量修改对整批只校验一次频道和分类，用一条 UPDATE 修改所有脚本并递增版本号、设置更新时间；
+ * - 批量删除用一条语句删除章节、一条语句删除脚本，用户统计计数按删除的数量减少；
+ * - 创建带大量章节的脚本时，章节ID按序列批量预取（allocationSize 50），章节 INSERT 按批执行。
+ *
+ * 修改历史：
+ * 2026年10月18日 - 初始版本
+ *
+ * 版权所有 (c) 2026 YoutubePlanner
+ */
+
+package com.youtubeplanner.backend.script;
+
+import com.youtubeplanner.backend.common.ApiResponse;
+import com.youtubeplanner.backend.script.dto.BulkDeleteScriptsRequest;
+import com.youtubeplanner.backend.script.dto.BulkScriptsResponse;
+import com.youtubeplanner.backend.script.dto.BulkUpdateScriptsRequest;
+import com.youtubeplanner.backend.script.dto.CreateScriptRequest;
+import com.youtubeplanner.backend.script.dto.ScriptResponse;
+import com.youtubeplanner.backend.script.service.ScriptService;
+import com.youtubeplanner.backend.support.PostgresIntegrationTest;
+import com.youtubeplanner.backend.support.RecordingDataSource;
+import com.youtubeplanner.backend.support.RecordingDataSource.RecordedStatement;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class ScriptBulkOperationsTest extends PostgresIntegrationTest {
+
+    private static final int CHAPTERS = 120;
+    private static final int BATCH_SIZE = 50;
+
+    @Autowired
+    private ScriptService scriptService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long userId;
+    private Long otherUserId;
+    private List<Long> scriptIds;
+    private Long otherScriptId;
+
+    @TestConfiguration
+    static class RecordingConfig {
+        @Bean
+        static BeanPostProcessor recordingDataSourcePostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (bean instanceof DataSource target && !(bean instanceof RecordingDataSource)) {
+                        return new RecordingDataSource(target);
+                    }
+                    return bean;
+                }
+            };
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        userId = insertUser();
+        otherUserId = insertUser();
+        scriptIds = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Long scriptId = insertScript(userId, "脚本" + i);
+            jdbcTemplate.update("INSERT INTO script_chapters (script_id, chapter_number, content) VALUES (?, 1, '内容')",
+                    scriptId);
+            scriptIds.add(scriptId);
+        }
+        otherScriptId = insertScript(otherUserId, "其他用户的脚本");
+        jdbcTemplate.update("INSERT INTO user_stats (user_id, script_count) VALUES (?, 3)", userId);
+    }
+
+    @Test
+    void bulkUpdateRejectsWholeBatchWithForeignOrMissingScript() {
+        Map<Long, Map<String, Object>> before = scriptRows();
+
+        for (Long invalidId : List.of(otherScriptId, Long.MAX_VALUE)) {
+            BulkUpdateScriptsRequest request = new BulkUpdateScriptsRequest();
+            request.setScriptIds(withId(invalidId));
+            request.setStatus("Published");
+
+            ApiResponse<BulkScriptsResponse> response = scriptService.bulkUpdateScripts(request, userId);
+
+            assertThat(response.getCode()).isEqualTo(404);
+            assertThat(response.getMessage()).contains(String.valueOf(invalidId));
+            assertThat(scriptRows()).isEqualTo(before);
+        }
+    }
+
+    @Test
+    void bulkDeleteRejectsWholeBatchWithForeignOrMissingScript() {
+        for (Long invalidId : List.of(otherScriptId, Long.MAX_VALUE)) {
+            BulkDeleteScriptsRequest request = new BulkDeleteScriptsRequest();
+            request.setScriptIds(withId(invalidId));
+
+            ApiResponse<BulkScriptsResponse> response = scriptService.bulkDeleteScripts(request, userId);
+
+            assertThat(response.getCode()).isEqualTo(404);
+            assertThat(count("SELECT COUNT(*) FROM scripts WHERE user_id = ?", userId)).isEqualTo(3);
+            assertThat(count("SELECT COUNT(*) FROM script_chapters c JOIN scripts s ON s.script_id = c.script_id "
+                    + "WHERE s.user_id = ?", userId)).isEqualTo(3);
+            assertThat(scriptCount()).isEqualTo(3);
+        }
+        assertThat(count("SELECT COUNT(*) FROM scripts WHERE user_id = ?", otherUserId)).isEqualTo(1);
+    }
+
+    @Test
+    void bulkUpdateChecksChannelAndCategoryOnceAndBumpsVersionInOneUpdate() {
+        Long channelId = jdbcTemplate.queryForObject(
+                "INSERT INTO channels (channel_name, user_id) VALUES ('频道', ?) RETURNING channel_id", Long.class, userId);
+        Long categoryId = jdbcTemplate.queryForObject(
+                "INSERT INTO categories (category_name, user_id) VALUES ('分类', ?) RETURNING category_id", Long.class, userId);
+        Map<Long, Map<String, Object>> before = scriptRows();
+        BulkUpdateScriptsRequest request = new BulkUpdateScriptsRequest();
+        request.setScriptIds(scriptIds);
+        request.setStatus("Published");
+        request.setChannelId(channelId);
+        request.setCategoryId(categoryId);
+
+        AtomicReference<ApiResponse<BulkScriptsResponse>> response = new AtomicReference<>();
+        List<RecordedStatement> statements = RecordingDataSource.record(
+                () -> {
+                    response.set(scriptService.bulkUpdateScripts(request, userId));
+                    return response.get();
+                });
+
+        assertThat(response.get().isSuccess()).isTrue();
+        assertThat(matching(statements, "\\bchannels\\b")).hasSize(1);
+        assertThat(matching(statements, "\\bcategories\\b")).hasSize(1);
+        assertThat(matching(statements, "^update scripts\\b")).hasSize(1);
+        // 归属校验、频道、分类各一条查询，加一条 UPDATE，与脚本数量无关
+        assertThat(statements).hasSize(4);
+
+        // 数据库按微秒保存时间
+        Instant updatedAt = response.get().getData().getUpdatedAt();
+        scriptRows().forEach((scriptId, row) -> {
+            assertThat((Long) row.get("version")).isEqualTo((Long) before.get(scriptId).get("version") + 1);
+            assertThat(((Timestamp) row.get("updated_at")).toInstant()).isCloseTo(updatedAt, within(1, ChronoUnit.MICROS));
+            assertThat(row.get("status")).isEqualTo("Published");
+            assertThat(row.get("channel_id")).isEqualTo(channelId);
+            assertThat(row.get("category_id")).isEqualTo(categoryId);
+        });
+    }
+
+    @Test
+    void bulkDeleteRemovesScriptsAndChaptersAndAdjustsUserStats() {
+        BulkDeleteScriptsRequest request = new BulkDeleteScriptsRequest();
+        request.setScriptIds(scriptIds.subList(0, 2));
+
+        AtomicReference<ApiResponse<BulkScriptsResponse>> response = new AtomicReference<>();
+        List<RecordedStatement> statements = RecordingDataSource.record(
+                () -> {
+                    response.set(scriptService.bulkDeleteScripts(request, userId));
+                    return response.get();
+                });
+
+        assertThat(response.get().isSuccess()).isTrue();
+        assertThat(matching(statements, "^delete from script_chapters\\b")).hasSize(1);
+        assertThat(matching(statements, "^delete from scripts\\b")).hasSize(1);
+        assertThat(count("SELECT COUNT(*) FROM scripts WHERE user_id = ?", userId)).isEqualTo(1);
+        assertThat(count("SELECT COUNT(*) FROM script_chapters WHERE script_id IN (?, ?)",
+                scriptIds.get(0), scriptIds.get(1))).isZero();
+        assertThat(scriptCount()).isEqualTo(1);
+    }
+
+    @Test
+    void chapterInsertsAreBatched() {
+        CreateScriptRequest request = new CreateScriptRequest();
+        request.setTitle("长脚本");
+        request.setChapters(IntStream.rangeClosed(1, CHAPTERS).mapToObj(number -> {
+            CreateScriptRequest.ChapterRequest chapter = new CreateScriptRequest.ChapterRequest();
+            chapter.setChapterNumber(number);
+            chapter.setContent("第" + number + "章");
+            return chapter;
+        }).toList());
+
+        AtomicReference<ApiResponse<ScriptResponse>> response = new AtomicReference<>();
+        List<RecordedStatement> statements = RecordingDataSource.record(
+                () -> {
+                    response.set(scriptService.createScript(request, userId));
+                    return response.get();
+                });
+
+        assertThat(response.get().isSuccess()).isTrue();
+        // 批处理时每批只执行一次，否则每个章节执行一次
+        assertThat(matching(statements, "^insert into script_chapters\\b"))
+                .hasSize((CHAPTERS + BATCH_SIZE - 1) / BATCH_SIZE);
+        // 每次从序列取得 50 个ID，不是每个章节取一次
+        assertThat(matching(statements, "nextval\\('script_chapters_chapter_id_seq'\\)"))
+                .hasSizeLessThanOrEqualTo(CHAPTERS / BATCH_SIZE + 2);
+        Long scriptId = response.get().getData().getScriptId();
+        assertThat(count("SELECT COUNT(DISTINCT chapter_id) FROM script_chapters WHERE script_id = ?", scriptId))
+                .isEqualTo(CHAPTERS);
+        // 预取的ID与直接用序列默认值插入的章节不冲突
+        assertThat(count("SELECT COUNT(*) FROM script_chapters c JOIN scripts s ON s.script_id = c.script_id "
+                + "WHERE s.user_id = ?", userId)).isEqualTo(CHAPTERS + 3);
+    }
+
+    private List<Long> withId(Long scriptId) {
+        List<Long> ids = new ArrayList<>(scriptIds);
+        ids.add(scriptId);
+        return ids;
+    }
+
+    private static List<String> matching(List<RecordedStatement> statements, String regex) {
+        Pattern pattern = Pattern.compile(regex, Pattern.CASE_INSENSITIVE);
+        return statements.stream()
+                .map(RecordedStatement::sql)
+                .filter(sql -> pattern.matcher(sql.trim()).find())
+                .toList();
+    }
+
+    private Map<Long, Map<String, Object>> scriptRows() {
+        Map<Long, Map<String, Object>> rows = new TreeMap<>();
+        for (Long scriptId : scriptIds) {
+            rows.put(scriptId, jdbcTemplate.queryForMap(
+                    "SELECT status, channel_id, category_id, version, updated_at FROM scripts WHERE script_id = ?",
+                    scriptId));
+        }
+        return rows;
+    }
+
+    private Long scriptCount() {
+        return jdbcTemplate.queryForObject("SELECT script_count FROM user_stats WHERE user_id = ?", Long.class, userId);
+    }
+
+    private Long count(String sql, Object... args) {
+        return jdbcTemplate.queryForObject(sql, Long.class, args);
+    }
+
+    private Long insertUser() {
+        String username = "b_" + Long.toString(System.nanoTime(), 36);
+        return jdbcTemplate.queryForObject(
+                "INSERT INTO users (username, password_hash, email, role) VALUES (?, 'x', ?, 'USER') RETURNING user_id",
+                Long.class, username, username + "@example.com");
+    }
+
+    private Long insertScript(Long ownerId, String title) {
+        return jdbcTemplate.queryForObject(
+                "INSERT INTO scripts (title, user_id, status, version) VALUES (?, ?, 'Scripting', 0) RETURNING script_id",
+                Long.class, title, ownerId);
+    }
+}
@@ -0,0 +1,215 @@
+/*
+ * 文件名：ScriptConditionalRequestTest.java
+ * 创建日期：2026年10月18日
+ * 作者：YoutubePlanner Team
+ *
+ * 文件描述：
+ * 脚本详情和修改接口的条件请求测试：
+ * - If-None-Match 与当前版本一致时返回 304，只查询版本号，不查询脚本内容和章节；不一致时返回 200 和新的 ETag；
+ * - PUT 和 PATCH 章节携带过期的 If-Match 时返回 412，脚本、章节和版本号都不变。
+ *
+ * 修改历史：
+ * 2026年10月18日 - 初始版本
+ *
+ * 版权所有 (c) 2026 YoutubePlanner
+ */
+
+package com.youtubeplanner.backend.script;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.youtubeplanner.backend.support.PostgresIntegrationTest;
+import com.youtubeplanner.backend.support.RecordingDataSource;
+import com.youtubeplanner.backend.support.RecordingDataSource.RecordedStatement;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.MockMvcPrint;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@AutoConfigureMockMvc(print = MockMvcPrint.NONE)
+class ScriptConditionalRequestTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private String token;
+    private long scriptId;
+
+    @TestConfiguration
+    static class RecordingConfig {
+        @Bean
+        static BeanPostProcessor recordingDataSourcePostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (bean instanceof DataSource target && !(bean instanceof RecordingDataSource)) {
+                        return new RecordingDataSource(target);
+                    }
+                    return bean;
+                }
+            };
+        }
+    }
+
+    @BeforeEach
+    void setUp() throws Exception {
+        String username = "e_" + Long.toString(System.nanoTime(), 36);
+        mockMvc.perform(post("/api/v1/auth/register").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"" + username + "\",\"password\":\"abc12345\",\"email\":\""
+                                + username + "@example.com\"}"))
+                .andExpect(status().isCreated());
+        String body = mockMvc.perform(post("/api/v1/auth/login").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"" + username + "\",\"password\":\"abc12345\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        token = objectMapper.readTree(body).path("data").path("accessToken").asText();
+
+        MvcResult created = mockMvc.perform(post("/api/v1/scripts").contentType(MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                        .content(json(Map.of("title", "原标题", "chapters", List.of(
+                                Map.of("chapter_number", 1, "content", "第一章"),
+                                Map.of("chapter_number", 2, "content", "第二章"))))))
+                .andExpect(status().isCreated())
+                .andReturn();
+        scriptId = data(created).path("script_id").asLong();
+    }
+
+    @Test
+    void matchingIfNoneMatchReturns304WithoutLoadingChapters() throws Exception {
+        // 第一次请求同时使认证用户进入缓存，之后记录的语句只包含接口本身的查询
+        String etag = mockMvc.perform(detail(null))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(etag).isNotNull();
+
+        List<RecordedStatement> statements = record(detail(etag), 304);
+
+        assertThat(statements).hasSize(1);
+        assertThat(statements.get(0).sql()).doesNotContain("script_chapters").doesNotContain("description");
+    }
+
+    @Test
+    void staleIfNoneMatchReturnsScriptAndNewETag() throws Exception {
+        String etag = mockMvc.perform(detail(null)).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        jdbcTemplate.update("UPDATE scripts SET version = version + 1 WHERE script_id = ?", scriptId);
+
+        MvcResult result = mockMvc.perform(detail(etag))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        assertThat(result.getResponse().getHeader(HttpHeaders.ETAG)).isNotEqualTo(etag);
+        assertThat(data(result).path("chapters")).hasSize(2);
+    }
+
+    @Test
+    void staleIfMatchOnPutReturns412AndWritesNothing() throws Exception {
+        String staleETag = mockMvc.perform(detail(null)).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        String currentETag = mockMvc.perform(put("/api/v1/scripts/" + scriptId)
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                        .header(HttpHeaders.IF_MATCH, staleETag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json(Map.of("title", "第一次修改"))))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        Map<String, Object> before = scriptRow();
+
+        mockMvc.perform(put("/api/v1/scripts/" + scriptId)
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                        .header(HttpHeaders.IF_MATCH, staleETag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json(Map.of("title", "基于旧版本的修改", "chapters", List.of(
+                                Map.of("chapter_number", 1, "content", "覆盖"))))))
+                .andExpect(status().isPreconditionFailed());
+
+        assertThat(scriptRow()).isEqualTo(before);
+        assertThat(before.get("title")).isEqualTo("第一次修改");
+        assertThat(chapters()).containsExactly("第一章", "第二章");
+        mockMvc.perform(detail(null)).andExpect(header().string(HttpHeaders.ETAG, currentETag));
+    }
+
+    @Test
+    void staleIfMatchOnPatchChaptersReturns412AndWritesNothing() throws Exception {
+        String etag = mockMvc.perform(detail(null)).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        jdbcTemplate.update("UPDATE scripts SET version = version + 1 WHERE script_id = ?", scriptId);
+        Map<String, Object> before = scriptRow();
+
+        mockMvc.perform(patch("/api/v1/scripts/" + scriptId + "/chapters")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                        .header(HttpHeaders.IF_MATCH, etag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json(Map.of("add", List.of(Map.of("chapter_number", 3, "content", "第三章"))))))
+                .andExpect(status().isPreconditionFailed());
+
+        assertThat(scriptRow()).isEqualTo(before);
+        assertThat(chapters()).containsExactly("第一章", "第二章");
+    }
+
+    private RequestBuilder detail(String ifNoneMatch) {
+        var request = get("/api/v1/scripts/" + scriptId).header(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+        if (ifNoneMatch != null) {
+            request.header(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        return request;
+    }
+
+    /**
+     * 执行请求并返回其间执行的 SQL 语句
+     */
+    private List<RecordedStatement> record(RequestBuilder request, int expectedStatus) {
+        return RecordingDataSource.record(() -> {
+            try {
+                MvcResult result = mockMvc.perform(request).andReturn();
+                assertThat(result.getResponse().getStatus()).isEqualTo(expectedStatus);
+                return result;
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+
+    private Map<String, Object> scriptRow() {
+        return jdbcTemplate.queryForMap("SELECT title, version, updated_at FROM scripts WHERE script_id = ?", scriptId);
+    }
+
+    private List<String> chapters() {
+        return jdbcTemplate.queryForList(
+                "SELECT content FROM script_chapters WHERE script_id = ? ORDER BY chapter_number", String.class, scriptId);
+    }
+
+    private String json(Object value) throws Exception {
+        return objectMapper.writeValueAsString(value);
+    }
+
+    private JsonNode data(MvcResult result) throws Exception {
+        return objectMapper.readTree(result.getResponse().getContentAsString(StandardCharsets.UTF_8)).path("data");
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * 文件名：ScriptListQueryCountTest.java
+ * 创建日期：2026年10月18日
+ * 作者：YoutubePlanner Team
+ *
+ * 文件描述：
+ * 脚本列表的 SQL 语句数测试。每个脚本使用不同的频道、分类并带有多个章节，
+ * 分别请求 1、10、100 条一页的列表（页码分页和游标分页），从 X-SQL-Statistics 响应头读取语句数：
+ * 语句数不随每页数量增加，且不超过 ScriptController.getScripts 的预算。
+ * 同时检查频道名、分类名和章节数与数据一致。
+ *
+ * 修改历史：
+ * 2026年10月18日 - 初始版本
+ *
+ * 版权所有 (c) 2026 YoutubePlanner
+ */
+
+package com.youtubeplanner.backend.script;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.youtubeplanner.backend.common.metrics.SqlBudgetProperties;
+import com.youtubeplanner.backend.common.metrics.SqlStatisticsResponseAdvice;
+import com.youtubeplanner.backend.support.PostgresIntegrationTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.MockMvcPrint;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@AutoConfigureMockMvc(print = MockMvcPrint.NONE)
+class ScriptListQueryCountTest extends PostgresIntegrationTest {
+
+    private static final int SCRIPTS = 100;
+    private static final int CHAPTERS_PER_SCRIPT = 3;
+    private static final Pattern STATEMENTS = Pattern.compile("statements=(\\d+)");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private SqlBudgetProperties budgetProperties;
+
+    private String token;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        String username = "q_" + Long.toString(System.nanoTime(), 36);
+        mockMvc.perform(post("/api/v1/auth/register").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"" + username + "\",\"password\":\"abc12345\",\"email\":\""
+                                + username + "@example.com\"}"))
+                .andExpect(status().isCreated());
+        String body = mockMvc.perform(post("/api/v1/auth/login").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"" + username + "\",\"password\":\"abc12345\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        token = objectMapper.readTree(body).path("data").path("accessToken").asText();
+        Long userId = jdbcTemplate.queryForObject("SELECT user_id FROM users WHERE username = ?", Long.class, username);
+
+        // 每个脚本使用自己的频道和分类，逐行查询名称时语句数随每页数量增加
+        for (int i = 0; i < SCRIPTS; i++) {
+            Long channelId = jdbcTemplate.queryForObject(
+                    "INSERT INTO channels (channel_name, user_id) VALUES (?, ?) RETURNING channel_id",
+                    Long.class, "频道" + i, userId);
+            Long categoryId = jdbcTemplate.queryForObject(
+                    "INSERT INTO categories (category_name, user_id) VALUES (?, ?) RETURNING category_id",
+                    Long.class, "分类" + i, userId);
+            Long scriptId = jdbcTemplate.queryForObject(
+                    "INSERT INTO scripts (title, user_id, channel_id, category_id, version) "
+                            + "VALUES (?, ?, ?, ?, 0) RETURNING script_id",
+                    Long.class, "脚本" + i, userId, channelId, categoryId);
+            for (int chapter = 1; chapter <= CHAPTERS_PER_SCRIPT; chapter++) {
+                jdbcTemplate.update(
+                        "INSERT INTO script_chapters (script_id, chapter_number, content) VALUES (?, ?, '内容')",
+                        scriptId, chapter);
+            }
+        }
+    }
+
+    @Test
+    void statementCountDoesNotGrowWithPageSize() throws Exception {
+        int budget = budgetProperties.getEndpoints().get("ScriptController.getScripts");
+        List<Integer> offsetCounts = new ArrayList<>();
+        List<Integer> cursorCounts = new ArrayList<>();
+        // 先请求一次，使认证用户进入缓存，之后的请求只包含列表本身的查询
+        list(1, null);
+
+        for (int size : new int[]{1, 10, SCRIPTS}) {
+            MvcResult offsetPage = list(size, null);
+            assertItems(data(offsetPage).path("items"), size);
+            offsetCounts.add(statements(offsetPage));
+
+            // 游标分页：空游标取第一页，再用返回的 next_cursor 取第二页
+            MvcResult firstPage = list(size, "");
+            assertItems(data(firstPage).path("items"), size);
+            String cursor = data(firstPage).path("next_cursor").asText(null);
+            if (size < SCRIPTS) {
+                assertThat(cursor).isNotNull();
+                MvcResult nextPage = list(size, cursor);
+                assertItems(data(nextPage).path("items"), size);
+                cursorCounts.add(statements(nextPage));
+            }
+            cursorCounts.add(statements(firstPage));
+        }
+
+        assertThat(offsetCounts).allMatch(count -> count <= budget);
+        assertThat(offsetCounts).as("页码分页的语句数").containsOnly(offsetCounts.get(0));
+        assertThat(cursorCounts).allMatch(count -> count <= budget);
+        assertThat(cursorCounts).as("游标分页的语句数").containsOnly(cursorCounts.get(0));
+    }
+
+    private MvcResult list(int size, String cursor) throws Exception {
+        var request = get("/api/v1/scripts")
+                .param("limit", String.valueOf(size))
+                .param("sort_by", "created_at")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+        if (cursor != null) {
+            request.param("cursor", cursor);
+        }
+        return mockMvc.perform(request).andExpect(status().isOk()).andReturn();
+    }
+
+    private JsonNode data(MvcResult result) throws Exception {
+        return objectMapper.readTree(result.getResponse().getContentAsString(StandardCharsets.UTF_8)).path("data");
+    }
+
+    private static int statements(MvcResult result) {
+        String header = result.getResponse().getHeader(SqlStatisticsResponseAdvice.HEADER);
+        assertThat(header).isNotNull();
+        Matcher matcher = STATEMENTS.matcher(header);
+        assertThat(matcher.find()).as(header).isTrue();
+        return Integer.parseInt(matcher.group(1));
+    }
+
+    /**
+     * 检查一页的条数，以及脚本 i 的频道为“频道i”、分类为“分类i”
+     */
+    private static void assertItems(JsonNode items, int size) {
+        assertThat(items).hasSize(size);
+        for (JsonNode item : items) {
+            String index = item.path("title").asText().substring("脚本".length());
+            assertThat(item.path("channel").path("channel_name").asText()).isEqualTo("频道" + index);
+            assertThat(item.path("category").path("category_name").asText()).isEqualTo("分类" + index);
+            assertThat(item.path("chapters_count").asInt()).isEqualTo(CHAPTERS_PER_SCRIPT);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * 文件名：ScriptSearchTest.java
+ * 创建日期：2026年10月18日
+ * 作者：YoutubePlanner Team
+ *
+ * 文件描述：
+ * 脚本全文搜索测试：子串匹配时关键词中的 % _ \ 按字面匹配；摘要做 HTML 转义，
+ * 只有命中的关键词用 <mark></mark> 标记；子串命中的标记位置不受转小写改变长度的字符影响。
+ *
+ * 修改历史：
+ * 2026年10月18日 - 初始版本
+ *
+ * 版权所有 (c) 2026 YoutubePlanner
+ */
+
+package com.youtubeplanner.backend.script;
+
+import com.youtubeplanner.backend.script.dto.ScriptSearchResultResponse;
+import com.youtubeplanner.backend.script.service.ScriptService;
+import com.youtubeplanner.backend.support.PostgresIntegrationTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ScriptSearchTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private ScriptService scriptService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long userId;
+
+    @BeforeEach
+    void setUp() {
+        String username = "s_" + Long.toString(System.nanoTime(), 36);
+        userId = jdbcTemplate.queryForObject(
+                "INSERT INTO users (username, password_hash, email, role) VALUES (?, 'x', ?, 'USER') RETURNING user_id",
+                Long.class, username, username + "@example.com");
+    }
+
+    @Test
+    void wildcardsInKeywordMatchLiterally() {
+        Long percent = insertScript("进度", "已完成 100% 的进度");
+        insertScript("进度", "已完成 1000 个任务");
+        Long underscore = insertScript("变量", "变量名为 max_len 的配置");
+        insertScript("变量", "变量名为 maxxlen 的配置");
+        Long backslash = insertScript("路径", "路径为 C:\\temp 的目录");
+        insertScript("路径", "路径为 C:temp 的目录");
+
+        // 未转义时 100% 匹配 1000，x_l 匹配 xxl，c:\t 匹配 c:t
+        assertThat(scriptIds(search("100%"))).containsExactly(percent);
+        assertThat(scriptIds(search("x_l"))).containsExactly(underscore);
+        assertThat(scriptIds(search("c:\\t"))).containsExactly(backslash);
+    }
+
+    @Test
+    void snippetEscapesHtmlAndMarksOnlyKeyword() {
+        Long scriptId = insertScript("酱汁", null);
+        insertChapter(scriptId, "<p>add <img src=x onerror=alert(1)> tomato if a < b && c > d</p>");
+
+        List<ScriptSearchResultResponse> results = search("tomato");
+
+        assertThat(results).hasSize(1);
+        String snippet = results.get(0).getSnippet();
+        // ts_headline 截取的片段可能只含标签的一部分，转义后都按文本显示
+        assertThat(snippet).contains("&gt; <mark>tomato</mark>");
+        assertThat(snippet.replace("<mark>", "").replace("</mark>", "")).doesNotContain("<", ">");
+    }
+
+    @Test
+    void substringMarkUsesOriginalPositions() {
+        // İ 转小写后变为两个字符，按转小写后的下标会把标记放错位置
+        Long scriptId = insertScript("发射", null);
+        insertChapter(scriptId, "İİİ 我们的火箭发射成功 <b>");
+
+        List<ScriptSearchResultResponse> results = search("火箭");
+
+        assertThat(results).hasSize(1);
+        assertThat(results.get(0).getSnippet()).contains("我们的<mark>火箭</mark>发射成功");
+    }
+
+    @Test
+    void substringMarkIgnoresCase() {
+        Long scriptId = insertScript("标题", "介绍HTTPServer的用法");
+
+        List<ScriptSearchResultResponse> results = search("httpserver");
+
+        assertThat(results).hasSize(1);
+        assertThat(results.get(0).getSnippet()).contains("介绍<mark>HTTPServer</mark>的用法");
+    }
+
+    private List<ScriptSearchResultResponse> search(String query) {
+        return scriptService.searchScripts(query, 10, userId).getData();
+    }
+
+    private static List<Long> scriptIds(List<ScriptSearchResultResponse> results) {
+        return results.stream().map(ScriptSearchResultResponse::getScriptId).toList();
+    }
+
+    private Long insertScript(String title, String description) {
+        return jdbcTemplate.queryForObject(
+                "INSERT INTO scripts (title, description, user_id, version) VALUES (?, ?, ?, 0) RETURNING script_id",
+                Long.class, title, description, userId);
+    }
+
+    private void insertChapter(Long scriptId, String content) {
+        jdbcTemplate.update("INSERT INTO script_chapters (script_id, chapter_number, content) VALUES (?, 1, ?)",
+                scriptId, content);
+    }
+}
@@ -0,0 +1,286 @@
+/*
+ * 文件名：ScriptQueryPlanTest.java
+ * 创建日期：2026年10月18日
+ * 作者：YoutubePlanner Team
+ *
+ * 文件描述：
+ * 脚本列表（分页和游标分页）和全文搜索的执行计划测试：
+ * 记录仓库方法实际执行的 SQL，按原参数执行 EXPLAIN，计划中出现全表扫描（Seq Scan）
+ * 或排序节点（Sort）即失败，确认列表查询沿 V12 的复合索引顺序读取。
+ * 游标定位后剩余的行不多时（如空值段的末尾），规划器可能取出剩余的行再排序，读取的行数相同，
+ * 因此允许输入不超过两页的排序节点；取出用户的全部脚本再排序的计划仍然失败。
+ * 搜索结果按计算出的相关度排序，只能对命中的行排序，搜索只检查不出现全表扫描（命中的行都由索引得到）。
+ * 数据为 300 个用户，被测用户 5000 个脚本、其他用户各 200 个，
+ * 执行 ANALYZE 后规划器按真实的统计信息选择计划。
+ * 测试数据库使用 UTF-8 字符分类（PostgresTestDatabase），三元组索引可以处理中文关键词。
+ *
+ * 修改历史：
+ * 2026年10月18日 - 初始版本
+ *
+ * 版权所有 (c) 2026 YoutubePlanner
+ */
+
+package com.youtubeplanner.backend.script.repository;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.youtubeplanner.backend.common.KeysetCursor;
+import com.youtubeplanner.backend.common.KeysetSlice;
+import com.youtubeplanner.backend.script.dto.GetScriptsRequest;
+import com.youtubeplanner.backend.script.dto.ScriptListItemRow;
+import com.youtubeplanner.backend.support.PostgresIntegrationTest;
+import com.youtubeplanner.backend.support.RecordingDataSource;
+import com.youtubeplanner.backend.support.RecordingDataSource.RecordedStatement;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Import(ScriptQueryPlanTest.RecordingConfig.class)
+class ScriptQueryPlanTest extends PostgresIntegrationTest {
+
+    private static final int USERS = 300;
+    private static final int SCRIPTS_OF_USER = 5000;
+    private static final int SCRIPTS_OF_OTHER_USERS = 200;
+    private static final int PAGE_SIZE = 100;
+
+    // 所有测试共用一份数据，只在第一个测试前生成
+    private static Long userId;
+    private static Long channelId;
+    private static Long categoryId;
+
+    @Autowired
+    private ScriptRepository scriptRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @TestConfiguration
+    static class RecordingConfig {
+        @Bean
+        static BeanPostProcessor recordingDataSourcePostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (bean instanceof DataSource target && !(bean instanceof RecordingDataSource)) {
+                        return new RecordingDataSource(target);
+                    }
+                    return bean;
+                }
+            };
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        if (userId != null) {
+            return;
+        }
+        String prefix = "q_" + Long.toString(System.nanoTime(), 36) + "_";
+        jdbcTemplate.update("INSERT INTO users (username, password_hash, email, role) "
+                + "SELECT ? || g, 'x', ? || g || '@example.com', 'USER' FROM generate_series(1, ?) g",
+                prefix, prefix, USERS);
+        userId = jdbcTemplate.queryForObject("SELECT user_id FROM users WHERE username = ?", Long.class, prefix + 1);
+        // 每个用户 5 个频道和 5 个分类
+        jdbcTemplate.update("INSERT INTO channels (channel_name, user_id) "
+                + "SELECT 'channel ' || n, u.user_id FROM users u CROSS JOIN generate_series(0, 4) n "
+                + "WHERE u.username LIKE ? || '%'", prefix);
+        jdbcTemplate.update("INSERT INTO categories (category_name, user_id) "
+                + "SELECT 'category ' || n, u.user_id FROM users u CROSS JOIN generate_series(0, 4) n "
+                + "WHERE u.username LIKE ? || '%'", prefix);
+        channelId = jdbcTemplate.queryForObject(
+                "SELECT channel_id FROM channels WHERE user_id = ? AND channel_name = 'channel 0'", Long.class, userId);
+        categoryId = jdbcTemplate.queryForObject(
+                "SELECT category_id FROM categories WHERE user_id = ? AND category_name = 'category 0'", Long.class, userId);
+
+        // 被测用户的脚本数量是其他用户的 25 倍，每个脚本 3 个章节，其他用户的脚本各 1 个章节；
+        // 各用户的创建时间分布在相同的时间段内；脚本轮流属于用户的频道和分类，部分发布日期和难度为空，
+        // 少量描述和章节包含搜索关键词
+        jdbcTemplate.update("INSERT INTO scripts (title, description, user_id, channel_id, category_id, status, "
+                + "difficulty, release_date, created_at, updated_at, version) "
+                + "SELECT 'script ' || g, 'description ' || g || CASE WHEN g % 200 = 0 THEN ' rocket 火箭发射' ELSE '' END, "
+                + "       u.user_id, ch.channel_id, cat.category_id, "
+                + "       (ARRAY['DRAFT', 'IN_PROGRESS', 'PUBLISHED'])[g % 3 + 1], "
+                + "       CASE WHEN g % 4 = 0 THEN NULL ELSE g % 5 + 1 END, "
+                + "       CASE WHEN g % 3 = 0 THEN NULL ELSE DATE '2026-01-01' + g % 200 END, "
+                + "       TIMESTAMPTZ '2026-01-01 00:00:00+00' + g * CASE WHEN u.user_id = ? THEN 1 ELSE ? END * INTERVAL '1 minute', "
+                + "       TIMESTAMPTZ '2026-01-01 00:00:00+00' + (g % 97) * INTERVAL '1 hour', 0 "
+                + "FROM users u "
+                + "CROSS JOIN generate_series(1, CASE WHEN u.user_id = ? THEN ? ELSE ? END) g "
+                + "JOIN channels ch ON ch.user_id = u.user_id AND ch.channel_name = 'channel ' || g % 5 "
+                + "JOIN categories cat ON cat.user_id = u.user_id AND cat.category_name = 'category ' || g % 5 "
+                + "WHERE u.username LIKE ? || '%'",
+                userId, SCRIPTS_OF_USER / SCRIPTS_OF_OTHER_USERS, userId, SCRIPTS_OF_USER, SCRIPTS_OF_OTHER_USERS, prefix);
+        jdbcTemplate.update("INSERT INTO script_chapters (script_id, chapter_number, title, content) "
+                + "SELECT s.script_id, n, 'chapter ' || n, "
+                + "       (SELECT string_agg(md5(s.script_id || '-' || n || '-' || i), ' ') FROM generate_series(1, 20) i) || "
+                + "       CASE WHEN s.script_id % 400 = n THEN ' rocket 火箭发射 launch' ELSE '' END "
+                + "FROM scripts s JOIN users u ON u.user_id = s.user_id "
+                + "CROSS JOIN generate_series(1, CASE WHEN s.user_id = ? THEN 3 ELSE 1 END) n "
+                + "WHERE u.username LIKE ? || '%'", userId, prefix);
+        jdbcTemplate.execute("ANALYZE users, channels, categories, scripts, script_chapters");
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "title, asc", "title, desc",
+            "created_at, asc", "created_at, desc",
+            "updated_at, asc", "updated_at, desc",
+            "release_date, asc", "release_date, desc",
+            "difficulty, asc", "difficulty, desc"
+    })
+    void offsetPagesReadInIndexOrder(String sortBy, String order) {
+        for (int page : new int[]{1, 4}) {
+            PageRequest pageable = pageRequest(sortBy, order, page, PAGE_SIZE);
+            assertIndexOrdered(() -> scriptRepository.findListItemsByUserIdAndFilters(
+                    userId, null, null, null, null, null, null, null, pageable), pageable.getPageSize());
+        }
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "title, asc", "title, desc",
+            "created_at, asc", "created_at, desc",
+            "updated_at, asc", "updated_at, desc",
+            "release_date, asc", "release_date, desc",
+            "difficulty, asc", "difficulty, desc"
+    })
+    void cursorPagesReadInIndexOrder(String sortBy, String order) {
+        // 逐页读到最后，排序键可为空时覆盖空值段和跨段的查询
+        PageRequest pageable = pageRequest(sortBy, order, 1, PAGE_SIZE);
+        KeysetCursor[] cursor = {null};
+        int pages = 0;
+        do {
+            assertIndexOrdered(() -> {
+                KeysetSlice<ScriptListItemRow> slice = scriptRepository.findListItemsAfter(
+                        userId, null, null, null, null, null, null, null, pageable, cursor[0]);
+                cursor[0] = slice.getNextCursor() == null ? null : KeysetCursor.decode(slice.getNextCursor());
+                return slice;
+            }, pageable.getPageSize());
+            pages++;
+        } while (cursor[0] != null && pages <= SCRIPTS_OF_USER / PAGE_SIZE);
+        assertThat(cursor[0]).isNull();
+        assertThat(pages).isEqualTo(SCRIPTS_OF_USER / PAGE_SIZE);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"status", "channel", "category"})
+    void filteredPagesUseFilterIndexes(String filter) {
+        // 状态、频道、分类过滤按默认排序（创建时间倒序）读取
+        PageRequest pageable = pageRequest("created_at", "desc", 1, 20);
+        String status = filter.equals("status") ? "DRAFT" : null;
+        Long channel = filter.equals("channel") ? channelId : null;
+        Long category = filter.equals("category") ? categoryId : null;
+
+        KeysetCursor[] next = {null};
+        assertIndexOrdered(() -> scriptRepository.findListItemsByUserIdAndFilters(
+                userId, channel, category, status, null, null, null, null, pageable), pageable.getPageSize());
+        assertIndexOrdered(() -> {
+            KeysetSlice<ScriptListItemRow> slice = scriptRepository.findListItemsAfter(
+                    userId, channel, category, status, null, null, null, null, pageable, null);
+            next[0] = KeysetCursor.decode(slice.getNextCursor());
+            return slice;
+        }, pageable.getPageSize());
+        assertIndexOrdered(() -> scriptRepository.findListItemsAfter(
+                userId, channel, category, status, null, null, null, null, pageable, next[0]), pageable.getPageSize());
+    }
+
+    @Test
+    void difficultyAndReleaseDateFiltersUseSortIndexes() {
+        PageRequest byDifficulty = pageRequest("difficulty", "desc", 1, 20);
+        assertIndexOrdered(() -> scriptRepository.findListItemsByUserIdAndFilters(
+                userId, null, null, null, 3, null, null, null, byDifficulty), byDifficulty.getPageSize());
+
+        PageRequest byReleaseDate = pageRequest("release_date", "asc", 1, 20);
+        assertIndexOrdered(() -> scriptRepository.findListItemsByUserIdAndFilters(
+                userId, null, null, null, null, LocalDate.of(2026, 2, 1), LocalDate.of(2026, 5, 1), null,
+                byReleaseDate), byReleaseDate.getPageSize());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"rocket", "火箭发射", "launch rocket"})
+    void searchUsesIndexes(String query) {
+        assertIndexOrdered(() -> scriptRepository.searchByUserId(userId, query, 20), -1);
+    }
+
+    /**
+     * 与接口相同的分页和排序参数
+     */
+    private static PageRequest pageRequest(String sortBy, String order, int page, int size) {
+        GetScriptsRequest request = new GetScriptsRequest();
+        request.setSortBy(sortBy);
+        request.setOrder(order);
+        request.setPage(page);
+        request.setSize(size);
+        return request.toPageRequest();
+    }
+
+    /**
+     * 执行操作，对其间执行的每条查询语句按原参数执行 EXPLAIN 并检查计划
+     *
+     * @param pageSize 每页数量，允许输入不超过两页的排序节点；按相关度排序的搜索传 -1，不检查排序节点
+     */
+    private void assertIndexOrdered(Supplier<?> action, int pageSize) {
+        List<RecordedStatement> statements = RecordingDataSource.record(action);
+        assertThat(statements).isNotEmpty();
+        for (RecordedStatement statement : statements) {
+            JsonNode plan = explain(statement);
+            List<String> violations = new ArrayList<>();
+            collectViolations(plan.path(0).path("Plan"), pageSize, violations);
+            assertThat(violations)
+                    .as("SQL: %s%n计划: %s", statement.sql(), plan.toPrettyString())
+                    .isEmpty();
+        }
+    }
+
+    private JsonNode explain(RecordedStatement statement) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement explain = connection.prepareStatement("EXPLAIN (FORMAT JSON) " + statement.sql())) {
+            statement.bind(explain);
+            try (ResultSet resultSet = explain.executeQuery()) {
+                resultSet.next();
+                return objectMapper.readTree(resultSet.getString(1));
+            }
+        } catch (SQLException | JsonProcessingException e) {
+            throw new IllegalStateException("EXPLAIN 执行失败: " + statement.sql(), e);
+        }
+    }
+
+    private static void collectViolations(JsonNode node, int pageSize, List<String> violations) {
+        String type = node.path("Node Type").asText();
+        if (type.equals("Seq Scan")) {
+            violations.add("Seq Scan on " + node.path("Relation Name").asText());
+        } else if (type.endsWith("Sort") && pageSize > 0 && node.path("Plan Rows").asLong() > 2L * pageSize) {
+            violations.add(type + " of " + node.path("Plan Rows").asLong() + " rows by " + node.path("Sort Key"));
+        }
+        for (JsonNode child : node.path("Plans")) {
+            collectViolations(child, pageSize, violations);
+        }
+    }
+}
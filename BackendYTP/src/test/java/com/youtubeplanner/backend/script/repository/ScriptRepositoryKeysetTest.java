@@ -0,0 +1,130 @@
+/*
+ * 文件名：ScriptRepositoryKeysetTest.java
+ * 创建日期：2026年10月18日
+ * 作者：YoutubePlanner Team
+ *
+ * 文件描述：
+ * 脚本列表游标分页测试：每种排序键的升序和降序逐页读取到最后一页，
+ * 结果应与“排序键（升序 NULLS LAST / 降序 NULLS FIRST）+ 脚本ID”的完整排序一致，
+ * 不重复、不遗漏。数据包含排序键相同和排序键为空的行，覆盖一页跨越空值段的情况。
+ *
+ * 修改历史：
+ * 2026年10月18日 - 初始版本
+ *
+ * 版权所有 (c) 2026 YoutubePlanner
+ */
+
+package com.youtubeplanner.backend.script.repository;
+
+import com.youtubeplanner.backend.common.KeysetCursor;
+import com.youtubeplanner.backend.common.KeysetSlice;
+import com.youtubeplanner.backend.script.dto.ScriptListItemRow;
+import com.youtubeplanner.backend.support.PostgresIntegrationTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ScriptRepositoryKeysetTest extends PostgresIntegrationTest {
+
+    private static final int SCRIPTS = 23;
+    private static final int PAGE_SIZE = 4;
+
+    @Autowired
+    private ScriptRepository scriptRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long userId;
+    private final List<Seed> scripts = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        String username = "k_" + Long.toString(System.nanoTime(), 36);
+        userId = jdbcTemplate.queryForObject(
+                "INSERT INTO users (username, password_hash, email, role) VALUES (?, 'x', ?, 'USER') RETURNING user_id",
+                Long.class, username, username + "@example.com");
+
+        Instant base = Instant.parse("2026-01-01T00:00:00Z");
+        for (int i = 0; i < SCRIPTS; i++) {
+            String title = "t" + (i % 6);
+            LocalDate releaseDate = i % 3 == 0 ? null : LocalDate.of(2026, 1, 1).plusDays(i % 5);
+            Integer difficulty = i % 4 == 0 ? null : i % 3 + 1;
+            Instant createdAt = base.plusSeconds(i % 4);
+            Instant updatedAt = base.plusSeconds(i % 7);
+            Long scriptId = jdbcTemplate.queryForObject(
+                    "INSERT INTO scripts (title, user_id, release_date, difficulty, created_at, updated_at, version) "
+                            + "VALUES (?, ?, ?, ?, ?, ?, 0) RETURNING script_id",
+                    Long.class, title, userId, releaseDate == null ? null : Date.valueOf(releaseDate),
+                    difficulty, Timestamp.from(createdAt), Timestamp.from(updatedAt));
+            scripts.add(new Seed(scriptId, title, createdAt, updatedAt, releaseDate, difficulty));
+        }
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "title, ASC", "title, DESC",
+            "createdAt, ASC", "createdAt, DESC",
+            "updatedAt, ASC", "updatedAt, DESC",
+            "releaseDate, ASC", "releaseDate, DESC",
+            "difficulty, ASC", "difficulty, DESC"
+    })
+    void pagesThroughAllScriptsInIndexOrder(String property, Sort.Direction direction) {
+        PageRequest pageable = PageRequest.of(0, PAGE_SIZE, Sort.by(direction, property));
+        List<Long> paged = new ArrayList<>();
+        KeysetCursor cursor = null;
+        int pages = 0;
+        do {
+            KeysetSlice<ScriptListItemRow> slice = scriptRepository.findListItemsAfter(
+                    userId, null, null, null, null, null, null, null, pageable, cursor);
+            slice.getContent().forEach(row -> paged.add(row.getScriptId()));
+            assertThat(slice.getContent().size()).isLessThanOrEqualTo(PAGE_SIZE);
+            cursor = slice.getNextCursor() == null ? null : KeysetCursor.decode(slice.getNextCursor());
+            pages++;
+        } while (cursor != null && pages <= SCRIPTS);
+
+        assertThat(paged).containsExactlyElementsOf(expectedOrder(property, direction));
+    }
+
+    private List<Long> expectedOrder(String property, Sort.Direction direction) {
+        Comparator<Seed> order = switch (property) {
+            case "title" -> keyOrder(Seed::title, direction);
+            case "createdAt" -> keyOrder(Seed::createdAt, direction);
+            case "updatedAt" -> keyOrder(Seed::updatedAt, direction);
+            case "releaseDate" -> keyOrder(Seed::releaseDate, direction);
+            case "difficulty" -> keyOrder(Seed::difficulty, direction);
+            default -> throw new IllegalArgumentException(property);
+        };
+        Comparator<Seed> byId = Comparator.comparing(Seed::scriptId);
+        order = order.thenComparing(direction.isAscending() ? byId : byId.reversed());
+        return scripts.stream().sorted(order).map(Seed::scriptId).toList();
+    }
+
+    /**
+     * 升序时空值排在最后，降序时排在最前（即升序 NULLS LAST 整体反转）
+     */
+    private static <K extends Comparable<? super K>> Comparator<Seed> keyOrder(
+            Function<Seed, K> key, Sort.Direction direction) {
+        Comparator<Seed> ascending = Comparator.comparing(key, Comparator.nullsLast(Comparator.<K>naturalOrder()));
+        return direction.isAscending() ? ascending : ascending.reversed();
+    }
+
+    private record Seed(Long scriptId, String title, Instant createdAt, Instant updatedAt,
+                        LocalDate releaseDate, Integer difficulty) {
+    }
+}
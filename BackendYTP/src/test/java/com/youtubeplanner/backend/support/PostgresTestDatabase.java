@@ -0,0 +1,66 @@
+/*
+ * 文件名：PostgresTestDatabase.java
+ * 创建日期：2026年10月18日
+ * 作者：YoutubePlanner Team
+ *
+ * 文件描述：
+ * 集成测试使用的 PostgreSQL 数据库。第一次使用时在随机端口启动一个嵌入式 PostgreSQL，
+ * 同一次测试运行中的所有 Spring 上下文共用，JVM 退出时关闭；表结构由应用启动时的 Flyway 迁移创建。
+ * 测试类在 @DynamicPropertySource 方法中调用 registerProperties 即可连接到该数据库。
+ * 各测试类共用同一个数据库，测试数据应使用不重复的用户名，不依赖表中已有的数据。
+ *
+ * 修改历史：
+ * 2026年10月18日 - 初始版本
+ *
+ * 版权所有 (c) 2026 YoutubePlanner
+ */
+
+package com.youtubeplanner.backend.support;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.test.context.DynamicPropertyRegistry;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+public final class PostgresTestDatabase {
+
+    private static EmbeddedPostgres postgres;
+
+    private PostgresTestDatabase() {
+    }
+
+    public static void registerProperties(DynamicPropertyRegistry registry) {
+        EmbeddedPostgres database = start();
+        registry.add("spring.datasource.url", () -> database.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+    }
+
+    /**
+     * 测试数据库的连接地址（用户名和密码均为 postgres）
+     */
+    public static String jdbcUrl() {
+        return start().getJdbcUrl("postgres", "postgres");
+    }
+
+    private static synchronized EmbeddedPostgres start() {
+        if (postgres == null) {
+            try {
+                // 与生产数据库一样使用 UTF-8 字符分类，三元组索引才能从中文关键词中提取三元组
+                postgres = EmbeddedPostgres.builder().setLocaleConfig("locale", "C.UTF-8").start();
+            } catch (IOException e) {
+                throw new UncheckedIOException("启动测试数据库失败", e);
+            }
+            EmbeddedPostgres started = postgres;
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    started.close();
+                } catch (IOException ignored) {
+                    // JVM 退出时关闭失败不影响测试结果
+                }
+            }));
+        }
+        return postgres;
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * 文件名：RecordingDataSource.java
+ * 创建日期：2026年10月18日
+ * 作者：YoutubePlanner Team
+ *
+ * 文件描述：
+ * 测试用数据源包装：开启记录后，保存当前线程执行的每条预编译语句的 SQL 和参数设置调用，
+ * 用于对 Hibernate 实际生成的 SQL 按原参数执行 EXPLAIN。未开启记录时直接返回原始对象。
+ *
+ * 修改历史：
+ * 2026年10月18日 - 初始版本
+ *
+ * 版权所有 (c) 2026 YoutubePlanner
+ */
+
+package com.youtubeplanner.backend.support;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+public class RecordingDataSource extends DelegatingDataSource {
+
+    private static final ThreadLocal<List<RecordedStatement>> RECORDED = new ThreadLocal<>();
+
+    public RecordingDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    /**
+     * 执行操作并返回其间当前线程执行的预编译语句
+     */
+    public static List<RecordedStatement> record(Supplier<?> action) {
+        List<RecordedStatement> statements = new ArrayList<>();
+        RECORDED.set(statements);
+        try {
+            action.get();
+        } finally {
+            RECORDED.remove();
+        }
+        return statements;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(obtainTargetDataSource().getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(obtainTargetDataSource().getConnection(username, password));
+    }
+
+    private static Connection wrap(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(RecordingDataSource.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                    Object result = invoke(connection, method, args);
+                    if (result instanceof PreparedStatement statement && RECORDED.get() != null
+                            && "prepareStatement".equals(method.getName())) {
+                        return wrap(statement, (String) args[0]);
+                    }
+                    return result;
+                });
+    }
+
+    private static PreparedStatement wrap(PreparedStatement statement, String sql) {
+        List<Binding> bindings = new ArrayList<>();
+        return (PreparedStatement) Proxy.newProxyInstance(RecordingDataSource.class.getClassLoader(),
+                new Class<?>[]{PreparedStatement.class}, (proxy, method, args) -> {
+                    String name = method.getName();
+                    if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                        bindings.add(new Binding(method, args));
+                    } else if (name.startsWith("execute") && (args == null || args.length == 0)) {
+                        List<RecordedStatement> recorded = RECORDED.get();
+                        if (recorded != null) {
+                            recorded.add(new RecordedStatement(sql, List.copyOf(bindings)));
+                        }
+                    }
+                    return invoke(statement, method, args);
+                });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    /**
+     * 一次参数设置调用，如 setLong(1, 42)
+     */
+    public record Binding(Method method, Object[] args) {
+    }
+
+    /**
+     * 执行过的预编译语句
+     */
+    public record RecordedStatement(String sql, List<Binding> bindings) {
+
+        /**
+         * 在另一条语句上按相同的顺序重新设置参数
+         */
+        public void bind(PreparedStatement statement) throws SQLException {
+            for (Binding binding : bindings) {
+                try {
+                    binding.method().invoke(statement, binding.args());
+                } catch (ReflectiveOperationException e) {
+                    throw new SQLException("无法重新设置参数: " + binding.method().getName(), e);
+                }
+            }
+        }
+    }
+}
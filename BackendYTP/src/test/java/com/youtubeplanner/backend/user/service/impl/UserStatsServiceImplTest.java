@@ -0,0 +1,127 @@
+/*
+ * 文件名：UserStatsServiceImplTest.java
+ * 创建日期：2026年10月18日
+ * 作者：YoutubePlanner Team
+ *
+ * 文件描述：
+ * 用户统计计数对账测试：
+ * - 对账与未提交的增量事务并发执行时，对账等待增量事务提交后再计数，增量不会被旧的计数覆盖；
+ * - 用户还没有统计行、增量事务正在插入第一行时同样不会丢失增量。
+ *
+ * 修改历史：
+ * 2026年10月18日 - 初始版本
+ *
+ * 版权所有 (c) 2026 YoutubePlanner
+ */
+
+package com.youtubeplanner.backend.user.service.impl;
+
+import com.youtubeplanner.backend.support.PostgresIntegrationTest;
+import com.youtubeplanner.backend.user.service.UserStatsService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserStatsServiceImplTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private UserStatsService userStatsService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void reconcileDoesNotLoseConcurrentIncrement() throws Exception {
+        Long userId = insertUser();
+        jdbcTemplate.update("INSERT INTO user_stats (user_id) VALUES (?)", userId);
+
+        reconcileWhileScriptInsertIsUncommitted(userId);
+
+        assertThat(scriptCount(userId)).isEqualTo(1L)
+                .isEqualTo(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM scripts WHERE user_id = ?", Long.class, userId));
+    }
+
+    @Test
+    void reconcileDoesNotLoseConcurrentFirstIncrement() throws Exception {
+        Long userId = insertUser();
+
+        reconcileWhileScriptInsertIsUncommitted(userId);
+
+        assertThat(scriptCount(userId)).isEqualTo(1L)
+                .isEqualTo(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM scripts WHERE user_id = ?", Long.class, userId));
+    }
+
+    /**
+     * 写入事务插入脚本并增加计数后暂不提交，此时启动对账；确认对账在等待锁后再提交写入事务
+     */
+    private void reconcileWhileScriptInsertIsUncommitted(Long userId) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        CountDownLatch incremented = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+        try {
+            Future<?> writer = executor.submit(() -> new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                jdbcTemplate.update("INSERT INTO scripts (title, user_id, version) VALUES ('并发写入', ?, 0)", userId);
+                userStatsService.scriptsChanged(userId, 1);
+                incremented.countDown();
+                try {
+                    commit.await(30, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+            assertThat(incremented.await(10, TimeUnit.SECONDS)).isTrue();
+
+            Future<Integer> reconcile = executor.submit(userStatsService::reconcile);
+            awaitLockWait();
+            commit.countDown();
+
+            writer.get(10, TimeUnit.SECONDS);
+            reconcile.get(10, TimeUnit.SECONDS);
+        } finally {
+            commit.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * 等待数据库中出现等待锁的会话，即对账已经开始并被写入事务阻塞
+     */
+    private void awaitLockWait() throws InterruptedException {
+        Instant deadline = Instant.now().plus(Duration.ofSeconds(10));
+        while (Instant.now().isBefore(deadline)) {
+            Long waiting = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM pg_stat_activity " +
+                    "WHERE datname = current_database() AND wait_event_type = 'Lock'", Long.class);
+            if (waiting != null && waiting > 0) {
+                return;
+            }
+            Thread.sleep(20);
+        }
+        throw new AssertionError("对账未在 10 秒内等待写入事务的锁");
+    }
+
+    private Long insertUser() {
+        String username = "st_" + Long.toString(System.nanoTime(), 36);
+        return jdbcTemplate.queryForObject(
+                "INSERT INTO users (username, password_hash, email, role) VALUES (?, 'x', ?, 'USER') RETURNING user_id",
+                Long.class, username, username + "@example.com");
+    }
+
+    private Long scriptCount(Long userId) {
+        return jdbcTemplate.queryForObject("SELECT script_count FROM user_stats WHERE user_id = ?", Long.class, userId);
+    }
+}
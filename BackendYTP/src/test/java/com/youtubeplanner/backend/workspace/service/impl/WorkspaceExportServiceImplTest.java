@@ -0,0 +1,115 @@
+/*
+ * 文件名：WorkspaceExportServiceImplTest.java
+ * 创建日期：2026年10月18日
+ * 作者：YoutubePlanner Team
+ *
+ * 文件描述：
+ * 导出名额释放测试（同时导出数量为 1）：
+ * - 异步请求在响应体执行前结束时，名额由结束回调释放，之后响应体不再导出，也不会再次释放；
+ * - 响应体执行完成后异步请求结束，名额只释放一次。
+ *
+ * 修改历史：
+ * 2026年10月18日 - 初始版本
+ *
+ * 版权所有 (c) 2026 YoutubePlanner
+ */
+
+package com.youtubeplanner.backend.workspace.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.youtubeplanner.backend.common.exception.TooManyRequestsException;
+import com.youtubeplanner.backend.user.entity.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.context.request.async.StandardServletAsyncWebRequest;
+import org.springframework.web.context.request.async.WebAsyncManager;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayOutputStream;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+class WorkspaceExportServiceImplTest {
+
+    private final User user = User.builder().userId(1L).username("export").build();
+
+    private WorkspaceExportServiceImpl exportService;
+
+    @BeforeEach
+    void setUp() {
+        exportService = new WorkspaceExportServiceImpl(mock(DataSource.class), mock(PlatformTransactionManager.class),
+                new ObjectMapper(), 1, Duration.ofMinutes(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void slotIsReleasedWhenRequestEndsBeforeExportStarts() throws Exception {
+        MockHttpServletRequest request = newRequest();
+        StreamingResponseBody body = exportService.exportWorkspace(user);
+        // 任务执行器不执行任务，模拟导出开始前请求超时或客户端断开
+        startAsync(request, body, task -> {
+        });
+        request.getAsyncContext().complete();
+
+        newRequest();
+        exportService.exportWorkspace(user);
+
+        // 请求结束后才执行的响应体不导出，也不释放另一个导出占用的名额
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        body.writeTo(out);
+        assertThat(out.size()).isZero();
+        newRequest();
+        assertThatThrownBy(() -> exportService.exportWorkspace(user)).isInstanceOf(TooManyRequestsException.class);
+    }
+
+    @Test
+    void slotIsReleasedOnceAfterExportRuns() throws Exception {
+        MockHttpServletRequest request = newRequest();
+        StreamingResponseBody body = exportService.exportWorkspace(user);
+        startAsync(request, body, Runnable::run);
+        request.getAsyncContext().complete();
+
+        newRequest();
+        exportService.exportWorkspace(user);
+        newRequest();
+        assertThatThrownBy(() -> exportService.exportWorkspace(user)).isInstanceOf(TooManyRequestsException.class);
+    }
+
+    private static MockHttpServletRequest newRequest() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setAsyncSupported(true);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request, new MockHttpServletResponse()));
+        return request;
+    }
+
+    /**
+     * 与 StreamingResponseBody 的返回值处理相同：在异步请求中由任务执行器执行响应体
+     */
+    private static void startAsync(MockHttpServletRequest request, StreamingResponseBody body,
+                                   AsyncTaskExecutor executor) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        WebAsyncManager asyncManager = WebAsyncUtils.getAsyncManager(request);
+        asyncManager.setAsyncWebRequest(new StandardServletAsyncWebRequest(request, response));
+        asyncManager.setTaskExecutor(executor);
+        asyncManager.startCallableProcessing(() -> {
+            body.writeTo(response.getOutputStream());
+            return null;
+        });
+    }
+}
@@ -0,0 +1,228 @@
+/*
+ * 文件名：WorkspaceImportServiceImplTest.java
+ * 创建日期：2026年10月18日
+ * 作者：YoutubePlanner Team
+ *
+ * 文件描述：
+ * 工作区导入测试：
+ * - 导入另一个用户的导出文件后，脚本、章节、频道和分类与原数据一致；
+ *   与已删除频道同名的频道恢复原频道，已有同名分类时不重复创建；
+ * - 用户统计计数的增量与实际写入的行数一致；
+ * - 章节编号重复时任务失败，错误信息带有重复章节的行号，不写入任何数据，统计计数不变。
+ *
+ * 修改历史：
+ * 2026年10月18日 - 初始版本
+ *
+ * 版权所有 (c) 2026 YoutubePlanner
+ */
+
+package com.youtubeplanner.backend.workspace.service.impl;
+
+import com.youtubeplanner.backend.support.PostgresIntegrationTest;
+import com.youtubeplanner.backend.user.entity.User;
+import com.youtubeplanner.backend.workspace.dto.ImportJobResponse;
+import com.youtubeplanner.backend.workspace.dto.ImportJobStatus;
+import com.youtubeplanner.backend.workspace.service.WorkspaceExportService;
+import com.youtubeplanner.backend.workspace.service.WorkspaceImportService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WorkspaceImportServiceImplTest extends PostgresIntegrationTest {
+
+    private static final String SCRIPTS_SQL =
+            "SELECT s.title, s.alternative_title1, s.description, s.status, s.difficulty, s.release_date, " +
+            "       ch.channel_name, cat.category_name, s.created_at, s.updated_at " +
+            "FROM scripts s " +
+            "LEFT JOIN channels ch ON ch.channel_id = s.channel_id " +
+            "LEFT JOIN categories cat ON cat.category_id = s.category_id " +
+            "WHERE s.user_id = ? ORDER BY s.title";
+
+    private static final String CHAPTERS_SQL =
+            "SELECT s.title AS script_title, c.chapter_number, c.title, c.content " +
+            "FROM script_chapters c JOIN scripts s ON s.script_id = c.script_id " +
+            "WHERE s.user_id = ? ORDER BY s.title, c.chapter_number";
+
+    @Autowired
+    private WorkspaceExportService exportService;
+
+    @Autowired
+    private WorkspaceImportService importService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User source;
+    private User target;
+    private Long deletedChannelId;
+
+    @BeforeEach
+    void setUp() {
+        source = insertUser("src");
+        target = insertUser("dst");
+
+        Long channelA = insertChannel(source, "频道A");
+        Long channelB = insertChannel(source, "频道B");
+        Long categoryX = insertCategory(source, "分类X");
+        Long categoryY = insertCategory(source, "分类Y");
+        Long first = jdbcTemplate.queryForObject(
+                "INSERT INTO scripts (title, alternative_title1, description, status, difficulty, release_date, " +
+                "user_id, channel_id, category_id, created_at, updated_at, version) " +
+                "VALUES ('脚本1', '备选标题', '描述', 'Filming', 3, DATE '2026-11-01', ?, ?, ?, " +
+                "TIMESTAMPTZ '2026-01-02 03:04:05.123456+00', TIMESTAMPTZ '2026-02-03 04:05:06.654321+00', 0) " +
+                "RETURNING script_id", Long.class, source.getUserId(), channelA, categoryX);
+        insertChapter(first, 1, "开头", "第一章内容");
+        insertChapter(first, 2, null, "第二章内容\n包含换行和 \"引号\"");
+        jdbcTemplate.update("INSERT INTO scripts (title, user_id, channel_id, version) VALUES ('脚本2', ?, ?, 0)",
+                source.getUserId(), channelB);
+        Long third = jdbcTemplate.queryForObject(
+                "INSERT INTO scripts (title, user_id, category_id, version) VALUES ('脚本3', ?, ?, 0) RETURNING script_id",
+                Long.class, source.getUserId(), categoryY);
+        insertChapter(third, 1, "唯一章节", "内容");
+
+        // 目标用户：已删除的同名频道应被恢复，已有的同名分类直接使用
+        deletedChannelId = insertChannel(target, "频道A");
+        jdbcTemplate.update("UPDATE channels SET deleted = TRUE WHERE channel_id = ?", deletedChannelId);
+        insertCategory(target, "分类X");
+        jdbcTemplate.update("INSERT INTO user_stats (user_id, script_count, channel_count, category_count, mind_map_count) " +
+                "VALUES (?, 0, 0, 1, 0)", target.getUserId());
+    }
+
+    @Test
+    void importOfExportRecreatesWorkspace() throws Exception {
+        Map<String, Object> statsBefore = stats(target);
+
+        ImportJobResponse job = runImport(target, export(source));
+
+        assertThat(job.getStatus()).as(job.getError()).isEqualTo(ImportJobStatus.COMPLETED);
+        assertThat(job.getScripts()).isEqualTo(3);
+        assertThat(job.getChapters()).isEqualTo(3);
+        assertThat(job.getChannelsCreated()).isEqualTo(2);
+        assertThat(job.getCategoriesCreated()).isEqualTo(1);
+
+        assertThat(jdbcTemplate.queryForList(SCRIPTS_SQL, target.getUserId()))
+                .isEqualTo(jdbcTemplate.queryForList(SCRIPTS_SQL, source.getUserId()));
+        assertThat(jdbcTemplate.queryForList(CHAPTERS_SQL, target.getUserId()))
+                .isEqualTo(jdbcTemplate.queryForList(CHAPTERS_SQL, source.getUserId()));
+        assertThat(names("SELECT channel_name FROM channels WHERE user_id = ? AND deleted = FALSE ORDER BY 1", target))
+                .containsExactly("频道A", "频道B");
+        assertThat(names("SELECT category_name FROM categories WHERE user_id = ? ORDER BY 1", target))
+                .containsExactly("分类X", "分类Y");
+        // 恢复原来的频道，而不是新建同名频道
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT channel_id FROM channels WHERE user_id = ? AND channel_name = '频道A'",
+                Long.class, target.getUserId())).isEqualTo(deletedChannelId);
+
+        Map<String, Object> statsAfter = stats(target);
+        assertThat(delta(statsBefore, statsAfter, "script_count")).isEqualTo(3);
+        assertThat(delta(statsBefore, statsAfter, "channel_count")).isEqualTo(2);
+        assertThat(delta(statsBefore, statsAfter, "category_count")).isEqualTo(1);
+        assertThat(delta(statsBefore, statsAfter, "mind_map_count")).isZero();
+        // 增量后的计数与源数据一致，对账不需要修复
+        assertThat(statsAfter.get("script_count")).isEqualTo(count("SELECT COUNT(*) FROM scripts WHERE user_id = ?"));
+        assertThat(statsAfter.get("channel_count"))
+                .isEqualTo(count("SELECT COUNT(*) FROM channels WHERE user_id = ? AND deleted = FALSE"));
+        assertThat(statsAfter.get("category_count")).isEqualTo(count("SELECT COUNT(*) FROM categories WHERE user_id = ?"));
+    }
+
+    @Test
+    void duplicateChapterNumberFailsWithLineNumberAndImportsNothing() throws Exception {
+        String content = String.join("\n",
+                "{\"type\":\"export\",\"format_version\":1}",
+                "{\"type\":\"channel\",\"channel_id\":1,\"channel_name\":\"频道A\"}",
+                "{\"type\":\"category\",\"category_id\":1,\"category_name\":\"新分类\"}",
+                "{\"type\":\"script\",\"script_id\":10,\"title\":\"正常脚本\",\"channel_id\":1,\"category_id\":1}",
+                "{\"type\":\"chapter\",\"script_id\":10,\"chapter_number\":1,\"content\":\"一\"}",
+                "{\"type\":\"script\",\"script_id\":11,\"title\":\"重复章节\"}",
+                "{\"type\":\"chapter\",\"script_id\":11,\"chapter_number\":1,\"content\":\"一\"}",
+                "{\"type\":\"chapter\",\"script_id\":11,\"chapter_number\":2,\"content\":\"二\"}",
+                "{\"type\":\"chapter\",\"script_id\":11,\"chapter_number\":1,\"content\":\"重复\"}");
+        Map<String, Object> statsBefore = stats(target);
+
+        ImportJobResponse job = runImport(target, content.getBytes(StandardCharsets.UTF_8));
+
+        assertThat(job.getStatus()).isEqualTo(ImportJobStatus.FAILED);
+        assertThat(job.getError()).isEqualTo("第 9 行: 章节编号重复");
+        assertThat(count("SELECT COUNT(*) FROM scripts WHERE user_id = ?")).isZero();
+        assertThat(names("SELECT category_name FROM categories WHERE user_id = ? ORDER BY 1", target))
+                .containsExactly("分类X");
+        assertThat(jdbcTemplate.queryForObject("SELECT deleted FROM channels WHERE channel_id = ?",
+                Boolean.class, deletedChannelId)).isTrue();
+        assertThat(stats(target)).isEqualTo(statsBefore);
+    }
+
+    private byte[] export(User user) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.exportWorkspace(user).writeTo(out);
+        return out.toByteArray();
+    }
+
+    /**
+     * 提交导入任务并等待完成或失败
+     */
+    private ImportJobResponse runImport(User user, byte[] content) throws InterruptedException {
+        String jobId = importService.startImport(user, new ByteArrayInputStream(content)).getJobId();
+        Instant deadline = Instant.now().plus(Duration.ofSeconds(30));
+        while (Instant.now().isBefore(deadline)) {
+            ImportJobResponse job = importService.getJob(user.getUserId(), jobId);
+            if (job.getStatus() == ImportJobStatus.COMPLETED || job.getStatus() == ImportJobStatus.FAILED) {
+                return job;
+            }
+            Thread.sleep(50);
+        }
+        throw new AssertionError("导入任务未在 30 秒内完成");
+    }
+
+    private User insertUser(String prefix) {
+        String username = prefix + "_" + Long.toString(System.nanoTime(), 36);
+        Long userId = jdbcTemplate.queryForObject(
+                "INSERT INTO users (username, password_hash, email, role) VALUES (?, 'x', ?, 'USER') RETURNING user_id",
+                Long.class, username, username + "@example.com");
+        return User.builder().userId(userId).username(username).build();
+    }
+
+    private Long insertChannel(User user, String name) {
+        return jdbcTemplate.queryForObject(
+                "INSERT INTO channels (channel_name, user_id) VALUES (?, ?) RETURNING channel_id",
+                Long.class, name, user.getUserId());
+    }
+
+    private Long insertCategory(User user, String name) {
+        return jdbcTemplate.queryForObject(
+                "INSERT INTO categories (category_name, user_id) VALUES (?, ?) RETURNING category_id",
+                Long.class, name, user.getUserId());
+    }
+
+    private void insertChapter(Long scriptId, int number, String title, String content) {
+        jdbcTemplate.update("INSERT INTO script_chapters (script_id, chapter_number, title, content) VALUES (?, ?, ?, ?)",
+                scriptId, number, title, content);
+    }
+
+    private Map<String, Object> stats(User user) {
+        return jdbcTemplate.queryForMap("SELECT script_count, channel_count, category_count, mind_map_count " +
+                "FROM user_stats WHERE user_id = ?", user.getUserId());
+    }
+
+    private static long delta(Map<String, Object> before, Map<String, Object> after, String column) {
+        return ((Number) after.get(column)).longValue() - ((Number) before.get(column)).longValue();
+    }
+
+    private Long count(String sql) {
+        return jdbcTemplate.queryForObject(sql, Long.class, target.getUserId());
+    }
+
+    private List<String> names(String sql, User user) {
+        return jdbcTemplate.queryForList(sql, String.class, user.getUserId());
+    }
+}
@@ -420,6 +420,9 @@ const AdminUserManagement: React.FC = () => {
                     <MenuItem value="updatedAt">最后修改</MenuItem>
                     <MenuItem value="username">用户名</MenuItem>
                     <MenuItem value="role">角色</MenuItem>
+                    <MenuItem value="scriptCount">脚本数</MenuItem>
+                    <MenuItem value="channelCount">频道数</MenuItem>
+                    <MenuItem value="mindMapCount">思维导图数</MenuItem>
                   </Select>
                 </FormControl>
 
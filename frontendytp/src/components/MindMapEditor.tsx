@@ -38,7 +38,15 @@ import {
 } from '@mui/icons-material';
 import { useNavigate } from 'react-router-dom';
 import { useSnackbar } from 'notistack';
-import { usersApi, mindMapsApi, MindMapRequest } from '../services/api';
+import {
+  usersApi,
+  mindMapsApi,
+  aiApi,
+  MindMapRequest,
+  MindMapResponse,
+  MindMapElementChanges,
+  isVersionConflict,
+} from '../services/api';
 import { 
   generateVideoScriptPrompt, 
   generateSimpleVideoScriptPrompt, 
@@ -72,6 +80,32 @@ interface MindMapNodeData {
   onAddChild: (id: string) => void;
 }
 
+// 按 id 记录元素序列化后的内容，用于增量保存时比较变化
+const snapshotElements = (elements: { id: string }[]): Map<string, string> =>
+  new Map(elements.map(element => [element.id, JSON.stringify(element)]));
+
+// 检查服务器上是否有新版本的间隔
+const POLL_INTERVAL_MS = 30000;
+
+// 与上次保存的内容比较，得到新增、修改和删除的元素
+const diffElements = (saved: Map<string, string>, current: Map<string, string>): MindMapElementChanges => {
+  const changes = { add: [] as any[], update: [] as any[], remove: [] as string[] };
+  current.forEach((json, id) => {
+    const previous = saved.get(id);
+    if (previous === undefined) {
+      changes.add.push(JSON.parse(json));
+    } else if (previous !== json) {
+      changes.update.push(JSON.parse(json));
+    }
+  });
+  saved.forEach((_, id) => {
+    if (!current.has(id)) {
+      changes.remove.push(id);
+    }
+  });
+  return changes;
+};
+
 // FitView 处理组件
 const FitViewHandler: React.FC<{ needsFitView: boolean; setNeedsFitView: (value: boolean) => void }> = ({ 
   needsFitView, 
@@ -332,6 +366,14 @@ const MindMapEditor: React.FC = () => {
   const scriptTextAreaRef = useRef<HTMLTextAreaElement>(null);
   const lastLayoutNodesCount = useRef<number>(0);
   const lastLayoutEdgesCount = useRef<number>(0);
+  // 上次保存（或加载）时的节点和连线，为 null 时保存提交完整数据
+  const savedSnapshot = useRef<{ nodes: Map<string, string>; edges: Map<string, string> } | null>(null);
+  // 上次加载或保存的标题和描述，与节点快照一起判断是否有未保存的修改
+  const savedFields = useRef<{ title: string; description: string } | null>(null);
+  // 当前内容对应的服务器版本，保存时作为 If-Match，轮询时作为 If-None-Match
+  const etagRef = useRef<string | undefined>(undefined);
+  // 思维导图已在其他窗口或设备上修改：由用户选择加载最新版本
+  const [conflict, setConflict] = useState(false);
 
   // 颜色配置
   const nodeColors = useMemo(() => [
@@ -627,46 +669,63 @@ const MindMapEditor: React.FC = () => {
     }
   }, []);
 
+  // 用服务器返回的思维导图替换编辑器内容
+  const applyMindMap = useCallback((mindMap: MindMapResponse, etag?: string) => {
+    etagRef.current = etag;
+    savedFields.current = { title: mindMap.title.trim(), description: (mindMap.description || '').trim() };
+    setMindMapTitle(mindMap.title);
+    setMindMapDescription(mindMap.description || '');
+    setCurrentMindMapId(mindMap.mindMapId);
+    savedSnapshot.current = null;
+    let loadedNodes: Node[] = [];
+    let loadedEdges: Edge[] = [];
+    let parsed = true;
+    
+    // 解析节点和边数据
+    if (mindMap.nodesData) {
+      try {
+        const nodesData = JSON.parse(mindMap.nodesData);
+        loadedNodes = nodesData.map((node: any) => ({
+          ...node,
+          data: {
+            ...node.data,
+            // 如果是根节点，使用思维导图标题作为标签
+            label: node.id === 'root' ? mindMap.title : node.data.label,
+            onEdit: handleNodeEdit,
+            onDelete: handleNodeDelete,
+            onAddChild: handleAddChild,
+          }
+        }));
+        setNodes(loadedNodes);
+      } catch (e) {
+        parsed = false;
+        console.error('解析节点数据失败:', e);
+      }
+    }
+    
+    if (mindMap.edgesData) {
+      try {
+        loadedEdges = JSON.parse(mindMap.edgesData);
+        setEdges(loadedEdges);
+      } catch (e) {
+        parsed = false;
+        console.error('解析边数据失败:', e);
+      }
+    }
+    
+    if (parsed) {
+      savedSnapshot.current = { nodes: snapshotElements(loadedNodes), edges: snapshotElements(loadedEdges) };
+    }
+  }, [handleNodeEdit, handleNodeDelete, handleAddChild, setNodes, setEdges]);
+
   // 加载思维导图数据
   const loadMindMap = useCallback(async (id: number) => {
     try {
       setIsLoading(true);
       const response = await mindMapsApi.getById(id);
       if (response.success) {
-        const mindMap = response.data;
-        setMindMapTitle(mindMap.title);
-        setMindMapDescription(mindMap.description || '');
-        setCurrentMindMapId(mindMap.mindMapId);
-        
-                 // 解析节点和边数据
-         if (mindMap.nodesData) {
-           try {
-             const nodesData = JSON.parse(mindMap.nodesData);
-             setNodes(nodesData.map((node: any) => ({
-               ...node,
-               data: {
-                 ...node.data,
-                 // 如果是根节点，使用思维导图标题作为标签
-                 label: node.id === 'root' ? mindMap.title : node.data.label,
-                 onEdit: handleNodeEdit,
-                 onDelete: handleNodeDelete,
-                 onAddChild: handleAddChild,
-               }
-             })));
-           } catch (e) {
-             console.error('解析节点数据失败:', e);
-           }
-         }
-        
-        if (mindMap.edgesData) {
-          try {
-            const edgesData = JSON.parse(mindMap.edgesData);
-            setEdges(edgesData);
-          } catch (e) {
-            console.error('解析边数据失败:', e);
-          }
-        }
-        
+        applyMindMap(response.data, response.etag);
+        setConflict(false);
         enqueueSnackbar('思维导图加载成功', { variant: 'success' });
       }
     } catch (error: any) {
@@ -676,7 +735,24 @@ const MindMapEditor: React.FC = () => {
     } finally {
       setIsLoading(false);
     }
-  }, [handleNodeEdit, handleNodeDelete, handleAddChild, setNodes, setEdges, enqueueSnackbar, navigate]);
+  }, [applyMindMap, enqueueSnackbar, navigate]);
+
+  // 与上次加载或保存的内容比较，判断是否有未保存的修改
+  const hasUnsavedChanges = useCallback(() => {
+    if (!savedSnapshot.current || !savedFields.current) return true;
+    const nodeChanges = diffElements(savedSnapshot.current.nodes, snapshotElements(nodes));
+    const edgeChanges = diffElements(savedSnapshot.current.edges, snapshotElements(edges));
+    const changed = (changes: MindMapElementChanges) =>
+      (changes.add?.length || 0) + (changes.update?.length || 0) + (changes.remove?.length || 0) > 0;
+    return changed(nodeChanges) || changed(edgeChanges)
+      || savedFields.current.title !== mindMapTitle.trim()
+      || savedFields.current.description !== mindMapDescription.trim();
+  }, [nodes, edges, mindMapTitle, mindMapDescription]);
+
+  const hasUnsavedChangesRef = useRef(hasUnsavedChanges);
+  useEffect(() => {
+    hasUnsavedChangesRef.current = hasUnsavedChanges;
+  }, [hasUnsavedChanges]);
 
   // 保存思维导图
   const saveMindMap = useCallback(async () => {
@@ -694,11 +770,21 @@ const MindMapEditor: React.FC = () => {
         nodesData: JSON.stringify(nodes),
         edgesData: JSON.stringify(edges),
       };
+      const nodeSnapshot = snapshotElements(nodes);
+      const edgeSnapshot = snapshotElements(edges);
 
       let response;
-      if (currentMindMapId) {
+      if (currentMindMapId && savedSnapshot.current) {
+        // 已保存过的思维导图只提交发生变化的节点和连线
+        response = await mindMapsApi.patch(currentMindMapId, {
+          title: mindMapData.title,
+          description: mindMapData.description,
+          nodes: diffElements(savedSnapshot.current.nodes, nodeSnapshot),
+          edges: diffElements(savedSnapshot.current.edges, edgeSnapshot),
+        }, etagRef.current);
+      } else if (currentMindMapId) {
         // 更新现有思维导图
-        response = await mindMapsApi.update(currentMindMapId, mindMapData);
+        response = await mindMapsApi.update(currentMindMapId, mindMapData, etagRef.current);
       } else {
         // 创建新思维导图
         response = await mindMapsApi.create(mindMapData);
@@ -706,6 +792,9 @@ const MindMapEditor: React.FC = () => {
 
       if (response.success) {
         setCurrentMindMapId(response.data.mindMapId);
+        savedSnapshot.current = { nodes: nodeSnapshot, edges: edgeSnapshot };
+        savedFields.current = { title: mindMapData.title, description: mindMapData.description || '' };
+        etagRef.current = response.etag;
         enqueueSnackbar(
           currentMindMapId ? '思维导图更新成功' : '思维导图保存成功', 
           { variant: 'success' }
@@ -717,6 +806,11 @@ const MindMapEditor: React.FC = () => {
         }
       }
     } catch (error: any) {
+      if (isVersionConflict(error)) {
+        setConflict(true);
+        enqueueSnackbar('思维导图已在其他窗口或设备上修改，请加载最新版本后再保存', { variant: 'warning' });
+        return;
+      }
       console.error('保存思维导图失败:', error);
       enqueueSnackbar(error.message || '保存失败', { variant: 'error' });
     } finally {
@@ -762,6 +856,30 @@ const MindMapEditor: React.FC = () => {
     // eslint-disable-next-line react-hooks/exhaustive-deps
   }, [mindMapId]); // 依赖mindMapId变化
 
+  // 定时检查服务器上的版本：未变化时服务器返回 304，不传输节点数据；
+  // 有新版本且没有未保存的修改时直接加载，有未保存的修改时提示冲突
+  useEffect(() => {
+    if (!currentMindMapId || isLoading || conflict) return;
+
+    const timer = setInterval(async () => {
+      if (document.hidden || isSaving) return;
+      try {
+        const response = await mindMapsApi.getById(currentMindMapId, etagRef.current);
+        if (response.code === 304 || !response.success || response.etag === etagRef.current) return;
+        if (hasUnsavedChangesRef.current()) {
+          setConflict(true);
+          enqueueSnackbar('思维导图已在其他窗口或设备上修改', { variant: 'warning' });
+        } else {
+          applyMindMap(response.data, response.etag);
+        }
+      } catch (error) {
+        console.error('检查思维导图版本失败:', error);
+      }
+    }, POLL_INTERVAL_MS);
+
+    return () => clearInterval(timer);
+  }, [currentMindMapId, isLoading, isSaving, conflict, applyMindMap, enqueueSnackbar]);
+
   // 自动布局和视图调整函数
   const applyAutoLayoutWithFitView = useCallback((layoutedNodes: Node[], layoutedEdges: Edge[]) => {
     setNodes(layoutedNodes);
@@ -891,177 +1009,38 @@ const MindMapEditor: React.FC = () => {
     }
   };
 
-  // 调用大模型API（流式输出）
+  // 调用大模型API（流式输出），由后端代理请求，API密钥不经过浏览器
   const callLLMApiStream = async (prompt: string): Promise<void> => {
     if (!userApiConfig) {
       throw new Error('API配置未找到');
     }
-    
-    const provider = userApiConfig.apiProvider;
-    const baseUrl = userApiConfig.apiBaseUrl;
-    const model = userApiConfig.apiModel;
-    
-    try {
-      let url: string;
-      let headers: Record<string, string>;
-      let body: any;
-      
-      const cleanBaseUrl = baseUrl?.replace(/\/$/, '') || '';
-      
-      if (provider === 'openai' || provider === 'custom') {
-        if (cleanBaseUrl.includes('/chat/completions')) {
-          url = cleanBaseUrl;
-        } else if (cleanBaseUrl.includes('/v1')) {
-          url = `${cleanBaseUrl}/chat/completions`;
-        } else {
-          url = `${cleanBaseUrl}/v1/chat/completions`;
-        }
-        
-        // 获取完整的API配置（包含密钥）
-        const fullConfigResponse = await usersApi.getFullApiConfig();
-        const apiKey = fullConfigResponse.data.apiKey;
-        
-        if (!apiKey) {
-          throw new Error('API密钥未配置');
-        }
-        
-        headers = {
-          'Content-Type': 'application/json',
-          'Authorization': `Bearer ${apiKey}`,
-        };
-        
-        body = {
-          model: model,
-          messages: [
-            {
-              role: 'user',
-              content: prompt,
-            },
-          ],
-          temperature: 0.7,
-          max_tokens: 2000,
-          stream: true,
-        };
-      } else if (provider === 'claude') {
-        if (cleanBaseUrl.includes('/v1/messages')) {
-          url = cleanBaseUrl;
-        } else if (cleanBaseUrl.includes('/v1')) {
-          url = `${cleanBaseUrl}/messages`;
-        } else {
-          url = `${cleanBaseUrl}/v1/messages`;
-        }
-        
-        // 获取完整的API配置（包含密钥）
-        const fullConfigResponse = await usersApi.getFullApiConfig();
-        const apiKey = fullConfigResponse.data.apiKey;
-        
-        if (!apiKey) {
-          throw new Error('API密钥未配置');
-        }
-        
-        headers = {
-          'Content-Type': 'application/json',
-          'x-api-key': apiKey,
-          'anthropic-version': '2023-06-01',
-        };
-        
-        body = {
-          model: model,
-          max_tokens: 2000,
-          messages: [
-            {
-              role: 'user',
-              content: prompt,
-            },
-          ],
-          stream: true,
-        };
-      } else {
-        throw new Error('不支持的API提供商');
-      }
-
-      const controller = new AbortController();
-      const timeoutId = setTimeout(() => controller.abort(), 60000); // 增加超时时间
-
-      try {
-        const response = await fetch(url, {
-          method: 'POST',
-          headers,
-          body: JSON.stringify(body),
-          signal: controller.signal,
-        });
 
-        if (!response.ok) {
-          const errorText = await response.text();
-          let errorMessage = `HTTP ${response.status}: ${response.statusText}`;
-          try {
-            const errorData = JSON.parse(errorText);
-            if (errorData.error) {
-              errorMessage += `\n错误详情: ${errorData.error.message || errorData.error}`;
-            }
-          } catch {
-            errorMessage += `\n响应内容: ${errorText.substring(0, 300)}`;
-          }
-          throw new Error(errorMessage);
-        }
+    const controller = new AbortController();
+    const timeoutId = setTimeout(() => controller.abort(), 300000);
 
-        const reader = response.body?.getReader();
-        if (!reader) {
-          throw new Error('无法读取响应流');
-        }
-
-        const decoder = new TextDecoder();
-        let buffer = '';
-
-        while (true) {
-          const { done, value } = await reader.read();
-          if (done) break;
-
-          buffer += decoder.decode(value, { stream: true });
-          const lines = buffer.split('\n');
-          buffer = lines.pop() || '';
-
-          for (const line of lines) {
-            const trimmedLine = line.trim();
-            if (!trimmedLine || trimmedLine === 'data: [DONE]') continue;
-
-            if (trimmedLine.startsWith('data: ')) {
-              try {
-                const jsonStr = trimmedLine.slice(6);
-                const data = JSON.parse(jsonStr);
-                
-                let content = '';
-                if (provider === 'openai' || provider === 'custom') {
-                  content = data.choices?.[0]?.delta?.content || '';
-                } else if (provider === 'claude') {
-                  if (data.type === 'content_block_delta') {
-                    content = data.delta?.text || '';
-                  }
-                }
-
-                if (content) {
-                  setGeneratedScript(prev => prev + content);
-                  // 强制触发滚动
-                  setTimeout(() => {
-                    if (scriptTextAreaRef.current) {
-                      scriptTextAreaRef.current.scrollTop = scriptTextAreaRef.current.scrollHeight;
-                    }
-                  }, 0);
-                }
-              } catch (parseError) {
-                console.warn('解析流数据失败:', parseError);
+    try {
+      await aiApi.generateStream(
+        { prompt, maxTokens: 2000, temperature: 0.7 },
+        (content) => {
+          if (content) {
+            setGeneratedScript(prev => prev + content);
+            // 强制触发滚动
+            setTimeout(() => {
+              if (scriptTextAreaRef.current) {
+                scriptTextAreaRef.current.scrollTop = scriptTextAreaRef.current.scrollHeight;
               }
-            }
+            }, 0);
           }
-        }
-      } finally {
-        clearTimeout(timeoutId);
-      }
+        },
+        controller.signal
+      );
     } catch (error: any) {
       if (error.name === 'AbortError') {
         throw new Error('API调用超时，请稍后重试');
       }
       throw error;
+    } finally {
+      clearTimeout(timeoutId);
     }
   };
 
@@ -1363,6 +1342,20 @@ const MindMapEditor: React.FC = () => {
         </Stack>
       </Box>
 
+      {conflict && currentMindMapId && (
+        <Alert
+          severity="warning"
+          sx={{ mb: 2 }}
+          action={
+            <Button color="inherit" size="small" onClick={() => loadMindMap(currentMindMapId)}>
+              加载最新版本
+            </Button>
+          }
+        >
+          思维导图已在其他窗口或设备上修改，保存将被拒绝。加载最新版本将放弃当前未保存的修改。
+        </Alert>
+      )}
+
       <Box sx={{ display: 'flex', gap: 3, flex: 1, minHeight: 0 }}>
         {/* 左侧工具面板 */}
         <Paper sx={{ width: 300, p: 2, height: '100%', overflow: 'auto' }}>
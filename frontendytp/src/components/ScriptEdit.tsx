@@ -7,6 +7,7 @@
  * 修改记录:
  * - 2024-03-21 Yann 创建初始版本
  * - 2024-12-XX Yann 合并创建和编辑功能，添加自动保存，采用Notion风格设计
+ * - 2026-10-18 保存时带 If-Match 防止覆盖其他窗口的修改，定时用 If-None-Match 检查服务器上的新版本
  */
 
 import React, { useState, useEffect, useCallback, useRef } from 'react';
@@ -26,6 +27,7 @@ import {
   Divider,
   Card,
   CardContent,
+  Alert,
 } from '@mui/material';
 import {
   AddCircle as AddCircleIcon,
@@ -41,7 +43,7 @@ import {
 } from '@mui/icons-material';
 import { useNavigate, useParams, useLocation } from 'react-router-dom';
 import { useSnackbar } from 'notistack';
-import { scriptsApi, channelsApi, categoriesApi, Script, Chapter } from '../services/api';
+import { scriptsApi, channelsApi, categoriesApi, Script, Chapter, isVersionConflict } from '../services/api';
 
 // 添加字数统计函数
 const calculateWordCount = (chapters: Chapter[]): number => {
@@ -80,6 +82,9 @@ const renderStars = (difficulty: number, onClick?: (value: number) => void) => {
   );
 };
 
+// 检查服务器上是否有新版本的间隔
+const POLL_INTERVAL_MS = 30000;
+
 const ScriptEdit: React.FC = () => {
   const { scriptId } = useParams<{ scriptId: string }>();
   const navigate = useNavigate();
@@ -92,6 +97,8 @@ const ScriptEdit: React.FC = () => {
   const [saving, setSaving] = useState(false);
   const [lastSaved, setLastSaved] = useState<Date | null>(null);
   const [hasChanges, setHasChanges] = useState(false);
+  // 脚本已在其他窗口或设备上修改：暂停自动保存，由用户选择加载最新版本
+  const [conflict, setConflict] = useState(false);
   
   // 判断是否为创建模式
   const isCreateMode = !scriptId || scriptId === 'create';
@@ -159,15 +166,57 @@ const ScriptEdit: React.FC = () => {
   const debounceTimerRef = useRef<NodeJS.Timeout | null>(null);
   const lastSaveTimeRef = useRef<number>(0);
   const formDataRef = useRef(formData);
+  // 当前编辑内容对应的服务器版本，保存时作为 If-Match，轮询时作为 If-None-Match
+  const etagRef = useRef<string | undefined>(undefined);
+  // 由服务器数据更新表单时，不视为用户修改
+  const applyingServerDataRef = useRef(false);
+  const hasChangesRef = useRef(hasChanges);
+  const savingRef = useRef(saving);
 
   // 更新formDataRef
   useEffect(() => {
     formDataRef.current = formData;
   }, [formData]);
 
+  useEffect(() => {
+    hasChangesRef.current = hasChanges;
+    savingRef.current = saving;
+  }, [hasChanges, saving]);
+
+  // 用服务器返回的脚本替换表单内容
+  const applyServerScript = useCallback((script: Script, etag?: string) => {
+    applyingServerDataRef.current = true;
+    etagRef.current = etag;
+    setFormData({
+      ...script,
+      difficulty: script.difficulty || 1,
+      status: script.status || 'Scripting',
+    });
+    setHasChanges(false);
+    setLastSaved(new Date());
+  }, []);
+
+  const handleVersionConflict = useCallback(() => {
+    setConflict(true);
+    enqueueSnackbar('脚本已在其他窗口或设备上修改，请加载最新版本后再编辑', { variant: 'warning' });
+  }, [enqueueSnackbar]);
+
+  // 放弃本地修改，加载服务器上的最新版本
+  const reloadLatest = useCallback(async () => {
+    try {
+      const response = await scriptsApi.getDetail(Number(scriptId));
+      if (response.success && response.data) {
+        applyServerScript(response.data, response.etag);
+        setConflict(false);
+      }
+    } catch (error: any) {
+      enqueueSnackbar(error.message || '获取脚本详情失败', { variant: 'error' });
+    }
+  }, [scriptId, applyServerScript, enqueueSnackbar]);
+
   // 自动保存函数
   const autoSave = useCallback(async () => {
-    if (isCreateMode || !hasChanges || saving) return;
+    if (isCreateMode || !hasChanges || saving || conflict) return;
     
     try {
       setSaving(true);
@@ -181,19 +230,24 @@ const ScriptEdit: React.FC = () => {
         chapters: formDataRef.current.chapters || [],
       };
       
-      const response = await scriptsApi.update(Number(scriptId), submitData);
+      const response = await scriptsApi.update(Number(scriptId), submitData, etagRef.current);
       if (response.success) {
+        etagRef.current = response.etag;
         setLastSaved(new Date());
         setHasChanges(false);
         lastSaveTimeRef.current = Date.now();
       }
     } catch (error) {
+      if (isVersionConflict(error)) {
+        handleVersionConflict();
+        return;
+      }
       console.error('Auto save failed:', error);
       enqueueSnackbar('自动保存失败', { variant: 'error' });
     } finally {
       setSaving(false);
     }
-  }, [isCreateMode, hasChanges, saving, scriptId, enqueueSnackbar]);
+  }, [isCreateMode, hasChanges, saving, conflict, scriptId, enqueueSnackbar, handleVersionConflict]);
 
   // 防抖保存：用户停止输入10秒后保存
   const debouncedSave = useCallback(() => {
@@ -231,13 +285,7 @@ const ScriptEdit: React.FC = () => {
             throw new Error(scriptResponse.message || '获取脚本详情失败');
           }
           
-          // 确保设置默认值
-          setFormData({
-            ...scriptResponse.data,
-            difficulty: scriptResponse.data.difficulty || 1,
-            status: scriptResponse.data.status || 'Scripting',
-          });
-          setLastSaved(new Date());
+          applyServerScript(scriptResponse.data, scriptResponse.etag);
         }
         
         // 获取频道和分类数据
@@ -279,7 +327,30 @@ const ScriptEdit: React.FC = () => {
     };
 
     fetchData();
-  }, [scriptId, navigate, enqueueSnackbar, isCreateMode]);
+  }, [scriptId, navigate, enqueueSnackbar, isCreateMode, applyServerScript]);
+
+  // 定时检查服务器上的版本：未变化时服务器返回 304，不传输脚本内容；
+  // 有新版本且本地没有未保存的修改时直接加载，有未保存的修改时提示冲突
+  useEffect(() => {
+    if (isCreateMode || loading || conflict) return;
+
+    const timer = setInterval(async () => {
+      if (document.hidden || savingRef.current) return;
+      try {
+        const response = await scriptsApi.getDetail(Number(scriptId), etagRef.current);
+        if (response.code === 304 || !response.success || response.etag === etagRef.current) return;
+        if (hasChangesRef.current) {
+          handleVersionConflict();
+        } else {
+          applyServerScript(response.data, response.etag);
+        }
+      } catch (error) {
+        console.error('Check script version failed:', error);
+      }
+    }, POLL_INTERVAL_MS);
+
+    return () => clearInterval(timer);
+  }, [isCreateMode, loading, conflict, scriptId, applyServerScript, handleVersionConflict]);
 
   // 更新字数统计
   useEffect(() => {
@@ -289,6 +360,10 @@ const ScriptEdit: React.FC = () => {
   // 监听表单变化，触发自动保存
   useEffect(() => {
     if (!loading && !isCreateMode) {
+      if (applyingServerDataRef.current) {
+        applyingServerDataRef.current = false;
+        return;
+      }
       setHasChanges(true);
       // 触发防抖保存（用户停止输入10秒后保存）
       debouncedSave();
@@ -312,7 +387,7 @@ const ScriptEdit: React.FC = () => {
       if (isCreateMode) {
         response = await scriptsApi.create(submitData);
       } else {
-        response = await scriptsApi.update(Number(scriptId), submitData);
+        response = await scriptsApi.update(Number(scriptId), submitData, etagRef.current);
       }
       
       if (response.success) {
@@ -324,6 +399,10 @@ const ScriptEdit: React.FC = () => {
         enqueueSnackbar(response.message || (isCreateMode ? '创建脚本失败' : '更新脚本失败'), { variant: 'error' });
       }
     } catch (error: any) {
+      if (isVersionConflict(error)) {
+        handleVersionConflict();
+        return;
+      }
       console.error('Error saving script:', error);
       enqueueSnackbar(error.message || (isCreateMode ? '创建脚本失败' : '更新脚本失败'), { variant: 'error' });
     } finally {
@@ -417,6 +496,20 @@ const ScriptEdit: React.FC = () => {
         flexDirection: 'column',
         gap: 2
       }}>
+        {conflict && (
+          <Alert
+            severity="warning"
+            sx={{ mt: 2 }}
+            action={
+              <Button color="inherit" size="small" onClick={reloadLatest}>
+                加载最新版本
+              </Button>
+            }
+          >
+            脚本已在其他窗口或设备上修改，当前修改不会自动保存。加载最新版本将放弃当前未保存的修改。
+          </Alert>
+        )}
+
         {/* 操作按钮行 */}
         <Box sx={{ 
           display: 'flex',
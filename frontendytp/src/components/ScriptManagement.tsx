@@ -217,8 +217,7 @@ const ScriptManagement: React.FC = () => {
     if (!window.confirm(`确定要删除选中的 ${selectedScripts.length} 个脚本吗？`)) return;
 
     try {
-      const deletePromises = selectedScripts.map(id => scriptsApi.delete(id));
-      await Promise.all(deletePromises);
+      await scriptsApi.bulkDelete(selectedScripts);
       enqueueSnackbar('批量删除成功', { variant: 'success' });
       setSelectedScripts([]);
       fetchScripts();
@@ -48,9 +48,11 @@ import {
   Person as PersonIcon,
   Email as EmailIcon,
   DataObject as DataObjectIcon,
-  CalendarToday as CalendarIcon
+  CalendarToday as CalendarIcon,
+  Download as DownloadIcon,
+  Upload as UploadIcon
 } from '@mui/icons-material';
-import { usersApi, User, Script, Channel, Category, scriptsApi, channelsApi, categoriesApi, ApiConfigRequest } from '../services/api';
+import { usersApi, User, Script, Channel, Category, scriptsApi, channelsApi, categoriesApi, ApiConfigRequest, workspaceApi } from '../services/api';
 
 interface TabPanelProps {
   children?: React.ReactNode;
@@ -89,6 +91,8 @@ const UserManagement: React.FC = () => {
   const [passwordDialogOpen, setPasswordDialogOpen] = useState(false);
   const [apiConfigDialogOpen, setApiConfigDialogOpen] = useState(false);
   const [showApiKey, setShowApiKey] = useState(false);
+  const [exporting, setExporting] = useState(false);
+  const [importProgress, setImportProgress] = useState<number | null>(null);
   const [tabValue, setTabValue] = useState(0);
   
   const [formData, setFormData] = useState({
@@ -263,6 +267,47 @@ const UserManagement: React.FC = () => {
     }
   };
 
+  const handleExport = async () => {
+    setExporting(true);
+    try {
+      await workspaceApi.export();
+    } catch (err: any) {
+      enqueueSnackbar(err.message || '导出失败', { variant: 'error' });
+    } finally {
+      setExporting(false);
+    }
+  };
+
+  const handleImport = async (e: React.ChangeEvent<HTMLInputElement>) => {
+    const file = e.target.files?.[0];
+    e.target.value = '';
+    if (!file) {
+      return;
+    }
+
+    setImportProgress(0);
+    try {
+      let job = await workspaceApi.import(file);
+      // 导入在后台进行，轮询任务状态直到完成或失败
+      while (job.status !== 'COMPLETED' && job.status !== 'FAILED') {
+        await new Promise(resolve => setTimeout(resolve, 1000));
+        job = (await workspaceApi.getImportJob(job.job_id)).data;
+        setImportProgress(job.progress);
+      }
+
+      if (job.status === 'FAILED') {
+        enqueueSnackbar(job.error || '导入失败', { variant: 'error' });
+      } else {
+        enqueueSnackbar(`导入完成：${job.scripts} 个脚本，${job.chapters} 个章节`, { variant: 'success' });
+        fetchStatsData();
+      }
+    } catch (err: any) {
+      enqueueSnackbar(err.message || '导入失败', { variant: 'error' });
+    } finally {
+      setImportProgress(null);
+    }
+  };
+
   const handleSaveApiConfig = async () => {
     try {
       await usersApi.updateApiConfig(apiConfigData);
@@ -519,6 +564,29 @@ const UserManagement: React.FC = () => {
                     </Button>
                   </Grid>
                 </Grid>
+
+                <Button
+                  variant="outlined"
+                  startIcon={<DownloadIcon />}
+                  onClick={handleExport}
+                  disabled={exporting}
+                  fullWidth
+                  size="small"
+                >
+                  {exporting ? '导出中...' : '导出全部数据'}
+                </Button>
+
+                <Button
+                  variant="outlined"
+                  component="label"
+                  startIcon={<UploadIcon />}
+                  disabled={importProgress !== null}
+                  fullWidth
+                  size="small"
+                >
+                  {importProgress !== null ? `导入中... ${importProgress}%` : '导入脚本'}
+                  <input type="file" accept=".ndjson,.jsonl,application/x-ndjson" hidden onChange={handleImport} />
+                </Button>
               </Stack>
             </CardContent>
           </Card>
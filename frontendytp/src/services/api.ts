@@ -16,6 +16,16 @@ const api = axios.create({
 let isRefreshing = false;
 let failedQueue: any[] = [];
 
+// 条件请求（If-None-Match）的 304 不作为错误处理
+const acceptNotModified = (status: number) => (status >= 200 && status < 300) || status === 304;
+
+// 条件请求的请求头：轮询时带 If-None-Match，保存时带 If-Match；没有 ETag 时不带
+const conditionalHeaders = (name: 'If-None-Match' | 'If-Match', etag?: string) =>
+  etag ? { headers: { [name]: etag } } : {};
+
+// 保存时版本冲突：If-Match 与当前版本不一致（412），或与另一个请求同时修改（409）
+export const isVersionConflict = (error: any): boolean => error?.status === 412 || error?.status === 409;
+
 const processQueue = (error: any, token: string | null = null) => {
   failedQueue.forEach(prom => {
     if (error) {
@@ -62,9 +72,17 @@ api.interceptors.response.use(
       return response;
     }
 
+    // 带 ETag 的响应（脚本、思维导图详情和保存结果）把 ETag 放在返回结果中，用于下次条件请求
+    const etag: string | undefined = response.headers?.etag;
+
+    // 内容未变化，没有响应体
+    if (response.status === 304) {
+      return { success: true, code: 304, message: 'Not Modified', data: null, etag };
+    }
+
     // 如果响应成功，直接返回响应数据
     if (response.data && response.data.success) {
-      return response.data;
+      return etag ? { ...response.data, etag } : response.data;
     }
 
     // 如果响应成功但没有 success 字段，包装成标准格式
@@ -136,9 +154,11 @@ api.interceptors.response.use(
       }
     }
 
-    // 处理其他错误
+    // 处理其他错误，保留状态码供调用方区分（如 412 版本冲突）
     if (error.response?.data?.message) {
-      return Promise.reject(new Error(error.response.data.message));
+      const apiError: any = new Error(error.response.data.message);
+      apiError.status = error.response.status;
+      return Promise.reject(apiError);
     }
     return Promise.reject(error);
   }
@@ -151,6 +171,8 @@ export interface Channel {
   user_id: number;
   created_at: string;
   scripts_count?: number;
+  // 按脚本状态统计的数量，请求 include_status_counts 时返回
+  status_counts?: Record<string, number>;
 }
 
 // 脚本相关接口
@@ -179,6 +201,20 @@ export interface Script {
   chapters_count?: number;
 }
 
+export interface BulkUpdateScriptsRequest {
+  script_ids: number[];
+  status?: string;
+  channel_id?: number;
+  category_id?: number;
+  difficulty?: number;
+  release_date?: string;
+}
+
+export interface BulkScriptsResult {
+  script_ids: number[];
+  updated_at?: string;
+}
+
 export interface ApiResponse<T> {
   success: boolean;
   code: number;
@@ -186,6 +222,8 @@ export interface ApiResponse<T> {
   data: T;
   timestamp: string;
   request_id: string;
+  // 资源的当前版本（脚本、思维导图详情和保存结果），code 为 304 时 data 为空
+  etag?: string;
 }
 
 export interface PaginationData {
@@ -236,12 +274,15 @@ export const channelsApi = {
     search?: string;
     sort_by?: string;
     order?: 'asc' | 'desc';
+    include_status_counts?: boolean;
   }): Promise<ApiResponse<PaginatedData<Channel>>> => {
     return api.get('/channels', { params });
   },
 
-  getDetail: (channelId: number): Promise<ApiResponse<Channel>> => {
-    return api.get(`/channels/${channelId}`);
+  getDetail: (channelId: number, includeStatusCounts?: boolean): Promise<ApiResponse<Channel>> => {
+    return api.get(`/channels/${channelId}`, {
+      params: includeStatusCounts ? { include_status_counts: true } : undefined,
+    });
   },
 
   update: (channelId: number, channelName: string): Promise<ApiResponse<Channel>> => {
@@ -279,17 +320,31 @@ export const scriptsApi = {
     return api.get('/scripts', { params: queryParams });
   },
 
-  getDetail: (scriptId: number): Promise<ApiResponse<Script>> => {
-    return api.get(`/scripts/${scriptId}`);
+  // 传入上次的 ETag 时，内容未变化返回 code 304 且不返回脚本数据
+  getDetail: (scriptId: number, etag?: string): Promise<ApiResponse<Script>> => {
+    return api.get(`/scripts/${scriptId}`, {
+      ...conditionalHeaders('If-None-Match', etag),
+      validateStatus: acceptNotModified,
+    });
   },
 
-  update: (scriptId: number, script: Partial<Script>): Promise<ApiResponse<Script>> => {
-    return api.put(`/scripts/${scriptId}`, script);
+  // 传入 ETag 时只在脚本未被修改过时保存，否则返回 412
+  update: (scriptId: number, script: Partial<Script>, etag?: string): Promise<ApiResponse<Script>> => {
+    return api.put(`/scripts/${scriptId}`, script, conditionalHeaders('If-Match', etag));
   },
 
   delete: (scriptId: number): Promise<ApiResponse<void>> => {
     return api.delete(`/scripts/${scriptId}`);
   },
+
+  // 批量修改状态、频道、分类、难度或发布日期，只修改传入的字段
+  bulkUpdate: (data: BulkUpdateScriptsRequest): Promise<ApiResponse<BulkScriptsResult>> => {
+    return api.post('/scripts/bulk-update', data);
+  },
+
+  bulkDelete: (scriptIds: number[]): Promise<ApiResponse<BulkScriptsResult>> => {
+    return api.post('/scripts/bulk-delete', { script_ids: scriptIds });
+  },
 };
 
 export const categoriesApi = {
@@ -325,6 +380,7 @@ export interface UserStats {
   total_scripts: number;
   total_channels: number;
   total_categories: number;
+  total_mind_maps?: number;
 }
 
 export interface User {
@@ -403,10 +459,6 @@ export const usersApi = {
   updateApiConfig: (data: ApiConfigRequest): Promise<ApiResponse<ApiConfig>> => {
     return api.put('/users/me/api-config', data);
   },
-
-  getFullApiConfig: (): Promise<ApiResponse<ApiConfigRequest>> => {
-    return api.get('/users/me/api-config/full');
-  },
 };
 
 // 管理员用户管理API
@@ -470,6 +522,27 @@ export interface MindMapResponse {
   userId: number;
   createdAt: string;
   updatedAt: string;
+  version: number;
+}
+
+// 思维导图增量更新：按 id 新增、修改（覆盖传入的顶层字段）或删除元素
+export interface MindMapElementChanges {
+  add?: any[];
+  update?: any[];
+  remove?: string[];
+}
+
+export interface MindMapPatchRequest {
+  title?: string;
+  description?: string;
+  nodes?: MindMapElementChanges;
+  edges?: MindMapElementChanges;
+}
+
+export interface MindMapPatchResponse {
+  mindMapId: number;
+  version: number;
+  updatedAt: string;
 }
 
 export interface MindMapListResponse {
@@ -487,12 +560,21 @@ export const mindMapsApi = {
     return api.post('/mindmaps', data);
   },
 
-  getById: (id: number): Promise<ApiResponse<MindMapResponse>> => {
-    return api.get(`/mindmaps/${id}`);
+  // 传入上次的 ETag 时，内容未变化返回 code 304 且不返回思维导图数据
+  getById: (id: number, etag?: string): Promise<ApiResponse<MindMapResponse>> => {
+    return api.get(`/mindmaps/${id}`, {
+      ...conditionalHeaders('If-None-Match', etag),
+      validateStatus: acceptNotModified,
+    });
+  },
+
+  // 传入 ETag 时只在思维导图未被修改过时保存，否则返回 412
+  update: (id: number, data: MindMapRequest, etag?: string): Promise<ApiResponse<MindMapResponse>> => {
+    return api.put(`/mindmaps/${id}`, data, conditionalHeaders('If-Match', etag));
   },
 
-  update: (id: number, data: MindMapRequest): Promise<ApiResponse<MindMapResponse>> => {
-    return api.put(`/mindmaps/${id}`, data);
+  patch: (id: number, data: MindMapPatchRequest, etag?: string): Promise<ApiResponse<MindMapPatchResponse>> => {
+    return api.patch(`/mindmaps/${id}`, data, conditionalHeaders('If-Match', etag));
   },
 
   delete: (id: number): Promise<ApiResponse<void>> => {
@@ -508,4 +590,160 @@ export const mindMapsApi = {
   },
 };
 
-export default api; 
\ No newline at end of file
+// AI生成请求
+export interface GenerateRequest {
+  prompt: string;
+  maxTokens?: number;
+  temperature?: number;
+  noCache?: boolean;
+}
+
+// AI生成API接口定义
+// 由后端使用用户保存的API配置代理调用大模型，API密钥不会下发到浏览器。
+// 响应为 SSE 流（delta / done / error 事件），axios 在浏览器中无法逐块读取，因此使用 fetch。
+export const aiApi = {
+  generateStream: async (
+    data: GenerateRequest,
+    onDelta: (content: string) => void,
+    signal?: AbortSignal
+  ): Promise<void> => {
+    const token = localStorage.getItem('accessToken');
+    const response = await fetch(`${API_BASE_URL}/ai/generate`, {
+      method: 'POST',
+      headers: {
+        'Content-Type': 'application/json',
+        'Accept': 'text/event-stream',
+        ...(token ? { Authorization: `Bearer ${token}` } : {}),
+      },
+      body: JSON.stringify(data),
+      signal,
+    });
+
+    if (!response.ok) {
+      // 流开始之前的错误（配置缺失、参数校验、并发超限等）以 JSON 返回
+      let message = `HTTP ${response.status}: ${response.statusText}`;
+      try {
+        const errorData = await response.json();
+        message = errorData.message || message;
+      } catch {
+        // 忽略无法解析的错误响应
+      }
+      throw new Error(message);
+    }
+
+    const reader = response.body?.getReader();
+    if (!reader) {
+      throw new Error('无法读取响应流');
+    }
+
+    const decoder = new TextDecoder();
+    let buffer = '';
+    let event = 'message';
+
+    while (true) {
+      const { done, value } = await reader.read();
+      if (done) break;
+
+      buffer += decoder.decode(value, { stream: true });
+      const lines = buffer.split('\n');
+      buffer = lines.pop() || '';
+
+      for (const rawLine of lines) {
+        const line = rawLine.replace(/\r$/, '');
+        if (!line) {
+          event = 'message';
+          continue;
+        }
+        if (line.startsWith('event:')) {
+          event = line.slice(6).trim();
+          continue;
+        }
+        if (!line.startsWith('data:')) continue;
+
+        const payload = JSON.parse(line.slice(5));
+        if (event === 'delta') {
+          onDelta(payload.content || '');
+        } else if (event === 'error') {
+          throw new Error(payload.message || '生成失败');
+        } else if (event === 'done') {
+          return;
+        }
+      }
+    }
+  },
+};
+
+export default api; 
+
+export type ImportJobStatus = 'QUEUED' | 'STAGING' | 'INSERTING' | 'COMPLETED' | 'FAILED';
+
+export interface ImportJob {
+  job_id: string;
+  status: ImportJobStatus;
+  progress: number;
+  total_bytes: number;
+  lines_processed: number;
+  scripts?: number;
+  chapters?: number;
+  channels_created?: number;
+  categories_created?: number;
+  skipped_lines?: number;
+  error?: string;
+  created_at: string;
+  finished_at?: string;
+}
+
+export const workspaceApi = {
+  // 下载当前用户全部数据（NDJSON），导出失败时最后一行不是 {"type":"end"}
+  export: async (): Promise<void> => {
+    const token = localStorage.getItem('accessToken');
+    const response = await fetch(`${API_BASE_URL}/workspace/export`, {
+      headers: token ? { Authorization: `Bearer ${token}` } : {},
+    });
+
+    if (!response.ok) {
+      let message = `HTTP ${response.status}: ${response.statusText}`;
+      try {
+        const errorData = await response.json();
+        message = errorData.message || message;
+      } catch {
+        // 错误响应不是 JSON 时使用状态码
+      }
+      throw new Error(message);
+    }
+
+    const disposition = response.headers.get('Content-Disposition') || '';
+    const match = disposition.match(/filename\*=UTF-8''([^;]+)/);
+    const filename = match ? decodeURIComponent(match[1]) : 'youtubeplanner-export.ndjson';
+
+    const url = URL.createObjectURL(await response.blob());
+    const link = document.createElement('a');
+    link.href = url;
+    link.download = filename;
+    link.click();
+    URL.revokeObjectURL(url);
+  },
+
+  // 上传导出格式的 NDJSON 文件，返回后台导入任务，通过 getImportJob 查询进度
+  import: async (file: File): Promise<ImportJob> => {
+    const token = localStorage.getItem('accessToken');
+    const response = await fetch(`${API_BASE_URL}/workspace/import`, {
+      method: 'POST',
+      headers: {
+        'Content-Type': 'application/x-ndjson',
+        ...(token ? { Authorization: `Bearer ${token}` } : {}),
+      },
+      body: file,
+    });
+
+    const result = await response.json().catch(() => null);
+    if (!response.ok || !result?.success) {
+      throw new Error(result?.message || `HTTP ${response.status}: ${response.statusText}`);
+    }
+    return result.data;
+  },
+
+  getImportJob: (jobId: string): Promise<ApiResponse<ImportJob>> => {
+    return api.get(`/workspace/import/${jobId}`);
+  },
+};
@@ -91,17 +91,64 @@ CREATE TABLE IF NOT EXISTS mind_maps (
 );
 
 -- 创建索引以提高查询性能
-CREATE INDEX IF NOT EXISTS idx_channels_user_id ON channels(user_id);
-CREATE INDEX IF NOT EXISTS idx_channels_deleted ON channels(deleted);
-CREATE INDEX IF NOT EXISTS idx_categories_user_id ON categories(user_id);
-CREATE INDEX IF NOT EXISTS idx_scripts_user_id ON scripts(user_id);
-CREATE INDEX IF NOT EXISTS idx_scripts_channel_id ON scripts(channel_id);
-CREATE INDEX IF NOT EXISTS idx_scripts_category_id ON scripts(category_id);
-CREATE INDEX IF NOT EXISTS idx_script_chapters_script_id ON script_chapters(script_id);
+-- 列表查询按 (user_id, 排序列, 主键) 建复合索引，频道只索引未删除的行 (V12迁移)
+CREATE INDEX IF NOT EXISTS idx_channels_user_created_at_active ON channels (user_id, created_at, channel_id)
+    WHERE deleted = FALSE;
+CREATE INDEX IF NOT EXISTS idx_categories_user_created_at ON categories (user_id, created_at, category_id);
+CREATE INDEX IF NOT EXISTS idx_categories_user_name ON categories (user_id, category_name, category_id);
+CREATE INDEX IF NOT EXISTS idx_scripts_user_created_at ON scripts (user_id, created_at, script_id);
+CREATE INDEX IF NOT EXISTS idx_scripts_user_updated_at ON scripts (user_id, updated_at, script_id);
+CREATE INDEX IF NOT EXISTS idx_scripts_user_release_date ON scripts (user_id, release_date, script_id);
+CREATE INDEX IF NOT EXISTS idx_scripts_user_difficulty ON scripts (user_id, difficulty, script_id);
+CREATE INDEX IF NOT EXISTS idx_scripts_user_title ON scripts (user_id, title, script_id);
+CREATE INDEX IF NOT EXISTS idx_scripts_user_status_created_at ON scripts (user_id, status, created_at, script_id);
+CREATE INDEX IF NOT EXISTS idx_scripts_channel_created_at ON scripts (channel_id, created_at, script_id);
+CREATE INDEX IF NOT EXISTS idx_scripts_category_created_at ON scripts (category_id, created_at, script_id);
+CREATE INDEX IF NOT EXISTS idx_script_chapters_script_number ON script_chapters (script_id, chapter_number);
+
+-- 脚本全文搜索 (V7迁移)
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+ALTER TABLE scripts ADD COLUMN IF NOT EXISTS search_vector tsvector GENERATED ALWAYS AS (
+    setweight(to_tsvector('simple', coalesce(title, '')), 'A') ||
+    setweight(to_tsvector('simple', coalesce(alternative_title1, '')), 'A') ||
+    setweight(to_tsvector('simple', coalesce(description, '')), 'B')
+) STORED;
+ALTER TABLE script_chapters ADD COLUMN IF NOT EXISTS search_vector tsvector GENERATED ALWAYS AS (
+    setweight(to_tsvector('simple', coalesce(title, '')), 'B') ||
+    setweight(to_tsvector('simple', coalesce(content, '')), 'C')
+) STORED;
+CREATE INDEX IF NOT EXISTS idx_scripts_search_vector ON scripts USING GIN (search_vector);
+CREATE INDEX IF NOT EXISTS idx_script_chapters_search_vector ON script_chapters USING GIN (search_vector);
+CREATE INDEX IF NOT EXISTS idx_scripts_title_trgm ON scripts USING GIN (lower(title) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_scripts_description_trgm ON scripts USING GIN (lower(description) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_script_chapters_content_trgm ON script_chapters USING GIN (lower(content) gin_trgm_ops);
+
+-- 乐观锁版本号 (V8迁移)
+ALTER TABLE scripts ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE mind_maps ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+
+-- 思维导图节点和连线数据使用 JSONB 存储 (V9迁移)
+ALTER TABLE mind_maps
+    ALTER COLUMN nodes_data TYPE JSONB USING nodes_data::jsonb,
+    ALTER COLUMN edges_data TYPE JSONB USING edges_data::jsonb;
+
+-- 用户统计计数表 (V10迁移)
+CREATE TABLE IF NOT EXISTS user_stats (
+    user_id BIGINT PRIMARY KEY REFERENCES users(user_id) ON DELETE CASCADE,
+    script_count BIGINT NOT NULL DEFAULT 0,
+    channel_count BIGINT NOT NULL DEFAULT 0,
+    category_count BIGINT NOT NULL DEFAULT 0,
+    mind_map_count BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP WITHOUT TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- 章节主键序列按 50 个一批预取，与 ScriptChapter 的 allocationSize 一致 (V11迁移)
+ALTER SEQUENCE script_chapters_chapter_id_seq INCREMENT BY 50;
 
 -- 思维导图表索引
 CREATE INDEX IF NOT EXISTS idx_mind_maps_user_id ON mind_maps(user_id);
-CREATE INDEX IF NOT EXISTS idx_mind_maps_user_id_deleted ON mind_maps(user_id, is_deleted);
+CREATE INDEX IF NOT EXISTS idx_mind_maps_user_updated_at_active ON mind_maps (user_id, updated_at, mind_map_id)
+    WHERE is_deleted = FALSE;
 CREATE INDEX IF NOT EXISTS idx_mind_maps_title ON mind_maps(title);
 CREATE INDEX IF NOT EXISTS idx_mind_maps_created_at ON mind_maps(created_at);
 CREATE INDEX IF NOT EXISTS idx_mind_maps_updated_at ON mind_maps(updated_at);